@@ -9,6 +9,8 @@ import java.util.concurrent.TimeUnit;
 import javax.annotation.PostConstruct;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.SpringApplication;
@@ -28,14 +30,19 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import pt.ulisboa.ewp.node.config.api.EwpApiProperties;
 import pt.ulisboa.ewp.node.config.bootstrap.BootstrapProperties;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogProperties;
 import pt.ulisboa.ewp.node.config.registry.RegistryProperties;
 import pt.ulisboa.ewp.node.config.security.SecurityProperties;
 import pt.ulisboa.ewp.node.domain.utils.DatabaseProperties;
 import pt.ulisboa.ewp.node.service.bootstrap.BootstrapService;
 import pt.ulisboa.ewp.node.service.bootstrap.KeystoreBootstrapService;
+import pt.ulisboa.ewp.node.service.ewp.mapping.cache.EwpCachedMappingService;
 import pt.ulisboa.ewp.node.service.ewp.mapping.sync.EwpMappingSyncService;
 import pt.ulisboa.ewp.node.service.ewp.notification.EwpNotificationSenderDaemon;
+import pt.ulisboa.ewp.node.service.http.log.HttpCommunicationLogRetentionDaemon;
 import pt.ulisboa.ewp.node.service.http.log.ewp.EwpHttpCommunicationLogService;
 import pt.ulisboa.ewp.node.utils.bean.ParamNameProcessor;
 import pt.ulisboa.ewp.node.utils.http.converter.xml.EwpNamespacePrefixMapper;
@@ -47,7 +54,10 @@ import pt.ulisboa.ewp.node.utils.http.converter.xml.Jaxb2HttpMessageConverter;
         DatabaseProperties.class,
         BootstrapProperties.class,
         RegistryProperties.class,
-        SecurityProperties.class
+        SecurityProperties.class,
+        EwpClientProperties.class,
+        EwpApiProperties.class,
+        HttpCommunicationLogProperties.class
     })
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(securedEnabled = true, jsr250Enabled = true, prePostEnabled = true)
@@ -55,6 +65,8 @@ import pt.ulisboa.ewp.node.utils.http.converter.xml.Jaxb2HttpMessageConverter;
 @Import(ValidationAutoConfiguration.class)
 public class EwpNodeApplication {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(EwpNodeApplication.class);
+
   @Autowired
   private BootstrapService bootstrapService;
   @Autowired
@@ -67,9 +79,21 @@ public class EwpNodeApplication {
   @Autowired
   private Collection<EwpMappingSyncService> mappingSyncServices;
 
+  @Autowired
+  private Collection<EwpCachedMappingService> cachedMappingServices;
+
   @Autowired
   private EwpHttpCommunicationLogService ewpHttpCommunicationLogService;
 
+  @Autowired
+  private EwpApiProperties ewpApiProperties;
+
+  @Autowired
+  private HttpCommunicationLogProperties httpCommunicationLogProperties;
+
+  @Autowired
+  private HttpCommunicationLogRetentionDaemon httpCommunicationLogRetentionDaemon;
+
   public static void main(String[] args) {
     SpringApplication.run(EwpNodeApplication.class);
   }
@@ -79,6 +103,23 @@ public class EwpNodeApplication {
     bootstrapService.bootstrap();
     keystoreBootstrapService.bootstrap();
     this.initSchedules();
+    taskScheduler.execute(this::warmUpMappingCaches);
+  }
+
+  private void warmUpMappingCaches() {
+    if (!ewpApiProperties.getMappingCache().isWarmUpOnStartup()) {
+      return;
+    }
+
+    int maxMappings = ewpApiProperties.getMappingCache().getWarmUpMaxEntries();
+    for (EwpCachedMappingService cachedMappingService : cachedMappingServices) {
+      try {
+        cachedMappingService.warmUpCache(maxMappings);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Failed to warm up mapping cache of {}",
+            cachedMappingService.getClass().getSimpleName(), e);
+      }
+    }
   }
 
   private void initSchedules() {
@@ -91,6 +132,12 @@ public class EwpNodeApplication {
           new PeriodicTrigger(mappingSyncService.getTaskIntervalInMilliseconds(),
               TimeUnit.MILLISECONDS));
     }
+
+    if (httpCommunicationLogProperties.getRetention().isEnabled()) {
+      taskScheduler.schedule(httpCommunicationLogRetentionDaemon,
+          new PeriodicTrigger(httpCommunicationLogRetentionDaemon.getTaskIntervalInMilliseconds(),
+              TimeUnit.MILLISECONDS));
+    }
   }
 
   /**
@@ -116,11 +163,13 @@ public class EwpNodeApplication {
    * when marshalling/unmarshalling.
    */
   @Bean
-  public Jaxb2HttpMessageConverter marshallingHttpMessageConverter() {
+  public Jaxb2HttpMessageConverter marshallingHttpMessageConverter(
+      EwpApiProperties ewpApiProperties) {
     Jaxb2HttpMessageConverter result = new Jaxb2HttpMessageConverter();
     result.setPackagesToScan("eu.erasmuswithoutpaper.api", "pt.ulisboa.ewp.node");
     result.setSupportJaxbElementClass(true);
     result.setNamespacePrefixMapper(new EwpNamespacePrefixMapper());
+    result.setFormattedOutput(ewpApiProperties.getResponseBody().isFormattedOutput());
     return result;
   }
 
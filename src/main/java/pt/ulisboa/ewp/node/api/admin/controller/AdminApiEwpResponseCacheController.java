@@ -0,0 +1,65 @@
+package pt.ulisboa.ewp.node.api.admin.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import pt.ulisboa.ewp.node.api.admin.annotation.AdminApiWithResponseBodyWrapper;
+import pt.ulisboa.ewp.node.api.admin.security.AdminApiSecurityCommonConstants;
+import pt.ulisboa.ewp.node.api.admin.utils.AdminApiConstants;
+import pt.ulisboa.ewp.node.api.common.dto.ApiOperationStatusDTO;
+import pt.ulisboa.ewp.node.client.ewp.cache.EwpResponseCache;
+
+@RestController
+@AdminApi
+@RequestMapping(AdminApiConstants.API_BASE_URI + "ewp/responses/cache")
+@Secured({AdminApiSecurityCommonConstants.ROLE_ADMIN_WITH_PREFIX})
+@AdminApiWithResponseBodyWrapper
+@Validated
+public class AdminApiEwpResponseCacheController extends AbstractAdminApiController {
+
+  private final EwpResponseCache responseCache;
+
+  public AdminApiEwpResponseCacheController(EwpResponseCache responseCache) {
+    this.responseCache = responseCache;
+  }
+
+  @DeleteMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "Invalidates all cached responses obtained from EWP partners.",
+      tags = {"admin"})
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Cached responses invalidated successfully",
+        content = @Content(schema = @Schema(implementation = ApiOperationStatusDTO.class)))
+  })
+  public ResponseEntity<ApiOperationStatusDTO> invalidateAll() {
+    responseCache.invalidateAll();
+    return getDeleteEntityApiResponse(true);
+  }
+
+  @DeleteMapping(value = "/{heiId}", produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "Invalidates the cached responses obtained from a given EWP partner.",
+      tags = {"admin"})
+  @ApiResponses({
+    @ApiResponse(
+        responseCode = "200",
+        description = "Cached responses of the partner invalidated successfully",
+        content = @Content(schema = @Schema(implementation = ApiOperationStatusDTO.class)))
+  })
+  public ResponseEntity<ApiOperationStatusDTO> invalidateHeiId(@PathVariable String heiId) {
+    responseCache.invalidateHeiId(heiId);
+    return getDeleteEntityApiResponse(true);
+  }
+}
@@ -0,0 +1,70 @@
+package pt.ulisboa.ewp.node.api.admin.controller;
+
+import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import pt.ulisboa.ewp.node.api.admin.annotation.AdminApiWithResponseBodyWrapper;
+import pt.ulisboa.ewp.node.api.admin.security.AdminApiSecurityCommonConstants;
+import pt.ulisboa.ewp.node.api.admin.utils.AdminApiConstants;
+import pt.ulisboa.ewp.node.service.http.log.file.HttpCommunicationLogFileReader;
+
+/**
+ * Searches the HTTP communication logs written to local files (see
+ * {@link pt.ulisboa.ewp.node.service.http.log.file.HttpCommunicationLogFileSink}). When the file
+ * sink is exclusive, these logs are not on the database, so this is the only way to search them.
+ */
+@RestController
+@AdminApi
+@RequestMapping(AdminApiConstants.API_BASE_URI + "http/communications/logs/files")
+@Secured({AdminApiSecurityCommonConstants.ROLE_ADMIN_WITH_PREFIX})
+@AdminApiWithResponseBodyWrapper
+@Validated
+public class AdminApiHttpCommunicationLogFileController extends AbstractAdminApiController {
+
+  private static final int MAX_RESULTS_LIMIT = 1000;
+
+  private final HttpCommunicationLogFileReader fileReader;
+  private final ObjectMapper objectMapper;
+
+  public AdminApiHttpCommunicationLogFileController(HttpCommunicationLogFileReader fileReader,
+      ObjectMapper objectMapper) {
+    this.fileReader = fileReader;
+    this.objectMapper = objectMapper;
+  }
+
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+  @Operation(
+      summary = "Get the most recent HTTP communication logs written to local files.",
+      tags = {"admin"})
+  public ResponseEntity<List<JsonNode>> findRecent(
+      @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DATE_TIME)
+          ZonedDateTime from,
+      @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DATE_TIME)
+          ZonedDateTime to,
+      @RequestParam(value = "heiId", required = false) String heiId,
+      @RequestParam(value = "api", required = false) String api,
+      @RequestParam(value = "maxResults", defaultValue = "100") int maxResults)
+      throws IOException {
+    List<JsonNode> result = new ArrayList<>();
+    for (String log : fileReader.findRecent(from, to, heiId, api,
+        Math.max(0, Math.min(maxResults, MAX_RESULTS_LIMIT)))) {
+      result.add(objectMapper.readTree(log));
+    }
+    return ResponseEntity.ok(result);
+  }
+}
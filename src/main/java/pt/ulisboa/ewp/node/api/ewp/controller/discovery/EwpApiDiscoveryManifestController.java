@@ -7,18 +7,19 @@ import eu.erasmuswithoutpaper.api.discovery.v5.ManifestV5;
 import eu.erasmuswithoutpaper.api.registry.v1.ApisImplementedV1;
 import eu.erasmuswithoutpaper.api.registry.v1.OtherHeiIdV1;
 import io.swagger.v3.oas.annotations.Operation;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.UnrecoverableKeyException;
-import java.security.cert.CertificateException;
 import java.util.Collection;
 import javax.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -29,7 +30,9 @@ import pt.ulisboa.ewp.node.api.ewp.controller.EwpManifestEntryProvider;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.domain.entity.Hei;
 import pt.ulisboa.ewp.node.domain.repository.HostRepository;
+import pt.ulisboa.ewp.node.service.ewp.discovery.EwpDiscoveryManifestCache;
 import pt.ulisboa.ewp.node.service.keystore.KeyStoreService;
+import pt.ulisboa.ewp.node.utils.http.converter.xml.Jaxb2HttpMessageConverter;
 import pt.ulisboa.ewp.node.utils.keystore.DecodedCertificateAndKey;
 
 @RestController
@@ -53,23 +56,49 @@ public class EwpApiDiscoveryManifestController {
   @Autowired
   Collection<EwpManifestEntryProvider> manifestEntryProviders;
 
+  @Autowired
+  private EwpDiscoveryManifestCache manifestCache;
+
+  @Autowired
+  private Jaxb2HttpMessageConverter marshallingHttpMessageConverter;
+
   @GetMapping(produces = MediaType.APPLICATION_XML_VALUE)
   @Operation(
       summary = "Discovery manifest API.",
       tags = {"ewp"})
-  public ResponseEntity<ManifestV5> manifest(HttpServletRequest request)
-      throws UnrecoverableKeyException, CertificateException, NoSuchAlgorithmException,
-      KeyStoreException, IOException {
+  public ResponseEntity<byte[]> manifest(HttpServletRequest request) {
+    String baseUrl = getBaseUrl(request, false);
+    String discoveryBaseUrl = getBaseUrl(request, true);
+
+    EwpDiscoveryManifestCache.Entry manifestEntry = manifestCache.get(
+        baseUrl + " " + discoveryBaseUrl,
+        () -> marshal(createManifest(baseUrl, discoveryBaseUrl)));
+
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_XML)
+        .eTag(manifestEntry.getETag())
+        .body(manifestEntry.getBody());
+  }
+
+  private ManifestV5 createManifest(String baseUrl, String discoveryBaseUrl) {
     ManifestV5 manifest = new ManifestV5();
 
-    setHosts(request, manifest);
+    setHosts(baseUrl, discoveryBaseUrl, manifest);
 
-    return ResponseEntity.ok(manifest);
+    return manifest;
   }
 
-  private void setHosts(HttpServletRequest request, ManifestV5 manifest)
-      throws UnrecoverableKeyException, CertificateException, NoSuchAlgorithmException,
-      KeyStoreException, IOException {
+  private byte[] marshal(ManifestV5 manifest) {
+    ByteArrayHttpOutputMessage outputMessage = new ByteArrayHttpOutputMessage();
+    try {
+      marshallingHttpMessageConverter.write(manifest, MediaType.APPLICATION_XML, outputMessage);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return outputMessage.body.toByteArray();
+  }
+
+  private void setHosts(String baseUrl, String discoveryBaseUrl, ManifestV5 manifest) {
     DecodedCertificateAndKey decodedCertificateAndKeyFromStorage =
         keyStoreService.getDecodedCertificateAndKeyFromStorage();
 
@@ -89,7 +118,8 @@ public class EwpApiDiscoveryManifestController {
                           host.setAdminNotes(adminNotes);
 
                           host.setApisImplemented(
-                              getApisImplemented(request, coveredHei.getSchacCode()));
+                              getApisImplemented(baseUrl, discoveryBaseUrl,
+                                  coveredHei.getSchacCode()));
 
                           HostV5.InstitutionsCovered institutionsCovered =
                               new HostV5.InstitutionsCovered();
@@ -104,12 +134,15 @@ public class EwpApiDiscoveryManifestController {
                         }));
   }
 
-  private ApisImplementedV1 getApisImplemented(HttpServletRequest originalRequest, String heiId) {
+  private ApisImplementedV1 getApisImplemented(String baseUrl, String discoveryBaseUrl,
+      String heiId) {
     ApisImplementedV1 apisImplemented = new ApisImplementedV1();
     for (EwpManifestEntryProvider manifestEntryProvider : manifestEntryProviders) {
-      String baseUrl = getBaseUrl(originalRequest,
-          manifestEntryProvider instanceof EwpApiDiscoveryManifestEntryProvider);
-      apisImplemented.getAny().addAll(manifestEntryProvider.getManifestEntries(heiId, baseUrl));
+      String providerBaseUrl =
+          manifestEntryProvider instanceof EwpApiDiscoveryManifestEntryProvider
+              ? discoveryBaseUrl : baseUrl;
+      apisImplemented.getAny()
+          .addAll(manifestEntryProvider.getManifestEntries(heiId, providerBaseUrl));
     }
     return apisImplemented;
   }
@@ -197,4 +230,20 @@ public class EwpApiDiscoveryManifestController {
       return EwpApiConstants.API_BASE_URI;
     }
   }
+
+  private static class ByteArrayHttpOutputMessage implements HttpOutputMessage {
+
+    private final HttpHeaders headers = new HttpHeaders();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    @Override
+    public OutputStream getBody() {
+      return body;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+  }
 }
@@ -3,16 +3,16 @@ package pt.ulisboa.ewp.node.api.ewp.controller.iias;
 import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
 
 import eu.erasmuswithoutpaper.api.iias.v6.endpoints.IiasGetResponseV6;
+import eu.erasmuswithoutpaper.api.iias.v6.endpoints.IiasGetResponseV6.Iia;
 import eu.erasmuswithoutpaper.api.iias.v6.endpoints.IiasIndexResponseV6;
 import io.swagger.v3.oas.annotations.Operation;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,11 +25,12 @@ import pt.ulisboa.ewp.node.api.ewp.controller.EwpApi;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.domain.entity.mapping.EwpInterInstitutionalAgreementMapping;
-import pt.ulisboa.ewp.node.domain.repository.mapping.EwpInterInstitutionalAgreementMappingRepository;
 import pt.ulisboa.ewp.node.exception.ewp.EwpBadRequestException;
 import pt.ulisboa.ewp.node.exception.ewp.EwpUnknownHeiIdException;
 import pt.ulisboa.ewp.node.plugin.manager.host.HostPluginManager;
+import pt.ulisboa.ewp.node.plugin.manager.host.HostProviderExecutor;
 import pt.ulisboa.ewp.node.service.ewp.iia.ConditionsHashDecorator;
+import pt.ulisboa.ewp.node.service.ewp.mapping.EwpInterInstitutionalAgreementMappingService;
 
 @RestController
 @EwpApi
@@ -41,16 +42,20 @@ public class EwpApiInterInstitutionalAgreementsV6Controller {
 
   private final HostPluginManager hostPluginManager;
 
-  private final EwpInterInstitutionalAgreementMappingRepository mappingRepository;
+  private final EwpInterInstitutionalAgreementMappingService mappingService;
 
   private final ConditionsHashDecorator conditionsHashDecorator;
 
+  private final HostProviderExecutor hostProviderExecutor;
+
   public EwpApiInterInstitutionalAgreementsV6Controller(HostPluginManager hostPluginManager,
-      EwpInterInstitutionalAgreementMappingRepository mappingRepository,
-      ConditionsHashDecorator conditionsHashDecorator) {
+      EwpInterInstitutionalAgreementMappingService mappingService,
+      ConditionsHashDecorator conditionsHashDecorator,
+      HostProviderExecutor hostProviderExecutor) {
     this.hostPluginManager = hostPluginManager;
-    this.mappingRepository = mappingRepository;
+    this.mappingService = mappingService;
     this.conditionsHashDecorator = conditionsHashDecorator;
+    this.hostProviderExecutor = hostProviderExecutor;
   }
 
   @RequestMapping(path = "/index", method = {RequestMethod.GET,
@@ -73,13 +78,12 @@ public class EwpApiInterInstitutionalAgreementsV6Controller {
     Collection<InterInstitutionalAgreementsV6HostProvider> providers = hostPluginManager.getAllProvidersOfType(
         heiId, InterInstitutionalAgreementsV6HostProvider.class);
 
+    List<Collection<String>> iiaIdsPerProvider = hostProviderExecutor.invokeAll(providers,
+        provider -> provider.findAllIiaIdsByHeiId(Collections.singletonList(heiId), heiId,
+            partnerHeiId, receivingAcademicYearIds, modifiedSince));
+
     IiasIndexResponseV6 response = new IiasIndexResponseV6();
-    providers.forEach(provider -> {
-      Collection<String> iiaIds = provider.findAllIiaIdsByHeiId(Collections.singletonList(heiId),
-          heiId, partnerHeiId,
-          receivingAcademicYearIds, modifiedSince);
-      response.getIiaId().addAll(iiaIds);
-    });
+    iiaIdsPerProvider.forEach(response.getIiaId()::addAll);
     return ResponseEntity.ok(response);
   }
 
@@ -139,14 +143,13 @@ public class EwpApiInterInstitutionalAgreementsV6Controller {
               + maxIiaIdsPerRequest);
     }
 
+    List<Collection<Iia>> iiasPerProvider = hostProviderExecutor.invokeAll(providerToIiaIdsMap,
+        (provider, coveredIiaIds) -> decorateWithConditionsHashes(
+            provider.findByHeiIdAndIiaIds(
+                Collections.singletonList(heiId), heiId, coveredIiaIds, sendPdf)));
+
     IiasGetResponseV6 response = new IiasGetResponseV6();
-    for (Map.Entry<InterInstitutionalAgreementsV6HostProvider, Collection<String>> entry : providerToIiaIdsMap.entrySet()) {
-      InterInstitutionalAgreementsV6HostProvider provider = entry.getKey();
-      Collection<String> coveredIiaIds = entry.getValue();
-      provider.findByHeiIdAndIiaIds(Collections.singletonList(heiId), heiId, coveredIiaIds, sendPdf)
-          .forEach(iia -> response.getIia().add(iia));
-    }
-    conditionsHashDecorator.decorateWithConditionsHashes(response);
+    iiasPerProvider.forEach(response.getIia()::addAll);
     return ResponseEntity.ok(response);
   }
 
@@ -167,18 +170,27 @@ public class EwpApiInterInstitutionalAgreementsV6Controller {
               + maxIiaCodesPerRequest);
     }
 
+    List<Collection<Iia>> iiasPerProvider = hostProviderExecutor.invokeAll(
+        providerToIiaCodesMap,
+        (provider, coveredIiaCodes) -> decorateWithConditionsHashes(
+            provider.findByHeiIdAndIiaCodes(
+                Collections.singletonList(heiId), heiId, coveredIiaCodes, sendPdf)));
+
     IiasGetResponseV6 response = new IiasGetResponseV6();
-    for (Map.Entry<InterInstitutionalAgreementsV6HostProvider, Collection<String>> entry : providerToIiaCodesMap.entrySet()) {
-      InterInstitutionalAgreementsV6HostProvider provider = entry.getKey();
-      Collection<String> coveredIiaCodes = entry.getValue();
-      provider.findByHeiIdAndIiaCodes(Collections.singletonList(heiId), heiId, coveredIiaCodes,
-              sendPdf)
-          .forEach(iia -> response.getIia().add(iia));
-    }
-    conditionsHashDecorator.decorateWithConditionsHashes(response);
+    iiasPerProvider.forEach(response.getIia()::addAll);
     return ResponseEntity.ok(response);
   }
 
+  /**
+   * Sets the conditions hashes of the IIAs returned by a provider. This is done right after the
+   * provider replies, so that the hashes of IIAs of different providers are calculated
+   * concurrently.
+   */
+  private Collection<Iia> decorateWithConditionsHashes(Collection<Iia> iias) {
+    conditionsHashDecorator.decorateWithConditionsHashes(iias);
+    return iias;
+  }
+
   private Map<InterInstitutionalAgreementsV6HostProvider, Collection<String>> getIiaIdsCoveredPerProviderOfHeiId(
       String heiId, Collection<String> iiaIds) throws EwpUnknownHeiIdException {
 
@@ -187,13 +199,12 @@ public class EwpApiInterInstitutionalAgreementsV6Controller {
       throw new EwpUnknownHeiIdException(heiId);
     }
 
-    Map<InterInstitutionalAgreementsV6HostProvider, Collection<String>> result = new HashMap<>();
+    Map<InterInstitutionalAgreementsV6HostProvider, Collection<String>> result = new LinkedHashMap<>();
+    Map<String, EwpInterInstitutionalAgreementMapping> mappings = mappingService.getMappingsByIiaIds(
+        heiId, iiaIds);
     for (String iiaId : iiaIds) {
-      Optional<EwpInterInstitutionalAgreementMapping> mappingOptional = mappingRepository.findByHeiIdAndIiaId(
-          heiId, iiaId);
-      if (mappingOptional.isPresent()) {
-        EwpInterInstitutionalAgreementMapping mapping = mappingOptional.get();
-
+      EwpInterInstitutionalAgreementMapping mapping = mappings.get(iiaId);
+      if (mapping != null) {
         Collection<InterInstitutionalAgreementsV6HostProvider> providers = hostPluginManager.getProvidersByHeiIdAndOunitId(
             heiId, mapping.getOunitId(),
             InterInstitutionalAgreementsV6HostProvider.class);
@@ -215,13 +226,12 @@ public class EwpApiInterInstitutionalAgreementsV6Controller {
       throw new EwpUnknownHeiIdException(heiId);
     }
 
-    Map<InterInstitutionalAgreementsV6HostProvider, Collection<String>> result = new HashMap<>();
+    Map<InterInstitutionalAgreementsV6HostProvider, Collection<String>> result = new LinkedHashMap<>();
+    Map<String, EwpInterInstitutionalAgreementMapping> mappings = mappingService.getMappingsByIiaCodes(
+        heiId, iiaCodes);
     for (String iiaCode : iiaCodes) {
-      Optional<EwpInterInstitutionalAgreementMapping> mappingOptional = mappingRepository.findByHeiIdAndIiaCode(
-          heiId, iiaCode);
-      if (mappingOptional.isPresent()) {
-        EwpInterInstitutionalAgreementMapping mapping = mappingOptional.get();
-
+      EwpInterInstitutionalAgreementMapping mapping = mappings.get(iiaCode);
+      if (mapping != null) {
         Collection<InterInstitutionalAgreementsV6HostProvider> providers = hostPluginManager.getProvidersByHeiIdAndOunitId(
             heiId, mapping.getOunitId(),
             InterInstitutionalAgreementsV6HostProvider.class);
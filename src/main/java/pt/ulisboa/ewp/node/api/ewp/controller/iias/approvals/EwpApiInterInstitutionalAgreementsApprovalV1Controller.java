@@ -6,7 +6,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,9 +17,9 @@ import pt.ulisboa.ewp.node.api.ewp.controller.EwpApi;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.domain.entity.mapping.EwpInterInstitutionalAgreementMapping;
-import pt.ulisboa.ewp.node.domain.repository.mapping.EwpInterInstitutionalAgreementMappingRepository;
 import pt.ulisboa.ewp.node.exception.ewp.EwpUnknownHeiIdException;
 import pt.ulisboa.ewp.node.plugin.manager.host.HostPluginManager;
+import pt.ulisboa.ewp.node.service.ewp.mapping.EwpInterInstitutionalAgreementMappingService;
 
 @RestController
 @EwpApi
@@ -32,13 +31,13 @@ public class EwpApiInterInstitutionalAgreementsApprovalV1Controller {
 
   private final HostPluginManager hostPluginManager;
 
-  private final EwpInterInstitutionalAgreementMappingRepository mappingRepository;
+  private final EwpInterInstitutionalAgreementMappingService mappingService;
 
   public EwpApiInterInstitutionalAgreementsApprovalV1Controller(
       HostPluginManager hostPluginManager,
-      EwpInterInstitutionalAgreementMappingRepository mappingRepository) {
+      EwpInterInstitutionalAgreementMappingService mappingService) {
     this.hostPluginManager = hostPluginManager;
-    this.mappingRepository = mappingRepository;
+    this.mappingService = mappingService;
   }
 
   @RequestMapping(method = {RequestMethod.GET,
@@ -75,12 +74,11 @@ public class EwpApiInterInstitutionalAgreementsApprovalV1Controller {
     }
 
     Map<InterInstitutionalAgreementsApprovalV1HostProvider, Collection<String>> result = new HashMap<>();
+    Map<String, EwpInterInstitutionalAgreementMapping> mappings = mappingService.getMappingsByIiaIds(
+        heiId, iiaIds);
     for (String iiaId : iiaIds) {
-      Optional<EwpInterInstitutionalAgreementMapping> mappingOptional = mappingRepository.findByHeiIdAndIiaId(
-          heiId, iiaId);
-      if (mappingOptional.isPresent()) {
-        EwpInterInstitutionalAgreementMapping mapping = mappingOptional.get();
-
+      EwpInterInstitutionalAgreementMapping mapping = mappings.get(iiaId);
+      if (mapping != null) {
         Collection<InterInstitutionalAgreementsApprovalV1HostProvider> providers = hostPluginManager.getProvidersByHeiIdAndOunitId(
             heiId, mapping.getOunitId(),
             InterInstitutionalAgreementsApprovalV1HostProvider.class);
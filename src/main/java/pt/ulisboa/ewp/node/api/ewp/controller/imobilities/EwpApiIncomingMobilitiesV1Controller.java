@@ -8,7 +8,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -21,9 +20,9 @@ import pt.ulisboa.ewp.node.api.ewp.security.EwpApiHostAuthenticationToken;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.domain.entity.mapping.EwpOutgoingMobilityMapping;
-import pt.ulisboa.ewp.node.domain.repository.mapping.EwpOutgoingMobilityMappingRepository;
 import pt.ulisboa.ewp.node.exception.ewp.EwpBadRequestException;
 import pt.ulisboa.ewp.node.plugin.manager.host.HostPluginManager;
+import pt.ulisboa.ewp.node.service.ewp.mapping.EwpOutgoingMobilityMappingService;
 
 @RestController
 @EwpApi
@@ -35,12 +34,12 @@ public class EwpApiIncomingMobilitiesV1Controller {
 
   private final HostPluginManager hostPluginManager;
 
-  private final EwpOutgoingMobilityMappingRepository mappingRepository;
+  private final EwpOutgoingMobilityMappingService mappingService;
 
   public EwpApiIncomingMobilitiesV1Controller(HostPluginManager hostPluginManager,
-      EwpOutgoingMobilityMappingRepository mappingRepository) {
+      EwpOutgoingMobilityMappingService mappingService) {
     this.hostPluginManager = hostPluginManager;
-    this.mappingRepository = mappingRepository;
+    this.mappingService = mappingService;
   }
 
   @RequestMapping(path = "/get", method = {RequestMethod.GET,
@@ -95,12 +94,11 @@ public class EwpApiIncomingMobilitiesV1Controller {
   private Map<IncomingMobilitiesV1HostProvider, Collection<String>> getOmobilityIdsCoveredPerProviderOfHeiId(
       String heiId, Collection<String> omobilityIds) {
     Map<IncomingMobilitiesV1HostProvider, Collection<String>> result = new HashMap<>();
+    Map<String, EwpOutgoingMobilityMapping> mappings = mappingService.getMappings(
+        heiId, omobilityIds);
     for (String omobilityId : omobilityIds) {
-      Optional<EwpOutgoingMobilityMapping> mappingOptional = mappingRepository.findByHeiIdAndOmobilityId(
-          heiId, omobilityId);
-      if (mappingOptional.isPresent()) {
-        EwpOutgoingMobilityMapping mapping = mappingOptional.get();
-
+      EwpOutgoingMobilityMapping mapping = mappings.get(omobilityId);
+      if (mapping != null) {
         Collection<IncomingMobilitiesV1HostProvider> providers = hostPluginManager.getProvidersByHeiIdAndOunitId(
             heiId, mapping.getOunitId(), IncomingMobilitiesV1HostProvider.class);
         if (!providers.isEmpty()) {
@@ -3,16 +3,16 @@ package pt.ulisboa.ewp.node.api.ewp.controller.imobilities.tors;
 import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
 
 import eu.erasmuswithoutpaper.api.imobilities.tors.v1.endpoints.ImobilityTorsGetResponseV1;
+import eu.erasmuswithoutpaper.api.imobilities.tors.v1.endpoints.ImobilityTorsGetResponseV1.Tor;
 import eu.erasmuswithoutpaper.api.imobilities.tors.v1.endpoints.ImobilityTorsIndexResponseV1;
 import io.swagger.v3.oas.annotations.Operation;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,9 +26,10 @@ import pt.ulisboa.ewp.node.api.ewp.security.EwpApiHostAuthenticationToken;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.domain.entity.mapping.EwpOutgoingMobilityMapping;
-import pt.ulisboa.ewp.node.domain.repository.mapping.EwpOutgoingMobilityMappingRepository;
 import pt.ulisboa.ewp.node.exception.ewp.EwpBadRequestException;
 import pt.ulisboa.ewp.node.plugin.manager.host.HostPluginManager;
+import pt.ulisboa.ewp.node.plugin.manager.host.HostProviderExecutor;
+import pt.ulisboa.ewp.node.service.ewp.mapping.EwpOutgoingMobilityMappingService;
 
 @RestController
 @EwpApi
@@ -40,12 +41,16 @@ public class EwpApiIncomingMobilityToRsV1Controller {
 
   private final HostPluginManager hostPluginManager;
 
-  private final EwpOutgoingMobilityMappingRepository mappingRepository;
+  private final EwpOutgoingMobilityMappingService mappingService;
+
+  private final HostProviderExecutor hostProviderExecutor;
 
   public EwpApiIncomingMobilityToRsV1Controller(HostPluginManager hostPluginManager,
-      EwpOutgoingMobilityMappingRepository mappingRepository) {
+      EwpOutgoingMobilityMappingService mappingService,
+      HostProviderExecutor hostProviderExecutor) {
     this.hostPluginManager = hostPluginManager;
-    this.mappingRepository = mappingRepository;
+    this.mappingService = mappingService;
+    this.hostProviderExecutor = hostProviderExecutor;
   }
 
   @RequestMapping(path = "/index", method = {RequestMethod.GET,
@@ -68,13 +73,13 @@ public class EwpApiIncomingMobilityToRsV1Controller {
     Collection<IncomingMobilityToRsV1HostProvider> providers = hostPluginManager.getAllProvidersOfType(
         receivingHeiId, IncomingMobilityToRsV1HostProvider.class);
 
+    List<Collection<String>> outgoingMobilityIdsPerProvider = hostProviderExecutor
+        .invokeAll(providers, provider -> provider.findOutgoingMobilityIds(
+            authenticationToken.getPrincipal().getHeiIdsCoveredByClient(), receivingHeiId,
+            sendingHeiIds, modifiedSince));
+
     ImobilityTorsIndexResponseV1 response = new ImobilityTorsIndexResponseV1();
-    providers.forEach(provider -> {
-      Collection<String> outgoingMobilityIds = provider
-          .findOutgoingMobilityIds(authenticationToken.getPrincipal().getHeiIdsCoveredByClient(),
-              receivingHeiId, sendingHeiIds, modifiedSince);
-      response.getOmobilityId().addAll(outgoingMobilityIds);
-    });
+    outgoingMobilityIdsPerProvider.forEach(response.getOmobilityId()::addAll);
     return ResponseEntity.ok(response);
   }
 
@@ -115,27 +120,25 @@ public class EwpApiIncomingMobilityToRsV1Controller {
     Map<IncomingMobilityToRsV1HostProvider, Collection<String>> providerToOmobilityIdsMap = getOmobilityIdsCoveredPerProviderOfHeiId(
         receivingHeiId, outgoingMobilityIds);
 
+    List<Collection<Tor>> torsPerProvider = hostProviderExecutor.invokeAll(
+        providerToOmobilityIdsMap,
+        (provider, coveredOmobilityIds) -> provider.findByReceivingHeiIdAndOutgoingMobilityIds(
+            authenticationToken.getPrincipal().getHeiIdsCoveredByClient(), receivingHeiId,
+            coveredOmobilityIds));
+
     ImobilityTorsGetResponseV1 response = new ImobilityTorsGetResponseV1();
-    for (Map.Entry<IncomingMobilityToRsV1HostProvider, Collection<String>> entry : providerToOmobilityIdsMap.entrySet()) {
-      IncomingMobilityToRsV1HostProvider provider = entry.getKey();
-      Collection<String> coveredOmobilityIds = entry.getValue();
-      provider.findByReceivingHeiIdAndOutgoingMobilityIds(
-              authenticationToken.getPrincipal().getHeiIdsCoveredByClient(), receivingHeiId,
-              coveredOmobilityIds)
-          .forEach(tor -> response.getTor().add(tor));
-    }
+    torsPerProvider.forEach(response.getTor()::addAll);
     return ResponseEntity.ok(response);
   }
 
   private Map<IncomingMobilityToRsV1HostProvider, Collection<String>> getOmobilityIdsCoveredPerProviderOfHeiId(
       String heiId, Collection<String> omobilityIds) {
-    Map<IncomingMobilityToRsV1HostProvider, Collection<String>> result = new HashMap<>();
+    Map<IncomingMobilityToRsV1HostProvider, Collection<String>> result = new LinkedHashMap<>();
+    Map<String, EwpOutgoingMobilityMapping> mappings = mappingService.getMappings(
+        heiId, omobilityIds);
     for (String omobilityId : omobilityIds) {
-      Optional<EwpOutgoingMobilityMapping> mappingOptional = mappingRepository.findByHeiIdAndOmobilityId(
-          heiId, omobilityId);
-      if (mappingOptional.isPresent()) {
-        EwpOutgoingMobilityMapping mapping = mappingOptional.get();
-
+      EwpOutgoingMobilityMapping mapping = mappings.get(omobilityId);
+      if (mapping != null) {
         Collection<IncomingMobilityToRsV1HostProvider> providers = hostPluginManager.getProvidersByHeiIdAndOunitId(
             heiId, mapping.getOunitId(), IncomingMobilityToRsV1HostProvider.class);
         if (!providers.isEmpty()) {
@@ -9,10 +9,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,9 +25,10 @@ import pt.ulisboa.ewp.node.api.ewp.security.EwpApiHostAuthenticationToken;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.domain.entity.mapping.EwpOutgoingMobilityMapping;
-import pt.ulisboa.ewp.node.domain.repository.mapping.EwpOutgoingMobilityMappingRepository;
 import pt.ulisboa.ewp.node.exception.ewp.EwpBadRequestException;
 import pt.ulisboa.ewp.node.plugin.manager.host.HostPluginManager;
+import pt.ulisboa.ewp.node.plugin.manager.host.HostProviderExecutor;
+import pt.ulisboa.ewp.node.service.ewp.mapping.EwpOutgoingMobilityMappingService;
 
 @RestController
 @EwpApi
@@ -40,12 +40,16 @@ public class EwpApiOutgoingMobilitiesV1Controller {
 
   private final HostPluginManager hostPluginManager;
 
-  private final EwpOutgoingMobilityMappingRepository mappingRepository;
+  private final EwpOutgoingMobilityMappingService mappingService;
+
+  private final HostProviderExecutor hostProviderExecutor;
 
   public EwpApiOutgoingMobilitiesV1Controller(HostPluginManager hostPluginManager,
-      EwpOutgoingMobilityMappingRepository mappingRepository) {
+      EwpOutgoingMobilityMappingService mappingService,
+      HostProviderExecutor hostProviderExecutor) {
     this.hostPluginManager = hostPluginManager;
-    this.mappingRepository = mappingRepository;
+    this.mappingService = mappingService;
+    this.hostProviderExecutor = hostProviderExecutor;
   }
 
   @RequestMapping(path = "/index", method = {RequestMethod.GET,
@@ -69,13 +73,11 @@ public class EwpApiOutgoingMobilitiesV1Controller {
         sendingHeiId, OutgoingMobilitiesV1HostProvider.class);
 
     OmobilitiesIndexResponseV1 response = new OmobilitiesIndexResponseV1();
-    providers.forEach(provider -> {
-      Collection<String> outgoingMobilityIds = provider
-          .findOutgoingMobilityIds(authenticationToken.getPrincipal().getHeiIdsCoveredByClient(),
-              sendingHeiId, receivingHeiIds, receivingAcademicYearId,
-              modifiedSince);
-      response.getOmobilityId().addAll(outgoingMobilityIds);
-    });
+    hostProviderExecutor.invokeAll(providers, provider -> provider
+            .findOutgoingMobilityIds(authenticationToken.getPrincipal().getHeiIdsCoveredByClient(),
+                sendingHeiId, receivingHeiIds, receivingAcademicYearId,
+                modifiedSince))
+        .forEach(outgoingMobilityIds -> response.getOmobilityId().addAll(outgoingMobilityIds));
     return ResponseEntity.ok(response);
   }
 
@@ -116,26 +118,22 @@ public class EwpApiOutgoingMobilitiesV1Controller {
         sendingHeiId, outgoingMobilityIds);
 
     OmobilitiesGetResponseV1 response = new OmobilitiesGetResponseV1();
-    for (Map.Entry<OutgoingMobilitiesV1HostProvider, Collection<String>> entry : providerToOmobilityIdsMap.entrySet()) {
-      OutgoingMobilitiesV1HostProvider provider = entry.getKey();
-      Collection<String> coveredOmobilityIds = entry.getValue();
-      provider.findBySendingHeiIdAndOutgoingMobilityIds(
-              authenticationToken.getPrincipal().getHeiIdsCoveredByClient(), sendingHeiId,
-              coveredOmobilityIds)
-          .forEach(mobility -> response.getSingleMobilityObject().add(mobility));
-    }
+    hostProviderExecutor.invokeAll(providerToOmobilityIdsMap,
+            (provider, coveredOmobilityIds) -> provider.findBySendingHeiIdAndOutgoingMobilityIds(
+                authenticationToken.getPrincipal().getHeiIdsCoveredByClient(), sendingHeiId,
+                coveredOmobilityIds))
+        .forEach(mobilities -> response.getSingleMobilityObject().addAll(mobilities));
     return ResponseEntity.ok(response);
   }
 
   private Map<OutgoingMobilitiesV1HostProvider, Collection<String>> getOmobilityIdsCoveredPerProviderOfHeiId(
       String heiId, Collection<String> omobilityIds) {
-    Map<OutgoingMobilitiesV1HostProvider, Collection<String>> result = new HashMap<>();
+    Map<OutgoingMobilitiesV1HostProvider, Collection<String>> result = new LinkedHashMap<>();
+    Map<String, EwpOutgoingMobilityMapping> mappings = mappingService.getMappings(
+        heiId, omobilityIds);
     for (String omobilityId : omobilityIds) {
-      Optional<EwpOutgoingMobilityMapping> mappingOptional = mappingRepository.findByHeiIdAndOmobilityId(
-          heiId, omobilityId);
-      if (mappingOptional.isPresent()) {
-        EwpOutgoingMobilityMapping mapping = mappingOptional.get();
-
+      EwpOutgoingMobilityMapping mapping = mappings.get(omobilityId);
+      if (mapping != null) {
         Collection<OutgoingMobilitiesV1HostProvider> providers = hostPluginManager.getProvidersByHeiIdAndOunitId(
             heiId, mapping.getOunitId(), OutgoingMobilitiesV1HostProvider.class);
         if (!providers.isEmpty()) {
@@ -2,6 +2,7 @@ package pt.ulisboa.ewp.node.api.ewp.controller.omobilities.las;
 
 import static org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME;
 
+import eu.erasmuswithoutpaper.api.omobilities.las.v1.endpoints.LearningAgreementV1;
 import eu.erasmuswithoutpaper.api.omobilities.las.v1.endpoints.OmobilityLasGetResponseV1;
 import eu.erasmuswithoutpaper.api.omobilities.las.v1.endpoints.OmobilityLasIndexResponseV1;
 import eu.erasmuswithoutpaper.api.omobilities.las.v1.endpoints.OmobilityLasUpdateRequestV1;
@@ -11,7 +12,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -31,9 +32,10 @@ import pt.ulisboa.ewp.node.api.ewp.security.EwpApiHostAuthenticationToken;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.domain.entity.mapping.EwpOutgoingMobilityMapping;
-import pt.ulisboa.ewp.node.domain.repository.mapping.EwpOutgoingMobilityMappingRepository;
 import pt.ulisboa.ewp.node.exception.ewp.EwpBadRequestException;
 import pt.ulisboa.ewp.node.plugin.manager.host.HostPluginManager;
+import pt.ulisboa.ewp.node.plugin.manager.host.HostProviderExecutor;
+import pt.ulisboa.ewp.node.service.ewp.mapping.EwpOutgoingMobilityMappingService;
 
 @RestController
 @EwpApi
@@ -45,12 +47,16 @@ public class EwpApiOutgoingMobilityLearningAgreementsV1Controller {
 
   private final HostPluginManager hostPluginManager;
 
-  private final EwpOutgoingMobilityMappingRepository mappingRepository;
+  private final EwpOutgoingMobilityMappingService mappingService;
+
+  private final HostProviderExecutor hostProviderExecutor;
 
   public EwpApiOutgoingMobilityLearningAgreementsV1Controller(HostPluginManager hostPluginManager,
-      EwpOutgoingMobilityMappingRepository mappingRepository) {
+      EwpOutgoingMobilityMappingService mappingService,
+      HostProviderExecutor hostProviderExecutor) {
     this.hostPluginManager = hostPluginManager;
-    this.mappingRepository = mappingRepository;
+    this.mappingService = mappingService;
+    this.hostProviderExecutor = hostProviderExecutor;
   }
 
   @RequestMapping(path = "/index", method = {RequestMethod.GET,
@@ -76,14 +82,13 @@ public class EwpApiOutgoingMobilityLearningAgreementsV1Controller {
     Collection<OutgoingMobilityLearningAgreementsV1HostProvider> providers = hostPluginManager.getAllProvidersOfType(
         sendingHeiId, OutgoingMobilityLearningAgreementsV1HostProvider.class);
 
+    List<Collection<String>> outgoingMobilityIdsPerProvider = hostProviderExecutor
+        .invokeAll(providers, provider -> provider.findOutgoingMobilityIds(
+            authenticationToken.getPrincipal().getHeiIdsCoveredByClient(), sendingHeiId,
+            receivingHeiIds, receivingAcademicYearId, globalId, mobilityType, modifiedSince));
+
     OmobilityLasIndexResponseV1 response = new OmobilityLasIndexResponseV1();
-    providers.forEach(provider -> {
-      Collection<String> outgoingMobilityIds = provider
-          .findOutgoingMobilityIds(authenticationToken.getPrincipal().getHeiIdsCoveredByClient(),
-              sendingHeiId, receivingHeiIds, receivingAcademicYearId, globalId, mobilityType,
-              modifiedSince);
-      response.getOmobilityId().addAll(outgoingMobilityIds);
-    });
+    outgoingMobilityIdsPerProvider.forEach(response.getOmobilityId()::addAll);
     return ResponseEntity.ok(response);
   }
 
@@ -124,15 +129,14 @@ public class EwpApiOutgoingMobilityLearningAgreementsV1Controller {
     Map<OutgoingMobilityLearningAgreementsV1HostProvider, Collection<String>> providerToOmobilityIdsMap = getOmobilityIdsCoveredPerProviderOfHeiId(
         sendingHeiId, outgoingMobilityIds);
 
+    List<Collection<LearningAgreementV1>> learningAgreementsPerProvider = hostProviderExecutor
+        .invokeAll(providerToOmobilityIdsMap,
+            (provider, coveredOmobilityIds) -> provider.findBySendingHeiIdAndOutgoingMobilityIds(
+                authenticationToken.getPrincipal().getHeiIdsCoveredByClient(), sendingHeiId,
+                coveredOmobilityIds));
+
     OmobilityLasGetResponseV1 response = new OmobilityLasGetResponseV1();
-    for (Map.Entry<OutgoingMobilityLearningAgreementsV1HostProvider, Collection<String>> entry : providerToOmobilityIdsMap.entrySet()) {
-      OutgoingMobilityLearningAgreementsV1HostProvider provider = entry.getKey();
-      Collection<String> coveredOmobilityIds = entry.getValue();
-      provider.findBySendingHeiIdAndOutgoingMobilityIds(
-              authenticationToken.getPrincipal().getHeiIdsCoveredByClient(), sendingHeiId,
-              coveredOmobilityIds)
-          .forEach(la -> response.getLa().add(la));
-    }
+    learningAgreementsPerProvider.forEach(response.getLa()::addAll);
     return ResponseEntity.ok(response);
   }
 
@@ -148,7 +152,7 @@ public class EwpApiOutgoingMobilityLearningAgreementsV1Controller {
 
     String omobilityId = getOmobilityIdOfUpdateData(updateData);
 
-    Optional<EwpOutgoingMobilityMapping> mappingOptional = mappingRepository.findByHeiIdAndOmobilityId(
+    Optional<EwpOutgoingMobilityMapping> mappingOptional = mappingService.getMapping(
         sendingHeiId, omobilityId);
     if (mappingOptional.isEmpty()) {
       throw new EwpBadRequestException(
@@ -178,13 +182,12 @@ public class EwpApiOutgoingMobilityLearningAgreementsV1Controller {
 
   private Map<OutgoingMobilityLearningAgreementsV1HostProvider, Collection<String>> getOmobilityIdsCoveredPerProviderOfHeiId(
       String heiId, Collection<String> omobilityIds) {
-    Map<OutgoingMobilityLearningAgreementsV1HostProvider, Collection<String>> result = new HashMap<>();
+    Map<OutgoingMobilityLearningAgreementsV1HostProvider, Collection<String>> result = new LinkedHashMap<>();
+    Map<String, EwpOutgoingMobilityMapping> mappings = mappingService.getMappings(
+        heiId, omobilityIds);
     for (String omobilityId : omobilityIds) {
-      Optional<EwpOutgoingMobilityMapping> mappingOptional = mappingRepository.findByHeiIdAndOmobilityId(
-          heiId, omobilityId);
-      if (mappingOptional.isPresent()) {
-        EwpOutgoingMobilityMapping mapping = mappingOptional.get();
-
+      EwpOutgoingMobilityMapping mapping = mappings.get(omobilityId);
+      if (mapping != null) {
         Collection<OutgoingMobilityLearningAgreementsV1HostProvider> providers = hostPluginManager.getProvidersByHeiIdAndOunitId(
             heiId, mapping.getOunitId(), OutgoingMobilityLearningAgreementsV1HostProvider.class);
         if (!providers.isEmpty()) {
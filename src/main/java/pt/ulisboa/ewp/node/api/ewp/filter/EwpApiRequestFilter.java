@@ -9,15 +9,15 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.api.ewp.wrapper.EwpApiHttpRequestWrapper;
+import pt.ulisboa.ewp.node.api.ewp.wrapper.EwpApiHttpResponseWrapper;
 import pt.ulisboa.ewp.node.service.http.log.ewp.EwpHttpCommunicationLogService;
 
 /**
  * Filter that wraps EWP API requests around an EwpHttpRequestWrapper, necessary for other filters
- * related to EWP. Also, it passes, further to the filter chain, a response object that caches
- * content.
+ * related to EWP. Also, it passes, further to the filter chain, an EwpApiHttpResponseWrapper, the
+ * single buffer of the response body, shared by the response signing and the logging.
  */
 @Configuration
 @Order(Integer.MIN_VALUE)
@@ -42,18 +42,17 @@ public class EwpApiRequestFilter extends OncePerRequestFilter {
 
     ZonedDateTime startProcessingDateTime = ZonedDateTime.now();
     EwpApiHttpRequestWrapper ewpRequest = new EwpApiHttpRequestWrapper(request);
-    ContentCachingResponseWrapper contentCachingResponseWrapper =
-        new ContentCachingResponseWrapper(response);
-    filterChain.doFilter(ewpRequest, contentCachingResponseWrapper);
+    EwpApiHttpResponseWrapper ewpResponse = new EwpApiHttpResponseWrapper(response);
+    filterChain.doFilter(ewpRequest, ewpResponse);
 
     ZonedDateTime endProcessingDateTime = ZonedDateTime.now();
     ewpCommunicationLogService.logCommunicationFromEwpNode(
         ewpRequest,
-        contentCachingResponseWrapper,
+        ewpResponse,
         startProcessingDateTime,
         endProcessingDateTime,
         "");
 
-    contentCachingResponseWrapper.copyBodyToResponse();
+    ewpResponse.copyBodyToResponse();
   }
 }
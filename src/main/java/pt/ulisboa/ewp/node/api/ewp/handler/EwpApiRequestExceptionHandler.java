@@ -14,6 +14,7 @@ import org.springframework.web.servlet.mvc.support.DefaultHandlerExceptionResolv
 import org.springframework.web.servlet.view.xml.MarshallingView;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiUtils;
+import pt.ulisboa.ewp.node.exception.HostProviderTimeoutException;
 import pt.ulisboa.ewp.node.exception.ewp.EwpBadRequestException;
 
 @Component
@@ -39,6 +40,9 @@ public class EwpApiRequestExceptionHandler extends DefaultHandlerExceptionResolv
       } else if (modelAndView == null) {
         if (ex instanceof EwpBadRequestException) {
           modelAndView = handleEwpBadRequestException((EwpBadRequestException) ex, response);
+        } else if (ex instanceof HostProviderTimeoutException) {
+          modelAndView = handleHostProviderTimeoutException((HostProviderTimeoutException) ex,
+              response);
         } else {
           modelAndView = handleUnknownException(ex, response);
         }
@@ -63,6 +67,12 @@ public class EwpApiRequestExceptionHandler extends DefaultHandlerExceptionResolv
     return createModelAndViewFromException(exception);
   }
 
+  private ModelAndView handleHostProviderTimeoutException(
+      HostProviderTimeoutException exception, HttpServletResponse response) {
+    response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+    return createModelAndViewFromException(exception);
+  }
+
   private ModelAndView handleUnknownException(Exception exception, HttpServletResponse response) {
     response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
     return createModelAndViewFromException(exception);
@@ -8,13 +8,15 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.springframework.security.web.util.OnCommittedResponseWrapper;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import pt.ulisboa.ewp.node.api.ewp.filter.EwpApiRequestFilter;
+import pt.ulisboa.ewp.node.api.ewp.wrapper.EwpApiHttpResponseWrapper;
 import pt.ulisboa.ewp.node.service.ewp.security.signer.response.ResponseAuthenticationSigner;
-import pt.ulisboa.ewp.node.utils.LoggerUtils;
 
 /**
  * Filter that signs responses following EWP security algorithms once they are about to be
- * committed.
+ * committed. The body is not buffered here: signers obtain its digest from the {@link
+ * EwpApiHttpResponseWrapper} set up by {@link EwpApiRequestFilter}, which also sends the body to
+ * the client once the response is complete.
  */
 public class EwpApiResponseSignerFilter extends OncePerRequestFilter {
 
@@ -52,7 +54,7 @@ public class EwpApiResponseSignerFilter extends OncePerRequestFilter {
         ResponseAuthenticationSigner signer,
         HttpServletRequest request,
         HttpServletResponse response) {
-      super(new ContentCachingResponseWrapper(response));
+      super(response);
       this.signer = signer;
       this.request = request;
     }
@@ -73,15 +75,6 @@ public class EwpApiResponseSignerFilter extends OncePerRequestFilter {
       }
 
       signer.sign(request, response);
-
-      try {
-        ((ContentCachingResponseWrapper) getResponse()).copyBodyToResponse();
-      } catch (IOException e) {
-        LoggerUtils.error(
-            "Failed to copy body from ContentCachingResponseWrapper to original response: "
-                + e.getMessage(),
-            EwpApiResponseSignerFilter.class.getCanonicalName());
-      }
     }
   }
 }
@@ -71,8 +71,13 @@ public class EwpApiUtils {
 
   public static List<Integer> getSupportedMajorVersions(
       RegistryClient registryClient, String heiId, EwpApi api) {
-    Collection<Element> rawApiElements = getRawApiElements(registryClient, heiId,
-        api.getLocalName());
+    return registryClient.getIndexedSupportedMajorVersions(heiId, api.getLocalName(),
+        () -> getSupportedMajorVersionsFromCatalogue(registryClient, heiId, api.getLocalName()));
+  }
+
+  private static List<Integer> getSupportedMajorVersionsFromCatalogue(
+      RegistryClient registryClient, String heiId, String apiLocalName) {
+    Collection<Element> rawApiElements = getRawApiElements(registryClient, heiId, apiLocalName);
     List<Integer> result = new ArrayList<>();
     for (Element rawApiElement : rawApiElements) {
       SemanticVersion semanticVersion = getSemanticVersionFromRawApiElement(rawApiElement);
@@ -1,11 +1,15 @@
 package pt.ulisboa.ewp.node.api.ewp.wrapper;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.function.Predicate;
 import javax.servlet.ReadListener;
@@ -16,16 +20,16 @@ import org.apache.catalina.connector.RequestFacade;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 import pt.ulisboa.ewp.node.api.ewp.security.EwpApiHostAuthenticationToken;
 
 /**
- * A wrapper of HttpServletRequest interface that allows multiple body readings using the method
- * getBody(). The body obtained is as was sent by client. It also allows to filter headers according
- * to a predicate. When used jointly with an EWP authentication procedure it provides authentication
+ * A wrapper of HttpServletRequest interface that allows multiple body readings using the methods
+ * getBodyBytes() and getBody(). The body is read once, as was sent by client, and kept as bytes;
+ * it is only decoded as text when needed. It also allows to filter headers according to a
+ * predicate. When used jointly with an EWP authentication procedure it provides authentication
  * details.
  */
 public class EwpApiHttpRequestWrapper extends ContentCachingRequestWrapper {
@@ -33,7 +37,13 @@ public class EwpApiHttpRequestWrapper extends ContentCachingRequestWrapper {
   private static final Logger log = LoggerFactory.getLogger(EwpApiHttpRequestWrapper.class);
   private static final String REQUEST_FIELD_NAME = "request";
 
+  private static final byte[] EMPTY_BODY = new byte[0];
+  private static final int DEFAULT_BODY_BUFFER_SIZE = 8192;
+  static final int MAX_PREALLOCATED_BODY_SIZE = 64 * 1024;
+  private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
   private final String originalQueryString;
+  private byte[] bodyBytes;
   private String body;
   private ServletInputStream inputStream;
 
@@ -41,7 +51,9 @@ public class EwpApiHttpRequestWrapper extends ContentCachingRequestWrapper {
   private Predicate<String> headerFilter = headerName -> true;
 
   public EwpApiHttpRequestWrapper(HttpServletRequest request) throws IOException {
-    super(request);
+    // NOTE: the body is kept by this wrapper instead of the content cache of the superclass, so
+    // the cache is given no capacity (otherwise it is preallocated with the content length).
+    super(request, 0);
 
     this.originalQueryString = request.getQueryString();
 
@@ -88,16 +100,59 @@ public class EwpApiHttpRequestWrapper extends ContentCachingRequestWrapper {
 
   private void initBody(HttpServletRequest request) throws IOException {
     if (HttpMethod.POST.matches(request.getMethod())) {
-      StringHttpMessageConverter converter = new StringHttpMessageConverter(
-          StandardCharsets.UTF_8);
-      this.body = converter.read(String.class, new ServletServerHttpRequest(this));
+      this.bodyBytes = readBody(request);
     } else {
-      this.body = "";
+      this.bodyBytes = EMPTY_BODY;
+    }
+  }
+
+  /**
+   * Reads the body of a request into a byte array, sized with the request's content length when it
+   * is known, so that the body is usually copied only once. At most {@link
+   * #MAX_PREALLOCATED_BODY_SIZE} bytes are allocated upfront, so a large declared content length
+   * cannot make the node allocate memory for bytes that are never sent; beyond that the array grows
+   * as the bytes arrive. Form bodies are obtained from the request parameters (see {@link
+   * ServletServerHttpRequest#getBody()}), as the container may have already consumed them.
+   */
+  private static byte[] readBody(HttpServletRequest request) throws IOException {
+    InputStream bodyInputStream = new ServletServerHttpRequest(request).getBody();
+    int contentLength = request.getContentLength();
+    int initialSize = contentLength < 0 ? DEFAULT_BODY_BUFFER_SIZE
+        : Math.min(contentLength, MAX_PREALLOCATED_BODY_SIZE);
+
+    byte[] bytes = new byte[initialSize];
+    int length = 0;
+    while (true) {
+      length += bodyInputStream.readNBytes(bytes, length, bytes.length - length);
+      if (length < bytes.length) {
+        return Arrays.copyOf(bytes, length);
+      }
+
+      int nextByte = bodyInputStream.read();
+      if (nextByte < 0) {
+        return bytes;
+      }
+      bytes = Arrays.copyOf(bytes, getGrownBufferSize(bytes.length, contentLength));
+      bytes[length++] = (byte) nextByte;
+    }
+  }
+
+  private static int getGrownBufferSize(int currentSize, int contentLength) {
+    long grownSize = Math.max((long) currentSize * 2, DEFAULT_BODY_BUFFER_SIZE);
+    if (contentLength > currentSize) {
+      grownSize = Math.min(grownSize, contentLength);
     }
+    if (grownSize > MAX_ARRAY_SIZE) {
+      if (currentSize >= MAX_ARRAY_SIZE) {
+        throw new OutOfMemoryError("Request body is too large");
+      }
+      grownSize = MAX_ARRAY_SIZE;
+    }
+    return (int) grownSize;
   }
 
   private void initInputStream() {
-    this.inputStream = new ContentCachingInputStream(body.getBytes(StandardCharsets.UTF_8));
+    this.inputStream = new ContentCachingInputStream(bodyBytes);
   }
 
   public String getOriginalQueryString() {
@@ -169,21 +224,51 @@ public class EwpApiHttpRequestWrapper extends ContentCachingRequestWrapper {
     return headerFilter.test(name.toLowerCase());
   }
 
+  @Override
+  public byte[] getContentAsByteArray() {
+    return getBodyBytes();
+  }
+
+  /**
+   * Returns request body, as it was sent by the client. It may be called multiple times. The
+   * returned array is shared, so it must not be modified.
+   */
+  public byte[] getBodyBytes() {
+    return bodyBytes;
+  }
+
   /**
-   * Returns request body. It may be called multiple times.
+   * Returns request body decoded with the request's character encoding (UTF-8 by default). It may
+   * be called multiple times, while the body is decoded only once.
    */
   public String getBody() {
+    if (this.body == null) {
+      this.body = new String(bodyBytes, getBodyCharset());
+    }
     return body;
   }
 
+  private Charset getBodyCharset() {
+    String characterEncoding = getCharacterEncoding();
+    if (characterEncoding != null) {
+      try {
+        return Charset.forName(characterEncoding);
+      } catch (IllegalArgumentException e) {
+        log.warn("Unsupported request character encoding, will use UTF-8: {}", characterEncoding);
+      }
+    }
+    return StandardCharsets.UTF_8;
+  }
+
   /**
-   * Reference: https://stackoverflow.com/questions/30484388/inputstream-to-servletinputstream/33836552
+   * Input stream over the cached body. As the whole body is already in memory, reads never block,
+   * so the stream is always ready.
    */
-  private class ContentCachingInputStream extends ServletInputStream {
+  private static class ContentCachingInputStream extends ServletInputStream {
 
     private final byte[] bytes;
 
-    private int lastIndexRetrieved = -1;
+    private int position = 0;
     private ReadListener readListener = null;
 
     private ContentCachingInputStream(byte[] bytes) {
@@ -192,50 +277,73 @@ public class EwpApiHttpRequestWrapper extends ContentCachingRequestWrapper {
 
     @Override
     public int read() throws IOException {
-      int i;
-      if (!isFinished()) {
-        i = bytes[lastIndexRetrieved + 1];
-        lastIndexRetrieved++;
-        if (isFinished() && (readListener != null)) {
-          try {
-            readListener.onAllDataRead();
-          } catch (IOException ex) {
-            readListener.onError(ex);
-            throw ex;
-          }
-        }
-        return i;
-      } else {
+      if (isFinished()) {
+        return -1;
+      }
+      int b = bytes[position++] & 0xFF;
+      notifyIfAllDataRead();
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      Objects.checkFromIndexSize(offset, length, buffer.length);
+      if (length == 0) {
+        return 0;
+      }
+      if (isFinished()) {
         return -1;
       }
+      int count = Math.min(length, bytes.length - position);
+      System.arraycopy(bytes, position, buffer, offset, count);
+      position += count;
+      notifyIfAllDataRead();
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      int count = (int) Math.max(0, Math.min(n, bytes.length - position));
+      position += count;
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return bytes.length - position;
     }
 
     @Override
     public boolean isFinished() {
-      return (lastIndexRetrieved == bytes.length - 1);
+      return position >= bytes.length;
     }
 
     @Override
     public boolean isReady() {
-      // This implementation will never block
-      // We also never need to call the readListener from this method, as this method will never return false
-      return isFinished();
+      return true;
     }
 
     @Override
     public void setReadListener(ReadListener listener) {
       this.readListener = listener;
-      if (!isFinished()) {
-        try {
+      try {
+        if (!isFinished()) {
           readListener.onDataAvailable();
-        } catch (IOException e) {
-          readListener.onError(e);
+        } else {
+          readListener.onAllDataRead();
         }
-      } else {
+      } catch (IOException e) {
+        readListener.onError(e);
+      }
+    }
+
+    private void notifyIfAllDataRead() throws IOException {
+      if (isFinished() && readListener != null) {
         try {
           readListener.onAllDataRead();
         } catch (IOException e) {
           readListener.onError(e);
+          throw e;
         }
       }
     }
@@ -0,0 +1,183 @@
+package pt.ulisboa.ewp.node.api.ewp.wrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * A wrapper of HttpServletResponse interface that is the single place where the body of an EWP API
+ * response is kept until it is sent to the client. While the body is written, its SHA-256 digest is
+ * computed incrementally, so that the response may be signed without reading the body again, and
+ * only a bounded prefix of it is copied for logging.
+ *
+ * <p>As with {@link ContentCachingResponseWrapper}, the body must be sent to the client by calling
+ * {@link #copyBodyToResponse()} once the response is complete.
+ */
+public class EwpApiHttpResponseWrapper extends ContentCachingResponseWrapper {
+
+  private static final String SHA_256 = "SHA-256";
+
+  private final MessageDigest contentDigest;
+  private ServletOutputStream outputStream;
+  private PrintWriter writer;
+
+  public EwpApiHttpResponseWrapper(HttpServletResponse response) {
+    super(response);
+    try {
+      this.contentDigest = MessageDigest.getInstance(SHA_256);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not supported", e);
+    }
+  }
+
+  @Override
+  public ServletOutputStream getOutputStream() throws IOException {
+    if (this.outputStream == null) {
+      this.outputStream = new DigestingServletOutputStream(super.getOutputStream());
+    }
+    return this.outputStream;
+  }
+
+  @Override
+  public PrintWriter getWriter() throws IOException {
+    if (this.writer == null) {
+      String characterEncoding = getCharacterEncoding();
+      this.writer = new FlushingPrintWriter(characterEncoding != null
+          ? new OutputStreamWriter(getOutputStream(), characterEncoding)
+          : new OutputStreamWriter(getOutputStream()));
+    }
+    return this.writer;
+  }
+
+  @Override
+  public void resetBuffer() {
+    super.resetBuffer();
+    resetContentDigest();
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    resetContentDigest();
+  }
+
+  /**
+   * Returns the SHA-256 digest of the body written so far.
+   */
+  public byte[] getContentDigest() {
+    synchronized (this.contentDigest) {
+      try {
+        return ((MessageDigest) this.contentDigest.clone()).digest();
+      } catch (CloneNotSupportedException e) {
+        throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+      }
+    }
+  }
+
+  /**
+   * Returns at most a given number of bytes from the beginning of the body written so far, decoded
+   * with the response's character encoding.
+   */
+  public String getContentPrefix(int maxLength) throws UnsupportedEncodingException {
+    byte[] prefix = new byte[Math.max(0, Math.min(maxLength, getContentSize()))];
+    try (InputStream contentInputStream = getContentInputStream()) {
+      int offset = 0;
+      while (offset < prefix.length) {
+        int read = contentInputStream.read(prefix, offset, prefix.length - offset);
+        if (read < 0) {
+          break;
+        }
+        offset += read;
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read cached response body", e);
+    }
+    String characterEncoding = getCharacterEncoding();
+    return characterEncoding != null ? new String(prefix, characterEncoding) : new String(prefix);
+  }
+
+  private void resetContentDigest() {
+    synchronized (this.contentDigest) {
+      this.contentDigest.reset();
+    }
+  }
+
+  private void updateContentDigest(byte[] bytes, int offset, int length) {
+    synchronized (this.contentDigest) {
+      this.contentDigest.update(bytes, offset, length);
+    }
+  }
+
+  private class DigestingServletOutputStream extends ServletOutputStream {
+
+    private final ServletOutputStream delegate;
+
+    private DigestingServletOutputStream(ServletOutputStream delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      this.delegate.write(b);
+      updateContentDigest(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      this.delegate.write(bytes, offset, length);
+      updateContentDigest(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      this.delegate.flush();
+    }
+
+    @Override
+    public boolean isReady() {
+      return this.delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      this.delegate.setWriteListener(writeListener);
+    }
+  }
+
+  /**
+   * Print writer that flushes after every write, so that characters reach the cached body (and its
+   * digest) right away.
+   */
+  private static class FlushingPrintWriter extends PrintWriter {
+
+    private FlushingPrintWriter(OutputStreamWriter writer) {
+      super(writer);
+    }
+
+    @Override
+    public void write(char[] buf, int off, int len) {
+      super.write(buf, off, len);
+      super.flush();
+    }
+
+    @Override
+    public void write(String s, int off, int len) {
+      super.write(s, off, len);
+      super.flush();
+    }
+
+    @Override
+    public void write(int c) {
+      super.write(c);
+      super.flush();
+    }
+  }
+}
@@ -14,6 +14,7 @@ import org.springframework.web.util.ContentCachingResponseWrapper;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.security.filter.ForwardEwpApiJwtTokenAuthenticationFilter;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.utils.ForwardEwpApiConstants;
 import pt.ulisboa.ewp.node.domain.entity.Host;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpLogFormat;
 import pt.ulisboa.ewp.node.service.http.log.host.HostHttpCommunicationLogService;
 
 /**
@@ -44,8 +45,9 @@ public class ForwardEwpApiRequestFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
 
     ZonedDateTime startProcessingDateTime = ZonedDateTime.now();
+    // NOTE: only the part of the request body that is logged is cached
     ContentCachingRequestWrapper requestWrapper = new ContentCachingRequestWrapper(
-        request);
+        request, HttpLogFormat.MAX_BODY_SIZE_IN_BYTES);
     ContentCachingResponseWrapper responseWrapper =
         new ContentCachingResponseWrapper(response);
     filterChain.doFilter(requestWrapper, responseWrapper);
@@ -2,6 +2,7 @@ package pt.ulisboa.ewp.node.api.host.forward.ewp.handler;
 
 import eu.erasmuswithoutpaper.api.architecture.v1.ErrorResponseV1;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import org.slf4j.Logger;
@@ -19,10 +20,13 @@ import pt.ulisboa.ewp.node.api.host.forward.ewp.controller.ForwardEwpApi;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.ForwardEwpApiResponse;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.ForwardEwpApiResponseWithData;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.utils.ForwardEwpApiResponseUtils;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientBulkheadFullException;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientCircuitOpenException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientConflictException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorResponseException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientInvalidResponseException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientProcessorException;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientTimeoutException;
 import pt.ulisboa.ewp.node.client.ewp.exception.NoEwpApiForHeiIdException;
 import pt.ulisboa.ewp.node.service.messaging.MessageService;
 import pt.ulisboa.ewp.node.utils.PojoUtils;
@@ -98,6 +102,31 @@ public class ForwardEwpApiClientExceptionHandler {
     return ForwardEwpApiResponseUtils.toBadGatewayResponseEntity();
   }
 
+  @ExceptionHandler({EwpClientBulkheadFullException.class})
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ResponseEntity<ForwardEwpApiResponse> handleEwpClientBulkheadFullException(
+      EwpClientBulkheadFullException exception) {
+    MessageService.getInstance().add(Severity.ERROR, exception.getMessage());
+    return ForwardEwpApiResponseUtils.toServiceUnavailableResponseEntity();
+  }
+
+  @ExceptionHandler({EwpClientCircuitOpenException.class})
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ResponseEntity<ForwardEwpApiResponse> handleEwpClientCircuitOpenException(
+      EwpClientCircuitOpenException exception) {
+    MessageService.getInstance().add(Severity.ERROR, exception.getMessage());
+    return ForwardEwpApiResponseUtils.toServiceUnavailableResponseEntity(
+        TimeUnit.MILLISECONDS.toSeconds(exception.getRemainingOpenDurationInMilliseconds() + 999));
+  }
+
+  @ExceptionHandler({EwpClientTimeoutException.class})
+  @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+  public ResponseEntity<ForwardEwpApiResponse> handleEwpClientTimeoutException(
+      EwpClientTimeoutException exception) {
+    MessageService.getInstance().add(Severity.ERROR, exception.getMessage());
+    return ForwardEwpApiResponseUtils.toGatewayTimeoutResponseEntity();
+  }
+
   @ExceptionHandler({EwpClientErrorResponseException.class})
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ResponseEntity<ForwardEwpApiResponseWithData<ErrorResponseV1>>
@@ -4,6 +4,7 @@ import eu.erasmuswithoutpaper.api.architecture.v1.ErrorResponseV1;
 import java.io.Serializable;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -87,6 +88,29 @@ public class ForwardEwpApiResponseUtils {
         .body(response);
   }
 
+  public static ResponseEntity<ForwardEwpApiResponse> toServiceUnavailableResponseEntity() {
+    ForwardEwpApiResponse response = createResponseWithMessages();
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .contentType(MediaType.APPLICATION_XML)
+        .body(response);
+  }
+
+  public static ResponseEntity<ForwardEwpApiResponse> toServiceUnavailableResponseEntity(
+      long retryAfterInSeconds) {
+    ForwardEwpApiResponse response = createResponseWithMessages();
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .contentType(MediaType.APPLICATION_XML)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterInSeconds))
+        .body(response);
+  }
+
+  public static ResponseEntity<ForwardEwpApiResponse> toGatewayTimeoutResponseEntity() {
+    ForwardEwpApiResponse response = createResponseWithMessages();
+    return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+        .contentType(MediaType.APPLICATION_XML)
+        .body(response);
+  }
+
   public static <T> ForwardEwpApiResponseWithData<T> createResponseWithMessagesAndData(T data) {
     ForwardEwpApiResponseWithData<T> response = new ForwardEwpApiResponseWithData<>();
     decorateResponseWithOtherMessages(response);
@@ -1,5 +1,15 @@
 package pt.ulisboa.ewp.node.client.ewp;
 
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
+import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
+import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
 import pt.ulisboa.ewp.node.client.ewp.registry.RegistryClient;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.EwpApiConfiguration;
 import pt.ulisboa.ewp.node.utils.EwpApiSpecification.EwpApiVersionSpecification;
@@ -19,4 +29,46 @@ public abstract class EwpApiClient<C extends EwpApiConfiguration> {
   }
 
   public abstract EwpApiVersionSpecification<?, C> getApiVersionSpecification();
+
+  /**
+   * Requests a list of IDs, respecting the maximum number of IDs per request accepted by the
+   * target API. The response bodies of the chunk requests are merged into a new response body by
+   * concatenating, in order, their elements.
+   *
+   * @see EwpClient#executeAndLogInChunks(Collection, int, Function, Class, Function)
+   */
+  protected <T extends Serializable, E> EwpSuccessOperationResult<T> executeAndLogInChunks(
+      Collection<String> ids, BigInteger maxIdsPerRequest,
+      Function<List<String>, EwpRequest> requestFactory, Class<T> responseBodyType,
+      Supplier<T> responseBodyFactory, Function<T, List<E>> elementsGetter)
+      throws EwpClientErrorException {
+    return ewpClient.executeAndLogInChunks(ids, toMaxIdsPerRequest(maxIdsPerRequest),
+        requestFactory, responseBodyType, concatenating(responseBodyFactory, elementsGetter));
+  }
+
+  protected <T extends Serializable, E> CompletableFuture<EwpSuccessOperationResult<T>> executeAndLogInChunksAsync(
+      Collection<String> ids, BigInteger maxIdsPerRequest,
+      Function<List<String>, EwpRequest> requestFactory, Class<T> responseBodyType,
+      Supplier<T> responseBodyFactory, Function<T, List<E>> elementsGetter) {
+    return ewpClient.executeAndLogInChunksAsync(ids, toMaxIdsPerRequest(maxIdsPerRequest),
+        requestFactory, responseBodyType, concatenating(responseBodyFactory, elementsGetter));
+  }
+
+  private static int toMaxIdsPerRequest(BigInteger maxIdsPerRequest) {
+    if (maxIdsPerRequest == null || maxIdsPerRequest.signum() <= 0) {
+      return 0;
+    }
+    return maxIdsPerRequest.min(BigInteger.valueOf(Integer.MAX_VALUE)).intValue();
+  }
+
+  private static <T, E> Function<List<T>, T> concatenating(Supplier<T> responseBodyFactory,
+      Function<T, List<E>> elementsGetter) {
+    return responseBodies -> {
+      T mergedResponseBody = responseBodyFactory.get();
+      List<E> mergedElements = elementsGetter.apply(mergedResponseBody);
+      responseBodies.forEach(
+          responseBody -> mergedElements.addAll(elementsGetter.apply(responseBody)));
+      return mergedResponseBody;
+    };
+  }
 }
@@ -0,0 +1,25 @@
+package pt.ulisboa.ewp.node.client.ewp;
+
+import pt.ulisboa.ewp.node.client.ewp.cache.EwpResponseCache;
+import pt.ulisboa.ewp.node.client.ewp.cache.EwpResponseCacheKey;
+import pt.ulisboa.ewp.node.client.ewp.registry.RegistryClient;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.EwpApiConfiguration;
+
+/**
+ * Client of an API whose data rarely changes, so that its successful responses may be served from
+ * the {@link EwpResponseCache}.
+ */
+public abstract class EwpCachedApiClient<C extends EwpApiConfiguration> extends EwpApiClient<C> {
+
+  protected final EwpResponseCache responseCache;
+
+  public EwpCachedApiClient(RegistryClient registryClient, EwpClient ewpClient,
+      EwpResponseCache responseCache) {
+    super(registryClient, ewpClient);
+    this.responseCache = responseCache;
+  }
+
+  protected EwpResponseCacheKey.Builder cacheKey(String heiId) {
+    return EwpResponseCacheKey.builder(getApiVersionSpecification(), heiId);
+  }
+}
@@ -1,21 +1,37 @@
 package pt.ulisboa.ewp.node.client.ewp;
 
+import com.google.common.collect.Lists;
 import eu.erasmuswithoutpaper.api.architecture.v1.ErrorResponseV1;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
-import java.security.UnrecoverableKeyException;
 import java.time.ZonedDateTime;
-import javax.net.ssl.SSLContext;
-import javax.ws.rs.client.Client;
-import javax.ws.rs.client.ClientBuilder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Variant;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.glassfish.jersey.client.ClientProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -23,17 +39,28 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.http.HttpStatus;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.stereotype.Component;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientBulkheadFullException;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientCircuitOpenException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientConflictException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorResponseException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientInvalidResponseException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientProcessorException;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientTimeoutException;
+import pt.ulisboa.ewp.node.client.ewp.http.EwpHttpClientManager;
+import pt.ulisboa.ewp.node.client.ewp.http.EwpPartnerCircuitBreaker;
+import pt.ulisboa.ewp.node.client.ewp.http.EwpPartnerHost;
+import pt.ulisboa.ewp.node.client.ewp.http.EwpPartnerHostRegistry;
+import pt.ulisboa.ewp.node.client.ewp.http.PooledEwpHttpClient;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.body.EwpRequestBody;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.body.EwpRequestFormDataBody;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.body.EwpRequestSerializableBody;
 import pt.ulisboa.ewp.node.client.ewp.operation.response.EwpResponse;
+import pt.ulisboa.ewp.node.client.ewp.operation.response.EwpResponseBody;
 import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
+import pt.ulisboa.ewp.node.config.client.EwpClientResponseBodyProperties;
 import pt.ulisboa.ewp.node.exception.XmlCannotUnmarshallToTypeException;
 import pt.ulisboa.ewp.node.exception.ewp.EwpClientAuthenticationFailedException;
 import pt.ulisboa.ewp.node.exception.ewp.EwpServerAuthenticationFailedException;
@@ -42,11 +69,8 @@ import pt.ulisboa.ewp.node.service.ewp.security.signer.request.RequestAuthentica
 import pt.ulisboa.ewp.node.service.ewp.security.verifier.EwpAuthenticationResult;
 import pt.ulisboa.ewp.node.service.ewp.security.verifier.response.ResponseAuthenticationVerifier;
 import pt.ulisboa.ewp.node.service.http.log.ewp.EwpHttpCommunicationLogService;
-import pt.ulisboa.ewp.node.service.keystore.KeyStoreService;
-import pt.ulisboa.ewp.node.utils.SecurityUtils;
 import pt.ulisboa.ewp.node.utils.XmlUtils;
 import pt.ulisboa.ewp.node.utils.http.HttpUtils;
-import pt.ulisboa.ewp.node.utils.keystore.DecodedKeystore;
 
 @Component
 @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
@@ -54,21 +78,33 @@ public class EwpClient {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(EwpClient.class);
 
-  private final KeyStoreService keystoreService;
+  private static final String ACCEPTED_CONTENT_ENCODINGS =
+      EwpResponseBody.CONTENT_ENCODING_GZIP + ", " + EwpResponseBody.CONTENT_ENCODING_DEFLATE;
+
+  private final EwpHttpClientManager httpClientManager;
+  private final EwpPartnerHostRegistry partnerHostRegistry;
   private final RequestAuthenticationSigner requestSigner;
   private final ResponseAuthenticationVerifier responseVerifier;
   private final EwpHttpCommunicationLogService ewpHttpCommunicationLogService;
   private final Jaxb2Marshaller jaxb2Marshaller;
+  private final EwpClientExecutor executor;
+  private final EwpClientResponseBodyProperties responseBodyProperties;
+  private final EwpRequestCoalescer requestCoalescer = new EwpRequestCoalescer();
 
-  public EwpClient(KeyStoreService keystoreService, RequestAuthenticationSigner requestSigner,
+  public EwpClient(EwpHttpClientManager httpClientManager,
+      EwpPartnerHostRegistry partnerHostRegistry, RequestAuthenticationSigner requestSigner,
       ResponseAuthenticationVerifier responseVerifier,
       EwpHttpCommunicationLogService ewpHttpCommunicationLogService,
-      Jaxb2Marshaller jaxb2Marshaller) {
-    this.keystoreService = keystoreService;
+      Jaxb2Marshaller jaxb2Marshaller, EwpClientExecutor executor,
+      EwpClientProperties clientProperties) {
+    this.httpClientManager = httpClientManager;
+    this.partnerHostRegistry = partnerHostRegistry;
     this.requestSigner = requestSigner;
     this.responseVerifier = responseVerifier;
     this.ewpHttpCommunicationLogService = ewpHttpCommunicationLogService;
     this.jaxb2Marshaller = jaxb2Marshaller;
+    this.executor = executor;
+    this.responseBodyProperties = clientProperties.getResponseBody();
   }
 
   /**
@@ -76,6 +112,10 @@ public class EwpClient {
    * request fails or the response obtained indicates an error then a corresponding exception is
    * thrown.
    *
+   * <p>If an identical idempotent request is already in flight then its result is shared instead
+   * of sending the request again. The communication is then logged once, noting the number of
+   * identical requests that were coalesced with it.
+   *
    * @param request          Request to send
    * @param responseBodyType Expected response's body class type upon success.
    * @return The result of a successful operation.
@@ -84,37 +124,449 @@ public class EwpClient {
   public <T extends Serializable> EwpSuccessOperationResult<T> executeAndLog(EwpRequest request,
       Class<T> responseBodyType) throws EwpClientErrorException {
     ZonedDateTime startProcessingDateTime = ZonedDateTime.now();
+    return requestCoalescer.execute(request, responseBodyType,
+        () -> execute(request, responseBodyType),
+        (operationResult, throwable, coalescedRequests) -> logCommunication(request,
+            operationResult, throwable, startProcessingDateTime, coalescedRequests));
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #executeAndLog(EwpRequest, Class)}. The request is signed,
+   * sent, verified and logged as stages of a pipeline running on the {@link EwpClientExecutor}, so
+   * the calling thread is not blocked during the round-trip to the partner.
+   *
+   * @param request          Request to send
+   * @param responseBodyType Expected response's body class type upon success.
+   * @return A future of the result of a successful operation. If the request fails for some reason
+   * then the future completes exceptionally with a {@link CompletionException} whose cause is a
+   * {@link EwpClientErrorException}.
+   */
+  public <T extends Serializable> CompletableFuture<EwpSuccessOperationResult<T>> executeAndLogAsync(
+      EwpRequest request, Class<T> responseBodyType) {
+    ZonedDateTime startProcessingDateTime = ZonedDateTime.now();
+    return requestCoalescer.executeAsync(request, responseBodyType,
+            () -> executeAsync(request, responseBodyType),
+            (operationResult, throwable, coalescedRequests) -> logCommunication(request,
+                operationResult, throwable, startProcessingDateTime, coalescedRequests))
+        .handle((operationResult, throwable) -> {
+          if (throwable == null) {
+            return operationResult;
+          }
+          throw new CompletionException(toClientErrorException(request, throwable));
+        });
+  }
+
+  private void logCommunication(EwpRequest request,
+      EwpSuccessOperationResult<?> operationResult, Throwable throwable,
+      ZonedDateTime startProcessingDateTime, int coalescedRequests) {
+    if (throwable == null) {
+      ewpHttpCommunicationLogService.logCommunicationToEwpNode(operationResult.getRequest(),
+          operationResult.getResponse(), startProcessingDateTime, ZonedDateTime.now(), "",
+          coalescedRequests);
+      releaseResponseBody(operationResult.getResponse());
+      return;
+    }
+
+    EwpClientErrorException exception = toClientErrorException(request, throwable);
+    ewpHttpCommunicationLogService.logCommunicationToEwpNode(exception.getRequest(),
+        exception.getResponse(), startProcessingDateTime, ZonedDateTime.now(),
+        exception.getDetailedMessage(), coalescedRequests);
+    releaseResponseBody(exception.getResponse());
+  }
+
+  /**
+   * Sends a request for a list of IDs, splitting it into several requests when the list exceeds
+   * the maximum number of IDs that the target API accepts per request. The chunks are sent
+   * concurrently, up to the maximum number of concurrent chunk requests configured for the target
+   * HEI, and their responses are merged into a single result.
+   *
+   * @param ids                Full list of IDs to request
+   * @param maxIdsPerRequest   Maximum number of IDs accepted by the target API per request (a
+   *                           non-positive value means there is no maximum)
+   * @param requestFactory     Creates the request for a chunk of IDs
+   * @param responseBodyType   Expected response's body class type upon success.
+   * @param responseBodyMerger Merges the response bodies of all chunks, in order, into a single one
+   * @return The result of a successful operation, holding the merged response body (and the total
+   * length of the bodies of all chunk responses). The request, response and authentication result
+   * are the ones of the first chunk.
+   * @throws EwpClientErrorException Some chunk request failed for some reason.
+   */
+  public <T extends Serializable> EwpSuccessOperationResult<T> executeAndLogInChunks(
+      Collection<String> ids, int maxIdsPerRequest,
+      Function<List<String>, EwpRequest> requestFactory,
+      Class<T> responseBodyType, Function<List<T>, T> responseBodyMerger)
+      throws EwpClientErrorException {
+    List<List<String>> chunks = partition(ids, maxIdsPerRequest);
+    if (chunks.size() == 1) {
+      return executeAndLog(requestFactory.apply(chunks.get(0)), responseBodyType);
+    }
+
     try {
-      EwpSuccessOperationResult<T> operationResult = execute(request, responseBodyType);
-      ewpHttpCommunicationLogService.logCommunicationToEwpNode(operationResult,
-          startProcessingDateTime, ZonedDateTime.now());
-      return operationResult;
+      return executeAndLogInChunksAsync(chunks, requestFactory, responseBodyType,
+          responseBodyMerger).join();
 
-    } catch (EwpClientErrorException e) {
-      ewpHttpCommunicationLogService.logCommunicationToEwpNode(e, startProcessingDateTime,
-          ZonedDateTime.now());
-      throw e;
+    } catch (CompletionException e) {
+      throw toClientErrorException(null, e);
+    }
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #executeAndLogInChunks(Collection, int, Function, Class,
+   * Function)}.
+   */
+  public <T extends Serializable> CompletableFuture<EwpSuccessOperationResult<T>> executeAndLogInChunksAsync(
+      Collection<String> ids, int maxIdsPerRequest,
+      Function<List<String>, EwpRequest> requestFactory,
+      Class<T> responseBodyType, Function<List<T>, T> responseBodyMerger) {
+    List<List<String>> chunks = partition(ids, maxIdsPerRequest);
+    if (chunks.size() == 1) {
+      return executeAndLogAsync(requestFactory.apply(chunks.get(0)), responseBodyType);
+    }
+    return executeAndLogInChunksAsync(chunks, requestFactory, responseBodyType,
+        responseBodyMerger);
+  }
+
+  private <T extends Serializable> CompletableFuture<EwpSuccessOperationResult<T>> executeAndLogInChunksAsync(
+      List<List<String>> chunks, Function<List<String>, EwpRequest> requestFactory,
+      Class<T> responseBodyType, Function<List<T>, T> responseBodyMerger) {
+    List<EwpRequest> requests = chunks.stream().map(requestFactory).collect(Collectors.toList());
+    int maxConcurrentRequests = Math.max(1,
+        partnerHostRegistry.getMaxConcurrentChunkRequests(requests.get(0)));
+
+    LOGGER.info("Sending EWP request to {} split into {} chunks ({} at a time)",
+        requests.get(0).getUrl(), requests.size(), maxConcurrentRequests);
+
+    AtomicReferenceArray<EwpSuccessOperationResult<T>> results =
+        new AtomicReferenceArray<>(requests.size());
+    AtomicInteger nextChunkIndex = new AtomicInteger();
+    AtomicBoolean failed = new AtomicBoolean();
+
+    CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(maxConcurrentRequests,
+        requests.size())];
+    for (int i = 0; i < lanes.length; i++) {
+      lanes[i] = executeNextChunks(requests, responseBodyType, results, nextChunkIndex, failed);
+    }
+
+    return CompletableFuture.allOf(lanes).thenApply(ignored -> {
+      EwpSuccessOperationResult<T> firstResult = results.get(0);
+      List<T> responseBodies = new ArrayList<>(requests.size());
+      long responseBodyLength = 0;
+      for (int i = 0; i < results.length(); i++) {
+        responseBodies.add(results.get(i).getResponseBody());
+        responseBodyLength += results.get(i).getResponseBodyLength();
+      }
+      return new EwpSuccessOperationResult.Builder<T>()
+          .request(firstResult.getRequest())
+          .response(firstResult.getResponse())
+          .responseAuthenticationResult(firstResult.getResponseAuthenticationResult())
+          .responseBody(responseBodyMerger.apply(responseBodies))
+          .responseBodyLength(responseBodyLength)
+          .build();
+    });
+  }
+
+  /**
+   * Sends, one at a time, the chunk requests not yet taken by other lanes, stopping as soon as
+   * some chunk request fails.
+   */
+  private <T extends Serializable> CompletableFuture<Void> executeNextChunks(
+      List<EwpRequest> requests, Class<T> responseBodyType,
+      AtomicReferenceArray<EwpSuccessOperationResult<T>> results, AtomicInteger nextChunkIndex,
+      AtomicBoolean failed) {
+    int chunkIndex = nextChunkIndex.getAndIncrement();
+    if (chunkIndex >= requests.size() || failed.get()) {
+      return CompletableFuture.completedFuture(null);
     }
+    return executeAndLogAsync(requests.get(chunkIndex), responseBodyType)
+        .whenComplete((result, throwable) -> {
+          if (throwable != null) {
+            failed.set(true);
+          }
+        })
+        .thenCompose(result -> {
+          results.set(chunkIndex, result);
+          return executeNextChunks(requests, responseBodyType, results, nextChunkIndex, failed);
+        });
+  }
+
+  private static List<List<String>> partition(Collection<String> ids, int maxIdsPerRequest) {
+    List<String> idsList = new ArrayList<>(ids);
+    if (maxIdsPerRequest <= 0 || idsList.size() <= maxIdsPerRequest) {
+      return Collections.singletonList(idsList);
+    }
+    return Lists.partition(idsList, maxIdsPerRequest);
   }
 
   protected <T extends Serializable> EwpSuccessOperationResult<T> execute(EwpRequest request,
       Class<T> expectedResponseBodyType) throws EwpClientErrorException {
-    EwpResponse response = null;
-    EwpAuthenticationResult responseAuthenticationResult = null;
-    try {
-      Client client = getClient();
+    EwpResponse response = exchange(sign(request));
+    return verifyAndResolveResponse(request, response, expectedResponseBodyType);
+  }
 
+  private <T extends Serializable> CompletableFuture<EwpSuccessOperationResult<T>> executeAsync(
+      EwpRequest request, Class<T> expectedResponseBodyType) {
+    return CompletableFuture.completedFuture(request)
+        .thenApplyAsync(asStage(this::sign), executor)
+        .thenCompose(this::exchangeAsync)
+        .thenApply(asStage(
+            response -> verifyAndResolveResponse(request, response, expectedResponseBodyType)));
+  }
+
+  private EwpRequest sign(EwpRequest request) throws EwpClientErrorException {
+    try {
       requestSigner.sign(request);
+      return request;
+
+    } catch (Exception e) {
+      LOGGER.error("Failed to sign request", e);
+      throw new EwpClientProcessorException(request, null, e);
+    }
+  }
+
+  /**
+   * Sends a request to its partner host and reads its response, protected by the partner host's
+   * circuit breaker and bulkhead. Idempotent requests that fail to connect are retried up to the
+   * partner host's maximum of retries. Connection errors, timeouts and server errors count as
+   * failures of the partner host.
+   */
+  private EwpResponse exchange(EwpRequest request) throws EwpClientErrorException {
+    EwpPartnerHost partnerHost = acquirePermission(request);
+    try {
+      return recordExchangeSuccess(partnerHost, exchangeWithRetries(request, partnerHost));
+
+    } catch (Exception e) {
+      throw recordExchangeFailure(request, partnerHost, e);
+    }
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #exchange(EwpRequest)}. Retries are scheduled on the
+   * {@link EwpClientExecutor} after their backoff, instead of blocking one of its threads.
+   */
+  private CompletableFuture<EwpResponse> exchangeAsync(EwpRequest request) {
+    EwpPartnerHost partnerHost;
+    try {
+      partnerHost = acquirePermission(request);
+
+    } catch (EwpClientErrorException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    return exchangeWithRetriesAsync(request, partnerHost, 0)
+        .handle((response, throwable) -> {
+          if (throwable == null) {
+            return recordExchangeSuccess(partnerHost, response);
+          }
+          Throwable cause = throwable;
+          while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+          }
+          throw new CompletionException(recordExchangeFailure(request, partnerHost,
+              cause instanceof Exception ? (Exception) cause : new IllegalStateException(cause)));
+        });
+  }
+
+  private EwpPartnerHost acquirePermission(EwpRequest request) throws EwpClientErrorException {
+    EwpPartnerHost partnerHost;
+    try {
+      partnerHost = partnerHostRegistry.getPartnerHost(request);
+
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to execute request", e);
+      throw new EwpClientProcessorException(request, null, e);
+    }
+
+    EwpPartnerCircuitBreaker circuitBreaker = partnerHost.getCircuitBreaker();
+    if (!circuitBreaker.tryAcquirePermission()) {
+      LOGGER.warn("Rejecting EWP request to {}: circuit breaker is open", partnerHost);
+      throw new EwpClientCircuitOpenException(request, partnerHost.getKey(),
+          circuitBreaker.getRemainingOpenDurationInMilliseconds());
+    }
+    return partnerHost;
+  }
+
+  private static EwpResponse recordExchangeSuccess(EwpPartnerHost partnerHost,
+      EwpResponse response) {
+    if (response.isServerError()) {
+      partnerHost.getCircuitBreaker().recordFailure();
+    } else {
+      partnerHost.getCircuitBreaker().recordSuccess();
+    }
+    return response;
+  }
+
+  /**
+   * Records the failure of an exchange on the partner host's circuit breaker, returning the
+   * exception to throw.
+   */
+  private static EwpClientErrorException recordExchangeFailure(EwpRequest request,
+      EwpPartnerHost partnerHost, Exception exception) {
+    EwpPartnerCircuitBreaker circuitBreaker = partnerHost.getCircuitBreaker();
+    if (exception instanceof EwpClientBulkheadFullException) {
+      circuitBreaker.releasePermission();
+      return (EwpClientBulkheadFullException) exception;
+    }
+
+    if (exception instanceof InterruptedException) {
+      circuitBreaker.releasePermission();
+      Thread.currentThread().interrupt();
+      return new EwpClientProcessorException(request, null, exception);
+    }
+
+    if (!isTransportFailure(exception)) {
+      circuitBreaker.releasePermission();
+      LOGGER.error("Failed to execute request", exception);
+      return new EwpClientProcessorException(request, null, exception);
+    }
+
+    circuitBreaker.recordFailure();
+    if (hasCause(exception, ConnectTimeoutException.class)) {
+      LOGGER.warn("Timed out connecting to {}", partnerHost);
+      return new EwpClientTimeoutException(request, partnerHost.getKey(),
+          partnerHost.getConnectTimeoutInMilliseconds(), exception);
+    } else if (hasCause(exception, SocketTimeoutException.class)) {
+      LOGGER.warn("Timed out waiting for response from {}", partnerHost);
+      return new EwpClientTimeoutException(request, partnerHost.getKey(),
+          partnerHost.getReadTimeoutInMilliseconds(), exception);
+    }
+    LOGGER.error("Failed to execute request", exception);
+    return new EwpClientProcessorException(request, null, exception);
+  }
+
+  private EwpResponse exchangeWithRetries(EwpRequest request, EwpPartnerHost partnerHost)
+      throws Exception {
+    int attempt = 0;
+    while (true) {
+      try {
+        return exchange(request, partnerHost);
+
+      } catch (Exception e) {
+        if (!isRetriable(request, partnerHost, e, attempt)) {
+          throw e;
+        }
+        attempt++;
+        // NOTE: the synchronous variant runs on the calling thread, so it may block on the backoff
+        Thread.sleep(prepareRetry(partnerHost, attempt));
+      }
+    }
+  }
+
+  private CompletableFuture<EwpResponse> exchangeWithRetriesAsync(EwpRequest request,
+      EwpPartnerHost partnerHost, int attempt) {
+    try {
+      return CompletableFuture.completedFuture(exchange(request, partnerHost));
 
-      WebTarget target = client.target(request.getUrl());
-      target.property("http.autoredirect", true);
+    } catch (Exception e) {
+      if (!isRetriable(request, partnerHost, e, attempt)) {
+        return CompletableFuture.failedFuture(e);
+      }
+      int nextAttempt = attempt + 1;
+      Executor delayedExecutor = CompletableFuture.delayedExecutor(
+          prepareRetry(partnerHost, nextAttempt), TimeUnit.MILLISECONDS, executor);
+      return CompletableFuture.supplyAsync(
+              () -> exchangeWithRetriesAsync(request, partnerHost, nextAttempt), delayedExecutor)
+          .thenCompose(Function.identity());
+    }
+  }
 
-      Invocation invocation = buildRequest(request, target);
+  private static boolean isRetriable(EwpRequest request, EwpPartnerHost partnerHost,
+      Exception exception, int attempt) {
+    return exception instanceof ProcessingException && attempt < partnerHost.getMaxRetries()
+        && request.isIdempotent() && isConnectionFailure(exception);
+  }
+
+  /**
+   * Records a retry of a request to a partner host, returning the backoff before the retry.
+   */
+  private static long prepareRetry(EwpPartnerHost partnerHost, int attempt) {
+    partnerHost.recordRetry();
+    long backoffInMilliseconds = partnerHost.getRetryBackoffInMilliseconds() * attempt;
+    LOGGER.warn("Failed to connect to {}, retrying in {} ms (retry {} of {})", partnerHost,
+        backoffInMilliseconds, attempt, partnerHost.getMaxRetries());
+    return backoffInMilliseconds;
+  }
+
+  private EwpResponse exchange(EwpRequest request, EwpPartnerHost partnerHost) throws Exception {
+    if (!partnerHost.tryAcquire(partnerHostRegistry.getAcquireTimeoutInMilliseconds())) {
+      LOGGER.warn("Rejecting EWP request to {}: too many requests in flight", partnerHost);
+      throw new EwpClientBulkheadFullException(request, partnerHost.getKey(),
+          partnerHost.getMaxInFlightRequests());
+    }
+
+    PooledEwpHttpClient client = null;
+    try {
+      client = httpClientManager.acquireClient();
+      client.ensureRouteConfigured(partnerHost);
+
+      WebTarget target = client.getClient().target(request.getUrl());
+
+      int readTimeoutInMilliseconds = partnerHost.getReadTimeoutInMilliseconds();
+      Invocation invocation = buildRequest(request, target, partnerHost,
+          readTimeoutInMilliseconds);
 
       LOGGER.info("Sending EWP request to: {}", request.getUrl());
 
-      response = EwpResponse.create(invocation.invoke());
+      long startTime = System.nanoTime();
+      EwpResponse response;
+      try (Response rawResponse = invocation.invoke()) {
+        response = EwpResponse.create(rawResponse, responseBodyProperties);
+
+      } catch (ProcessingException e) {
+        if (hasCause(e, SocketTimeoutException.class)) {
+          // NOTE: otherwise, only latencies below the read timeout would be observed
+          partnerHost.getLatencyTracker().record(readTimeoutInMilliseconds);
+        }
+        throw e;
+      }
+      partnerHost.getLatencyTracker()
+          .record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+      partnerHost.recordResponseBody(response.getBody());
+      return response;
+
+    } finally {
+      if (client != null) {
+        client.release();
+      }
+      partnerHost.release();
+    }
+  }
+
+  /**
+   * Checks whether an exception was caused by the communication with the partner host, as opposed
+   * to some local failure.
+   */
+  private static boolean isTransportFailure(Exception exception) {
+    return exception instanceof ProcessingException || exception instanceof IOException;
+  }
 
+  /**
+   * Checks whether an exception was caused by a failure to establish a connection (or by a pooled
+   * connection closed by the partner host before sending a response), in which case the request is
+   * safe to retry if idempotent.
+   */
+  private static boolean isConnectionFailure(Exception exception) {
+    return hasCause(exception, ConnectException.class)
+        || hasCause(exception, ConnectTimeoutException.class)
+        || hasCause(exception, NoHttpResponseException.class);
+  }
+
+  private static boolean hasCause(Throwable throwable, Class<? extends Throwable> causeType) {
+    for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+      if (causeType.isInstance(cause)) {
+        return true;
+      }
+      if (cause.getCause() == cause) {
+        break;
+      }
+    }
+    return false;
+  }
+
+  private <T extends Serializable> EwpSuccessOperationResult<T> verifyAndResolveResponse(
+      EwpRequest request, EwpResponse response, Class<T> expectedResponseBodyType)
+      throws EwpClientErrorException {
+    EwpAuthenticationResult responseAuthenticationResult = null;
+    try {
       responseAuthenticationResult = responseVerifier.verifyAgainstMethod(request, response);
       if (!responseAuthenticationResult.isValid()) {
         throw new EwpServerAuthenticationFailedException(request, response,
@@ -138,14 +590,43 @@ public class EwpClient {
     }
   }
 
+  private static EwpClientErrorException toClientErrorException(EwpRequest request,
+      Throwable throwable) {
+    Throwable cause = throwable;
+    while (cause instanceof CompletionException && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    if (cause instanceof EwpClientErrorException) {
+      return (EwpClientErrorException) cause;
+    }
+    LOGGER.error("Failed to execute request", cause);
+    return new EwpClientProcessorException(request, null,
+        cause instanceof Exception ? (Exception) cause : new IllegalStateException(cause));
+  }
+
+  private static <I, O> Function<I, O> asStage(Stage<I, O> stage) {
+    return input -> {
+      try {
+        return stage.apply(input);
+      } catch (EwpClientErrorException e) {
+        throw new CompletionException(e);
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface Stage<I, O> {
+
+    O apply(I input) throws EwpClientErrorException;
+  }
+
   private <T extends Serializable> EwpSuccessOperationResult<T> resolveResponseToSuccessOperationStatus(
       EwpRequest request, Class<T> expectedResponseBodyType, EwpResponse response,
       EwpAuthenticationResult responseAuthenticationResult)
       throws XmlCannotUnmarshallToTypeException, EwpClientErrorException {
 
     if (response.isSuccess()) {
-      T responseBody = XmlUtils.unmarshall(jaxb2Marshaller, response.getRawBody(),
-          expectedResponseBodyType);
+      T responseBody = unmarshallResponseBody(response, expectedResponseBodyType);
       return new EwpSuccessOperationResult.Builder<T>().request(request).response(response)
           .responseAuthenticationResult(responseAuthenticationResult).responseBody(responseBody)
           .build();
@@ -155,13 +636,32 @@ public class EwpClient {
     }
   }
 
+  private <T> T unmarshallResponseBody(EwpResponse response, Class<T> expectedType)
+      throws XmlCannotUnmarshallToTypeException {
+    EwpResponseBody body = response.getBody();
+    try (InputStream inputStream = body.openStream()) {
+      return XmlUtils.unmarshall(jaxb2Marshaller, inputStream, body.getCharset(), expectedType);
+    } catch (XmlCannotUnmarshallToTypeException e) {
+      // NOTE: only the logged prefix of the body is kept, as the full body may be spooled
+      throw new XmlCannotUnmarshallToTypeException(body.getLoggedContent(), expectedType, e);
+    } catch (IOException e) {
+      LOGGER.error("Failed to read response body", e);
+      throw new XmlCannotUnmarshallToTypeException(body.getLoggedContent(), expectedType, e);
+    }
+  }
+
+  private static void releaseResponseBody(EwpResponse response) {
+    if (response != null) {
+      response.getBody().release();
+    }
+  }
+
   private EwpClientErrorException createClientErrorExceptionFromResponse(EwpRequest request,
       EwpResponse response, EwpAuthenticationResult responseAuthenticationResult)
       throws XmlCannotUnmarshallToTypeException {
 
     if (response.isClientError()) {
-      ErrorResponseV1 errorResponse = XmlUtils.unmarshall(jaxb2Marshaller, response.getRawBody(),
-          ErrorResponseV1.class);
+      ErrorResponseV1 errorResponse = unmarshallResponseBody(response, ErrorResponseV1.class);
       if (HttpStatus.BAD_REQUEST.equals(response.getStatus())) {
         return new EwpClientErrorResponseException(request, response, responseAuthenticationResult,
             errorResponse);
@@ -185,19 +685,15 @@ public class EwpClient {
         new IllegalStateException("Unknown response status code: " + response.getStatus()));
   }
 
-  private Client getClient()
-      throws NoSuchAlgorithmException, NoSuchProviderException, KeyStoreException, UnrecoverableKeyException, KeyManagementException {
-    DecodedKeystore decodedKeystore = keystoreService.getDecodedKeyStoreFromStorage();
-    SSLContext sslContext = SecurityUtils.createSecurityContext(decodedKeystore.getKeyStore(), null,
-        decodedKeystore.getKeyStorePassword());
-    return ClientBuilder.newBuilder().sslContext(sslContext)
-        .hostnameVerifier((hostname, session) -> hostname.equalsIgnoreCase(session.getPeerHost()))
-        .build();
-  }
-
-  private Invocation buildRequest(EwpRequest request, WebTarget target) {
-    Invocation.Builder requestBuilder = target.request();
+  private Invocation buildRequest(EwpRequest request, WebTarget target,
+      EwpPartnerHost partnerHost, int readTimeoutInMilliseconds) {
+    Invocation.Builder requestBuilder = target.request()
+        .property(ClientProperties.CONNECT_TIMEOUT, partnerHost.getConnectTimeoutInMilliseconds())
+        .property(ClientProperties.READ_TIMEOUT, readTimeoutInMilliseconds);
     setRequestHeaders(requestBuilder, request);
+    if (responseBodyProperties.isCompressionEnabled()) {
+      requestBuilder.header(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_CONTENT_ENCODINGS);
+    }
 
     switch (request.getMethod()) {
       case GET:
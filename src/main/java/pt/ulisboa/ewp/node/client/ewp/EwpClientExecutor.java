@@ -0,0 +1,47 @@
+package pt.ulisboa.ewp.node.client.ewp;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import pt.ulisboa.ewp.node.config.client.EwpClientExecutorProperties;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
+
+/**
+ * Bounded executor on which asynchronous EWP requests run. When all threads are busy and the queue
+ * is full, submitted tasks are rejected instead of piling up.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class EwpClientExecutor implements Executor {
+
+  private final ThreadPoolExecutor threadPoolExecutor;
+
+  public EwpClientExecutor(EwpClientProperties properties) {
+    EwpClientExecutorProperties executorProperties = properties.getExecutor();
+    this.threadPoolExecutor = new ThreadPoolExecutor(
+        executorProperties.getCorePoolSize(),
+        Math.max(executorProperties.getCorePoolSize(), executorProperties.getMaxPoolSize()),
+        executorProperties.getKeepAliveInSeconds(), TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(executorProperties.getQueueCapacity()),
+        new CustomizableThreadFactory("EwpClientExecutor-"),
+        new ThreadPoolExecutor.AbortPolicy());
+    this.threadPoolExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    threadPoolExecutor.execute(command);
+  }
+
+  @PreDestroy
+  public void destroy() throws InterruptedException {
+    threadPoolExecutor.shutdown();
+    threadPoolExecutor.awaitTermination(30, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,272 @@
+package pt.ulisboa.ewp.node.client.ewp;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientProcessorException;
+import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
+import pt.ulisboa.ewp.node.client.ewp.operation.request.body.EwpRequestFormDataBody;
+import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+import pt.ulisboa.ewp.node.utils.http.HttpParams;
+
+/**
+ * Coalesces identical requests that are in flight at the same time, so that only one of them is
+ * actually sent and all callers share its result (or failure).
+ *
+ * <p>Only idempotent requests are coalesced (that is, GET requests and POST requests marked as
+ * idempotent, such as the ones of get and index operations), as those do not change the
+ * partner's state. Two requests are identical if they have the same method, URL, normalized query
+ * parameters, body (with normalized parameters, if it is form data), authentication method and
+ * expected response type.
+ *
+ * <p>Only the request actually sent is reported to its {@link CompletionListener}, along with the
+ * number of identical requests coalesced with it, so the communication is logged once.
+ */
+class EwpRequestCoalescer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EwpRequestCoalescer.class);
+
+  private final Map<Key, InFlightRequest<?>> inFlightRequests = new ConcurrentHashMap<>();
+
+  /**
+   * Executes a request on the calling thread, unless an identical request is already in flight, in
+   * which case its result is awaited instead. The listener is notified only if the request is
+   * actually executed.
+   */
+  <T extends Serializable> EwpSuccessOperationResult<T> execute(EwpRequest request,
+      Class<T> responseBodyType, Call<T> call, CompletionListener<T> listener)
+      throws EwpClientErrorException {
+    if (!isCoalescable(request)) {
+      try {
+        EwpSuccessOperationResult<T> result = call.execute();
+        notify(listener, result, null, 0);
+        return result;
+
+      } catch (EwpClientErrorException | RuntimeException e) {
+        notify(listener, null, e, 0);
+        throw e;
+      }
+    }
+
+    Key key = new Key(request, responseBodyType);
+    InFlightRequest<T> inFlightRequest = new InFlightRequest<>();
+    InFlightRequest<T> leaderRequest = join(key, inFlightRequest);
+    if (leaderRequest != inFlightRequest) {
+      LOGGER.debug("Coalescing EWP request to {} with an identical in-flight request",
+          request.getUrl());
+      return await(request, leaderRequest.future);
+    }
+
+    try {
+      EwpSuccessOperationResult<T> result = call.execute();
+      notify(listener, result, null, leave(key, inFlightRequest));
+      inFlightRequest.future.complete(result);
+      return result;
+
+    } catch (EwpClientErrorException | RuntimeException e) {
+      notify(listener, null, e, leave(key, inFlightRequest));
+      inFlightRequest.future.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #execute(EwpRequest, Class, Call, CompletionListener)}.
+   */
+  <T extends Serializable> CompletableFuture<EwpSuccessOperationResult<T>> executeAsync(
+      EwpRequest request, Class<T> responseBodyType,
+      Supplier<CompletableFuture<EwpSuccessOperationResult<T>>> call,
+      CompletionListener<T> listener) {
+    if (!isCoalescable(request)) {
+      CompletableFuture<EwpSuccessOperationResult<T>> future;
+      try {
+        future = call.get();
+      } catch (RuntimeException e) {
+        future = CompletableFuture.failedFuture(e);
+      }
+      return future.whenComplete((result, throwable) -> notify(listener, result, throwable, 0));
+    }
+
+    Key key = new Key(request, responseBodyType);
+    InFlightRequest<T> inFlightRequest = new InFlightRequest<>();
+    InFlightRequest<T> leaderRequest = join(key, inFlightRequest);
+    if (leaderRequest != inFlightRequest) {
+      LOGGER.debug("Coalescing EWP request to {} with an identical in-flight request",
+          request.getUrl());
+      return leaderRequest.future;
+    }
+
+    CompletableFuture<EwpSuccessOperationResult<T>> future = inFlightRequest.future;
+    try {
+      call.get().whenComplete((result, throwable) -> {
+        notify(listener, result, throwable, leave(key, inFlightRequest));
+        if (throwable == null) {
+          future.complete(result);
+        } else {
+          future.completeExceptionally(throwable);
+        }
+      });
+
+    } catch (RuntimeException e) {
+      notify(listener, null, e, leave(key, inFlightRequest));
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  int getNumberOfInFlightRequests() {
+    return inFlightRequests.size();
+  }
+
+  /**
+   * Registers a request as in flight, unless an identical one is already in flight. Returns the
+   * in-flight request that will actually be executed.
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends Serializable> InFlightRequest<T> join(Key key,
+      InFlightRequest<T> inFlightRequest) {
+    return (InFlightRequest<T>) inFlightRequests.compute(key, (k, existingInFlightRequest) -> {
+      if (existingInFlightRequest == null) {
+        return inFlightRequest;
+      }
+      existingInFlightRequest.coalescedRequests.incrementAndGet();
+      return existingInFlightRequest;
+    });
+  }
+
+  /**
+   * Unregisters an in-flight request, returning the number of identical requests coalesced with
+   * it. No further requests are coalesced with it afterwards.
+   */
+  private int leave(Key key, InFlightRequest<?> inFlightRequest) {
+    inFlightRequests.remove(key, inFlightRequest);
+    return inFlightRequest.coalescedRequests.get();
+  }
+
+  private static <T extends Serializable> void notify(CompletionListener<T> listener,
+      EwpSuccessOperationResult<T> result, Throwable throwable, int coalescedRequests) {
+    try {
+      listener.onCompletion(result, throwable, coalescedRequests);
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to handle completion of EWP request", e);
+    }
+  }
+
+  private static boolean isCoalescable(EwpRequest request) {
+    return request.isIdempotent();
+  }
+
+  private static <T extends Serializable> EwpSuccessOperationResult<T> await(EwpRequest request,
+      CompletableFuture<EwpSuccessOperationResult<T>> future) throws EwpClientErrorException {
+    try {
+      return future.join();
+
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause() != null ? e.getCause() : e;
+      while (cause instanceof CompletionException && cause.getCause() != null) {
+        cause = cause.getCause();
+      }
+      if (cause instanceof EwpClientErrorException) {
+        throw (EwpClientErrorException) cause;
+      }
+      throw new EwpClientProcessorException(request, null,
+          cause instanceof Exception ? (Exception) cause : new IllegalStateException(cause));
+    }
+  }
+
+  @FunctionalInterface
+  interface Call<T extends Serializable> {
+
+    EwpSuccessOperationResult<T> execute() throws EwpClientErrorException;
+  }
+
+  /**
+   * Receives the outcome of a request actually executed.
+   */
+  @FunctionalInterface
+  interface CompletionListener<T extends Serializable> {
+
+    /**
+     * @param result            Result of the request, or null if it failed.
+     * @param throwable         Failure of the request, or null if it succeeded.
+     * @param coalescedRequests Number of identical requests that share the outcome of the request.
+     */
+    void onCompletion(EwpSuccessOperationResult<T> result, Throwable throwable,
+        int coalescedRequests);
+  }
+
+  private static class InFlightRequest<T extends Serializable> {
+
+    private final CompletableFuture<EwpSuccessOperationResult<T>> future =
+        new CompletableFuture<>();
+    private final AtomicInteger coalescedRequests = new AtomicInteger();
+  }
+
+  private static class Key {
+
+    private final HttpMethod method;
+    private final String urlWithoutQueryParams;
+    private final SortedMap<String, List<String>> queryParams;
+    private final Object body;
+    private final EwpAuthenticationMethod authenticationMethod;
+    private final Class<?> responseBodyType;
+
+    Key(EwpRequest request, Class<?> responseBodyType) {
+      this.method = request.getMethod();
+      this.urlWithoutQueryParams = request.getUrlWithoutQueryParams();
+      this.queryParams = normalize(request.getQueryParams());
+      this.body = request.getBody() instanceof EwpRequestFormDataBody
+          ? normalize(((EwpRequestFormDataBody) request.getBody()).getFormData())
+          : (request.getBody() != null ? request.getBody().serialize() : null);
+      this.authenticationMethod = request.getAuthenticationMethod();
+      this.responseBodyType = responseBodyType;
+    }
+
+    private static SortedMap<String, List<String>> normalize(HttpParams params) {
+      SortedMap<String, List<String>> result = new TreeMap<>();
+      params.asMap().forEach((name, values) -> {
+        List<String> sortedValues = new ArrayList<>(values);
+        Collections.sort(sortedValues);
+        result.put(name, sortedValues);
+      });
+      return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return method == key.method
+          && Objects.equals(urlWithoutQueryParams, key.urlWithoutQueryParams)
+          && Objects.equals(queryParams, key.queryParams) && Objects.equals(body, key.body)
+          && Objects.equals(authenticationMethod, key.authenticationMethod)
+          && Objects.equals(responseBodyType, key.responseBodyType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(method, urlWithoutQueryParams, queryParams, body, authenticationMethod,
+          responseBodyType);
+    }
+  }
+}
@@ -0,0 +1,325 @@
+package pt.ulisboa.ewp.node.client.ewp.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import pt.ulisboa.ewp.node.client.ewp.EwpClientExecutor;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
+import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
+import pt.ulisboa.ewp.node.config.client.EwpClientResponseCacheProperties;
+
+/**
+ * Cache of successful responses obtained from APIs whose data rarely changes.
+ *
+ * <p>An entry is fresh during the time to live configured for its API. After that, it is still
+ * served during the stale-while-revalidate period while a single background request refreshes
+ * it; past that period, it is requested again before responding. Failed requests are never cached.
+ *
+ * <p>The size of an entry is estimated from the size of its raw response body, which is retained
+ * along with the object graph unmarshalled from it. Once the total size exceeds the configured
+ * maximum, the least recently used entries are evicted.
+ *
+ * <p>Every invalidation starts a new generation of the cache. A response whose request started in
+ * a previous generation is not cached, so that a request (or a revalidation) that completes after
+ * an invalidation cannot put back a response obtained before it.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class EwpResponseCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EwpResponseCache.class);
+
+  private static final String METRIC_PREFIX = "ewp.client.response.cache.";
+
+  /**
+   * Estimated number of bytes retained by the unmarshalled object graph of a response per byte of
+   * its XML body (JAXB objects, boxed values and strings are considerably larger than the XML).
+   */
+  static final int OBJECT_GRAPH_BYTES_PER_BODY_BYTE = 4;
+
+  private final EwpClientResponseCacheProperties properties;
+  private final EwpClientExecutor executor;
+
+  private final LinkedHashMap<EwpResponseCacheKey, Entry> entries =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long sizeInBytes;
+  private long generation;
+
+  private final Set<EwpResponseCacheKey> keysBeingRevalidated = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong staleHits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public EwpResponseCache(EwpClientProperties properties, EwpClientExecutor executor,
+      MeterRegistry meterRegistry) {
+    this.properties = properties.getResponseCache();
+    this.executor = executor;
+    registerMetrics(meterRegistry);
+  }
+
+  /**
+   * Returns the cached response for a given key, obtaining it through the loader when there is no
+   * usable cached response.
+   */
+  public <T extends Serializable> EwpSuccessOperationResult<T> get(EwpResponseCacheKey key,
+      Loader<T> loader) throws EwpClientErrorException {
+    if (!properties.isEnabled()) {
+      return loader.load();
+    }
+
+    EwpSuccessOperationResult<T> cachedResult = getCachedResult(key,
+        () -> CompletableFuture.supplyAsync(() -> {
+          try {
+            return loader.load();
+          } catch (EwpClientErrorException e) {
+            throw new CompletionException(e);
+          }
+        }, executor));
+    if (cachedResult != null) {
+      return cachedResult;
+    }
+
+    long loadGeneration = getGeneration();
+    EwpSuccessOperationResult<T> result = loader.load();
+    put(key, result, loadGeneration);
+    return result;
+  }
+
+  /**
+   * Asynchronous counterpart of {@link #get(EwpResponseCacheKey, Loader)}.
+   */
+  public <T extends Serializable> CompletableFuture<EwpSuccessOperationResult<T>> getAsync(
+      EwpResponseCacheKey key, Supplier<CompletableFuture<EwpSuccessOperationResult<T>>> loader) {
+    if (!properties.isEnabled()) {
+      return loader.get();
+    }
+
+    EwpSuccessOperationResult<T> cachedResult = getCachedResult(key, loader);
+    if (cachedResult != null) {
+      return CompletableFuture.completedFuture(cachedResult);
+    }
+
+    long loadGeneration = getGeneration();
+    return loader.get().thenApply(result -> {
+      put(key, result, loadGeneration);
+      return result;
+    });
+  }
+
+  /**
+   * Removes all cached responses obtained from a given HEI.
+   *
+   * @return The number of responses removed.
+   */
+  public int invalidateHeiId(String heiId) {
+    int removedEntries = 0;
+    synchronized (entries) {
+      Iterator<Map.Entry<EwpResponseCacheKey, Entry>> iterator = entries.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<EwpResponseCacheKey, Entry> mapEntry = iterator.next();
+        if (mapEntry.getKey().getHeiId().equals(heiId)) {
+          sizeInBytes -= mapEntry.getValue().sizeInBytes;
+          iterator.remove();
+          removedEntries++;
+        }
+      }
+      generation++;
+    }
+    LOGGER.info("Invalidated {} cached responses of HEI {}", removedEntries, heiId);
+    return removedEntries;
+  }
+
+  /**
+   * Removes all cached responses.
+   *
+   * @return The number of responses removed.
+   */
+  public int invalidateAll() {
+    int removedEntries;
+    synchronized (entries) {
+      removedEntries = entries.size();
+      entries.clear();
+      sizeInBytes = 0;
+      generation++;
+    }
+    LOGGER.info("Invalidated all {} cached responses", removedEntries);
+    return removedEntries;
+  }
+
+  public int getNumberOfEntries() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public long getSizeInBytes() {
+    synchronized (entries) {
+      return sizeInBytes;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T extends Serializable> EwpSuccessOperationResult<T> getCachedResult(
+      EwpResponseCacheKey key,
+      Supplier<CompletableFuture<EwpSuccessOperationResult<T>>> revalidationLoader) {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+    }
+    if (entry == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+
+    long ageInNanoseconds = System.nanoTime() - entry.createdAtInNanoseconds;
+    if (ageInNanoseconds < entry.timeToLiveInNanoseconds) {
+      hits.incrementAndGet();
+      return (EwpSuccessOperationResult<T>) entry.result;
+    }
+
+    if (ageInNanoseconds < entry.timeToLiveInNanoseconds + TimeUnit.SECONDS.toNanos(
+        properties.getStaleWhileRevalidateInSeconds())) {
+      staleHits.incrementAndGet();
+      revalidateInBackground(key, revalidationLoader);
+      return (EwpSuccessOperationResult<T>) entry.result;
+    }
+
+    misses.incrementAndGet();
+    return null;
+  }
+
+  private <T extends Serializable> void revalidateInBackground(EwpResponseCacheKey key,
+      Supplier<CompletableFuture<EwpSuccessOperationResult<T>>> loader) {
+    if (!keysBeingRevalidated.add(key)) {
+      return;
+    }
+
+    try {
+      long revalidationGeneration = getGeneration();
+      loader.get().whenComplete((result, throwable) -> {
+        keysBeingRevalidated.remove(key);
+        if (throwable == null) {
+          put(key, result, revalidationGeneration);
+        } else {
+          LOGGER.warn("Failed to revalidate cached response for {}", key, throwable);
+        }
+      });
+
+    } catch (RuntimeException e) {
+      keysBeingRevalidated.remove(key);
+      LOGGER.warn("Failed to start revalidation of cached response for {}", key, e);
+    }
+  }
+
+  private long getGeneration() {
+    synchronized (entries) {
+      return generation;
+    }
+  }
+
+  private void put(EwpResponseCacheKey key, EwpSuccessOperationResult<?> result,
+      long loadGeneration) {
+    long entrySizeInBytes = getSizeInBytes(result);
+    if (entrySizeInBytes > properties.getMaxSizeInBytes()) {
+      LOGGER.debug("Not caching response for {}: size {} exceeds the maximum cache size", key,
+          entrySizeInBytes);
+      return;
+    }
+
+    Entry entry = new Entry(result, entrySizeInBytes, TimeUnit.SECONDS.toNanos(
+        properties.getTimeToLiveInSecondsForApi(key.getApiLocalName())));
+    synchronized (entries) {
+      if (loadGeneration != generation) {
+        LOGGER.debug("Not caching response for {}: cache was invalidated meanwhile", key);
+        return;
+      }
+      Entry previousEntry = entries.put(key, entry);
+      if (previousEntry != null) {
+        sizeInBytes -= previousEntry.sizeInBytes;
+      }
+      sizeInBytes += entrySizeInBytes;
+      evictLeastRecentlyUsedEntries();
+    }
+  }
+
+  private void evictLeastRecentlyUsedEntries() {
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (sizeInBytes > properties.getMaxSizeInBytes() && iterator.hasNext()) {
+      sizeInBytes -= iterator.next().sizeInBytes;
+      iterator.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  /**
+   * Estimates the size of a cached result from the length of the body of its response (or of the
+   * bodies of all its chunk responses, if it was merged from several chunk requests).
+   */
+  private static long getSizeInBytes(EwpSuccessOperationResult<?> result) {
+    long bodyLength = result.getResponseBodyLength();
+    return bodyLength + bodyLength * OBJECT_GRAPH_BYTES_PER_BODY_BYTE;
+  }
+
+  private void registerMetrics(MeterRegistry meterRegistry) {
+    FunctionCounter.builder(METRIC_PREFIX + "hits", hits, AtomicLong::get)
+        .description("Requests served with a fresh cached response")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "hits.stale", staleHits, AtomicLong::get)
+        .description("Requests served with a stale cached response while it is revalidated")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "misses", misses, AtomicLong::get)
+        .description("Requests without a usable cached response")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "evictions", evictions, AtomicLong::get)
+        .description("Cached responses evicted to respect the maximum cache size")
+        .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + "entries", this, EwpResponseCache::getNumberOfEntries)
+        .description("Cached responses")
+        .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + "size", this, EwpResponseCache::getSizeInBytes)
+        .description("Estimated total size of the cached responses").baseUnit("bytes")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Obtains a response when there is no usable cached response.
+   */
+  @FunctionalInterface
+  public interface Loader<T extends Serializable> {
+
+    EwpSuccessOperationResult<T> load() throws EwpClientErrorException;
+  }
+
+  private static class Entry {
+
+    private final EwpSuccessOperationResult<?> result;
+    private final long sizeInBytes;
+    private final long timeToLiveInNanoseconds;
+    private final long createdAtInNanoseconds = System.nanoTime();
+
+    Entry(EwpSuccessOperationResult<?> result, long sizeInBytes, long timeToLiveInNanoseconds) {
+      this.result = result;
+      this.sizeInBytes = sizeInBytes;
+      this.timeToLiveInNanoseconds = timeToLiveInNanoseconds;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package pt.ulisboa.ewp.node.client.ewp.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import pt.ulisboa.ewp.node.utils.EwpApiSpecification.EwpApiVersionSpecification;
+
+/**
+ * Key of a cached response: the API (local name and major version), the target HEI ID and the
+ * request parameters. The parameters are normalized (sorted by name, and their values sorted and
+ * without duplicates) so that equivalent requests share the same cached response.
+ */
+public class EwpResponseCacheKey {
+
+  private final String apiLocalName;
+  private final int majorVersion;
+  private final String heiId;
+  private final SortedMap<String, List<String>> params;
+
+  private EwpResponseCacheKey(Builder builder) {
+    this.apiLocalName = builder.apiLocalName;
+    this.majorVersion = builder.majorVersion;
+    this.heiId = builder.heiId;
+    SortedMap<String, List<String>> normalizedParams = new TreeMap<>();
+    builder.params.forEach(
+        (name, values) -> normalizedParams.put(name,
+            Collections.unmodifiableList(new ArrayList<>(values))));
+    this.params = Collections.unmodifiableSortedMap(normalizedParams);
+  }
+
+  public String getApiLocalName() {
+    return apiLocalName;
+  }
+
+  public int getMajorVersion() {
+    return majorVersion;
+  }
+
+  public String getHeiId() {
+    return heiId;
+  }
+
+  public SortedMap<String, List<String>> getParams() {
+    return params;
+  }
+
+  public static Builder builder(EwpApiVersionSpecification<?, ?> apiVersionSpecification,
+      String heiId) {
+    return new Builder(apiVersionSpecification.getApi().getLocalName(),
+        apiVersionSpecification.getMajorVersion(), heiId);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    EwpResponseCacheKey that = (EwpResponseCacheKey) o;
+    return majorVersion == that.majorVersion && Objects.equals(apiLocalName, that.apiLocalName)
+        && Objects.equals(heiId, that.heiId) && Objects.equals(params, that.params);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(apiLocalName, majorVersion, heiId, params);
+  }
+
+  @Override
+  public String toString() {
+    return "EwpResponseCacheKey{" + "api='" + apiLocalName + "', majorVersion=" + majorVersion
+        + ", heiId='" + heiId + "', params=" + params + '}';
+  }
+
+  public static class Builder {
+
+    private final String apiLocalName;
+    private final int majorVersion;
+    private final String heiId;
+    private final Map<String, TreeSet<String>> params = new TreeMap<>();
+
+    private Builder(String apiLocalName, int majorVersion, String heiId) {
+      this.apiLocalName = apiLocalName;
+      this.majorVersion = majorVersion;
+      this.heiId = heiId;
+    }
+
+    public Builder param(String name, Collection<?> values) {
+      if (values != null) {
+        values.forEach(value -> param(name, value));
+      }
+      return this;
+    }
+
+    public Builder param(String name, Object value) {
+      if (value != null) {
+        params.computeIfAbsent(name, k -> new TreeSet<>()).add(String.valueOf(value));
+      }
+      return this;
+    }
+
+    public EwpResponseCacheKey build() {
+      return new EwpResponseCacheKey(this);
+    }
+  }
+}
@@ -3,11 +3,14 @@ package pt.ulisboa.ewp.node.client.ewp.courses;
 import eu.erasmuswithoutpaper.api.courses.v0.CoursesResponseV0;
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.ForwardEwpApiCoursesApiSpecificationResponseDTO;
-import pt.ulisboa.ewp.node.client.ewp.EwpApiClient;
+import pt.ulisboa.ewp.node.client.ewp.EwpCachedApiClient;
 import pt.ulisboa.ewp.node.client.ewp.EwpClient;
+import pt.ulisboa.ewp.node.client.ewp.cache.EwpResponseCache;
+import pt.ulisboa.ewp.node.client.ewp.cache.EwpResponseCacheKey;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
 import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
@@ -18,10 +21,11 @@ import pt.ulisboa.ewp.node.utils.EwpApiSpecification.EwpApiVersionSpecification;
 import pt.ulisboa.ewp.node.utils.http.HttpParams;
 
 @Service
-public class EwpCoursesV0Client extends EwpApiClient<EwpCourseApiConfiguration> {
+public class EwpCoursesV0Client extends EwpCachedApiClient<EwpCourseApiConfiguration> {
 
-  public EwpCoursesV0Client(RegistryClient registryClient, EwpClient ewpClient) {
-    super(registryClient, ewpClient);
+  public EwpCoursesV0Client(RegistryClient registryClient, EwpClient ewpClient,
+      EwpResponseCache responseCache) {
+    super(registryClient, ewpClient, responseCache);
   }
 
   public ForwardEwpApiCoursesApiSpecificationResponseDTO getApiSpecification(String heiId) {
@@ -37,6 +41,42 @@ public class EwpCoursesV0Client extends EwpApiClient<EwpCourseApiConfiguration>
       LocalDate loisAfterDate,
       LocalDate losAtDate)
       throws EwpClientErrorException {
+    EwpResponseCacheKey key = createCacheKey(heiId, EwpApiParamConstants.LOS_ID, losIds,
+        loisBeforeDate, loisAfterDate, losAtDate);
+    return responseCache.get(key, () -> {
+      EwpCourseApiConfiguration api = getApiConfigurationForHeiId(heiId);
+      return executeAndLogInChunks(losIds, api.getMaxLosIds(),
+          chunk -> createFindByLosIdsRequest(heiId, chunk, loisBeforeDate, loisAfterDate,
+              losAtDate),
+          CoursesResponseV0.class, CoursesResponseV0::new,
+          CoursesResponseV0::getLearningOpportunitySpecification);
+    });
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<CoursesResponseV0>> findByLosIdsAsync(
+      String heiId,
+      Collection<String> losIds,
+      LocalDate loisBeforeDate,
+      LocalDate loisAfterDate,
+      LocalDate losAtDate) {
+    EwpResponseCacheKey key = createCacheKey(heiId, EwpApiParamConstants.LOS_ID, losIds,
+        loisBeforeDate, loisAfterDate, losAtDate);
+    return responseCache.getAsync(key, () -> {
+      EwpCourseApiConfiguration api = getApiConfigurationForHeiId(heiId);
+      return executeAndLogInChunksAsync(losIds, api.getMaxLosIds(),
+          chunk -> createFindByLosIdsRequest(heiId, chunk, loisBeforeDate, loisAfterDate,
+              losAtDate),
+          CoursesResponseV0.class, CoursesResponseV0::new,
+          CoursesResponseV0::getLearningOpportunitySpecification);
+    });
+  }
+
+  private EwpRequest createFindByLosIdsRequest(
+      String heiId,
+      Collection<String> losIds,
+      LocalDate loisBeforeDate,
+      LocalDate loisAfterDate,
+      LocalDate losAtDate) {
     EwpCourseApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams queryParams = new HttpParams();
@@ -46,8 +86,7 @@ public class EwpCoursesV0Client extends EwpApiClient<EwpCourseApiConfiguration>
     queryParams.param(EwpApiParamConstants.LOIS_AFTER, loisAfterDate);
     queryParams.param(EwpApiParamConstants.LOS_AT_DATE, losAtDate);
 
-    EwpRequest request = EwpRequest.createGet(api, api.getUrl(), queryParams);
-    return ewpClient.executeAndLog(request, CoursesResponseV0.class);
+    return EwpRequest.createGet(api, api.getUrl(), queryParams);
   }
 
   public EwpSuccessOperationResult<CoursesResponseV0> findByLosCodes(
@@ -57,6 +96,42 @@ public class EwpCoursesV0Client extends EwpApiClient<EwpCourseApiConfiguration>
       LocalDate loisAfterDate,
       LocalDate losAtDate)
       throws EwpClientErrorException {
+    EwpResponseCacheKey key = createCacheKey(heiId, EwpApiParamConstants.LOS_CODE, losCodes,
+        loisBeforeDate, loisAfterDate, losAtDate);
+    return responseCache.get(key, () -> {
+      EwpCourseApiConfiguration api = getApiConfigurationForHeiId(heiId);
+      return executeAndLogInChunks(losCodes, api.getMaxLosCodes(),
+          chunk -> createFindByLosCodesRequest(heiId, chunk, loisBeforeDate, loisAfterDate,
+              losAtDate),
+          CoursesResponseV0.class, CoursesResponseV0::new,
+          CoursesResponseV0::getLearningOpportunitySpecification);
+    });
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<CoursesResponseV0>> findByLosCodesAsync(
+      String heiId,
+      Collection<String> losCodes,
+      LocalDate loisBeforeDate,
+      LocalDate loisAfterDate,
+      LocalDate losAtDate) {
+    EwpResponseCacheKey key = createCacheKey(heiId, EwpApiParamConstants.LOS_CODE, losCodes,
+        loisBeforeDate, loisAfterDate, losAtDate);
+    return responseCache.getAsync(key, () -> {
+      EwpCourseApiConfiguration api = getApiConfigurationForHeiId(heiId);
+      return executeAndLogInChunksAsync(losCodes, api.getMaxLosCodes(),
+          chunk -> createFindByLosCodesRequest(heiId, chunk, loisBeforeDate, loisAfterDate,
+              losAtDate),
+          CoursesResponseV0.class, CoursesResponseV0::new,
+          CoursesResponseV0::getLearningOpportunitySpecification);
+    });
+  }
+
+  private EwpRequest createFindByLosCodesRequest(
+      String heiId,
+      Collection<String> losCodes,
+      LocalDate loisBeforeDate,
+      LocalDate loisAfterDate,
+      LocalDate losAtDate) {
     EwpCourseApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams queryParams = new HttpParams();
@@ -66,8 +141,22 @@ public class EwpCoursesV0Client extends EwpApiClient<EwpCourseApiConfiguration>
     queryParams.param(EwpApiParamConstants.LOIS_AFTER, loisAfterDate);
     queryParams.param(EwpApiParamConstants.LOS_AT_DATE, losAtDate);
 
-    EwpRequest request = EwpRequest.createGet(api, api.getUrl(), queryParams);
-    return ewpClient.executeAndLog(request, CoursesResponseV0.class);
+    return EwpRequest.createGet(api, api.getUrl(), queryParams);
+  }
+
+  private EwpResponseCacheKey createCacheKey(
+      String heiId,
+      String losParamName,
+      Collection<String> losValues,
+      LocalDate loisBeforeDate,
+      LocalDate loisAfterDate,
+      LocalDate losAtDate) {
+    return cacheKey(heiId)
+        .param(losParamName, losValues)
+        .param(EwpApiParamConstants.LOIS_BEFORE, loisBeforeDate)
+        .param(EwpApiParamConstants.LOIS_AFTER, loisAfterDate)
+        .param(EwpApiParamConstants.LOS_AT_DATE, losAtDate)
+        .build();
   }
 
   @Override
@@ -2,6 +2,7 @@ package pt.ulisboa.ewp.node.client.ewp.courses.replication;
 
 import eu.erasmuswithoutpaper.api.courses.replication.v1.CourseReplicationResponseV1;
 import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.client.ewp.EwpApiClient;
@@ -25,14 +26,25 @@ public class EwpSimpleCourseReplicationV1Client
 
   public EwpSuccessOperationResult<CourseReplicationResponseV1> findAllCourses(
       String heiId, ZonedDateTime modifiedSince) throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createFindAllCoursesRequest(heiId, modifiedSince), CourseReplicationResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<CourseReplicationResponseV1>> findAllCoursesAsync(
+      String heiId, ZonedDateTime modifiedSince) {
+    return ewpClient.executeAndLogAsync(
+        createFindAllCoursesRequest(heiId, modifiedSince), CourseReplicationResponseV1.class);
+  }
+
+  private EwpRequest createFindAllCoursesRequest(
+      String heiId, ZonedDateTime modifiedSince) {
     EwpSimpleCourseReplicationApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams queryParams = new HttpParams();
     queryParams.param(EwpApiParamConstants.HEI_ID, heiId);
     queryParams.param(EwpApiParamConstants.MODIFIED_SINCE, modifiedSince);
 
-    EwpRequest request = EwpRequest.createGet(api, api.getUrl(), queryParams);
-    return ewpClient.executeAndLog(request, CourseReplicationResponseV1.class);
+    return EwpRequest.createGet(api, api.getUrl(), queryParams);
   }
 
   @Override
@@ -0,0 +1,34 @@
+package pt.ulisboa.ewp.node.client.ewp.exception;
+
+import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
+
+/**
+ * Request was rejected without being sent because the maximum number of requests in flight to the
+ * target partner host was reached.
+ */
+public class EwpClientBulkheadFullException extends EwpClientErrorException {
+
+  private final String partnerHost;
+  private final int maxInFlightRequests;
+
+  public EwpClientBulkheadFullException(EwpRequest request, String partnerHost,
+      int maxInFlightRequests) {
+    super(request, null);
+    this.partnerHost = partnerHost;
+    this.maxInFlightRequests = maxInFlightRequests;
+  }
+
+  public String getPartnerHost() {
+    return partnerHost;
+  }
+
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
+  @Override
+  public String getMessage() {
+    return "Too many requests in flight to " + partnerHost + " (maximum: " + maxInFlightRequests
+        + ")";
+  }
+}
@@ -0,0 +1,35 @@
+package pt.ulisboa.ewp.node.client.ewp.exception;
+
+import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
+
+/**
+ * Request was rejected without being sent because the circuit breaker of the target partner host is
+ * open, following repeated failures of the requests sent to it.
+ */
+public class EwpClientCircuitOpenException extends EwpClientErrorException {
+
+  private final String partnerHost;
+  private final long remainingOpenDurationInMilliseconds;
+
+  public EwpClientCircuitOpenException(EwpRequest request, String partnerHost,
+      long remainingOpenDurationInMilliseconds) {
+    super(request, null);
+    this.partnerHost = partnerHost;
+    this.remainingOpenDurationInMilliseconds = remainingOpenDurationInMilliseconds;
+  }
+
+  public String getPartnerHost() {
+    return partnerHost;
+  }
+
+  public long getRemainingOpenDurationInMilliseconds() {
+    return remainingOpenDurationInMilliseconds;
+  }
+
+  @Override
+  public String getMessage() {
+    return "Requests to " + partnerHost + " are temporarily suspended after repeated failures"
+        + " (retry in " + Math.max(1, (remainingOpenDurationInMilliseconds + 999) / 1000)
+        + " seconds)";
+  }
+}
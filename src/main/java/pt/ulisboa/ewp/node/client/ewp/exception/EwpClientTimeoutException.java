@@ -0,0 +1,33 @@
+package pt.ulisboa.ewp.node.client.ewp.exception;
+
+import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
+
+/**
+ * Request timed out while connecting to the target partner host or while waiting for its response.
+ */
+public class EwpClientTimeoutException extends EwpClientErrorException {
+
+  private final String partnerHost;
+  private final long timeoutInMilliseconds;
+
+  public EwpClientTimeoutException(EwpRequest request, String partnerHost,
+      long timeoutInMilliseconds, Throwable cause) {
+    super(request, null);
+    this.partnerHost = partnerHost;
+    this.timeoutInMilliseconds = timeoutInMilliseconds;
+    initCause(cause);
+  }
+
+  public String getPartnerHost() {
+    return partnerHost;
+  }
+
+  public long getTimeoutInMilliseconds() {
+    return timeoutInMilliseconds;
+  }
+
+  @Override
+  public String getMessage() {
+    return "Request to " + partnerHost + " timed out after " + timeoutInMilliseconds + " ms";
+  }
+}
@@ -1,10 +1,12 @@
 package pt.ulisboa.ewp.node.client.ewp.factsheet;
 
 import eu.erasmuswithoutpaper.api.factsheet.v1.FactsheetResponseV1;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
-import pt.ulisboa.ewp.node.client.ewp.EwpApiClient;
+import pt.ulisboa.ewp.node.client.ewp.EwpCachedApiClient;
 import pt.ulisboa.ewp.node.client.ewp.EwpClient;
+import pt.ulisboa.ewp.node.client.ewp.cache.EwpResponseCache;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.body.EwpRequestFormDataBody;
@@ -17,22 +19,35 @@ import pt.ulisboa.ewp.node.utils.http.HttpParams;
 
 @Service
 public class EwpFactsheetsV1Client extends
-    EwpApiClient<EwpFactsheetApiConfiguration> {
+    EwpCachedApiClient<EwpFactsheetApiConfiguration> {
 
-  public EwpFactsheetsV1Client(RegistryClient registryClient, EwpClient ewpClient) {
-    super(registryClient, ewpClient);
+  public EwpFactsheetsV1Client(RegistryClient registryClient, EwpClient ewpClient,
+      EwpResponseCache responseCache) {
+    super(registryClient, ewpClient, responseCache);
   }
 
   public EwpSuccessOperationResult<FactsheetResponseV1> findByHeiId(String heiId)
       throws EwpClientErrorException {
+    return responseCache.get(cacheKey(heiId).build(),
+        () -> ewpClient.executeAndLog(createFindByHeiIdRequest(heiId),
+            FactsheetResponseV1.class));
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<FactsheetResponseV1>> findByHeiIdAsync(
+      String heiId) {
+    return responseCache.getAsync(cacheKey(heiId).build(),
+        () -> ewpClient.executeAndLogAsync(createFindByHeiIdRequest(heiId),
+            FactsheetResponseV1.class));
+  }
+
+  private EwpRequest createFindByHeiIdRequest(String heiId) {
     EwpFactsheetApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams bodyParams = new HttpParams();
     bodyParams.param(EwpApiParamConstants.HEI_ID, heiId);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, FactsheetResponseV1.class);
+    return EwpRequest.createPost(api, api.getUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   @Override
@@ -0,0 +1,152 @@
+package pt.ulisboa.ewp.node.client.ewp.http;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import pt.ulisboa.ewp.node.config.client.EwpClientConnectionPoolProperties;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
+import pt.ulisboa.ewp.node.service.keystore.KeyStoreService;
+import pt.ulisboa.ewp.node.utils.SecurityUtils;
+import pt.ulisboa.ewp.node.utils.keystore.DecodedKeystore;
+
+/**
+ * Manages the HTTP client used for outbound EWP requests. A single client, with a keep-alive
+ * connection pool and a shared SSL context (hence, TLS session reuse), is kept for as long as the
+ * keystore stays the same. When the keystore changes, a new client is built and the previous one is
+ * drained gracefully.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class EwpHttpClientManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EwpHttpClientManager.class);
+
+  private static final HostnameVerifier HOSTNAME_VERIFIER =
+      (hostname, session) -> hostname.equalsIgnoreCase(session.getPeerHost());
+
+  private final KeyStoreService keyStoreService;
+  private final EwpClientProperties properties;
+
+  private volatile PooledEwpHttpClient currentClient;
+  private volatile DecodedKeystore currentDecodedKeystore;
+
+  public EwpHttpClientManager(KeyStoreService keyStoreService, EwpClientProperties properties) {
+    this.keyStoreService = keyStoreService;
+    this.properties = properties;
+  }
+
+  /**
+   * Returns a client ready to be used for a request. The caller must call {@link
+   * PooledEwpHttpClient#release()} once the request (including the reading of the response's body)
+   * finishes.
+   */
+  public PooledEwpHttpClient acquireClient() throws GeneralSecurityException {
+    while (true) {
+      PooledEwpHttpClient client = getOrRefreshClient();
+      if (client.tryAcquire()) {
+        return client;
+      }
+    }
+  }
+
+  public PooledEwpHttpClient getCurrentClient() {
+    return currentClient;
+  }
+
+  private PooledEwpHttpClient getOrRefreshClient() throws GeneralSecurityException {
+    DecodedKeystore decodedKeystore = keyStoreService.getDecodedKeyStoreFromStorage();
+    PooledEwpHttpClient client = this.currentClient;
+    if (client != null && decodedKeystore == this.currentDecodedKeystore) {
+      return client;
+    }
+
+    synchronized (this) {
+      client = this.currentClient;
+      if (client != null && decodedKeystore == this.currentDecodedKeystore) {
+        return client;
+      }
+
+      String keystoreFingerprint = decodedKeystore.getFingerprint();
+      if (client == null || !client.getKeystoreFingerprint().equals(keystoreFingerprint)) {
+        PooledEwpHttpClient newClient = createClient(decodedKeystore, keystoreFingerprint);
+        this.currentClient = newClient;
+        if (client != null) {
+          LOGGER.info("Keystore changed, retiring previous EWP HTTP client");
+          client.retire();
+        }
+        client = newClient;
+      }
+      this.currentDecodedKeystore = decodedKeystore;
+      return client;
+    }
+  }
+
+  private PooledEwpHttpClient createClient(DecodedKeystore decodedKeystore,
+      String keystoreFingerprint) throws GeneralSecurityException {
+    LOGGER.info("Creating EWP HTTP client (keystore fingerprint: {})", keystoreFingerprint);
+    SSLContext sslContext = SecurityUtils.createSecurityContext(decodedKeystore.getKeyStore(), null,
+        decodedKeystore.getKeyStorePassword());
+
+    PoolingHttpClientConnectionManager connectionManager = createConnectionManager(sslContext);
+
+    ClientConfig clientConfig = new ClientConfig();
+    clientConfig.connectorProvider(new ApacheConnectorProvider());
+    clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+    // The pool's lifecycle is managed by PooledEwpHttpClient, not by the Jersey runtime(s)
+    clientConfig.property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true);
+    clientConfig.property(ClientProperties.FOLLOW_REDIRECTS, true);
+    // Compressed bodies are decoded by EwpResponseBody, which also needs their encoded form
+    clientConfig.property(ApacheClientProperties.REQUEST_CONFIG,
+        RequestConfig.custom().setContentCompressionEnabled(false).build());
+
+    Client client = ClientBuilder.newBuilder().withConfig(clientConfig).sslContext(sslContext)
+        .hostnameVerifier(HOSTNAME_VERIFIER).build();
+    return new PooledEwpHttpClient(keystoreFingerprint, client, connectionManager);
+  }
+
+  private PoolingHttpClientConnectionManager createConnectionManager(SSLContext sslContext) {
+    Registry<ConnectionSocketFactory> socketFactoryRegistry =
+        RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", new SSLConnectionSocketFactory(sslContext, HOSTNAME_VERIFIER))
+            .build();
+
+    EwpClientConnectionPoolProperties connectionPoolProperties = properties.getConnectionPool();
+    PoolingHttpClientConnectionManager connectionManager =
+        new PoolingHttpClientConnectionManager(socketFactoryRegistry, null, null, null,
+            connectionPoolProperties.getConnectionTimeToLiveInSeconds(), TimeUnit.SECONDS);
+    connectionManager.setMaxTotal(connectionPoolProperties.getMaxTotalConnections());
+    connectionManager.setDefaultMaxPerRoute(properties.getPartners().getMaxConnections());
+    connectionManager.setValidateAfterInactivity(
+        connectionPoolProperties.getValidateAfterInactivityInMilliseconds());
+    return connectionManager;
+  }
+
+  @PreDestroy
+  public synchronized void destroy() {
+    PooledEwpHttpClient client = this.currentClient;
+    if (client != null) {
+      client.retire();
+    }
+  }
+}
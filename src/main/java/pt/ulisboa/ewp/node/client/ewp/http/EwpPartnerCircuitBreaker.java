@@ -0,0 +1,122 @@
+package pt.ulisboa.ewp.node.client.ewp.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of a partner host. After a given number of consecutive failures the circuit
+ * opens, and requests fail fast without being sent. Once the open duration elapses, the circuit
+ * becomes half-open and lets a single trial request through: if it succeeds the circuit closes
+ * again, otherwise it reopens for another open duration.
+ *
+ * <p>Every request allowed through {@link #tryAcquirePermission()} must be followed by exactly one
+ * call to {@link #recordSuccess()}, {@link #recordFailure()} or {@link #releasePermission()}.
+ */
+public class EwpPartnerCircuitBreaker {
+
+  public enum State {
+    CLOSED(0), HALF_OPEN(1), OPEN(2);
+
+    private final int code;
+
+    State(int code) {
+      this.code = code;
+    }
+
+    public int getCode() {
+      return code;
+    }
+  }
+
+  private final int failureThreshold;
+  private final long openDurationInNanoseconds;
+  private final LongSupplier nanoTimeSupplier;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAtInNanoseconds;
+  private boolean trialRequestInFlight;
+  private final AtomicLong rejectedRequests = new AtomicLong();
+
+  public EwpPartnerCircuitBreaker(int failureThreshold, long openDurationInMilliseconds) {
+    this(failureThreshold, openDurationInMilliseconds, System::nanoTime);
+  }
+
+  EwpPartnerCircuitBreaker(int failureThreshold, long openDurationInMilliseconds,
+      LongSupplier nanoTimeSupplier) {
+    this.failureThreshold = Math.max(1, failureThreshold);
+    this.openDurationInNanoseconds = TimeUnit.MILLISECONDS.toNanos(openDurationInMilliseconds);
+    this.nanoTimeSupplier = nanoTimeSupplier;
+  }
+
+  /**
+   * Checks whether a request may be sent.
+   *
+   * @return true if the request may be sent, false if the circuit is open (or half-open with a
+   * trial request already in flight).
+   */
+  public synchronized boolean tryAcquirePermission() {
+    if (state == State.OPEN
+        && nanoTimeSupplier.getAsLong() - openedAtInNanoseconds >= openDurationInNanoseconds) {
+      state = State.HALF_OPEN;
+    }
+
+    if (state == State.CLOSED) {
+      return true;
+    }
+    if (state == State.HALF_OPEN && !trialRequestInFlight) {
+      trialRequestInFlight = true;
+      return true;
+    }
+    rejectedRequests.incrementAndGet();
+    return false;
+  }
+
+  public synchronized void recordSuccess() {
+    consecutiveFailures = 0;
+    trialRequestInFlight = false;
+    state = State.CLOSED;
+  }
+
+  public synchronized void recordFailure() {
+    consecutiveFailures++;
+    if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+      state = State.OPEN;
+      openedAtInNanoseconds = nanoTimeSupplier.getAsLong();
+    }
+    trialRequestInFlight = false;
+  }
+
+  /**
+   * Releases a permission whose request ended without an outcome that tells anything about the
+   * partner host (for instance, it was rejected by the bulkhead).
+   */
+  public synchronized void releasePermission() {
+    trialRequestInFlight = false;
+  }
+
+  public synchronized State getState() {
+    if (state == State.OPEN
+        && nanoTimeSupplier.getAsLong() - openedAtInNanoseconds >= openDurationInNanoseconds) {
+      return State.HALF_OPEN;
+    }
+    return state;
+  }
+
+  /**
+   * Returns for how long the circuit remains open, or 0 if it is not open.
+   */
+  public synchronized long getRemainingOpenDurationInMilliseconds() {
+    if (state != State.OPEN) {
+      return 0;
+    }
+    long remainingInNanoseconds =
+        openedAtInNanoseconds + openDurationInNanoseconds - nanoTimeSupplier.getAsLong();
+    return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remainingInNanoseconds));
+  }
+
+  public long getRejectedRequests() {
+    return rejectedRequests.get();
+  }
+}
@@ -0,0 +1,146 @@
+package pt.ulisboa.ewp.node.client.ewp.http;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.http.conn.routing.HttpRoute;
+import pt.ulisboa.ewp.node.client.ewp.operation.response.EwpResponseBody;
+
+/**
+ * A partner host (scheme, host name and port) targeted by outbound EWP requests. Each partner host
+ * has its own connection pool route and a bulkhead that bounds the number of requests in flight to
+ * it, so a slow partner cannot exhaust the resources used to communicate with everyone else.
+ *
+ * <p>Besides, each partner host has its own timeouts (the read timeout adapts to the latency
+ * observed for it), retry policy and circuit breaker.
+ */
+public class EwpPartnerHost {
+
+  private final String key;
+  private final HttpRoute route;
+  private final int maxConnections;
+  private final int maxInFlightRequests;
+  private final Semaphore inFlightRequestsSemaphore;
+  private final AtomicLong rejectedRequests = new AtomicLong();
+  private final int connectTimeoutInMilliseconds;
+  private final int maxRetries;
+  private final long retryBackoffInMilliseconds;
+  private final AtomicLong retriedRequests = new AtomicLong();
+  private final AtomicLong transferredResponseBytes = new AtomicLong();
+  private final AtomicLong decodedResponseBytes = new AtomicLong();
+  private final EwpPartnerLatencyTracker latencyTracker;
+  private final EwpPartnerCircuitBreaker circuitBreaker;
+
+  public EwpPartnerHost(String key, HttpRoute route, int maxConnections,
+      int maxInFlightRequests, int connectTimeoutInMilliseconds, int maxRetries,
+      long retryBackoffInMilliseconds, EwpPartnerLatencyTracker latencyTracker,
+      EwpPartnerCircuitBreaker circuitBreaker) {
+    this.key = key;
+    this.route = route;
+    this.maxConnections = maxConnections;
+    this.maxInFlightRequests = maxInFlightRequests;
+    this.inFlightRequestsSemaphore = new Semaphore(maxInFlightRequests);
+    this.connectTimeoutInMilliseconds = connectTimeoutInMilliseconds;
+    this.maxRetries = maxRetries;
+    this.retryBackoffInMilliseconds = retryBackoffInMilliseconds;
+    this.latencyTracker = latencyTracker;
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public HttpRoute getRoute() {
+    return route;
+  }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
+  public int getInFlightRequests() {
+    return maxInFlightRequests - inFlightRequestsSemaphore.availablePermits();
+  }
+
+  public long getRejectedRequests() {
+    return rejectedRequests.get();
+  }
+
+  public int getConnectTimeoutInMilliseconds() {
+    return connectTimeoutInMilliseconds;
+  }
+
+  public int getReadTimeoutInMilliseconds() {
+    return latencyTracker.getReadTimeoutInMilliseconds();
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  public long getRetryBackoffInMilliseconds() {
+    return retryBackoffInMilliseconds;
+  }
+
+  public long getRetriedRequests() {
+    return retriedRequests.get();
+  }
+
+  public void recordRetry() {
+    retriedRequests.incrementAndGet();
+  }
+
+  public long getTransferredResponseBytes() {
+    return transferredResponseBytes.get();
+  }
+
+  public long getDecodedResponseBytes() {
+    return decodedResponseBytes.get();
+  }
+
+  /**
+   * Records the size of a response body received from the partner host, both as transferred and as
+   * decoded, so that the savings due to compression can be measured.
+   */
+  public void recordResponseBody(EwpResponseBody body) {
+    transferredResponseBytes.addAndGet(body.getTransferLength());
+    decodedResponseBytes.addAndGet(body.getLength());
+  }
+
+  public EwpPartnerLatencyTracker getLatencyTracker() {
+    return latencyTracker;
+  }
+
+  public EwpPartnerCircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  /**
+   * Tries to reserve a slot for a new in-flight request, waiting at most the given timeout.
+   *
+   * @return true if a slot was reserved, false if the bulkhead is saturated.
+   */
+  public boolean tryAcquire(long timeoutInMilliseconds) throws InterruptedException {
+    boolean acquired = timeoutInMilliseconds > 0
+        ? inFlightRequestsSemaphore.tryAcquire(timeoutInMilliseconds, TimeUnit.MILLISECONDS)
+        : inFlightRequestsSemaphore.tryAcquire();
+    if (!acquired) {
+      rejectedRequests.incrementAndGet();
+    }
+    return acquired;
+  }
+
+  public void release() {
+    inFlightRequestsSemaphore.release();
+  }
+
+  @Override
+  public String toString() {
+    return key;
+  }
+}
@@ -0,0 +1,187 @@
+package pt.ulisboa.ewp.node.client.ewp.http;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
+import pt.ulisboa.ewp.node.config.client.EwpClientPartnersProperties;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
+
+/**
+ * Keeps track of the partner hosts targeted by outbound EWP requests, along with their limits and
+ * metrics.
+ *
+ * <p>The limits of a partner host are resolved from the configuration of its host name when it is
+ * first targeted: if the host has specific limits configured then those are used, otherwise the
+ * global defaults apply. Hence, all the HEIs served by a host share the same limits.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class EwpPartnerHostRegistry {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EwpPartnerHostRegistry.class);
+
+  private static final String METRIC_PREFIX = "ewp.client.partner.";
+
+  private final EwpClientProperties properties;
+  private final EwpHttpClientManager httpClientManager;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, EwpPartnerHost> partnerHosts = new ConcurrentHashMap<>();
+
+  public EwpPartnerHostRegistry(EwpClientProperties properties,
+      EwpHttpClientManager httpClientManager, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.httpClientManager = httpClientManager;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public long getAcquireTimeoutInMilliseconds() {
+    return properties.getPartners().getAcquireTimeoutInMilliseconds();
+  }
+
+  public int getMaxConcurrentChunkRequests(EwpRequest request) {
+    return properties.getPartners()
+        .getMaxConcurrentChunkRequestsForHost(getHostName(toUri(request)));
+  }
+
+  /**
+   * Returns the partner host targeted by a request.
+   *
+   * @throws IllegalArgumentException If the URL of the request has no host.
+   */
+  public EwpPartnerHost getPartnerHost(EwpRequest request) {
+    URI uri = toUri(request);
+    String hostName = getHostName(uri);
+    String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "https";
+    int port = uri.getPort() > 0 ? uri.getPort() : ("http".equals(scheme) ? 80 : 443);
+    String key = scheme + "://" + hostName + ":" + port;
+
+    EwpPartnerHost partnerHost = partnerHosts.get(key);
+    if (partnerHost != null) {
+      return partnerHost;
+    }
+    return partnerHosts.computeIfAbsent(key,
+        k -> createPartnerHost(k, new HttpHost(hostName, port, scheme)));
+  }
+
+  public Map<String, EwpPartnerHost> getPartnerHosts() {
+    return partnerHosts;
+  }
+
+  private static URI toUri(EwpRequest request) {
+    return URI.create(request.getUrlWithoutQueryParams());
+  }
+
+  private static String getHostName(URI uri) {
+    if (uri.getHost() == null) {
+      throw new IllegalArgumentException("URL has no host: " + uri);
+    }
+    return uri.getHost().toLowerCase();
+  }
+
+  private EwpPartnerHost createPartnerHost(String key, HttpHost httpHost) {
+    EwpClientPartnersProperties partnersProperties = properties.getPartners();
+    String hostName = httpHost.getHostName();
+    HttpRoute route = new HttpRoute(httpHost, null, "https".equals(httpHost.getSchemeName()));
+    EwpPartnerLatencyTracker latencyTracker = new EwpPartnerLatencyTracker(
+        partnersProperties.getMinReadTimeoutInMillisecondsForHost(hostName),
+        partnersProperties.getMaxReadTimeoutInMillisecondsForHost(hostName),
+        partnersProperties.getReadTimeoutLatencyMultiplierForHost(hostName));
+    EwpPartnerCircuitBreaker circuitBreaker = new EwpPartnerCircuitBreaker(
+        partnersProperties.getCircuitBreakerFailureThresholdForHost(hostName),
+        partnersProperties.getCircuitBreakerOpenDurationInMillisecondsForHost(hostName));
+    EwpPartnerHost partnerHost = new EwpPartnerHost(key, route,
+        partnersProperties.getMaxConnectionsForHost(hostName),
+        partnersProperties.getMaxInFlightRequestsForHost(hostName),
+        partnersProperties.getConnectTimeoutInMillisecondsForHost(hostName),
+        partnersProperties.getMaxRetriesForHost(hostName),
+        partnersProperties.getRetryBackoffInMillisecondsForHost(hostName), latencyTracker,
+        circuitBreaker);
+    LOGGER.info("Registered EWP partner host {} (max connections: {}, max in-flight requests: {})",
+        key, partnerHost.getMaxConnections(), partnerHost.getMaxInFlightRequests());
+    registerMetrics(partnerHost);
+    return partnerHost;
+  }
+
+  private void registerMetrics(EwpPartnerHost partnerHost) {
+    Tags tags = Tags.of("host", partnerHost.getKey());
+    Gauge.builder(METRIC_PREFIX + "requests.in.flight", partnerHost,
+            EwpPartnerHost::getInFlightRequests)
+        .tags(tags).description("Requests in flight to the partner host")
+        .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + "requests.in.flight.max", partnerHost,
+            EwpPartnerHost::getMaxInFlightRequests)
+        .tags(tags).description("Maximum of requests in flight to the partner host")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "requests.rejected", partnerHost,
+            EwpPartnerHost::getRejectedRequests)
+        .tags(tags).description("Requests rejected because the partner host bulkhead was full")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "requests.retried", partnerHost,
+            EwpPartnerHost::getRetriedRequests)
+        .tags(tags).description("Requests retried after failing to connect to the partner host")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "response.bytes.transferred", partnerHost,
+            EwpPartnerHost::getTransferredResponseBytes)
+        .tags(tags).description("Response body bytes transferred from the partner host")
+        .baseUnit("bytes").register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "response.bytes.decoded", partnerHost,
+            EwpPartnerHost::getDecodedResponseBytes)
+        .tags(tags).description("Response body bytes received from the partner host once decoded")
+        .baseUnit("bytes").register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + "latency.p50", partnerHost,
+            p -> p.getLatencyTracker().getPercentileInMilliseconds(50))
+        .tags(tags).description("Median latency of recent requests to the partner host")
+        .baseUnit("milliseconds").register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + "latency.p99", partnerHost,
+            p -> p.getLatencyTracker().getPercentileInMilliseconds(99))
+        .tags(tags).description("99th percentile latency of recent requests to the partner host")
+        .baseUnit("milliseconds").register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + "timeout.read", partnerHost,
+            EwpPartnerHost::getReadTimeoutInMilliseconds)
+        .tags(tags).description("Current read timeout of requests to the partner host")
+        .baseUnit("milliseconds").register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + "circuit.state", partnerHost,
+            p -> p.getCircuitBreaker().getState().getCode())
+        .tags(tags).description("Partner host circuit state (0: closed, 1: half-open, 2: open)")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "circuit.rejected", partnerHost,
+            p -> p.getCircuitBreaker().getRejectedRequests())
+        .tags(tags).description("Requests rejected because the partner host circuit was open")
+        .register(meterRegistry);
+
+    registerConnectionPoolGauge(partnerHost, tags, "connections.leased", PoolStats::getLeased);
+    registerConnectionPoolGauge(partnerHost, tags, "connections.available",
+        PoolStats::getAvailable);
+    registerConnectionPoolGauge(partnerHost, tags, "connections.pending", PoolStats::getPending);
+    registerConnectionPoolGauge(partnerHost, tags, "connections.max", PoolStats::getMax);
+  }
+
+  private void registerConnectionPoolGauge(EwpPartnerHost partnerHost, Tags tags, String name,
+      ToIntFunction<PoolStats> statExtractor) {
+    Gauge.builder(METRIC_PREFIX + name, partnerHost, p -> {
+          PooledEwpHttpClient client = httpClientManager.getCurrentClient();
+          if (client == null) {
+            return 0;
+          }
+          return statExtractor.applyAsInt(
+              client.getConnectionManager().getStats(p.getRoute()));
+        })
+        .tags(tags)
+        .register(meterRegistry);
+  }
+}
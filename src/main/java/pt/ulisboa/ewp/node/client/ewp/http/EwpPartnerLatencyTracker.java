@@ -0,0 +1,70 @@
+package pt.ulisboa.ewp.node.client.ewp.http;
+
+import java.util.Arrays;
+
+/**
+ * Tracks the latency of the most recent requests to a partner host, deriving from it the read
+ * timeout of the next requests: the p99 latency times a given multiplier, bounded by a minimum and
+ * a maximum timeout. Until enough requests are observed, the maximum timeout applies.
+ *
+ * <p>Requests that time out must be recorded as well, with the read timeout they were given as
+ * latency, so that the timeout can grow again when a partner host becomes slower.
+ */
+public class EwpPartnerLatencyTracker {
+
+  static final int WINDOW_SIZE = 100;
+  static final int MIN_SAMPLES = 20;
+
+  private final int minReadTimeoutInMilliseconds;
+  private final int maxReadTimeoutInMilliseconds;
+  private final double readTimeoutLatencyMultiplier;
+
+  private final long[] latenciesInMilliseconds = new long[WINDOW_SIZE];
+  private int numberOfSamples;
+  private int nextSampleIndex;
+
+  public EwpPartnerLatencyTracker(int minReadTimeoutInMilliseconds,
+      int maxReadTimeoutInMilliseconds, double readTimeoutLatencyMultiplier) {
+    this.minReadTimeoutInMilliseconds = minReadTimeoutInMilliseconds;
+    this.maxReadTimeoutInMilliseconds = Math.max(minReadTimeoutInMilliseconds,
+        maxReadTimeoutInMilliseconds);
+    this.readTimeoutLatencyMultiplier = readTimeoutLatencyMultiplier;
+  }
+
+  public synchronized void record(long latencyInMilliseconds) {
+    latenciesInMilliseconds[nextSampleIndex] = latencyInMilliseconds;
+    nextSampleIndex = (nextSampleIndex + 1) % WINDOW_SIZE;
+    numberOfSamples = Math.min(numberOfSamples + 1, WINDOW_SIZE);
+  }
+
+  public synchronized int getNumberOfSamples() {
+    return numberOfSamples;
+  }
+
+  /**
+   * Returns the given percentile (between 0 and 100) of the recent latencies, or 0 if no latency
+   * was recorded yet.
+   */
+  public long getPercentileInMilliseconds(double percentile) {
+    long[] samples;
+    synchronized (this) {
+      if (numberOfSamples == 0) {
+        return 0;
+      }
+      samples = Arrays.copyOf(latenciesInMilliseconds, numberOfSamples);
+    }
+    Arrays.sort(samples);
+    int index = (int) Math.ceil(percentile / 100.0 * samples.length) - 1;
+    return samples[Math.max(0, Math.min(index, samples.length - 1))];
+  }
+
+  public int getReadTimeoutInMilliseconds() {
+    if (getNumberOfSamples() < MIN_SAMPLES) {
+      return maxReadTimeoutInMilliseconds;
+    }
+    long adaptiveTimeout = (long) Math.ceil(
+        getPercentileInMilliseconds(99) * readTimeoutLatencyMultiplier);
+    return (int) Math.max(minReadTimeoutInMilliseconds,
+        Math.min(adaptiveTimeout, maxReadTimeoutInMilliseconds));
+  }
+}
@@ -0,0 +1,109 @@
+package pt.ulisboa.ewp.node.client.ewp.http;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.ws.rs.client.Client;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A long-lived HTTP client, backed by a keep-alive connection pool, that is bound to a given
+ * keystore. Once retired (for instance, because the keystore changed), the client stops accepting
+ * new requests and is closed as soon as all its in-flight requests finish.
+ */
+public class PooledEwpHttpClient {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(PooledEwpHttpClient.class);
+
+  private final String keystoreFingerprint;
+  private final Client client;
+  private final PoolingHttpClientConnectionManager connectionManager;
+
+  private final Set<HttpRoute> configuredRoutes = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger inFlightRequests = new AtomicInteger();
+  private final AtomicBoolean closed = new AtomicBoolean();
+  private volatile boolean retired;
+
+  public PooledEwpHttpClient(String keystoreFingerprint, Client client,
+      PoolingHttpClientConnectionManager connectionManager) {
+    this.keystoreFingerprint = keystoreFingerprint;
+    this.client = client;
+    this.connectionManager = connectionManager;
+  }
+
+  public String getKeystoreFingerprint() {
+    return keystoreFingerprint;
+  }
+
+  public Client getClient() {
+    return client;
+  }
+
+  public PoolingHttpClientConnectionManager getConnectionManager() {
+    return connectionManager;
+  }
+
+  public int getInFlightRequests() {
+    return inFlightRequests.get();
+  }
+
+  public boolean isRetired() {
+    return retired;
+  }
+
+  /**
+   * Ensures the connection pool of this client is bounded according to the given partner host's
+   * limits.
+   */
+  public void ensureRouteConfigured(EwpPartnerHost partnerHost) {
+    if (configuredRoutes.add(partnerHost.getRoute())) {
+      connectionManager.setMaxPerRoute(partnerHost.getRoute(), partnerHost.getMaxConnections());
+    }
+  }
+
+  /**
+   * Tries to register a new in-flight request on this client.
+   *
+   * @return true if the client may be used for the request, false if it was retired meanwhile.
+   */
+  boolean tryAcquire() {
+    inFlightRequests.incrementAndGet();
+    if (retired) {
+      release();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Signals that a request previously acquired through {@link #tryAcquire()} has finished.
+   */
+  public void release() {
+    if (inFlightRequests.decrementAndGet() == 0 && retired) {
+      close();
+    }
+  }
+
+  /**
+   * Marks this client as retired, so no further requests are accepted. The underlying connection
+   * pool is drained gracefully, that is, it is only closed once no request is in flight.
+   */
+  void retire() {
+    retired = true;
+    if (inFlightRequests.get() == 0) {
+      close();
+    }
+  }
+
+  void close() {
+    if (closed.compareAndSet(false, true)) {
+      LOGGER.info("Closing EWP HTTP client (keystore fingerprint: {})", keystoreFingerprint);
+      client.close();
+      connectionManager.shutdown();
+    }
+  }
+}
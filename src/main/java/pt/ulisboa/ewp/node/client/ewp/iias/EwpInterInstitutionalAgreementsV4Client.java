@@ -5,6 +5,7 @@ import eu.erasmuswithoutpaper.api.iias.v4.endpoints.IiasIndexResponseV4;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.iias.ForwardEwpApiInterInstitutionalAgreementsApiSpecificationResponseDTO;
@@ -44,6 +45,26 @@ public class EwpInterInstitutionalAgreementsV4Client
       List<String> receivingAcademicYearIds,
       ZonedDateTime modifiedSince)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createFindAllByHeiIdsRequest(heiId, partnerHeiId, receivingAcademicYearIds, modifiedSince),
+        IiasIndexResponseV4.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<IiasIndexResponseV4>> findAllByHeiIdsAsync(
+      String heiId,
+      String partnerHeiId,
+      List<String> receivingAcademicYearIds,
+      ZonedDateTime modifiedSince) {
+    return ewpClient.executeAndLogAsync(
+        createFindAllByHeiIdsRequest(heiId, partnerHeiId, receivingAcademicYearIds, modifiedSince),
+        IiasIndexResponseV4.class);
+  }
+
+  private EwpRequest createFindAllByHeiIdsRequest(
+      String heiId,
+      String partnerHeiId,
+      List<String> receivingAcademicYearIds,
+      ZonedDateTime modifiedSince) {
     EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams bodyParams = new HttpParams();
@@ -52,14 +73,25 @@ public class EwpInterInstitutionalAgreementsV4Client
     bodyParams.param(EwpApiParamConstants.RECEIVING_ACADEMIC_YEAR_ID, receivingAcademicYearIds);
     bodyParams.param(EwpApiParamConstants.MODIFIED_SINCE, modifiedSince);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getIndexUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, IiasIndexResponseV4.class);
+    return EwpRequest.createPost(api, api.getIndexUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   public EwpSuccessOperationResult<IiasGetResponseV4> findByHeiIdAndIiaIds(
       String heiId, Collection<String> iiaIds, Boolean sendPdf)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createFindByHeiIdAndIiaIdsRequest(heiId, iiaIds, sendPdf), IiasGetResponseV4.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<IiasGetResponseV4>> findByHeiIdAndIiaIdsAsync(
+      String heiId, Collection<String> iiaIds, Boolean sendPdf) {
+    return ewpClient.executeAndLogAsync(
+        createFindByHeiIdAndIiaIdsRequest(heiId, iiaIds, sendPdf), IiasGetResponseV4.class);
+  }
+
+  private EwpRequest createFindByHeiIdAndIiaIdsRequest(
+      String heiId, Collection<String> iiaIds, Boolean sendPdf) {
     EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams bodyParams = new HttpParams();
@@ -67,14 +99,25 @@ public class EwpInterInstitutionalAgreementsV4Client
     bodyParams.param(EwpApiParamConstants.IIA_ID, iiaIds);
     bodyParams.param(EwpApiParamConstants.SEND_PDF, sendPdf);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getGetUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, IiasGetResponseV4.class);
+    return EwpRequest.createPost(api, api.getGetUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   public EwpSuccessOperationResult<IiasGetResponseV4> findByHeiIdAndIiaCodes(
       String heiId, Collection<String> iiaCodes, Boolean sendPdf)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createFindByHeiIdAndIiaCodesRequest(heiId, iiaCodes, sendPdf), IiasGetResponseV4.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<IiasGetResponseV4>> findByHeiIdAndIiaCodesAsync(
+      String heiId, Collection<String> iiaCodes, Boolean sendPdf) {
+    return ewpClient.executeAndLogAsync(
+        createFindByHeiIdAndIiaCodesRequest(heiId, iiaCodes, sendPdf), IiasGetResponseV4.class);
+  }
+
+  private EwpRequest createFindByHeiIdAndIiaCodesRequest(
+      String heiId, Collection<String> iiaCodes, Boolean sendPdf) {
     EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams bodyParams = new HttpParams();
@@ -82,9 +125,8 @@ public class EwpInterInstitutionalAgreementsV4Client
     bodyParams.param(EwpApiParamConstants.IIA_CODE, iiaCodes);
     bodyParams.param(EwpApiParamConstants.SEND_PDF, sendPdf);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getGetUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, IiasGetResponseV4.class);
+    return EwpRequest.createPost(api, api.getGetUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   @Override
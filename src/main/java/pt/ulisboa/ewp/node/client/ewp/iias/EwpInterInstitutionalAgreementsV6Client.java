@@ -5,6 +5,7 @@ import eu.erasmuswithoutpaper.api.iias.v6.endpoints.IiasIndexResponseV6;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.iias.ForwardEwpApiInterInstitutionalAgreementsApiSpecificationResponseDTO;
@@ -44,6 +45,26 @@ public class EwpInterInstitutionalAgreementsV6Client
       List<String> receivingAcademicYearIds,
       ZonedDateTime modifiedSince)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createFindAllByHeiIdsRequest(heiId, partnerHeiId, receivingAcademicYearIds, modifiedSince),
+        IiasIndexResponseV6.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<IiasIndexResponseV6>> findAllByHeiIdsAsync(
+      String heiId,
+      String partnerHeiId,
+      List<String> receivingAcademicYearIds,
+      ZonedDateTime modifiedSince) {
+    return ewpClient.executeAndLogAsync(
+        createFindAllByHeiIdsRequest(heiId, partnerHeiId, receivingAcademicYearIds, modifiedSince),
+        IiasIndexResponseV6.class);
+  }
+
+  private EwpRequest createFindAllByHeiIdsRequest(
+      String heiId,
+      String partnerHeiId,
+      List<String> receivingAcademicYearIds,
+      ZonedDateTime modifiedSince) {
     EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams bodyParams = new HttpParams();
@@ -52,39 +73,68 @@ public class EwpInterInstitutionalAgreementsV6Client
     bodyParams.param(EwpApiParamConstants.RECEIVING_ACADEMIC_YEAR_ID, receivingAcademicYearIds);
     bodyParams.param(EwpApiParamConstants.MODIFIED_SINCE, modifiedSince);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getIndexUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, IiasIndexResponseV6.class);
+    return EwpRequest.createPost(api, api.getIndexUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   public EwpSuccessOperationResult<IiasGetResponseV6> findByHeiIdAndIiaIds(
       String heiId, Collection<String> iiaIds, Boolean sendPdf)
       throws EwpClientErrorException {
     EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
+    return executeAndLogInChunks(iiaIds, api.getMaxIiaIds(),
+        chunk -> createFindByHeiIdAndIiaIdsRequest(heiId, chunk, sendPdf),
+        IiasGetResponseV6.class, IiasGetResponseV6::new, IiasGetResponseV6::getIia);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<IiasGetResponseV6>> findByHeiIdAndIiaIdsAsync(
+      String heiId, Collection<String> iiaIds, Boolean sendPdf) {
+    EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
+    return executeAndLogInChunksAsync(iiaIds, api.getMaxIiaIds(),
+        chunk -> createFindByHeiIdAndIiaIdsRequest(heiId, chunk, sendPdf),
+        IiasGetResponseV6.class, IiasGetResponseV6::new, IiasGetResponseV6::getIia);
+  }
+
+  private EwpRequest createFindByHeiIdAndIiaIdsRequest(
+      String heiId, Collection<String> iiaIds, Boolean sendPdf) {
+    EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams bodyParams = new HttpParams();
     bodyParams.param(EwpApiParamConstants.HEI_ID, heiId);
     bodyParams.param(EwpApiParamConstants.IIA_ID, iiaIds);
     bodyParams.param(EwpApiParamConstants.SEND_PDF, sendPdf);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getGetUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, IiasGetResponseV6.class);
+    return EwpRequest.createPost(api, api.getGetUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   public EwpSuccessOperationResult<IiasGetResponseV6> findByHeiIdAndIiaCodes(
       String heiId, Collection<String> iiaCodes, Boolean sendPdf)
       throws EwpClientErrorException {
     EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
+    return executeAndLogInChunks(iiaCodes, api.getMaxIiaCodes(),
+        chunk -> createFindByHeiIdAndIiaCodesRequest(heiId, chunk, sendPdf),
+        IiasGetResponseV6.class, IiasGetResponseV6::new, IiasGetResponseV6::getIia);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<IiasGetResponseV6>> findByHeiIdAndIiaCodesAsync(
+      String heiId, Collection<String> iiaCodes, Boolean sendPdf) {
+    EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
+    return executeAndLogInChunksAsync(iiaCodes, api.getMaxIiaCodes(),
+        chunk -> createFindByHeiIdAndIiaCodesRequest(heiId, chunk, sendPdf),
+        IiasGetResponseV6.class, IiasGetResponseV6::new, IiasGetResponseV6::getIia);
+  }
+
+  private EwpRequest createFindByHeiIdAndIiaCodesRequest(
+      String heiId, Collection<String> iiaCodes, Boolean sendPdf) {
+    EwpInterInstitutionalAgreementApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams bodyParams = new HttpParams();
     bodyParams.param(EwpApiParamConstants.HEI_ID, heiId);
     bodyParams.param(EwpApiParamConstants.IIA_CODE, iiaCodes);
     bodyParams.param(EwpApiParamConstants.SEND_PDF, sendPdf);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getGetUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, IiasGetResponseV6.class);
+    return EwpRequest.createPost(api, api.getGetUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   @Override
@@ -2,6 +2,7 @@ package pt.ulisboa.ewp.node.client.ewp.iias.approval;
 
 import eu.erasmuswithoutpaper.api.iias.approval.v1.IiasApprovalResponseV1;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.iias.approval.ForwardEwpApiInterInstitutionalAgreementsApprovalApiSpecificationResponseDTO;
@@ -40,6 +41,26 @@ public class EwpInterInstitutionalAgreementsApprovalsV1Client
       List<String> iiaIds,
       Boolean sendPdf)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createGetApprovalsRequest(approvingHeiId, ownerHeiId, iiaIds, sendPdf),
+        IiasApprovalResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<IiasApprovalResponseV1>> getApprovalsAsync(
+      String approvingHeiId,
+      String ownerHeiId,
+      List<String> iiaIds,
+      Boolean sendPdf) {
+    return ewpClient.executeAndLogAsync(
+        createGetApprovalsRequest(approvingHeiId, ownerHeiId, iiaIds, sendPdf),
+        IiasApprovalResponseV1.class);
+  }
+
+  private EwpRequest createGetApprovalsRequest(
+      String approvingHeiId,
+      String ownerHeiId,
+      List<String> iiaIds,
+      Boolean sendPdf) {
     EwpInterInstitutionalAgreementApprovalApiConfiguration api = getApiConfigurationForHeiId(
         approvingHeiId);
 
@@ -49,9 +70,8 @@ public class EwpInterInstitutionalAgreementsApprovalsV1Client
     bodyParams.param(EwpApiParamConstants.IIA_ID, iiaIds);
     bodyParams.param(EwpApiParamConstants.SEND_PDF, sendPdf);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, IiasApprovalResponseV1.class);
+    return EwpRequest.createPost(api, api.getUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   @Override
@@ -1,6 +1,7 @@
 package pt.ulisboa.ewp.node.client.ewp.iias.approval.cnr;
 
 import eu.erasmuswithoutpaper.api.iias.approval.cnr.v1.IiaApprovalCnrResponseV1;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.client.ewp.EwpApiClient;
@@ -27,6 +28,20 @@ public class EwpInterInstitutionalAgreementApprovalCnrV1Client
   public EwpSuccessOperationResult<IiaApprovalCnrResponseV1> sendChangeNotification(
       String approvingHeiId, String partnerHeiId, String ownerHerId, String iiaId)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createSendChangeNotificationRequest(approvingHeiId, partnerHeiId, ownerHerId, iiaId),
+        IiaApprovalCnrResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<IiaApprovalCnrResponseV1>> sendChangeNotificationAsync(
+      String approvingHeiId, String partnerHeiId, String ownerHerId, String iiaId) {
+    return ewpClient.executeAndLogAsync(
+        createSendChangeNotificationRequest(approvingHeiId, partnerHeiId, ownerHerId, iiaId),
+        IiaApprovalCnrResponseV1.class);
+  }
+
+  private EwpRequest createSendChangeNotificationRequest(
+      String approvingHeiId, String partnerHeiId, String ownerHerId, String iiaId) {
     EwpInterInstitutionalAgreementApprovalCnrApiConfiguration api = getApiConfigurationForHeiId(
         partnerHeiId);
 
@@ -35,9 +50,8 @@ public class EwpInterInstitutionalAgreementApprovalCnrV1Client
     bodyParams.param(EwpApiParamConstants.OWNER_HEI_ID, ownerHerId);
     bodyParams.param(EwpApiParamConstants.IIA_ID, iiaId);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getUrl(),
+    return EwpRequest.createPost(api, api.getUrl(),
         new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, IiaApprovalCnrResponseV1.class);
   }
 
   @Override
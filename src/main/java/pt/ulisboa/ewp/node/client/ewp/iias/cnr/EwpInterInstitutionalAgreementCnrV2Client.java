@@ -2,6 +2,7 @@ package pt.ulisboa.ewp.node.client.ewp.iias.cnr;
 
 import eu.erasmuswithoutpaper.api.iias.cnr.v2.IiaCnrResponseV2;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.client.ewp.EwpApiClient;
@@ -28,6 +29,20 @@ public class EwpInterInstitutionalAgreementCnrV2Client
   public EwpSuccessOperationResult<IiaCnrResponseV2> sendChangeNotification(
       String notifierHeiId, String partnerHeiId, List<String> iiaIds)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createSendChangeNotificationRequest(notifierHeiId, partnerHeiId, iiaIds),
+        IiaCnrResponseV2.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<IiaCnrResponseV2>> sendChangeNotificationAsync(
+      String notifierHeiId, String partnerHeiId, List<String> iiaIds) {
+    return ewpClient.executeAndLogAsync(
+        createSendChangeNotificationRequest(notifierHeiId, partnerHeiId, iiaIds),
+        IiaCnrResponseV2.class);
+  }
+
+  private EwpRequest createSendChangeNotificationRequest(
+      String notifierHeiId, String partnerHeiId, List<String> iiaIds) {
     EwpInterInstitutionalAgreementCnrApiConfiguration api = getApiConfigurationForHeiId(
         partnerHeiId);
 
@@ -35,9 +50,8 @@ public class EwpInterInstitutionalAgreementCnrV2Client
     bodyParams.param(EwpApiParamConstants.NOTIFIER_HEI_ID, notifierHeiId);
     bodyParams.param(EwpApiParamConstants.IIA_ID, iiaIds);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getUrl(),
+    return EwpRequest.createPost(api, api.getUrl(),
         new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, IiaCnrResponseV2.class);
   }
 
   @Override
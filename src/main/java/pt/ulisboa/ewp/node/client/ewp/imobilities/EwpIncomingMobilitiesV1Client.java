@@ -2,6 +2,7 @@ package pt.ulisboa.ewp.node.client.ewp.imobilities;
 
 import eu.erasmuswithoutpaper.api.imobilities.v1.endpoints.ImobilitiesGetResponseV1;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.imobilities.ForwardEwpApiIncomingMobilitiesApiSpecificationResponseDTO;
@@ -35,6 +36,20 @@ public class EwpIncomingMobilitiesV1Client extends
   public EwpSuccessOperationResult<ImobilitiesGetResponseV1> findByReceivingHeiIdAndOmobilityIds(
       String receivingHeiId, Collection<String> omobilityIds)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createFindByReceivingHeiIdAndOmobilityIdsRequest(receivingHeiId, omobilityIds),
+        ImobilitiesGetResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<ImobilitiesGetResponseV1>> findByReceivingHeiIdAndOmobilityIdsAsync(
+      String receivingHeiId, Collection<String> omobilityIds) {
+    return ewpClient.executeAndLogAsync(
+        createFindByReceivingHeiIdAndOmobilityIdsRequest(receivingHeiId, omobilityIds),
+        ImobilitiesGetResponseV1.class);
+  }
+
+  private EwpRequest createFindByReceivingHeiIdAndOmobilityIdsRequest(
+      String receivingHeiId, Collection<String> omobilityIds) {
     EwpIncomingMobilitiesApiConfiguration api = getApiConfigurationForHeiId(
         receivingHeiId);
 
@@ -42,9 +57,8 @@ public class EwpIncomingMobilitiesV1Client extends
     bodyParams.param(EwpApiParamConstants.RECEIVING_HEI_ID, receivingHeiId);
     bodyParams.param(EwpApiParamConstants.OMOBILITY_ID, omobilityIds);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getGetUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, ImobilitiesGetResponseV1.class);
+    return EwpRequest.createPost(api, api.getGetUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   @Override
@@ -2,6 +2,7 @@ package pt.ulisboa.ewp.node.client.ewp.imobilities.cnr;
 
 import eu.erasmuswithoutpaper.api.imobilities.cnr.v1.ImobilityCnrResponseV1;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.client.ewp.EwpApiClient;
@@ -28,6 +29,20 @@ public class EwpIncomingMobilityCnrV1Client
   public EwpSuccessOperationResult<ImobilityCnrResponseV1> sendChangeNotification(
       String sendingHeiId, String receivingHeiId, List<String> outgoingMobilityIds)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createSendChangeNotificationRequest(sendingHeiId, receivingHeiId, outgoingMobilityIds),
+        ImobilityCnrResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<ImobilityCnrResponseV1>> sendChangeNotificationAsync(
+      String sendingHeiId, String receivingHeiId, List<String> outgoingMobilityIds) {
+    return ewpClient.executeAndLogAsync(
+        createSendChangeNotificationRequest(sendingHeiId, receivingHeiId, outgoingMobilityIds),
+        ImobilityCnrResponseV1.class);
+  }
+
+  private EwpRequest createSendChangeNotificationRequest(
+      String sendingHeiId, String receivingHeiId, List<String> outgoingMobilityIds) {
     EwpIncomingMobilityCnrApiConfiguration api = getApiConfigurationForHeiId(
         sendingHeiId);
 
@@ -35,9 +50,8 @@ public class EwpIncomingMobilityCnrV1Client
     bodyParams.param(EwpApiParamConstants.RECEIVING_HEI_ID, receivingHeiId);
     bodyParams.param(EwpApiParamConstants.OMOBILITY_ID, outgoingMobilityIds);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getUrl(),
+    return EwpRequest.createPost(api, api.getUrl(),
         new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, ImobilityCnrResponseV1.class);
   }
 
   @Override
@@ -4,6 +4,7 @@ import eu.erasmuswithoutpaper.api.imobilities.tors.v1.endpoints.ImobilityTorsGet
 import eu.erasmuswithoutpaper.api.imobilities.tors.v1.endpoints.ImobilityTorsIndexResponseV1;
 import java.time.ZonedDateTime;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.imobilities.tors.ForwardEwpApiIncomingMobilityToRsApiSpecificationResponseDTO;
@@ -37,6 +38,22 @@ public class EwpIncomingMobilityToRsV1Client extends
   public EwpSuccessOperationResult<ImobilityTorsIndexResponseV1> findOutgoingMobilityIdsWithTranscriptOfRecord(
       String receivingHeiId, Collection<String> sendingHeiIds, ZonedDateTime modifiedSince)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createFindOutgoingMobilityIdsWithTranscriptOfRecordRequest(receivingHeiId, sendingHeiIds,
+            modifiedSince),
+        ImobilityTorsIndexResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<ImobilityTorsIndexResponseV1>> findOutgoingMobilityIdsWithTranscriptOfRecordAsync(
+      String receivingHeiId, Collection<String> sendingHeiIds, ZonedDateTime modifiedSince) {
+    return ewpClient.executeAndLogAsync(
+        createFindOutgoingMobilityIdsWithTranscriptOfRecordRequest(receivingHeiId, sendingHeiIds,
+            modifiedSince),
+        ImobilityTorsIndexResponseV1.class);
+  }
+
+  private EwpRequest createFindOutgoingMobilityIdsWithTranscriptOfRecordRequest(
+      String receivingHeiId, Collection<String> sendingHeiIds, ZonedDateTime modifiedSince) {
     EwpIncomingMobilityToRApiConfiguration api = getApiConfigurationForHeiId(
         receivingHeiId);
 
@@ -45,14 +62,31 @@ public class EwpIncomingMobilityToRsV1Client extends
     bodyParams.param(EwpApiParamConstants.SENDING_HEI_ID, sendingHeiIds);
     bodyParams.param(EwpApiParamConstants.MODIFIED_SINCE, modifiedSince);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getIndexUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, ImobilityTorsIndexResponseV1.class);
+    return EwpRequest.createPost(api, api.getIndexUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   public EwpSuccessOperationResult<ImobilityTorsGetResponseV1> findByReceivingHeiIdAndOutgoingMobilityIds(
       String receivingHeiId, Collection<String> outgoingMobilityIds)
       throws EwpClientErrorException {
+    EwpIncomingMobilityToRApiConfiguration api = getApiConfigurationForHeiId(receivingHeiId);
+    return executeAndLogInChunks(outgoingMobilityIds, api.getMaxOmobilityIds(),
+        chunk -> createFindByReceivingHeiIdAndOutgoingMobilityIdsRequest(receivingHeiId, chunk),
+        ImobilityTorsGetResponseV1.class, ImobilityTorsGetResponseV1::new,
+        ImobilityTorsGetResponseV1::getTor);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<ImobilityTorsGetResponseV1>> findByReceivingHeiIdAndOutgoingMobilityIdsAsync(
+      String receivingHeiId, Collection<String> outgoingMobilityIds) {
+    EwpIncomingMobilityToRApiConfiguration api = getApiConfigurationForHeiId(receivingHeiId);
+    return executeAndLogInChunksAsync(outgoingMobilityIds, api.getMaxOmobilityIds(),
+        chunk -> createFindByReceivingHeiIdAndOutgoingMobilityIdsRequest(receivingHeiId, chunk),
+        ImobilityTorsGetResponseV1.class, ImobilityTorsGetResponseV1::new,
+        ImobilityTorsGetResponseV1::getTor);
+  }
+
+  private EwpRequest createFindByReceivingHeiIdAndOutgoingMobilityIdsRequest(
+      String receivingHeiId, Collection<String> outgoingMobilityIds) {
     EwpIncomingMobilityToRApiConfiguration api = getApiConfigurationForHeiId(
         receivingHeiId);
 
@@ -60,9 +94,8 @@ public class EwpIncomingMobilityToRsV1Client extends
     bodyParams.param(EwpApiParamConstants.RECEIVING_HEI_ID, receivingHeiId);
     bodyParams.param(EwpApiParamConstants.OMOBILITY_ID, outgoingMobilityIds);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getGetUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, ImobilityTorsGetResponseV1.class);
+    return EwpRequest.createPost(api, api.getGetUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   @Override
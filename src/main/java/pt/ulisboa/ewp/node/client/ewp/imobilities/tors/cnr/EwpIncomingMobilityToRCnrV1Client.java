@@ -2,6 +2,7 @@ package pt.ulisboa.ewp.node.client.ewp.imobilities.tors.cnr;
 
 import eu.erasmuswithoutpaper.api.imobilities.tors.cnr.v1.ImobilityTorCnrResponseV1;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.client.ewp.EwpApiClient;
@@ -28,6 +29,20 @@ public class EwpIncomingMobilityToRCnrV1Client
   public EwpSuccessOperationResult<ImobilityTorCnrResponseV1> sendChangeNotification(
       String sendingHeiId, String receivingHeiId, List<String> outgoingMobilityIds)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createSendChangeNotificationRequest(sendingHeiId, receivingHeiId, outgoingMobilityIds),
+        ImobilityTorCnrResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<ImobilityTorCnrResponseV1>> sendChangeNotificationAsync(
+      String sendingHeiId, String receivingHeiId, List<String> outgoingMobilityIds) {
+    return ewpClient.executeAndLogAsync(
+        createSendChangeNotificationRequest(sendingHeiId, receivingHeiId, outgoingMobilityIds),
+        ImobilityTorCnrResponseV1.class);
+  }
+
+  private EwpRequest createSendChangeNotificationRequest(
+      String sendingHeiId, String receivingHeiId, List<String> outgoingMobilityIds) {
     EwpIncomingMobilityToRCnrApiConfiguration api = getApiConfigurationForHeiId(
         sendingHeiId);
 
@@ -35,9 +50,8 @@ public class EwpIncomingMobilityToRCnrV1Client
     bodyParams.param(EwpApiParamConstants.RECEIVING_HEI_ID, receivingHeiId);
     bodyParams.param(EwpApiParamConstants.OMOBILITY_ID, outgoingMobilityIds);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getUrl(),
+    return EwpRequest.createPost(api, api.getUrl(),
         new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, ImobilityTorCnrResponseV1.class);
   }
 
   @Override
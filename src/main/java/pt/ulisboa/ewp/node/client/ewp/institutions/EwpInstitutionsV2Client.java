@@ -2,10 +2,12 @@ package pt.ulisboa.ewp.node.client.ewp.institutions;
 
 import eu.erasmuswithoutpaper.api.institutions.v2.InstitutionsResponseV2;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
-import pt.ulisboa.ewp.node.client.ewp.EwpApiClient;
+import pt.ulisboa.ewp.node.client.ewp.EwpCachedApiClient;
 import pt.ulisboa.ewp.node.client.ewp.EwpClient;
+import pt.ulisboa.ewp.node.client.ewp.cache.EwpResponseCache;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
 import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
@@ -16,21 +18,33 @@ import pt.ulisboa.ewp.node.utils.EwpApiSpecification.Institutions;
 import pt.ulisboa.ewp.node.utils.http.HttpParams;
 
 @Service
-public class EwpInstitutionsV2Client extends EwpApiClient<EwpInstitutionApiConfiguration> {
+public class EwpInstitutionsV2Client extends EwpCachedApiClient<EwpInstitutionApiConfiguration> {
 
-  public EwpInstitutionsV2Client(RegistryClient registryClient, EwpClient ewpClient) {
-    super(registryClient, ewpClient);
+  public EwpInstitutionsV2Client(RegistryClient registryClient, EwpClient ewpClient,
+      EwpResponseCache responseCache) {
+    super(registryClient, ewpClient, responseCache);
   }
 
   public EwpSuccessOperationResult<InstitutionsResponseV2> find(String heiId)
       throws EwpClientErrorException {
+    return responseCache.get(cacheKey(heiId).build(),
+        () -> ewpClient.executeAndLog(createFindRequest(heiId), InstitutionsResponseV2.class));
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<InstitutionsResponseV2>> findAsync(
+      String heiId) {
+    return responseCache.getAsync(cacheKey(heiId).build(),
+        () -> ewpClient.executeAndLogAsync(createFindRequest(heiId),
+            InstitutionsResponseV2.class));
+  }
+
+  private EwpRequest createFindRequest(String heiId) {
     EwpInstitutionApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams queryParams = new HttpParams();
     queryParams.param(EwpApiParamConstants.HEI_ID, Collections.singletonList(heiId));
 
-    EwpRequest request = EwpRequest.createGet(api, api.getUrl(), queryParams);
-    return ewpClient.executeAndLog(request, InstitutionsResponseV2.class);
+    return EwpRequest.createGet(api, api.getUrl(), queryParams);
   }
 
   @Override
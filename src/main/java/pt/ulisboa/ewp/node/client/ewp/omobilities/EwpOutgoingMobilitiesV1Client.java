@@ -5,6 +5,7 @@ import eu.erasmuswithoutpaper.api.omobilities.v1.endpoints.OmobilitiesIndexRespo
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.omobilities.ForwardEwpApiOutgoingMobilitiesApiSpecificationResponseDTO;
@@ -46,6 +47,28 @@ public class EwpOutgoingMobilitiesV1Client
       String receivingAcademicYearId,
       ZonedDateTime modifiedSince)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createFindAllBySendingHeiIdRequest(sendingHeiId, receivingHeiIds, receivingAcademicYearId,
+            modifiedSince),
+        OmobilitiesIndexResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<OmobilitiesIndexResponseV1>> findAllBySendingHeiIdAsync(
+      String sendingHeiId,
+      List<String> receivingHeiIds,
+      String receivingAcademicYearId,
+      ZonedDateTime modifiedSince) {
+    return ewpClient.executeAndLogAsync(
+        createFindAllBySendingHeiIdRequest(sendingHeiId, receivingHeiIds, receivingAcademicYearId,
+            modifiedSince),
+        OmobilitiesIndexResponseV1.class);
+  }
+
+  private EwpRequest createFindAllBySendingHeiIdRequest(
+      String sendingHeiId,
+      List<String> receivingHeiIds,
+      String receivingAcademicYearId,
+      ZonedDateTime modifiedSince) {
     EwpOutgoingMobilitiesApiConfiguration api = getApiConfigurationForHeiId(sendingHeiId);
 
     HttpParams bodyParams = new HttpParams();
@@ -54,27 +77,47 @@ public class EwpOutgoingMobilitiesV1Client
     bodyParams.param(EwpApiParamConstants.RECEIVING_ACADEMIC_YEAR_ID, receivingAcademicYearId);
     bodyParams.param(EwpApiParamConstants.MODIFIED_SINCE, modifiedSince);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getIndexUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, OmobilitiesIndexResponseV1.class);
+    return EwpRequest.createPost(api, api.getIndexUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   public EwpSuccessOperationResult<OmobilitiesGetResponseV1> findBySendingHeiIdAndOmobilityIds(
       String sendingHeiId, Collection<String> omobilityIds) throws EwpClientErrorException {
     EwpOutgoingMobilitiesApiConfiguration api = getApiConfigurationForHeiId(sendingHeiId);
+    EwpSuccessOperationResult<OmobilitiesGetResponseV1> result = executeAndLogInChunks(
+        omobilityIds, api.getMaxOmobilityIds(),
+        chunk -> createFindBySendingHeiIdAndOmobilityIdsRequest(sendingHeiId, chunk),
+        OmobilitiesGetResponseV1.class, OmobilitiesGetResponseV1::new,
+        OmobilitiesGetResponseV1::getSingleMobilityObject);
+
+    this.mobilityMappingCacheService.cacheMappingsFrom(result.getResponseBody());
+
+    return result;
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<OmobilitiesGetResponseV1>> findBySendingHeiIdAndOmobilityIdsAsync(
+      String sendingHeiId, Collection<String> omobilityIds) {
+    EwpOutgoingMobilitiesApiConfiguration api = getApiConfigurationForHeiId(sendingHeiId);
+    return executeAndLogInChunksAsync(omobilityIds, api.getMaxOmobilityIds(),
+        chunk -> createFindBySendingHeiIdAndOmobilityIdsRequest(sendingHeiId, chunk),
+        OmobilitiesGetResponseV1.class, OmobilitiesGetResponseV1::new,
+        OmobilitiesGetResponseV1::getSingleMobilityObject)
+        .thenApply(result -> {
+          this.mobilityMappingCacheService.cacheMappingsFrom(result.getResponseBody());
+          return result;
+        });
+  }
+
+  private EwpRequest createFindBySendingHeiIdAndOmobilityIdsRequest(
+      String sendingHeiId, Collection<String> omobilityIds) {
+    EwpOutgoingMobilitiesApiConfiguration api = getApiConfigurationForHeiId(sendingHeiId);
 
     HttpParams bodyParams = new HttpParams();
     bodyParams.param(EwpApiParamConstants.SENDING_HEI_ID, sendingHeiId);
     bodyParams.param(EwpApiParamConstants.OMOBILITY_ID, omobilityIds);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getGetUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    EwpSuccessOperationResult<OmobilitiesGetResponseV1> result = ewpClient.executeAndLog(
-        request, OmobilitiesGetResponseV1.class);
-
-    this.mobilityMappingCacheService.cacheMappingsFrom(result.getResponseBody());
-
-    return result;
+    return EwpRequest.createPost(api, api.getGetUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   @Override
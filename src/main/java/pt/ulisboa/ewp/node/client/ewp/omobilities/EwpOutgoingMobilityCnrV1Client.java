@@ -2,6 +2,7 @@ package pt.ulisboa.ewp.node.client.ewp.omobilities;
 
 import eu.erasmuswithoutpaper.api.omobilities.cnr.v1.OmobilityCnrResponseV1;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.omobilities.cnr.ForwardEwpApiOutgoingMobilityCnrApiSpecificationResponseDTO;
@@ -37,6 +38,20 @@ public class EwpOutgoingMobilityCnrV1Client
   public EwpSuccessOperationResult<OmobilityCnrResponseV1> sendChangeNotification(
       String sendingHeiId, String receivingHeiId, List<String> outgoingMobilityIds)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createSendChangeNotificationRequest(sendingHeiId, receivingHeiId, outgoingMobilityIds),
+        OmobilityCnrResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<OmobilityCnrResponseV1>> sendChangeNotificationAsync(
+      String sendingHeiId, String receivingHeiId, List<String> outgoingMobilityIds) {
+    return ewpClient.executeAndLogAsync(
+        createSendChangeNotificationRequest(sendingHeiId, receivingHeiId, outgoingMobilityIds),
+        OmobilityCnrResponseV1.class);
+  }
+
+  private EwpRequest createSendChangeNotificationRequest(
+      String sendingHeiId, String receivingHeiId, List<String> outgoingMobilityIds) {
     EwpOutgoingMobilityCnrApiConfiguration api = getApiConfigurationForHeiId(
         receivingHeiId);
 
@@ -44,9 +59,8 @@ public class EwpOutgoingMobilityCnrV1Client
     bodyParams.param(EwpApiParamConstants.SENDING_HEI_ID, sendingHeiId);
     bodyParams.param(EwpApiParamConstants.OMOBILITY_ID, outgoingMobilityIds);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getUrl(),
+    return EwpRequest.createPost(api, api.getUrl(),
         new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, OmobilityCnrResponseV1.class);
   }
 
   @Override
@@ -7,6 +7,7 @@ import eu.erasmuswithoutpaper.api.omobilities.las.v1.endpoints.OmobilityLasUpdat
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.omobilities.las.ForwardEwpApiOutgoingMobilityLearningAgreementsApiSpecificationResponseDTO;
@@ -48,6 +49,32 @@ public class EwpOutgoingMobilityLearningAgreementsV1Client
       String mobilityType,
       ZonedDateTime modifiedSince)
       throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createFindOutgoingMobilityIdsWithLearningAgreementRequest(sendingHeiId, receivingHeiIds,
+            receivingAcademicYearId, globalId, mobilityType, modifiedSince),
+        OmobilityLasIndexResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<OmobilityLasIndexResponseV1>> findOutgoingMobilityIdsWithLearningAgreementAsync(
+      String sendingHeiId,
+      List<String> receivingHeiIds,
+      String receivingAcademicYearId,
+      String globalId,
+      String mobilityType,
+      ZonedDateTime modifiedSince) {
+    return ewpClient.executeAndLogAsync(
+        createFindOutgoingMobilityIdsWithLearningAgreementRequest(sendingHeiId, receivingHeiIds,
+            receivingAcademicYearId, globalId, mobilityType, modifiedSince),
+        OmobilityLasIndexResponseV1.class);
+  }
+
+  private EwpRequest createFindOutgoingMobilityIdsWithLearningAgreementRequest(
+      String sendingHeiId,
+      List<String> receivingHeiIds,
+      String receivingAcademicYearId,
+      String globalId,
+      String mobilityType,
+      ZonedDateTime modifiedSince) {
     EwpOutgoingMobilityLearningAgreementsApiConfiguration api = getApiConfigurationForHeiId(
         sendingHeiId);
 
@@ -59,33 +86,64 @@ public class EwpOutgoingMobilityLearningAgreementsV1Client
     bodyParams.param(EwpApiParamConstants.MOBILITY_TYPE, mobilityType);
     bodyParams.param(EwpApiParamConstants.MODIFIED_SINCE, modifiedSince);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getIndexUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, OmobilityLasIndexResponseV1.class);
+    return EwpRequest.createPost(api, api.getIndexUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   public EwpSuccessOperationResult<OmobilityLasGetResponseV1> findBySendingHeiIdAndOutgoingMobilityIds(
       String sendingHeiId, Collection<String> outgoingMobilityIds) throws EwpClientErrorException {
     EwpOutgoingMobilityLearningAgreementsApiConfiguration api = getApiConfigurationForHeiId(
         sendingHeiId);
+    return executeAndLogInChunks(outgoingMobilityIds, api.getMaxOmobilityIds(),
+        chunk -> createFindBySendingHeiIdAndOutgoingMobilityIdsRequest(sendingHeiId, chunk),
+        OmobilityLasGetResponseV1.class, OmobilityLasGetResponseV1::new,
+        OmobilityLasGetResponseV1::getLa);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<OmobilityLasGetResponseV1>> findBySendingHeiIdAndOutgoingMobilityIdsAsync(
+      String sendingHeiId, Collection<String> outgoingMobilityIds) {
+    EwpOutgoingMobilityLearningAgreementsApiConfiguration api = getApiConfigurationForHeiId(
+        sendingHeiId);
+    return executeAndLogInChunksAsync(outgoingMobilityIds, api.getMaxOmobilityIds(),
+        chunk -> createFindBySendingHeiIdAndOutgoingMobilityIdsRequest(sendingHeiId, chunk),
+        OmobilityLasGetResponseV1.class, OmobilityLasGetResponseV1::new,
+        OmobilityLasGetResponseV1::getLa);
+  }
+
+  private EwpRequest createFindBySendingHeiIdAndOutgoingMobilityIdsRequest(
+      String sendingHeiId, Collection<String> outgoingMobilityIds) {
+    EwpOutgoingMobilityLearningAgreementsApiConfiguration api = getApiConfigurationForHeiId(
+        sendingHeiId);
 
     HttpParams bodyParams = new HttpParams();
     bodyParams.param(EwpApiParamConstants.SENDING_HEI_ID, sendingHeiId);
     bodyParams.param(EwpApiParamConstants.OMOBILITY_ID, outgoingMobilityIds);
 
-    EwpRequest request = EwpRequest.createPost(api, api.getGetUrl(),
-        new EwpRequestFormDataBody(bodyParams));
-    return ewpClient.executeAndLog(request, OmobilityLasGetResponseV1.class);
+    return EwpRequest.createPost(api, api.getGetUrl(),
+        new EwpRequestFormDataBody(bodyParams)).idempotent(true);
   }
 
   public EwpSuccessOperationResult<OmobilityLasUpdateResponseV1> updateOutgoingMobilityLearningAgreement(
       OmobilityLasUpdateRequestV1 updateData) throws EwpClientErrorException {
+    return ewpClient.executeAndLog(
+        createUpdateOutgoingMobilityLearningAgreementRequest(updateData),
+        OmobilityLasUpdateResponseV1.class);
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<OmobilityLasUpdateResponseV1>> updateOutgoingMobilityLearningAgreementAsync(
+      OmobilityLasUpdateRequestV1 updateData) {
+    return ewpClient.executeAndLogAsync(
+        createUpdateOutgoingMobilityLearningAgreementRequest(updateData),
+        OmobilityLasUpdateResponseV1.class);
+  }
+
+  private EwpRequest createUpdateOutgoingMobilityLearningAgreementRequest(
+      OmobilityLasUpdateRequestV1 updateData) {
     EwpOutgoingMobilityLearningAgreementsApiConfiguration api = getApiConfigurationForHeiId(
         updateData.getSendingHeiId());
 
-    EwpRequest request = EwpRequest.createPost(api, api.getUpdateUrl(),
+    return EwpRequest.createPost(api, api.getUpdateUrl(),
         new EwpRequestSerializableBody(updateData));
-    return ewpClient.executeAndLog(request, OmobilityLasUpdateResponseV1.class);
   }
 
   @Override
@@ -11,6 +11,7 @@ import pt.ulisboa.ewp.node.client.ewp.operation.request.body.EwpRequestBody;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.body.EwpRequestFormDataBody;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.EwpApiConfiguration;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+import pt.ulisboa.ewp.node.utils.EwpApi;
 import pt.ulisboa.ewp.node.utils.http.ExtendedHttpHeaders;
 import pt.ulisboa.ewp.node.utils.http.HttpParams;
 import pt.ulisboa.ewp.node.utils.http.HttpUtils;
@@ -18,12 +19,15 @@ import pt.ulisboa.ewp.node.utils.http.HttpUtils;
 public class EwpRequest implements Serializable {
 
   private final String id = UUID.randomUUID().toString();
+  private String heiId;
+  private EwpApi api;
   private HttpMethod method;
   private String urlWithoutQueryParams;
   private ExtendedHttpHeaders headers = new ExtendedHttpHeaders();
   private HttpParams queryParams = new HttpParams();
   private EwpRequestBody body = new EwpRequestFormDataBody(new HttpParams());
   private EwpAuthenticationMethod authenticationMethod = EwpAuthenticationMethod.TLS;
+  private boolean idempotent;
 
   public EwpRequest(HttpMethod method, @NotNull String urlWithoutQueryParams) {
     this.method = method;
@@ -34,6 +38,30 @@ public class EwpRequest implements Serializable {
     return id;
   }
 
+  /**
+   * Returns the ID of the target HEI, if known.
+   */
+  public String getHeiId() {
+    return heiId;
+  }
+
+  public EwpRequest heiId(String heiId) {
+    this.heiId = heiId;
+    return this;
+  }
+
+  /**
+   * Returns the target API, if known.
+   */
+  public EwpApi getApi() {
+    return api;
+  }
+
+  public EwpRequest api(EwpApi api) {
+    this.api = api;
+    return this;
+  }
+
   public HttpMethod getMethod() {
     return method;
   }
@@ -97,6 +125,20 @@ public class EwpRequest implements Serializable {
     return this;
   }
 
+  /**
+   * Returns true if sending the request more than once has the same effect as sending it once, so
+   * it may be retried safely. GET requests are always idempotent, while POST requests must be
+   * marked as such explicitly (for instance, index and get requests).
+   */
+  public boolean isIdempotent() {
+    return idempotent || HttpMethod.GET.equals(method);
+  }
+
+  public EwpRequest idempotent(boolean idempotent) {
+    this.idempotent = idempotent;
+    return this;
+  }
+
   public String getUrl() {
     StringBuilder url = new StringBuilder(urlWithoutQueryParams);
     String queryString = HttpUtils.serializeQueryString(queryParams.asMap());
@@ -123,6 +165,8 @@ public class EwpRequest implements Serializable {
       HttpParams queryParams,
       EwpRequestBody body) {
     EwpRequest request = new EwpRequest(method, urlWithoutQueryParams);
+    request.heiId(api.getHeiId());
+    request.api(api.getApi());
     request.authenticationMethod(EwpApiUtils.getBestSupportedApiAuthenticationMethod(api));
     request.queryParams(queryParams);
     request.body(body);
@@ -1,10 +1,17 @@
 package pt.ulisboa.ewp.node.client.ewp.operation.response;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.springframework.http.HttpStatus;
+import pt.ulisboa.ewp.node.config.client.EwpClientResponseBodyProperties;
 import pt.ulisboa.ewp.node.utils.http.ExtendedHttpHeaders;
 import pt.ulisboa.ewp.node.utils.http.HttpUtils;
 
@@ -13,13 +20,13 @@ public class EwpResponse implements Serializable {
   private final HttpStatus status;
   private final String mediaType;
   private ExtendedHttpHeaders headers = new ExtendedHttpHeaders();
-  private String rawBody = "";
+  private EwpResponseBody body;
 
   protected EwpResponse(Builder builder) {
     this.status = builder.status;
     this.mediaType = builder.mediaType;
     this.headers = builder.headers;
-    this.rawBody = builder.rawBody;
+    this.body = builder.body;
   }
 
   public HttpStatus getStatus() {
@@ -34,8 +41,8 @@ public class EwpResponse implements Serializable {
     return headers;
   }
 
-  public String getRawBody() {
-    return rawBody;
+  public EwpResponseBody getBody() {
+    return body;
   }
 
   public boolean isSuccess() {
@@ -50,7 +57,12 @@ public class EwpResponse implements Serializable {
     return status != null && status.is5xxServerError();
   }
 
-  public static EwpResponse create(Response response) {
+  /**
+   * Creates a response from a raw response, reading its body according to the given properties.
+   * A body transferred with a content coding is decoded. The raw response's entity is consumed.
+   */
+  public static EwpResponse create(Response response,
+      EwpClientResponseBodyProperties responseBodyProperties) throws IOException {
     HttpUtils.sanitizeResponse(response);
 
     EwpResponse.Builder responseBuilder =
@@ -66,20 +78,32 @@ public class EwpResponse implements Serializable {
                     headerValues.stream().map(String::valueOf).collect(Collectors.toList())));
 
     if (response.hasEntity()) {
-      response.bufferEntity();
-
-      responseBuilder.rawBody(response.readEntity(String.class));
+      try (InputStream entityStream = response.readEntity(InputStream.class)) {
+        responseBuilder.body(EwpResponseBody.read(entityStream, getCharset(response.getMediaType()),
+            response.getHeaderString(HttpHeaders.CONTENT_ENCODING),
+            responseBodyProperties.getMaxInMemorySizeInBytes(),
+            responseBodyProperties.getMaxLoggedSizeInBytes()));
+      }
     }
 
     return responseBuilder.build();
   }
 
+  private static Charset getCharset(MediaType mediaType) {
+    String charsetName =
+        mediaType != null ? mediaType.getParameters().get(MediaType.CHARSET_PARAMETER) : null;
+    if (charsetName == null || !Charset.isSupported(charsetName)) {
+      return StandardCharsets.UTF_8;
+    }
+    return Charset.forName(charsetName);
+  }
+
   public static class Builder {
 
     private final HttpStatus status;
     private String mediaType;
     private ExtendedHttpHeaders headers = new ExtendedHttpHeaders();
-    private String rawBody = "";
+    private EwpResponseBody body = EwpResponseBody.empty();
 
     public Builder(HttpStatus status) {
       this.status = status;
@@ -108,12 +132,12 @@ public class EwpResponse implements Serializable {
       return this;
     }
 
-    public String rawBody() {
-      return rawBody;
+    public EwpResponseBody body() {
+      return body;
     }
 
-    public Builder rawBody(String rawBody) {
-      this.rawBody = rawBody;
+    public Builder body(EwpResponseBody body) {
+      this.body = body;
       return this;
     }
 
@@ -0,0 +1,367 @@
+package pt.ulisboa.ewp.node.client.ewp.operation.response;
+
+import com.google.common.io.CountingInputStream;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pt.ulisboa.ewp.node.utils.http.HttpSignatureUtils;
+
+/**
+ * Body of a response obtained from an EWP API. The body is read only once: small bodies are kept in
+ * memory while larger ones are spooled to a temporary file, and the SHA-256 digest is computed
+ * while reading, so that verifying and unmarshalling the body do not require further copies of it.
+ * Only a capped prefix of the body is kept for logging purposes.
+ *
+ * <p>A body transferred with a content coding (gzip or deflate) is decoded while being read. Its
+ * transferred (encoded) length and SHA-256 digest are kept as well, since a partner may compute
+ * the Digest header over either representation.
+ */
+public class EwpResponseBody implements Serializable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EwpResponseBody.class);
+
+  private static final int BUFFER_SIZE = 8192;
+
+  public static final String CONTENT_ENCODING_GZIP = "gzip";
+  public static final String CONTENT_ENCODING_DEFLATE = "deflate";
+
+  private final String charsetName;
+  private final long length;
+  private final byte[] content;
+  private final File spoolFile;
+  private final byte[] sha256Digest;
+  private final byte[] loggedContent;
+  private final String contentEncoding;
+  private final long transferLength;
+  private final byte[] encodedSha256Digest;
+
+  private EwpResponseBody(Charset charset, long length, byte[] content, File spoolFile,
+      byte[] sha256Digest, byte[] loggedContent) {
+    this(charset, length, content, spoolFile, sha256Digest, loggedContent, null, length, null);
+  }
+
+  private EwpResponseBody(Charset charset, long length, byte[] content, File spoolFile,
+      byte[] sha256Digest, byte[] loggedContent, String contentEncoding, long transferLength,
+      byte[] encodedSha256Digest) {
+    this.charsetName = charset.name();
+    this.length = length;
+    this.content = content;
+    this.spoolFile = spoolFile;
+    this.sha256Digest = sha256Digest;
+    this.loggedContent = loggedContent;
+    this.contentEncoding = contentEncoding;
+    this.transferLength = transferLength;
+    this.encodedSha256Digest = encodedSha256Digest;
+  }
+
+  public static EwpResponseBody empty() {
+    return create("");
+  }
+
+  public static EwpResponseBody create(String content) {
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    return new EwpResponseBody(StandardCharsets.UTF_8, bytes.length, bytes, null,
+        createSha256MessageDigest().digest(bytes), bytes);
+  }
+
+  /**
+   * Reads a body, transferred with a given content coding, from a stream. Supported content
+   * codings (gzip and deflate) are decoded while reading, other content codings (including
+   * identity) are read as is.
+   *
+   * @see #read(InputStream, Charset, int, int)
+   */
+  public static EwpResponseBody read(InputStream inputStream, Charset charset,
+      String contentEncoding, int maxInMemorySize, int maxLoggedSize) throws IOException {
+    String normalizedContentEncoding = normalizeContentEncoding(contentEncoding);
+    if (normalizedContentEncoding == null) {
+      return read(inputStream, charset, maxInMemorySize, maxLoggedSize);
+    }
+
+    MessageDigest encodedSha256MessageDigest = createSha256MessageDigest();
+    CountingInputStream countingInputStream = new CountingInputStream(inputStream);
+    DigestInputStream encodedInputStream =
+        new DigestInputStream(countingInputStream, encodedSha256MessageDigest);
+    BufferedInputStream bufferedEncodedInputStream = new BufferedInputStream(encodedInputStream);
+
+    bufferedEncodedInputStream.mark(2);
+    int firstByte = bufferedEncodedInputStream.read();
+    int secondByte = bufferedEncodedInputStream.read();
+    bufferedEncodedInputStream.reset();
+    if (firstByte == -1) {
+      return empty();
+    }
+
+    EwpResponseBody decodedBody;
+    if (CONTENT_ENCODING_GZIP.equals(normalizedContentEncoding)) {
+      try (InputStream decodedInputStream =
+          new GZIPInputStream(bufferedEncodedInputStream, BUFFER_SIZE)) {
+        decodedBody = read(decodedInputStream, charset, maxInMemorySize, maxLoggedSize);
+        consumeRemaining(encodedInputStream);
+      }
+    } else {
+      // Some servers send raw deflate data instead of the zlib format required by HTTP
+      Inflater inflater = new Inflater(!isZlibHeader(firstByte, secondByte));
+      try (InputStream decodedInputStream =
+          new InflaterInputStream(bufferedEncodedInputStream, inflater)) {
+        decodedBody = read(decodedInputStream, charset, maxInMemorySize, maxLoggedSize);
+        consumeRemaining(encodedInputStream);
+      } finally {
+        inflater.end();
+      }
+    }
+
+    LOGGER.debug("Decoded {} response body: {} bytes transferred, {} bytes decoded",
+        normalizedContentEncoding, countingInputStream.getCount(), decodedBody.length);
+    return new EwpResponseBody(decodedBody.getCharset(), decodedBody.length, decodedBody.content,
+        decodedBody.spoolFile, decodedBody.sha256Digest, decodedBody.loggedContent,
+        normalizedContentEncoding, countingInputStream.getCount(),
+        encodedSha256MessageDigest.digest());
+  }
+
+  /**
+   * Reads a body from a stream, keeping it in memory if it does not exceed maxInMemorySize bytes,
+   * or spooling it to a temporary file otherwise.
+   */
+  public static EwpResponseBody read(InputStream inputStream, Charset charset,
+      int maxInMemorySize, int maxLoggedSize) throws IOException {
+    MessageDigest sha256MessageDigest = createSha256MessageDigest();
+    ByteArrayOutputStream memoryBuffer = new ByteArrayOutputStream();
+    File spoolFile = null;
+    OutputStream spoolOutputStream = null;
+    long length = 0;
+    byte[] loggedContent = null;
+
+    try {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int bytesRead;
+      while ((bytesRead = inputStream.read(buffer)) != -1) {
+        sha256MessageDigest.update(buffer, 0, bytesRead);
+        length += bytesRead;
+
+        if (spoolOutputStream == null && length > maxInMemorySize) {
+          byte[] bufferedContent = memoryBuffer.toByteArray();
+          loggedContent = Arrays.copyOf(bufferedContent,
+              Math.min(bufferedContent.length, maxLoggedSize));
+          spoolFile = Files.createTempFile("ewp-response-", ".body").toFile();
+          spoolOutputStream = Files.newOutputStream(spoolFile.toPath());
+          spoolOutputStream.write(bufferedContent);
+          memoryBuffer = null;
+        }
+
+        if (spoolOutputStream != null) {
+          spoolOutputStream.write(buffer, 0, bytesRead);
+        } else {
+          memoryBuffer.write(buffer, 0, bytesRead);
+        }
+      }
+
+    } catch (IOException e) {
+      if (spoolFile != null) {
+        closeQuietly(spoolOutputStream);
+        deleteQuietly(spoolFile);
+      }
+      throw e;
+    }
+
+    if (spoolOutputStream != null) {
+      spoolOutputStream.close();
+      LOGGER.debug("Spooled response body of {} bytes to {}", length, spoolFile);
+      return new EwpResponseBody(charset, length, null, spoolFile, sha256MessageDigest.digest(),
+          loggedContent);
+    }
+
+    byte[] content = memoryBuffer.toByteArray();
+    loggedContent =
+        content.length <= maxLoggedSize ? content : Arrays.copyOf(content, maxLoggedSize);
+    return new EwpResponseBody(charset, length, content, null, sha256MessageDigest.digest(),
+        loggedContent);
+  }
+
+  public Charset getCharset() {
+    return Charset.forName(charsetName);
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  public boolean isSpooled() {
+    return spoolFile != null;
+  }
+
+  /**
+   * Returns the content coding with which the body was transferred, or null if it was transferred
+   * as is.
+   */
+  public String getContentEncoding() {
+    return contentEncoding;
+  }
+
+  public boolean isEncoded() {
+    return contentEncoding != null;
+  }
+
+  /**
+   * Returns the number of bytes actually transferred, that is, the length of the body before being
+   * decoded.
+   */
+  public long getTransferLength() {
+    return transferLength;
+  }
+
+  /**
+   * Opens a new stream over the full body. The caller is responsible for closing it.
+   */
+  public InputStream openStream() throws IOException {
+    if (spoolFile != null) {
+      return Files.newInputStream(spoolFile.toPath());
+    }
+    return new ByteArrayInputStream(content);
+  }
+
+  /**
+   * Returns the digest of the body using a given algorithm. The SHA-256 digest is computed while
+   * reading the body, other algorithms require reading the body again.
+   */
+  public byte[] digest(String algorithm) throws NoSuchAlgorithmException, IOException {
+    if (HttpSignatureUtils.SHA_256.equalsIgnoreCase(algorithm)) {
+      return sha256Digest.clone();
+    }
+
+    MessageDigest messageDigest = MessageDigest.getInstance(algorithm);
+    if (spoolFile == null) {
+      return messageDigest.digest(content);
+    }
+    try (InputStream inputStream = openStream()) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int bytesRead;
+      while ((bytesRead = inputStream.read(buffer)) != -1) {
+        messageDigest.update(buffer, 0, bytesRead);
+      }
+    }
+    return messageDigest.digest();
+  }
+
+  /**
+   * Returns the digest, using a given algorithm, of the body as transferred (that is, before being
+   * decoded). Only the SHA-256 digest is available, as the encoded body is not kept.
+   */
+  public byte[] digestOfTransferredContent(String algorithm) throws NoSuchAlgorithmException,
+      IOException {
+    if (!isEncoded()) {
+      return digest(algorithm);
+    }
+    if (!HttpSignatureUtils.SHA_256.equalsIgnoreCase(algorithm)) {
+      throw new NoSuchAlgorithmException(
+          algorithm + " digest of the transferred body is not available");
+    }
+    return encodedSha256Digest.clone();
+  }
+
+  /**
+   * Returns the prefix of the body that is kept for logging purposes.
+   */
+  public String getLoggedContent() {
+    return new String(loggedContent, getCharset());
+  }
+
+  /**
+   * Returns the prefix of the body that is kept for logging purposes, as bytes. The returned array
+   * is shared, so it must not be modified.
+   */
+  public byte[] getLoggedContentBytes() {
+    return loggedContent;
+  }
+
+  public boolean isLoggedContentTruncated() {
+    return loggedContent.length < length;
+  }
+
+  /**
+   * Releases the resources held by the body, namely its temporary file, if any. After being
+   * released, only the logged content remains available.
+   */
+  public void release() {
+    if (spoolFile != null) {
+      deleteQuietly(spoolFile);
+    }
+  }
+
+  private static String normalizeContentEncoding(String contentEncoding) {
+    if (contentEncoding == null) {
+      return null;
+    }
+    String normalizedContentEncoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+    if (CONTENT_ENCODING_GZIP.equals(normalizedContentEncoding)
+        || "x-gzip".equals(normalizedContentEncoding)) {
+      return CONTENT_ENCODING_GZIP;
+    } else if (CONTENT_ENCODING_DEFLATE.equals(normalizedContentEncoding)) {
+      return CONTENT_ENCODING_DEFLATE;
+    } else if (!normalizedContentEncoding.isEmpty()
+        && !"identity".equals(normalizedContentEncoding)) {
+      LOGGER.warn("Unsupported response content encoding: {}", contentEncoding);
+    }
+    return null;
+  }
+
+  /**
+   * Consumes any trailing bytes of the transferred body, so that its transferred length and digest
+   * are complete.
+   */
+  private static void consumeRemaining(InputStream inputStream) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    while (inputStream.read(buffer) != -1) {
+      // Intentionally empty
+    }
+  }
+
+  private static boolean isZlibHeader(int firstByte, int secondByte) {
+    return secondByte != -1 && (firstByte & 0x0F) == 8 && ((firstByte << 8) | secondByte) % 31 == 0;
+  }
+
+  private static MessageDigest createSha256MessageDigest() {
+    try {
+      return MessageDigest.getInstance(HttpSignatureUtils.SHA_256);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void closeQuietly(OutputStream outputStream) {
+    if (outputStream == null) {
+      return;
+    }
+    try {
+      outputStream.close();
+    } catch (IOException e) {
+      LOGGER.warn("Failed to close spool file of response body", e);
+    }
+  }
+
+  private static void deleteQuietly(File file) {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      LOGGER.warn("Failed to delete spool file of response body: {}", file, e);
+    }
+  }
+}
@@ -5,20 +5,36 @@ import java.io.Serializable;
 public class EwpSuccessOperationResult<T extends Serializable> extends EwpOperationResult {
 
   private final T responseBody;
+  private final long responseBodyLength;
 
   protected EwpSuccessOperationResult(Builder<T> builder) {
     super(builder);
     this.responseBody = builder.responseBody;
+    if (builder.responseBodyLength != null) {
+      this.responseBodyLength = builder.responseBodyLength;
+    } else {
+      this.responseBodyLength = getResponse() != null ? getResponse().getBody().getLength() : 0;
+    }
   }
 
   public T getResponseBody() {
     return responseBody;
   }
 
+  /**
+   * Returns the length, in bytes, of the body of the response(s) the response body was resolved
+   * from. For a result merged from several chunk requests, it is the sum of the lengths of the
+   * bodies of all chunk responses.
+   */
+  public long getResponseBodyLength() {
+    return responseBodyLength;
+  }
+
   public static class Builder<T extends Serializable>
       extends EwpOperationResult.Builder<Builder<T>> {
 
     private T responseBody;
+    private Long responseBodyLength;
 
     public T responseBody() {
       return responseBody;
@@ -29,6 +45,11 @@ public class EwpSuccessOperationResult<T extends Serializable> extends EwpOperat
       return this;
     }
 
+    public Builder<T> responseBodyLength(long responseBodyLength) {
+      this.responseBodyLength = responseBodyLength;
+      return this;
+    }
+
     @Override
     public Builder<T> getThis() {
       return this;
@@ -2,11 +2,14 @@ package pt.ulisboa.ewp.node.client.ewp.ounits;
 
 import eu.erasmuswithoutpaper.api.ounits.v2.OunitsResponseV2;
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiParamConstants;
 import pt.ulisboa.ewp.node.api.host.forward.ewp.dto.ForwardEwpApiOrganizationalUnitsApiSpecificationResponseDTO;
-import pt.ulisboa.ewp.node.client.ewp.EwpApiClient;
+import pt.ulisboa.ewp.node.client.ewp.EwpCachedApiClient;
 import pt.ulisboa.ewp.node.client.ewp.EwpClient;
+import pt.ulisboa.ewp.node.client.ewp.cache.EwpResponseCache;
+import pt.ulisboa.ewp.node.client.ewp.cache.EwpResponseCacheKey;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
 import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
@@ -18,10 +21,11 @@ import pt.ulisboa.ewp.node.utils.http.HttpParams;
 
 @Service
 public class EwpOrganizationalUnitsV2Client
-    extends EwpApiClient<EwpOrganizationalUnitApiConfiguration> {
+    extends EwpCachedApiClient<EwpOrganizationalUnitApiConfiguration> {
 
-  public EwpOrganizationalUnitsV2Client(RegistryClient registryClient, EwpClient ewpClient) {
-    super(registryClient, ewpClient);
+  public EwpOrganizationalUnitsV2Client(RegistryClient registryClient, EwpClient ewpClient,
+      EwpResponseCache responseCache) {
+    super(registryClient, ewpClient, responseCache);
   }
 
   public ForwardEwpApiOrganizationalUnitsApiSpecificationResponseDTO getApiSpecification(
@@ -35,27 +39,73 @@ public class EwpOrganizationalUnitsV2Client
   public EwpSuccessOperationResult<OunitsResponseV2> findByOunitIds(
       String heiId, Collection<String> organizationalUnitIds)
       throws EwpClientErrorException {
+    EwpResponseCacheKey key =
+        cacheKey(heiId).param(EwpApiParamConstants.OUNIT_ID, organizationalUnitIds).build();
+    return responseCache.get(key, () -> {
+      EwpOrganizationalUnitApiConfiguration api = getApiConfigurationForHeiId(heiId);
+      return executeAndLogInChunks(organizationalUnitIds, api.getMaxOunitIds(),
+          chunk -> createFindByOunitIdsRequest(heiId, chunk),
+          OunitsResponseV2.class, OunitsResponseV2::new, OunitsResponseV2::getOunit);
+    });
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<OunitsResponseV2>> findByOunitIdsAsync(
+      String heiId, Collection<String> organizationalUnitIds) {
+    EwpResponseCacheKey key =
+        cacheKey(heiId).param(EwpApiParamConstants.OUNIT_ID, organizationalUnitIds).build();
+    return responseCache.getAsync(key, () -> {
+      EwpOrganizationalUnitApiConfiguration api = getApiConfigurationForHeiId(heiId);
+      return executeAndLogInChunksAsync(organizationalUnitIds, api.getMaxOunitIds(),
+          chunk -> createFindByOunitIdsRequest(heiId, chunk),
+          OunitsResponseV2.class, OunitsResponseV2::new, OunitsResponseV2::getOunit);
+    });
+  }
+
+  private EwpRequest createFindByOunitIdsRequest(
+      String heiId, Collection<String> organizationalUnitIds) {
     EwpOrganizationalUnitApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams queryParams = new HttpParams();
     queryParams.param(EwpApiParamConstants.HEI_ID, heiId);
     queryParams.param(EwpApiParamConstants.OUNIT_ID, organizationalUnitIds);
 
-    EwpRequest request = EwpRequest.createGet(api, api.getUrl(), queryParams);
-    return ewpClient.executeAndLog(request, OunitsResponseV2.class);
+    return EwpRequest.createGet(api, api.getUrl(), queryParams);
   }
 
   public EwpSuccessOperationResult<OunitsResponseV2> findByOunitCodes(
       String heiId, Collection<String> organizationalUnitCodes)
       throws EwpClientErrorException {
+    EwpResponseCacheKey key =
+        cacheKey(heiId).param(EwpApiParamConstants.OUNIT_CODE, organizationalUnitCodes).build();
+    return responseCache.get(key, () -> {
+      EwpOrganizationalUnitApiConfiguration api = getApiConfigurationForHeiId(heiId);
+      return executeAndLogInChunks(organizationalUnitCodes, api.getMaxOunitCodes(),
+          chunk -> createFindByOunitCodesRequest(heiId, chunk),
+          OunitsResponseV2.class, OunitsResponseV2::new, OunitsResponseV2::getOunit);
+    });
+  }
+
+  public CompletableFuture<EwpSuccessOperationResult<OunitsResponseV2>> findByOunitCodesAsync(
+      String heiId, Collection<String> organizationalUnitCodes) {
+    EwpResponseCacheKey key =
+        cacheKey(heiId).param(EwpApiParamConstants.OUNIT_CODE, organizationalUnitCodes).build();
+    return responseCache.getAsync(key, () -> {
+      EwpOrganizationalUnitApiConfiguration api = getApiConfigurationForHeiId(heiId);
+      return executeAndLogInChunksAsync(organizationalUnitCodes, api.getMaxOunitCodes(),
+          chunk -> createFindByOunitCodesRequest(heiId, chunk),
+          OunitsResponseV2.class, OunitsResponseV2::new, OunitsResponseV2::getOunit);
+    });
+  }
+
+  private EwpRequest createFindByOunitCodesRequest(
+      String heiId, Collection<String> organizationalUnitCodes) {
     EwpOrganizationalUnitApiConfiguration api = getApiConfigurationForHeiId(heiId);
 
     HttpParams queryParams = new HttpParams();
     queryParams.param(EwpApiParamConstants.HEI_ID, heiId);
     queryParams.param(EwpApiParamConstants.OUNIT_CODE, organizationalUnitCodes);
 
-    EwpRequest request = EwpRequest.createGet(api, api.getUrl(), queryParams);
-    return ewpClient.executeAndLog(request, OunitsResponseV2.class);
+    return EwpRequest.createGet(api, api.getUrl(), queryParams);
   }
 
   @Override
@@ -0,0 +1,243 @@
+package pt.ulisboa.ewp.node.client.ewp.registry;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Index of the API configurations resolved from the registry's catalogue, keyed by HEI ID, API
+ * local name and major version, so that resolving the configuration of a partner's API does not
+ * require scanning the catalogue and unmarshalling the manifest entry on every request.
+ *
+ * <p>The index is bound to the catalogue it was built from (identified by its expiry date). Once
+ * the registry client refreshes its catalogue, the entries known so far are resolved again against
+ * the new catalogue in the background, while the previous index keeps being served; the new index
+ * then replaces the previous one atomically. Entries that fail to be resolved again are dropped
+ * (and resolved on demand later), and if the rebuild fails altogether the previous index is kept.
+ *
+ * <p>Absent configurations are indexed as well, up to {@link #MAX_ABSENT_ENTRIES} per index, so
+ * that requests for unknown HEI IDs cannot make the index grow without bound.
+ */
+public class EwpApiConfigurationIndex {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(EwpApiConfigurationIndex.class);
+
+  static final int MAX_ABSENT_ENTRIES = 10000;
+
+  private final Supplier<Date> catalogueExpiryDateSupplier;
+  private final Executor rebuildExecutor;
+  private final AtomicReference<Date> rebuildCatalogueExpiryDate = new AtomicReference<>();
+
+  private volatile Snapshot snapshot;
+
+  public EwpApiConfigurationIndex(Supplier<Date> catalogueExpiryDateSupplier) {
+    this(catalogueExpiryDateSupplier, createRebuildExecutor());
+  }
+
+  EwpApiConfigurationIndex(Supplier<Date> catalogueExpiryDateSupplier, Executor rebuildExecutor) {
+    this.catalogueExpiryDateSupplier = catalogueExpiryDateSupplier;
+    this.rebuildExecutor = rebuildExecutor;
+    this.snapshot = new Snapshot(null);
+  }
+
+  /**
+   * Returns the configuration of a given API version of a HEI, resolving it through the given
+   * loader if it is not indexed yet. An absent configuration is indexed as well.
+   */
+  @SuppressWarnings("unchecked")
+  public <C> Optional<C> getApiConfiguration(String heiId, String apiLocalName, int majorVersion,
+      Supplier<Optional<C>> loader) {
+    Key key = new Key(heiId, apiLocalName, majorVersion);
+    Snapshot currentSnapshot = getCurrentSnapshot();
+    Entry<?> entry = currentSnapshot.apiConfigurations.get(key);
+    if (entry == null) {
+      entry = currentSnapshot.index(currentSnapshot.apiConfigurations, key,
+          new Entry<>(loader, Optional::isEmpty));
+    }
+    return (Optional<C>) entry.value;
+  }
+
+  /**
+   * Returns the major versions of a given API supported by a HEI, resolving them through the given
+   * loader if they are not indexed yet.
+   */
+  @SuppressWarnings("unchecked")
+  public List<Integer> getSupportedMajorVersions(String heiId, String apiLocalName,
+      Supplier<List<Integer>> loader) {
+    Key key = new Key(heiId, apiLocalName, -1);
+    Snapshot currentSnapshot = getCurrentSnapshot();
+    Entry<?> entry = currentSnapshot.supportedMajorVersions.get(key);
+    if (entry == null) {
+      entry = currentSnapshot.index(currentSnapshot.supportedMajorVersions, key,
+          new Entry<>(() -> Collections.unmodifiableList(loader.get()), List::isEmpty));
+    }
+    return (List<Integer>) entry.value;
+  }
+
+  private Snapshot getCurrentSnapshot() {
+    Date catalogueExpiryDate = catalogueExpiryDateSupplier.get();
+    Snapshot currentSnapshot = this.snapshot;
+    if (Objects.equals(currentSnapshot.catalogueExpiryDate, catalogueExpiryDate)) {
+      return currentSnapshot;
+    }
+
+    if (currentSnapshot.catalogueExpiryDate == null) {
+      // NOTE: nothing was indexed against a catalogue yet, so there is nothing to resolve again
+      synchronized (this) {
+        if (this.snapshot == currentSnapshot) {
+          this.snapshot = new Snapshot(catalogueExpiryDate);
+        }
+        return this.snapshot;
+      }
+    }
+
+    Date previousRebuildCatalogueExpiryDate = rebuildCatalogueExpiryDate.get();
+    if (!Objects.equals(previousRebuildCatalogueExpiryDate, catalogueExpiryDate)
+        && rebuildCatalogueExpiryDate.compareAndSet(previousRebuildCatalogueExpiryDate,
+        catalogueExpiryDate)) {
+      try {
+        rebuildExecutor.execute(() -> rebuild(currentSnapshot, catalogueExpiryDate));
+      } catch (RejectedExecutionException e) {
+        LOGGER.warn("Failed to schedule rebuild of API configuration index", e);
+        rebuildCatalogueExpiryDate.compareAndSet(catalogueExpiryDate, null);
+      }
+    }
+    // NOTE: the previous index keeps being served until the rebuild completes
+    return this.snapshot;
+  }
+
+  private void rebuild(Snapshot previousSnapshot, Date catalogueExpiryDate) {
+    try {
+      Snapshot newSnapshot = previousSnapshot.rebuild(catalogueExpiryDate);
+      this.snapshot = newSnapshot;
+      LOGGER.debug("Rebuilt API configuration index ({} entries) for catalogue expiring at {}",
+          newSnapshot.apiConfigurations.size(), catalogueExpiryDate);
+
+    } catch (RuntimeException e) {
+      LOGGER.error("Failed to rebuild API configuration index, keeping the previous one", e);
+    }
+  }
+
+  private static Executor createRebuildExecutor() {
+    CustomizableThreadFactory threadFactory =
+        new CustomizableThreadFactory("EwpApiConfigurationIndex-");
+    threadFactory.setDaemon(true);
+    return Executors.newSingleThreadExecutor(threadFactory);
+  }
+
+  private static class Snapshot {
+
+    private final Date catalogueExpiryDate;
+    private final Map<Key, Entry<?>> apiConfigurations = new ConcurrentHashMap<>();
+    private final Map<Key, Entry<?>> supportedMajorVersions = new ConcurrentHashMap<>();
+    private final AtomicInteger absentEntriesCount = new AtomicInteger();
+
+    Snapshot(Date catalogueExpiryDate) {
+      this.catalogueExpiryDate = catalogueExpiryDate;
+    }
+
+    /**
+     * Indexes an entry, unless the maximum number of absent entries was reached. Returns the entry
+     * that was already indexed under the given key, if any, or the given entry otherwise.
+     */
+    Entry<?> index(Map<Key, Entry<?>> entries, Key key, Entry<?> entry) {
+      if (entry.absent && absentEntriesCount.get() >= MAX_ABSENT_ENTRIES) {
+        return entry;
+      }
+      Entry<?> existingEntry = entries.putIfAbsent(key, entry);
+      if (existingEntry != null) {
+        return existingEntry;
+      }
+      if (entry.absent) {
+        absentEntriesCount.incrementAndGet();
+      }
+      return entry;
+    }
+
+    Snapshot rebuild(Date catalogueExpiryDate) {
+      Snapshot result = new Snapshot(catalogueExpiryDate);
+      apiConfigurations.forEach(
+          (key, entry) -> result.reload(result.apiConfigurations, key, entry));
+      supportedMajorVersions.forEach(
+          (key, entry) -> result.reload(result.supportedMajorVersions, key, entry));
+      return result;
+    }
+
+    private void reload(Map<Key, Entry<?>> entries, Key key, Entry<?> entry) {
+      try {
+        index(entries, key, entry.reload());
+      } catch (RuntimeException e) {
+        LOGGER.warn("Failed to resolve again API configuration entry {}, dropping it", key, e);
+      }
+    }
+  }
+
+  private static class Entry<V> {
+
+    private final Supplier<V> loader;
+    private final Predicate<V> absencePredicate;
+    private final V value;
+    private final boolean absent;
+
+    Entry(Supplier<V> loader, Predicate<V> absencePredicate) {
+      this.loader = loader;
+      this.absencePredicate = absencePredicate;
+      this.value = loader.get();
+      this.absent = absencePredicate.test(value);
+    }
+
+    Entry<V> reload() {
+      return new Entry<>(loader, absencePredicate);
+    }
+  }
+
+  private static class Key {
+
+    private final String heiId;
+    private final String apiLocalName;
+    private final int majorVersion;
+
+    Key(String heiId, String apiLocalName, int majorVersion) {
+      this.heiId = heiId;
+      this.apiLocalName = apiLocalName;
+      this.majorVersion = majorVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return majorVersion == key.majorVersion && Objects.equals(heiId, key.heiId)
+          && Objects.equals(apiLocalName, key.apiLocalName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(heiId, apiLocalName, majorVersion);
+    }
+
+    @Override
+    public String toString() {
+      return heiId + "/" + apiLocalName + "/" + majorVersion;
+    }
+  }
+}
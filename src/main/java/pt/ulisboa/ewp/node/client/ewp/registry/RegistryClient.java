@@ -8,6 +8,9 @@ import java.security.cert.X509Certificate;
 import java.security.interfaces.RSAPublicKey;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,6 +19,9 @@ import pt.ulisboa.ewp.node.config.registry.RegistryProperties;
 @Service
 public class RegistryClient extends ClientImpl {
 
+  private final EwpApiConfigurationIndex apiConfigurationIndex =
+      new EwpApiConfigurationIndex(this::getExpiryDate);
+
   @Autowired
   public RegistryClient(RegistryProperties properties) {
     this(createClientOptions(properties));
@@ -62,4 +68,22 @@ public class RegistryClient extends ClientImpl {
   public Collection<String> getAllHeiIds() {
     return getAllHeis().stream().map(HeiEntry::getId).collect(Collectors.toList());
   }
+
+  /**
+   * Returns the configuration of an API version of a HEI from the index, resolving it through the
+   * given loader only when the index does not know about it yet for the current catalogue.
+   */
+  public <C> Optional<C> getIndexedApiConfiguration(String heiId, String apiLocalName,
+      int majorVersion, Supplier<Optional<C>> loader) {
+    return apiConfigurationIndex.getApiConfiguration(heiId, apiLocalName, majorVersion, loader);
+  }
+
+  /**
+   * Returns the major versions of an API supported by a HEI from the index, resolving them through
+   * the given loader only when the index does not know about them yet for the current catalogue.
+   */
+  public List<Integer> getIndexedSupportedMajorVersions(String heiId, String apiLocalName,
+      Supplier<List<Integer>> loader) {
+    return apiConfigurationIndex.getSupportedMajorVersions(heiId, apiLocalName, loader);
+  }
 }
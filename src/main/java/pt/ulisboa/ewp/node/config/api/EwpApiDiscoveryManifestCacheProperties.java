@@ -0,0 +1,23 @@
+package pt.ulisboa.ewp.node.config.api;
+
+public class EwpApiDiscoveryManifestCacheProperties {
+
+  private boolean enabled = true;
+  private long timeToLiveInSeconds = 300;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getTimeToLiveInSeconds() {
+    return timeToLiveInSeconds;
+  }
+
+  public void setTimeToLiveInSeconds(long timeToLiveInSeconds) {
+    this.timeToLiveInSeconds = timeToLiveInSeconds;
+  }
+}
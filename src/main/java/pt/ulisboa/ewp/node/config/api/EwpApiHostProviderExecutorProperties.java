@@ -0,0 +1,50 @@
+package pt.ulisboa.ewp.node.config.api;
+
+public class EwpApiHostProviderExecutorProperties {
+
+  private int corePoolSize = 4;
+  private int maxPoolSize = 32;
+  private int queueCapacity = 100;
+  private long keepAliveInSeconds = 60;
+  private long timeoutInSeconds = 60;
+
+  public int getCorePoolSize() {
+    return corePoolSize;
+  }
+
+  public void setCorePoolSize(int corePoolSize) {
+    this.corePoolSize = corePoolSize;
+  }
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  public void setMaxPoolSize(int maxPoolSize) {
+    this.maxPoolSize = maxPoolSize;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public long getKeepAliveInSeconds() {
+    return keepAliveInSeconds;
+  }
+
+  public void setKeepAliveInSeconds(long keepAliveInSeconds) {
+    this.keepAliveInSeconds = keepAliveInSeconds;
+  }
+
+  public long getTimeoutInSeconds() {
+    return timeoutInSeconds;
+  }
+
+  public void setTimeoutInSeconds(long timeoutInSeconds) {
+    this.timeoutInSeconds = timeoutInSeconds;
+  }
+}
@@ -0,0 +1,52 @@
+package pt.ulisboa.ewp.node.config.api;
+
+public class EwpApiMappingCacheProperties {
+
+  private boolean enabled = true;
+  private int maxEntries = 100000;
+  private boolean warmUpOnStartup = true;
+  private int warmUpMaxEntries = 10000;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public void setMaxEntries(int maxEntries) {
+    this.maxEntries = maxEntries;
+  }
+
+  public boolean isWarmUpOnStartup() {
+    return warmUpOnStartup;
+  }
+
+  public void setWarmUpOnStartup(boolean warmUpOnStartup) {
+    this.warmUpOnStartup = warmUpOnStartup;
+  }
+
+  /**
+   * Returns the maximum number of mappings loaded into each mapping cache when warming it up.
+   */
+  public int getWarmUpMaxEntries() {
+    return warmUpMaxEntries;
+  }
+
+  public void setWarmUpMaxEntries(int warmUpMaxEntries) {
+    this.warmUpMaxEntries = warmUpMaxEntries;
+  }
+
+  /**
+   * Returns the maximum number of entries of each mapping cache, being zero when the caches are
+   * disabled.
+   */
+  public int getEffectiveMaxEntries() {
+    return enabled ? Math.max(0, maxEntries) : 0;
+  }
+}
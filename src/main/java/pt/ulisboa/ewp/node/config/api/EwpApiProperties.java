@@ -0,0 +1,51 @@
+package pt.ulisboa.ewp.node.config.api;
+
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Scope;
+
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+@ConfigurationProperties(prefix = "ewp-api")
+public class EwpApiProperties {
+
+  private EwpApiResponseBodyProperties responseBody = new EwpApiResponseBodyProperties();
+  private EwpApiHostProviderExecutorProperties hostProviderExecutor =
+      new EwpApiHostProviderExecutorProperties();
+  private EwpApiMappingCacheProperties mappingCache = new EwpApiMappingCacheProperties();
+  private EwpApiDiscoveryManifestCacheProperties discoveryManifestCache =
+      new EwpApiDiscoveryManifestCacheProperties();
+
+  public EwpApiResponseBodyProperties getResponseBody() {
+    return responseBody;
+  }
+
+  public void setResponseBody(EwpApiResponseBodyProperties responseBody) {
+    this.responseBody = responseBody;
+  }
+
+  public EwpApiHostProviderExecutorProperties getHostProviderExecutor() {
+    return hostProviderExecutor;
+  }
+
+  public void setHostProviderExecutor(
+      EwpApiHostProviderExecutorProperties hostProviderExecutor) {
+    this.hostProviderExecutor = hostProviderExecutor;
+  }
+
+  public EwpApiMappingCacheProperties getMappingCache() {
+    return mappingCache;
+  }
+
+  public void setMappingCache(EwpApiMappingCacheProperties mappingCache) {
+    this.mappingCache = mappingCache;
+  }
+
+  public EwpApiDiscoveryManifestCacheProperties getDiscoveryManifestCache() {
+    return discoveryManifestCache;
+  }
+
+  public void setDiscoveryManifestCache(
+      EwpApiDiscoveryManifestCacheProperties discoveryManifestCache) {
+    this.discoveryManifestCache = discoveryManifestCache;
+  }
+}
@@ -0,0 +1,23 @@
+package pt.ulisboa.ewp.node.config.api;
+
+public class EwpApiResponseBodyProperties {
+
+  private boolean formattedOutput = true;
+  private int maxLoggedSizeInBytes = 262144;
+
+  public boolean isFormattedOutput() {
+    return formattedOutput;
+  }
+
+  public void setFormattedOutput(boolean formattedOutput) {
+    this.formattedOutput = formattedOutput;
+  }
+
+  public int getMaxLoggedSizeInBytes() {
+    return maxLoggedSizeInBytes;
+  }
+
+  public void setMaxLoggedSizeInBytes(int maxLoggedSizeInBytes) {
+    this.maxLoggedSizeInBytes = maxLoggedSizeInBytes;
+  }
+}
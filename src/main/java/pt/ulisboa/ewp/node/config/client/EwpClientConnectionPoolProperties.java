@@ -0,0 +1,33 @@
+package pt.ulisboa.ewp.node.config.client;
+
+public class EwpClientConnectionPoolProperties {
+
+  private int maxTotalConnections = 200;
+  private long connectionTimeToLiveInSeconds = 300;
+  private int validateAfterInactivityInMilliseconds = 2000;
+
+  public int getMaxTotalConnections() {
+    return maxTotalConnections;
+  }
+
+  public void setMaxTotalConnections(int maxTotalConnections) {
+    this.maxTotalConnections = maxTotalConnections;
+  }
+
+  public long getConnectionTimeToLiveInSeconds() {
+    return connectionTimeToLiveInSeconds;
+  }
+
+  public void setConnectionTimeToLiveInSeconds(long connectionTimeToLiveInSeconds) {
+    this.connectionTimeToLiveInSeconds = connectionTimeToLiveInSeconds;
+  }
+
+  public int getValidateAfterInactivityInMilliseconds() {
+    return validateAfterInactivityInMilliseconds;
+  }
+
+  public void setValidateAfterInactivityInMilliseconds(
+      int validateAfterInactivityInMilliseconds) {
+    this.validateAfterInactivityInMilliseconds = validateAfterInactivityInMilliseconds;
+  }
+}
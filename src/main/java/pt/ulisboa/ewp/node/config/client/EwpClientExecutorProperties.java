@@ -0,0 +1,41 @@
+package pt.ulisboa.ewp.node.config.client;
+
+public class EwpClientExecutorProperties {
+
+  private int corePoolSize = 10;
+  private int maxPoolSize = 50;
+  private int queueCapacity = 500;
+  private long keepAliveInSeconds = 60;
+
+  public int getCorePoolSize() {
+    return corePoolSize;
+  }
+
+  public void setCorePoolSize(int corePoolSize) {
+    this.corePoolSize = corePoolSize;
+  }
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  public void setMaxPoolSize(int maxPoolSize) {
+    this.maxPoolSize = maxPoolSize;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public long getKeepAliveInSeconds() {
+    return keepAliveInSeconds;
+  }
+
+  public void setKeepAliveInSeconds(long keepAliveInSeconds) {
+    this.keepAliveInSeconds = keepAliveInSeconds;
+  }
+}
@@ -0,0 +1,110 @@
+package pt.ulisboa.ewp.node.config.client;
+
+/**
+ * Limits, timeouts and retry and circuit breaker settings that override, for a given partner
+ * host, the defaults defined in {@link EwpClientPartnersProperties}. Unset values fall back to
+ * those defaults.
+ */
+public class EwpClientPartnerProperties {
+
+  private Integer maxConnections;
+  private Integer maxInFlightRequests;
+  private Integer maxConcurrentChunkRequests;
+  private Integer connectTimeoutInMilliseconds;
+  private Integer minReadTimeoutInMilliseconds;
+  private Integer maxReadTimeoutInMilliseconds;
+  private Double readTimeoutLatencyMultiplier;
+  private Integer maxRetries;
+  private Long retryBackoffInMilliseconds;
+  private Integer circuitBreakerFailureThreshold;
+  private Long circuitBreakerOpenDurationInMilliseconds;
+
+  public Integer getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(Integer maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public Integer getMaxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
+  public void setMaxInFlightRequests(Integer maxInFlightRequests) {
+    this.maxInFlightRequests = maxInFlightRequests;
+  }
+
+  public Integer getMaxConcurrentChunkRequests() {
+    return maxConcurrentChunkRequests;
+  }
+
+  public void setMaxConcurrentChunkRequests(Integer maxConcurrentChunkRequests) {
+    this.maxConcurrentChunkRequests = maxConcurrentChunkRequests;
+  }
+
+  public Integer getConnectTimeoutInMilliseconds() {
+    return connectTimeoutInMilliseconds;
+  }
+
+  public void setConnectTimeoutInMilliseconds(Integer connectTimeoutInMilliseconds) {
+    this.connectTimeoutInMilliseconds = connectTimeoutInMilliseconds;
+  }
+
+  public Integer getMinReadTimeoutInMilliseconds() {
+    return minReadTimeoutInMilliseconds;
+  }
+
+  public void setMinReadTimeoutInMilliseconds(Integer minReadTimeoutInMilliseconds) {
+    this.minReadTimeoutInMilliseconds = minReadTimeoutInMilliseconds;
+  }
+
+  public Integer getMaxReadTimeoutInMilliseconds() {
+    return maxReadTimeoutInMilliseconds;
+  }
+
+  public void setMaxReadTimeoutInMilliseconds(Integer maxReadTimeoutInMilliseconds) {
+    this.maxReadTimeoutInMilliseconds = maxReadTimeoutInMilliseconds;
+  }
+
+  public Double getReadTimeoutLatencyMultiplier() {
+    return readTimeoutLatencyMultiplier;
+  }
+
+  public void setReadTimeoutLatencyMultiplier(Double readTimeoutLatencyMultiplier) {
+    this.readTimeoutLatencyMultiplier = readTimeoutLatencyMultiplier;
+  }
+
+  public Integer getMaxRetries() {
+    return maxRetries;
+  }
+
+  public void setMaxRetries(Integer maxRetries) {
+    this.maxRetries = maxRetries;
+  }
+
+  public Long getRetryBackoffInMilliseconds() {
+    return retryBackoffInMilliseconds;
+  }
+
+  public void setRetryBackoffInMilliseconds(Long retryBackoffInMilliseconds) {
+    this.retryBackoffInMilliseconds = retryBackoffInMilliseconds;
+  }
+
+  public Integer getCircuitBreakerFailureThreshold() {
+    return circuitBreakerFailureThreshold;
+  }
+
+  public void setCircuitBreakerFailureThreshold(Integer circuitBreakerFailureThreshold) {
+    this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+  }
+
+  public Long getCircuitBreakerOpenDurationInMilliseconds() {
+    return circuitBreakerOpenDurationInMilliseconds;
+  }
+
+  public void setCircuitBreakerOpenDurationInMilliseconds(
+      Long circuitBreakerOpenDurationInMilliseconds) {
+    this.circuitBreakerOpenDurationInMilliseconds = circuitBreakerOpenDurationInMilliseconds;
+  }
+}
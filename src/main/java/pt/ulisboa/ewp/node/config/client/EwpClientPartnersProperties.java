@@ -0,0 +1,199 @@
+package pt.ulisboa.ewp.node.config.client;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public class EwpClientPartnersProperties {
+
+  private int maxConnections = 20;
+  private int maxInFlightRequests = 20;
+  private long acquireTimeoutInMilliseconds = 0;
+  private int maxConcurrentChunkRequests = 4;
+  private int connectTimeoutInMilliseconds = 5000;
+  private int minReadTimeoutInMilliseconds = 5000;
+  private int maxReadTimeoutInMilliseconds = 60000;
+  private double readTimeoutLatencyMultiplier = 4.0;
+  private int maxRetries = 2;
+  private long retryBackoffInMilliseconds = 200;
+  private int circuitBreakerFailureThreshold = 5;
+  private long circuitBreakerOpenDurationInMilliseconds = 30000;
+  private Map<String, EwpClientPartnerProperties> hosts = new HashMap<>();
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public int getMaxInFlightRequests() {
+    return maxInFlightRequests;
+  }
+
+  public void setMaxInFlightRequests(int maxInFlightRequests) {
+    this.maxInFlightRequests = maxInFlightRequests;
+  }
+
+  public long getAcquireTimeoutInMilliseconds() {
+    return acquireTimeoutInMilliseconds;
+  }
+
+  public void setAcquireTimeoutInMilliseconds(long acquireTimeoutInMilliseconds) {
+    this.acquireTimeoutInMilliseconds = acquireTimeoutInMilliseconds;
+  }
+
+  public int getMaxConcurrentChunkRequests() {
+    return maxConcurrentChunkRequests;
+  }
+
+  public void setMaxConcurrentChunkRequests(int maxConcurrentChunkRequests) {
+    this.maxConcurrentChunkRequests = maxConcurrentChunkRequests;
+  }
+
+  public int getConnectTimeoutInMilliseconds() {
+    return connectTimeoutInMilliseconds;
+  }
+
+  public void setConnectTimeoutInMilliseconds(int connectTimeoutInMilliseconds) {
+    this.connectTimeoutInMilliseconds = connectTimeoutInMilliseconds;
+  }
+
+  public int getMinReadTimeoutInMilliseconds() {
+    return minReadTimeoutInMilliseconds;
+  }
+
+  public void setMinReadTimeoutInMilliseconds(int minReadTimeoutInMilliseconds) {
+    this.minReadTimeoutInMilliseconds = minReadTimeoutInMilliseconds;
+  }
+
+  public int getMaxReadTimeoutInMilliseconds() {
+    return maxReadTimeoutInMilliseconds;
+  }
+
+  public void setMaxReadTimeoutInMilliseconds(int maxReadTimeoutInMilliseconds) {
+    this.maxReadTimeoutInMilliseconds = maxReadTimeoutInMilliseconds;
+  }
+
+  public double getReadTimeoutLatencyMultiplier() {
+    return readTimeoutLatencyMultiplier;
+  }
+
+  public void setReadTimeoutLatencyMultiplier(double readTimeoutLatencyMultiplier) {
+    this.readTimeoutLatencyMultiplier = readTimeoutLatencyMultiplier;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  public void setMaxRetries(int maxRetries) {
+    this.maxRetries = maxRetries;
+  }
+
+  public long getRetryBackoffInMilliseconds() {
+    return retryBackoffInMilliseconds;
+  }
+
+  public void setRetryBackoffInMilliseconds(long retryBackoffInMilliseconds) {
+    this.retryBackoffInMilliseconds = retryBackoffInMilliseconds;
+  }
+
+  public int getCircuitBreakerFailureThreshold() {
+    return circuitBreakerFailureThreshold;
+  }
+
+  public void setCircuitBreakerFailureThreshold(int circuitBreakerFailureThreshold) {
+    this.circuitBreakerFailureThreshold = circuitBreakerFailureThreshold;
+  }
+
+  public long getCircuitBreakerOpenDurationInMilliseconds() {
+    return circuitBreakerOpenDurationInMilliseconds;
+  }
+
+  public void setCircuitBreakerOpenDurationInMilliseconds(
+      long circuitBreakerOpenDurationInMilliseconds) {
+    this.circuitBreakerOpenDurationInMilliseconds = circuitBreakerOpenDurationInMilliseconds;
+  }
+
+  /**
+   * Returns the properties overridden for specific partner hosts, keyed by host name (for instance,
+   * "ewp.example.edu").
+   */
+  public Map<String, EwpClientPartnerProperties> getHosts() {
+    return hosts;
+  }
+
+  public void setHosts(Map<String, EwpClientPartnerProperties> hosts) {
+    this.hosts = hosts;
+  }
+
+  public int getMaxConnectionsForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getMaxConnections, maxConnections);
+  }
+
+  public int getMaxInFlightRequestsForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getMaxInFlightRequests,
+        maxInFlightRequests);
+  }
+
+  public int getMaxConcurrentChunkRequestsForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getMaxConcurrentChunkRequests,
+        maxConcurrentChunkRequests);
+  }
+
+  public int getConnectTimeoutInMillisecondsForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getConnectTimeoutInMilliseconds,
+        connectTimeoutInMilliseconds);
+  }
+
+  public int getMinReadTimeoutInMillisecondsForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getMinReadTimeoutInMilliseconds,
+        minReadTimeoutInMilliseconds);
+  }
+
+  public int getMaxReadTimeoutInMillisecondsForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getMaxReadTimeoutInMilliseconds,
+        maxReadTimeoutInMilliseconds);
+  }
+
+  public double getReadTimeoutLatencyMultiplierForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getReadTimeoutLatencyMultiplier,
+        readTimeoutLatencyMultiplier);
+  }
+
+  public int getMaxRetriesForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getMaxRetries, maxRetries);
+  }
+
+  public long getRetryBackoffInMillisecondsForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getRetryBackoffInMilliseconds,
+        retryBackoffInMilliseconds);
+  }
+
+  public int getCircuitBreakerFailureThresholdForHost(String host) {
+    return getForHost(host, EwpClientPartnerProperties::getCircuitBreakerFailureThreshold,
+        circuitBreakerFailureThreshold);
+  }
+
+  public long getCircuitBreakerOpenDurationInMillisecondsForHost(String host) {
+    return getForHost(host,
+        EwpClientPartnerProperties::getCircuitBreakerOpenDurationInMilliseconds,
+        circuitBreakerOpenDurationInMilliseconds);
+  }
+
+  /**
+   * Returns the value of a property for a given partner host, falling back to the default value if
+   * the host has no specific value configured.
+   */
+  private <T> T getForHost(String host, Function<EwpClientPartnerProperties, T> getter,
+      T defaultValue) {
+    EwpClientPartnerProperties partnerProperties =
+        host != null ? hosts.get(host.toLowerCase()) : null;
+    if (partnerProperties != null && getter.apply(partnerProperties) != null) {
+      return getter.apply(partnerProperties);
+    }
+    return defaultValue;
+  }
+}
@@ -0,0 +1,57 @@
+package pt.ulisboa.ewp.node.config.client;
+
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Scope;
+
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+@ConfigurationProperties(prefix = "ewp-client")
+public class EwpClientProperties {
+
+  private EwpClientConnectionPoolProperties connectionPool =
+      new EwpClientConnectionPoolProperties();
+  private EwpClientPartnersProperties partners = new EwpClientPartnersProperties();
+  private EwpClientExecutorProperties executor = new EwpClientExecutorProperties();
+  private EwpClientResponseBodyProperties responseBody = new EwpClientResponseBodyProperties();
+  private EwpClientResponseCacheProperties responseCache = new EwpClientResponseCacheProperties();
+
+  public EwpClientConnectionPoolProperties getConnectionPool() {
+    return connectionPool;
+  }
+
+  public void setConnectionPool(EwpClientConnectionPoolProperties connectionPool) {
+    this.connectionPool = connectionPool;
+  }
+
+  public EwpClientPartnersProperties getPartners() {
+    return partners;
+  }
+
+  public void setPartners(EwpClientPartnersProperties partners) {
+    this.partners = partners;
+  }
+
+  public EwpClientExecutorProperties getExecutor() {
+    return executor;
+  }
+
+  public void setExecutor(EwpClientExecutorProperties executor) {
+    this.executor = executor;
+  }
+
+  public EwpClientResponseBodyProperties getResponseBody() {
+    return responseBody;
+  }
+
+  public void setResponseBody(EwpClientResponseBodyProperties responseBody) {
+    this.responseBody = responseBody;
+  }
+
+  public EwpClientResponseCacheProperties getResponseCache() {
+    return responseCache;
+  }
+
+  public void setResponseCache(EwpClientResponseCacheProperties responseCache) {
+    this.responseCache = responseCache;
+  }
+}
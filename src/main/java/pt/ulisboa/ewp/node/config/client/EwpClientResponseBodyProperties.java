@@ -0,0 +1,32 @@
+package pt.ulisboa.ewp.node.config.client;
+
+public class EwpClientResponseBodyProperties {
+
+  private int maxInMemorySizeInBytes = 1024 * 1024;
+  private int maxLoggedSizeInBytes = 256 * 1024;
+  private boolean compressionEnabled = true;
+
+  public int getMaxInMemorySizeInBytes() {
+    return maxInMemorySizeInBytes;
+  }
+
+  public void setMaxInMemorySizeInBytes(int maxInMemorySizeInBytes) {
+    this.maxInMemorySizeInBytes = maxInMemorySizeInBytes;
+  }
+
+  public int getMaxLoggedSizeInBytes() {
+    return maxLoggedSizeInBytes;
+  }
+
+  public void setMaxLoggedSizeInBytes(int maxLoggedSizeInBytes) {
+    this.maxLoggedSizeInBytes = maxLoggedSizeInBytes;
+  }
+
+  public boolean isCompressionEnabled() {
+    return compressionEnabled;
+  }
+
+  public void setCompressionEnabled(boolean compressionEnabled) {
+    this.compressionEnabled = compressionEnabled;
+  }
+}
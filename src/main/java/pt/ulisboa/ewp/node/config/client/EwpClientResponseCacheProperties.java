@@ -0,0 +1,57 @@
+package pt.ulisboa.ewp.node.config.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class EwpClientResponseCacheProperties {
+
+  private boolean enabled = true;
+  private long maxSizeInBytes = 64L * 1024 * 1024;
+  private long defaultTimeToLiveInSeconds = 3600;
+  private long staleWhileRevalidateInSeconds = 86400;
+  private Map<String, Long> timeToLiveInSecondsByApi = new HashMap<>();
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getMaxSizeInBytes() {
+    return maxSizeInBytes;
+  }
+
+  public void setMaxSizeInBytes(long maxSizeInBytes) {
+    this.maxSizeInBytes = maxSizeInBytes;
+  }
+
+  public long getDefaultTimeToLiveInSeconds() {
+    return defaultTimeToLiveInSeconds;
+  }
+
+  public void setDefaultTimeToLiveInSeconds(long defaultTimeToLiveInSeconds) {
+    this.defaultTimeToLiveInSeconds = defaultTimeToLiveInSeconds;
+  }
+
+  public long getStaleWhileRevalidateInSeconds() {
+    return staleWhileRevalidateInSeconds;
+  }
+
+  public void setStaleWhileRevalidateInSeconds(long staleWhileRevalidateInSeconds) {
+    this.staleWhileRevalidateInSeconds = staleWhileRevalidateInSeconds;
+  }
+
+  public Map<String, Long> getTimeToLiveInSecondsByApi() {
+    return timeToLiveInSecondsByApi;
+  }
+
+  public void setTimeToLiveInSecondsByApi(Map<String, Long> timeToLiveInSecondsByApi) {
+    this.timeToLiveInSecondsByApi = timeToLiveInSecondsByApi;
+  }
+
+  public long getTimeToLiveInSecondsForApi(String apiLocalName) {
+    return timeToLiveInSecondsByApi.getOrDefault(apiLocalName, defaultTimeToLiveInSeconds);
+  }
+}
@@ -0,0 +1,124 @@
+package pt.ulisboa.ewp.node.config.http.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+
+/**
+ * Rules deciding how much of each HTTP communication is logged. The first rule matching a
+ * communication applies, and communications matching no rule are fully captured.
+ */
+public class HttpCommunicationLogCaptureProperties {
+
+  private List<Rule> rules = new ArrayList<>();
+
+  public List<Rule> getRules() {
+    return rules;
+  }
+
+  public void setRules(List<Rule> rules) {
+    this.rules = rules;
+  }
+
+  public static class Rule {
+
+    private String api;
+    private Direction direction;
+    private String statusClass;
+    private EwpAuthenticationMethod authenticationMethod;
+    private CaptureMode mode = CaptureMode.FULL;
+    private int samplePercentage = 100;
+
+    /**
+     * Returns the local name of the API matched by the rule (for instance, "institutions" or
+     * "echo"), or null to match any API.
+     */
+    public String getApi() {
+      return api;
+    }
+
+    public void setApi(String api) {
+      this.api = api;
+    }
+
+    /**
+     * Returns the direction matched by the rule, or null to match any direction.
+     */
+    public Direction getDirection() {
+      return direction;
+    }
+
+    public void setDirection(Direction direction) {
+      this.direction = direction;
+    }
+
+    /**
+     * Returns the class of the response status codes matched by the rule (for instance, "2xx"), or
+     * null to match any status code.
+     */
+    public String getStatusClass() {
+      return statusClass;
+    }
+
+    public void setStatusClass(String statusClass) {
+      this.statusClass = statusClass;
+    }
+
+    /**
+     * Returns the EWP authentication method matched by the rule, or null to match any method.
+     */
+    public EwpAuthenticationMethod getAuthenticationMethod() {
+      return authenticationMethod;
+    }
+
+    public void setAuthenticationMethod(EwpAuthenticationMethod authenticationMethod) {
+      this.authenticationMethod = authenticationMethod;
+    }
+
+    public CaptureMode getMode() {
+      return mode;
+    }
+
+    public void setMode(CaptureMode mode) {
+      this.mode = mode;
+    }
+
+    /**
+     * Returns the percentage of the matched communications that are fully captured, when the mode
+     * is {@link CaptureMode#SAMPLED}.
+     */
+    public int getSamplePercentage() {
+      return samplePercentage;
+    }
+
+    public void setSamplePercentage(int samplePercentage) {
+      this.samplePercentage = samplePercentage;
+    }
+  }
+
+  public enum Direction {
+    FROM_EWP_NODE,
+    TO_EWP_NODE,
+    FROM_HOST
+  }
+
+  public enum CaptureMode {
+
+    /**
+     * Communications are logged with their bodies.
+     */
+    FULL,
+
+    /**
+     * Communications are logged without their bodies (keeping, for instance, their headers,
+     * status, body lengths and timings).
+     */
+    METADATA_ONLY,
+
+    /**
+     * A percentage of the communications is logged with their bodies, while the others are
+     * logged as with {@link #METADATA_ONLY}.
+     */
+    SAMPLED
+  }
+}
@@ -0,0 +1,70 @@
+package pt.ulisboa.ewp.node.config.http.log;
+
+/**
+ * Local file sink of HTTP communication logs. When enabled, logs are appended to rolling segment
+ * files (each record a gzip member holding one JSON line), along with an index file per segment.
+ * A segment is rolled once it reaches its maximum size or age, and only the most recent segments
+ * are kept (all of them if the maximum number of segments is zero or less).
+ */
+public class HttpCommunicationLogFileSinkProperties {
+
+  private boolean enabled = false;
+  private boolean exclusive = false;
+  private String directory = "logs/http-communications";
+  private long maxSegmentSizeInBytes = 67108864;
+  private long maxSegmentAgeInMinutes = 60;
+  private int maxSegments = 168;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns whether logs are written only to the file sink, instead of also to the database. Note
+   * that such logs do not show up on the log views of the admin UI, which read the database; they
+   * can be searched through the admin API instead.
+   */
+  public boolean isExclusive() {
+    return exclusive;
+  }
+
+  public void setExclusive(boolean exclusive) {
+    this.exclusive = exclusive;
+  }
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  public void setDirectory(String directory) {
+    this.directory = directory;
+  }
+
+  public long getMaxSegmentSizeInBytes() {
+    return maxSegmentSizeInBytes;
+  }
+
+  public void setMaxSegmentSizeInBytes(long maxSegmentSizeInBytes) {
+    this.maxSegmentSizeInBytes = maxSegmentSizeInBytes;
+  }
+
+  public long getMaxSegmentAgeInMinutes() {
+    return maxSegmentAgeInMinutes;
+  }
+
+  public void setMaxSegmentAgeInMinutes(long maxSegmentAgeInMinutes) {
+    this.maxSegmentAgeInMinutes = maxSegmentAgeInMinutes;
+  }
+
+  public int getMaxSegments() {
+    return maxSegments;
+  }
+
+  public void setMaxSegments(int maxSegments) {
+    this.maxSegments = maxSegments;
+  }
+}
@@ -0,0 +1,50 @@
+package pt.ulisboa.ewp.node.config.http.log;
+
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Scope;
+
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+@ConfigurationProperties(prefix = "http-communication-log")
+public class HttpCommunicationLogProperties {
+
+  private HttpCommunicationLogWriterProperties writer = new HttpCommunicationLogWriterProperties();
+  private HttpCommunicationLogRetentionProperties retention =
+      new HttpCommunicationLogRetentionProperties();
+  private HttpCommunicationLogCaptureProperties capture =
+      new HttpCommunicationLogCaptureProperties();
+  private HttpCommunicationLogFileSinkProperties fileSink =
+      new HttpCommunicationLogFileSinkProperties();
+
+  public HttpCommunicationLogWriterProperties getWriter() {
+    return writer;
+  }
+
+  public void setWriter(HttpCommunicationLogWriterProperties writer) {
+    this.writer = writer;
+  }
+
+  public HttpCommunicationLogRetentionProperties getRetention() {
+    return retention;
+  }
+
+  public void setRetention(HttpCommunicationLogRetentionProperties retention) {
+    this.retention = retention;
+  }
+
+  public HttpCommunicationLogCaptureProperties getCapture() {
+    return capture;
+  }
+
+  public void setCapture(HttpCommunicationLogCaptureProperties capture) {
+    this.capture = capture;
+  }
+
+  public HttpCommunicationLogFileSinkProperties getFileSink() {
+    return fileSink;
+  }
+
+  public void setFileSink(HttpCommunicationLogFileSinkProperties fileSink) {
+    this.fileSink = fileSink;
+  }
+}
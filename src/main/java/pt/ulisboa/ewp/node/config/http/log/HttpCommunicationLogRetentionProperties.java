@@ -0,0 +1,73 @@
+package pt.ulisboa.ewp.node.config.http.log;
+
+/**
+ * Retention of HTTP communication logs. Logs are kept in monthly buckets, and a bucket is purged
+ * once all of its logs are older than the maximum age set for their communication type. A maximum
+ * age of zero (or less) keeps the logs of that type forever.
+ */
+public class HttpCommunicationLogRetentionProperties {
+
+  private boolean enabled = false;
+  private long taskIntervalInMilliseconds = 3600000;
+  private int batchSize = 1000;
+  private int fromEwpNodeMaxAgeInDays = 365;
+  private int toEwpNodeMaxAgeInDays = 365;
+  private int fromHostMaxAgeInDays = 365;
+  private int toHostMaxAgeInDays = 365;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public long getTaskIntervalInMilliseconds() {
+    return taskIntervalInMilliseconds;
+  }
+
+  public void setTaskIntervalInMilliseconds(long taskIntervalInMilliseconds) {
+    this.taskIntervalInMilliseconds = taskIntervalInMilliseconds;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public int getFromEwpNodeMaxAgeInDays() {
+    return fromEwpNodeMaxAgeInDays;
+  }
+
+  public void setFromEwpNodeMaxAgeInDays(int fromEwpNodeMaxAgeInDays) {
+    this.fromEwpNodeMaxAgeInDays = fromEwpNodeMaxAgeInDays;
+  }
+
+  public int getToEwpNodeMaxAgeInDays() {
+    return toEwpNodeMaxAgeInDays;
+  }
+
+  public void setToEwpNodeMaxAgeInDays(int toEwpNodeMaxAgeInDays) {
+    this.toEwpNodeMaxAgeInDays = toEwpNodeMaxAgeInDays;
+  }
+
+  public int getFromHostMaxAgeInDays() {
+    return fromHostMaxAgeInDays;
+  }
+
+  public void setFromHostMaxAgeInDays(int fromHostMaxAgeInDays) {
+    this.fromHostMaxAgeInDays = fromHostMaxAgeInDays;
+  }
+
+  public int getToHostMaxAgeInDays() {
+    return toHostMaxAgeInDays;
+  }
+
+  public void setToHostMaxAgeInDays(int toHostMaxAgeInDays) {
+    this.toHostMaxAgeInDays = toHostMaxAgeInDays;
+  }
+}
@@ -0,0 +1,81 @@
+package pt.ulisboa.ewp.node.config.http.log;
+
+public class HttpCommunicationLogWriterProperties {
+
+  private boolean async = true;
+  private int queueCapacity = 10000;
+  private int batchSize = 100;
+  private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_BODIES;
+  private long blockTimeoutInMilliseconds = 1000;
+  private long shutdownTimeoutInSeconds = 30;
+
+  public boolean isAsync() {
+    return async;
+  }
+
+  public void setAsync(boolean async) {
+    this.async = async;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+  }
+
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+    this.overflowPolicy = overflowPolicy;
+  }
+
+  public long getBlockTimeoutInMilliseconds() {
+    return blockTimeoutInMilliseconds;
+  }
+
+  public void setBlockTimeoutInMilliseconds(long blockTimeoutInMilliseconds) {
+    this.blockTimeoutInMilliseconds = blockTimeoutInMilliseconds;
+  }
+
+  public long getShutdownTimeoutInSeconds() {
+    return shutdownTimeoutInSeconds;
+  }
+
+  public void setShutdownTimeoutInSeconds(long shutdownTimeoutInSeconds) {
+    this.shutdownTimeoutInSeconds = shutdownTimeoutInSeconds;
+  }
+
+  /**
+   * What happens to a log when the queue of logs waiting to be written is full.
+   */
+  public enum OverflowPolicy {
+
+    /**
+     * The calling thread waits for free space, up to the block timeout; then the log is dropped.
+     */
+    BLOCK,
+
+    /**
+     * Once the queue is half full, logs are queued without their request and response bodies;
+     * once it is full, logs are dropped.
+     */
+    DROP_BODIES,
+
+    /**
+     * Once the queue is full, logs are dropped.
+     */
+    DROP
+  }
+}
@@ -1,14 +1,19 @@
 package pt.ulisboa.ewp.node.domain.entity.api.ewp;
 
 import java.util.Collection;
+import java.util.Collections;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.client.EwpClientAuthenticationConfiguration;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.server.EwpServerAuthenticationConfiguration;
+import pt.ulisboa.ewp.node.utils.EwpApi;
 
 public class EwpApiConfiguration {
 
+  private String heiId;
+  private EwpApi api;
   private Collection<EwpClientAuthenticationConfiguration> supportedClientAuthenticationMethods;
   private Collection<EwpServerAuthenticationConfiguration> supportedServerAuthenticationMethods;
+  private boolean frozen;
 
   public EwpApiConfiguration(
       Collection<EwpClientAuthenticationConfiguration> supportedClientAuthenticationMethods,
@@ -17,6 +22,30 @@ public class EwpApiConfiguration {
     this.supportedServerAuthenticationMethods = supportedServerAuthenticationMethods;
   }
 
+  /**
+   * Returns the ID of the HEI whose registry entry this configuration was obtained from, if known.
+   */
+  public String getHeiId() {
+    return heiId;
+  }
+
+  public void setHeiId(String heiId) {
+    checkNotFrozen();
+    this.heiId = heiId;
+  }
+
+  /**
+   * Returns the API this configuration is of, if known.
+   */
+  public EwpApi getApi() {
+    return api;
+  }
+
+  public void setApi(EwpApi api) {
+    checkNotFrozen();
+    this.api = api;
+  }
+
   public Collection<EwpClientAuthenticationConfiguration>
       getSupportedClientAuthenticationMethods() {
     return supportedClientAuthenticationMethods;
@@ -24,6 +53,7 @@ public class EwpApiConfiguration {
 
   public void setSupportedClientAuthenticationMethods(
       Collection<EwpClientAuthenticationConfiguration> supportedClientAuthenticationMethods) {
+    checkNotFrozen();
     this.supportedClientAuthenticationMethods = supportedClientAuthenticationMethods;
   }
 
@@ -34,9 +64,36 @@ public class EwpApiConfiguration {
 
   public void setSupportedServerAuthenticationMethods(
       Collection<EwpServerAuthenticationConfiguration> supportedServerAuthenticationMethods) {
+    checkNotFrozen();
     this.supportedServerAuthenticationMethods = supportedServerAuthenticationMethods;
   }
 
+  /**
+   * Makes this configuration immutable, for instance before it is shared by several requests.
+   * Afterwards, any setter throws an {@link IllegalStateException}.
+   */
+  public void freeze() {
+    if (supportedClientAuthenticationMethods != null) {
+      supportedClientAuthenticationMethods =
+          Collections.unmodifiableCollection(supportedClientAuthenticationMethods);
+    }
+    if (supportedServerAuthenticationMethods != null) {
+      supportedServerAuthenticationMethods =
+          Collections.unmodifiableCollection(supportedServerAuthenticationMethods);
+    }
+    this.frozen = true;
+  }
+
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  protected void checkNotFrozen() {
+    if (frozen) {
+      throw new IllegalStateException("API configuration is immutable: " + this);
+    }
+  }
+
   public boolean supportsAuthenticationMethod(EwpAuthenticationMethod authenticationMethod) {
     return supportsClientAuthenticationMethod(authenticationMethod)
         && supportsServerAuthenticationMethod(authenticationMethod);
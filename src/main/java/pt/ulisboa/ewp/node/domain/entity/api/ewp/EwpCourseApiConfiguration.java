@@ -32,6 +32,7 @@ public class EwpCourseApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setUrl(String url) {
+    checkNotFrozen();
     this.url = url;
   }
 
@@ -40,6 +41,7 @@ public class EwpCourseApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setMaxLosIds(BigInteger maxLosIds) {
+    checkNotFrozen();
     this.maxLosIds = maxLosIds;
   }
 
@@ -48,6 +50,7 @@ public class EwpCourseApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setMaxLosCodes(BigInteger maxLosCodes) {
+    checkNotFrozen();
     this.maxLosCodes = maxLosCodes;
   }
 
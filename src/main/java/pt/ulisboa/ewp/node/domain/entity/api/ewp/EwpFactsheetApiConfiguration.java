@@ -29,6 +29,7 @@ public class EwpFactsheetApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setUrl(String url) {
+    checkNotFrozen();
     this.url = url;
   }
 
@@ -37,6 +38,7 @@ public class EwpFactsheetApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setMaxHeiIds(BigInteger maxHeiIds) {
+    checkNotFrozen();
     this.maxHeiIds = maxHeiIds;
   }
 
@@ -32,6 +32,7 @@ public class EwpIncomingMobilitiesApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setGetUrl(String getUrl) {
+    checkNotFrozen();
     this.getUrl = getUrl;
   }
 
@@ -40,6 +41,7 @@ public class EwpIncomingMobilitiesApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setMaxOmobilityIds(BigInteger maxOmobilityIds) {
+    checkNotFrozen();
     this.maxOmobilityIds = maxOmobilityIds;
   }
 
@@ -48,6 +50,7 @@ public class EwpIncomingMobilitiesApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setSendsNotifications(boolean sendsNotifications) {
+    checkNotFrozen();
     this.sendsNotifications = sendsNotifications;
   }
 
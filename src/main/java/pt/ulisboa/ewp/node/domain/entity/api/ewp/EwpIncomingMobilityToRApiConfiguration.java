@@ -35,6 +35,7 @@ public class EwpIncomingMobilityToRApiConfiguration extends EwpApiConfiguration
   }
 
   public void setGetUrl(String getUrl) {
+    checkNotFrozen();
     this.getUrl = getUrl;
   }
 
@@ -43,6 +44,7 @@ public class EwpIncomingMobilityToRApiConfiguration extends EwpApiConfiguration
   }
 
   public void setIndexUrl(String indexUrl) {
+    checkNotFrozen();
     this.indexUrl = indexUrl;
   }
 
@@ -51,6 +53,7 @@ public class EwpIncomingMobilityToRApiConfiguration extends EwpApiConfiguration
   }
 
   public void setMaxOmobilityIds(BigInteger maxOmobilityIds) {
+    checkNotFrozen();
     this.maxOmobilityIds = maxOmobilityIds;
   }
 
@@ -59,6 +62,7 @@ public class EwpIncomingMobilityToRApiConfiguration extends EwpApiConfiguration
   }
 
   public void setSendsNotifications(boolean sendsNotifications) {
+    checkNotFrozen();
     this.sendsNotifications = sendsNotifications;
   }
 
@@ -40,6 +40,7 @@ public class EwpInterInstitutionalAgreementApiConfiguration extends EwpApiConfig
   }
 
   public void setIndexUrl(String indexUrl) {
+    checkNotFrozen();
     this.indexUrl = indexUrl;
   }
 
@@ -48,6 +49,7 @@ public class EwpInterInstitutionalAgreementApiConfiguration extends EwpApiConfig
   }
 
   public void setGetUrl(String getUrl) {
+    checkNotFrozen();
     this.getUrl = getUrl;
   }
 
@@ -56,6 +58,7 @@ public class EwpInterInstitutionalAgreementApiConfiguration extends EwpApiConfig
   }
 
   public void setMaxIiaIds(BigInteger maxIiaIds) {
+    checkNotFrozen();
     this.maxIiaIds = maxIiaIds;
   }
 
@@ -64,6 +67,7 @@ public class EwpInterInstitutionalAgreementApiConfiguration extends EwpApiConfig
   }
 
   public void setMaxIiaCodes(BigInteger maxIiaCodes) {
+    checkNotFrozen();
     this.maxIiaCodes = maxIiaCodes;
   }
 
@@ -72,6 +76,7 @@ public class EwpInterInstitutionalAgreementApiConfiguration extends EwpApiConfig
   }
 
   public void setSendsNotifications(boolean sendsNotifications) {
+    checkNotFrozen();
     this.sendsNotifications = sendsNotifications;
   }
 
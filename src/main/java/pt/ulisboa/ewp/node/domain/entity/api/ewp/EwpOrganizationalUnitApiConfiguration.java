@@ -32,6 +32,7 @@ public class EwpOrganizationalUnitApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setUrl(String url) {
+    checkNotFrozen();
     this.url = url;
   }
 
@@ -40,6 +41,7 @@ public class EwpOrganizationalUnitApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setMaxOunitIds(BigInteger maxOunitIds) {
+    checkNotFrozen();
     this.maxOunitIds = maxOunitIds;
   }
 
@@ -48,6 +50,7 @@ public class EwpOrganizationalUnitApiConfiguration extends EwpApiConfiguration {
   }
 
   public void setMaxOunitCodes(BigInteger maxOunitCodes) {
+    checkNotFrozen();
     this.maxOunitCodes = maxOunitCodes;
   }
 
@@ -28,6 +28,7 @@ public class EwpSimpleCourseReplicationApiConfiguration extends EwpApiConfigurat
   }
 
   public void setUrl(String url) {
+    checkNotFrozen();
     this.url = url;
   }
 
@@ -36,6 +37,7 @@ public class EwpSimpleCourseReplicationApiConfiguration extends EwpApiConfigurat
   }
 
   public void setModifiedSinceSupported(boolean modifiedSinceSupported) {
+    checkNotFrozen();
     this.modifiedSinceSupported = modifiedSinceSupported;
   }
 
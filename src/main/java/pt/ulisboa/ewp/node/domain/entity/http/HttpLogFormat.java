@@ -0,0 +1,150 @@
+package pt.ulisboa.ewp.node.domain.entity.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact format in which HTTP request and response logs are stored.
+ *
+ * <p>Bodies are stored as UTF-8, compressed with gzip, keeping at most {@link
+ * #MAX_BODY_SIZE_IN_BYTES} bytes of each body (followed by {@link #TRUNCATION_SUFFIX} when a body
+ * is truncated). Headers are stored as a single text, with one "name: value" line per header
+ * value.
+ */
+public class HttpLogFormat {
+
+  public static final int MAX_BODY_SIZE_IN_BYTES = 32768;
+
+  public static final String TRUNCATION_SUFFIX = "====TRUNCATED====";
+
+  private static final byte[] EMPTY_BODY = new byte[0];
+  private static final String HEADER_NAME_VALUE_SEPARATOR = ": ";
+  private static final char HEADERS_SEPARATOR = '\n';
+
+  private HttpLogFormat() {
+  }
+
+  /**
+   * Encodes a body, truncating it if it exceeds the maximum size.
+   *
+   * @return The encoded body, or null if the body is null.
+   */
+  public static byte[] encodeBody(String body) {
+    if (body == null) {
+      return null;
+    }
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    return encodeBody(bytes, bytes.length, bytes.length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Encodes the beginning of a body, as it was captured.
+   *
+   * @param prefix       Array whose first prefixLength bytes are the beginning of the body. Only
+   *                     up to the maximum size of these bytes are kept. If null, the body is not
+   *                     kept at all (and null is returned).
+   * @param totalLength  Length of the full body, in bytes (or -1 if unknown), used to tell whether
+   *                     the body was truncated while being captured.
+   * @param charset      Charset of the body.
+   */
+  public static byte[] encodeBody(byte[] prefix, int prefixLength, long totalLength,
+      Charset charset) {
+    if (prefix == null) {
+      return null;
+    }
+    if (prefixLength == 0 && totalLength <= 0) {
+      return EMPTY_BODY;
+    }
+
+    int keptLength = Math.min(prefixLength, MAX_BODY_SIZE_IN_BYTES);
+    boolean truncated = keptLength < prefixLength || keptLength < totalLength;
+
+    ByteArrayOutputStream result = new ByteArrayOutputStream(keptLength / 4 + 64);
+    try (GZIPOutputStream outputStream = new GZIPOutputStream(result)) {
+      if (StandardCharsets.UTF_8.equals(charset)) {
+        outputStream.write(prefix, 0, keptLength);
+      } else {
+        outputStream.write(
+            new String(prefix, 0, keptLength, charset).getBytes(StandardCharsets.UTF_8));
+      }
+      if (truncated) {
+        outputStream.write(TRUNCATION_SUFFIX.getBytes(StandardCharsets.UTF_8));
+      }
+
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return result.toByteArray();
+  }
+
+  /**
+   * Decodes a body encoded by one of the encodeBody methods.
+   */
+  public static String decodeBody(byte[] encodedBody) {
+    if (encodedBody == null) {
+      return null;
+    }
+    if (encodedBody.length == 0) {
+      return "";
+    }
+
+    try (GZIPInputStream inputStream = new GZIPInputStream(
+        new ByteArrayInputStream(encodedBody))) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static String encodeHeaders(Collection<HttpHeader> headers) {
+    StringBuilder result = new StringBuilder();
+    for (HttpHeader header : headers) {
+      if (result.length() > 0) {
+        result.append(HEADERS_SEPARATOR);
+      }
+      result.append(header.getName()).append(HEADER_NAME_VALUE_SEPARATOR)
+          .append(removeLineBreaks(header.getValue()));
+    }
+    return result.toString();
+  }
+
+  /**
+   * Decodes headers encoded by {@link #encodeHeaders(Collection)}. The returned headers are not
+   * persisted.
+   */
+  public static List<HttpHeader> decodeHeaders(String encodedHeaders) {
+    List<HttpHeader> result = new ArrayList<>();
+    if (encodedHeaders == null || encodedHeaders.isEmpty()) {
+      return result;
+    }
+
+    for (String line : encodedHeaders.split(String.valueOf(HEADERS_SEPARATOR))) {
+      int separatorIndex = line.indexOf(HEADER_NAME_VALUE_SEPARATOR);
+      if (separatorIndex < 0) {
+        result.add(HttpHeader.create(line, ""));
+      } else {
+        result.add(HttpHeader.create(line.substring(0, separatorIndex),
+            line.substring(separatorIndex + HEADER_NAME_VALUE_SEPARATOR.length())));
+      }
+    }
+    return result;
+  }
+
+  private static String removeLineBreaks(String value) {
+    if (value == null) {
+      return "";
+    }
+    return value.indexOf('\n') < 0 && value.indexOf('\r') < 0 ? value
+        : value.replace('\r', ' ').replace('\n', ' ');
+  }
+}
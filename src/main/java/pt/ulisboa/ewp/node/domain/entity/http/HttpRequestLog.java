@@ -1,5 +1,7 @@
 package pt.ulisboa.ewp.node.domain.entity.http;
 
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collection;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -10,33 +12,46 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Lob;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import org.hibernate.annotations.Type;
 import pt.ulisboa.ewp.node.domain.entity.http.log.HttpCommunicationLog;
-import pt.ulisboa.ewp.node.utils.StringUtils;
 
+/**
+ * Log of an HTTP request.
+ *
+ * <p>Headers and body are stored in the compact format of {@link HttpLogFormat}. Logs stored
+ * before that format was adopted keep their headers on {@link HttpHeader} rows and their body as
+ * plain text, and are still returned by {@link #getHeaders()} and {@link #getBody()}.
+ */
 @Entity
 @Table(name = "HTTP_REQUEST_LOG")
 public class HttpRequestLog {
 
-  private static final int MAX_BODY_LENGTH = (int) Math.pow(2, 15);
-
   private long id;
   private HttpCommunicationLog communication;
   private HttpMethod method;
   private String url;
-  private Collection<HttpHeader> headers;
-  private String body;
+  private String encodedHeaders;
+  private byte[] encodedBody;
+  private Long bodyLength;
+  private Collection<HttpHeader> legacyHeaders;
+  private String legacyBody;
 
   protected HttpRequestLog() {}
 
   protected HttpRequestLog(
-      HttpMethod method, String url, Collection<HttpHeader> headers, String body) {
+      HttpMethod method, String url, Collection<HttpHeader> headers, byte[] encodedBody,
+      Long bodyLength) {
     this.method = method;
     this.url = url;
-    this.headers = headers;
-    this.body = StringUtils.truncateWithSuffix(body, MAX_BODY_LENGTH, "====TRUNCATED====");
+    this.encodedHeaders = HttpLogFormat.encodeHeaders(headers);
+    this.encodedBody = encodedBody;
+    this.bodyLength = bodyLength;
+    this.legacyHeaders = new ArrayList<>();
   }
 
   @Id
@@ -78,26 +93,94 @@ public class HttpRequestLog {
     this.url = url;
   }
 
+  @Column(name = "headers", nullable = true, columnDefinition = "TEXT")
+  protected String getEncodedHeaders() {
+    return encodedHeaders;
+  }
+
+  protected void setEncodedHeaders(String encodedHeaders) {
+    this.encodedHeaders = encodedHeaders;
+  }
+
+  @Lob
+  @Type(type = "org.hibernate.type.BinaryType")
+  @Column(name = "compressed_body", nullable = true, columnDefinition = "BYTEA")
+  protected byte[] getEncodedBody() {
+    return encodedBody;
+  }
+
+  protected void setEncodedBody(byte[] encodedBody) {
+    this.encodedBody = encodedBody;
+  }
+
+  /**
+   * Returns the length of the full body, in bytes, if known.
+   */
+  @Column(name = "body_length", nullable = true)
+  public Long getBodyLength() {
+    return bodyLength;
+  }
+
+  public void setBodyLength(Long bodyLength) {
+    this.bodyLength = bodyLength;
+  }
+
   @OneToMany(fetch = FetchType.LAZY, mappedBy = "requestLog", cascade = CascadeType.ALL)
-  public Collection<HttpHeader> getHeaders() {
-    return headers;
+  protected Collection<HttpHeader> getLegacyHeaders() {
+    return legacyHeaders;
   }
 
-  public void setHeaders(Collection<HttpHeader> headers) {
-    this.headers = headers;
+  protected void setLegacyHeaders(Collection<HttpHeader> legacyHeaders) {
+    this.legacyHeaders = legacyHeaders;
   }
 
   @Column(name = "body", nullable = true, columnDefinition = "TEXT")
+  protected String getLegacyBody() {
+    return legacyBody;
+  }
+
+  protected void setLegacyBody(String legacyBody) {
+    this.legacyBody = legacyBody;
+  }
+
+  @Transient
+  public Collection<HttpHeader> getHeaders() {
+    return encodedHeaders != null ? HttpLogFormat.decodeHeaders(encodedHeaders) : legacyHeaders;
+  }
+
+  /**
+   * Returns the logged body, possibly truncated (in that case, it ends with {@link
+   * HttpLogFormat#TRUNCATION_SUFFIX}).
+   */
+  @Transient
   public String getBody() {
-    return body;
+    return encodedBody != null ? HttpLogFormat.decodeBody(encodedBody) : legacyBody;
   }
 
   public void setBody(String body) {
-    this.body = body;
+    this.encodedBody = HttpLogFormat.encodeBody(body);
+    this.legacyBody = null;
   }
 
   public static HttpRequestLog create(
       HttpMethod method, String url, Collection<HttpHeader> headers, String body) {
-    return new HttpRequestLog(method, url, headers, body);
+    return new HttpRequestLog(method, url, headers, HttpLogFormat.encodeBody(body), null);
+  }
+
+  /**
+   * Creates a log of a request whose body was captured only up to some length.
+   *
+   * @param bodyPrefix       Array whose first bodyPrefixLength bytes are the beginning of the
+   *                         body, or null to log only the length of the body. The array is not
+   *                         kept.
+   * @param bodyLength       Length of the full body, in bytes, or -1 if unknown.
+   * @param bodyCharset      Charset of the body.
+   */
+  public static HttpRequestLog create(
+      HttpMethod method, String url, Collection<HttpHeader> headers, byte[] bodyPrefix,
+      int bodyPrefixLength, long bodyLength, Charset bodyCharset) {
+    return new HttpRequestLog(method, url, headers,
+        HttpLogFormat.encodeBody(bodyPrefix, bodyPrefixLength, bodyLength, bodyCharset),
+        bodyLength >= 0 ? bodyLength : null);
   }
 }
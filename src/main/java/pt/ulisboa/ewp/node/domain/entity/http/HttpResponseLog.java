@@ -1,5 +1,7 @@
 package pt.ulisboa.ewp.node.domain.entity.http;
 
+import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collection;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -8,30 +10,42 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Lob;
 import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import org.hibernate.annotations.Type;
 import pt.ulisboa.ewp.node.domain.entity.http.log.HttpCommunicationLog;
-import pt.ulisboa.ewp.node.utils.StringUtils;
 
+/**
+ * Log of an HTTP response.
+ *
+ * <p>As with {@link HttpRequestLog}, headers and body are stored in the compact format of {@link
+ * HttpLogFormat}, while logs stored before still have their headers and body read from the
+ * previous columns.
+ */
 @Entity
 @Table(name = "HTTP_RESPONSE_LOG")
 public class HttpResponseLog {
 
-  private static final int MAX_BODY_LENGTH = (int) Math.pow(2, 15);
-
   private long id;
   private HttpCommunicationLog communication;
   private int statusCode;
-  private Collection<HttpHeader> headers;
-  private String body;
+  private String encodedHeaders;
+  private byte[] encodedBody;
+  private Long bodyLength;
+  private Long transferLength;
+  private Collection<HttpHeader> legacyHeaders;
+  private String legacyBody;
 
   protected HttpResponseLog() {}
 
-  protected HttpResponseLog(int statusCode, Collection<HttpHeader> headers, String body) {
+  protected HttpResponseLog(int statusCode, Collection<HttpHeader> headers, byte[] encodedBody) {
     this.statusCode = statusCode;
-    this.headers = headers;
-    this.body = StringUtils.truncateWithSuffix(body, MAX_BODY_LENGTH, "====TRUNCATED====");
+    this.encodedHeaders = HttpLogFormat.encodeHeaders(headers);
+    this.encodedBody = encodedBody;
+    this.legacyHeaders = new ArrayList<>();
   }
 
   @Id
@@ -63,26 +77,111 @@ public class HttpResponseLog {
     this.statusCode = statusCode;
   }
 
+  @Column(name = "headers", nullable = true, columnDefinition = "TEXT")
+  protected String getEncodedHeaders() {
+    return encodedHeaders;
+  }
+
+  protected void setEncodedHeaders(String encodedHeaders) {
+    this.encodedHeaders = encodedHeaders;
+  }
+
+  @Lob
+  @Type(type = "org.hibernate.type.BinaryType")
+  @Column(name = "compressed_body", nullable = true, columnDefinition = "BYTEA")
+  protected byte[] getEncodedBody() {
+    return encodedBody;
+  }
+
+  protected void setEncodedBody(byte[] encodedBody) {
+    this.encodedBody = encodedBody;
+  }
+
   @OneToMany(fetch = FetchType.LAZY, mappedBy = "responseLog", cascade = CascadeType.ALL)
-  public Collection<HttpHeader> getHeaders() {
-    return headers;
+  protected Collection<HttpHeader> getLegacyHeaders() {
+    return legacyHeaders;
   }
 
-  public void setHeaders(Collection<HttpHeader> headers) {
-    this.headers = headers;
+  protected void setLegacyHeaders(Collection<HttpHeader> legacyHeaders) {
+    this.legacyHeaders = legacyHeaders;
   }
 
   @Column(name = "body", nullable = true, columnDefinition = "TEXT")
+  protected String getLegacyBody() {
+    return legacyBody;
+  }
+
+  protected void setLegacyBody(String legacyBody) {
+    this.legacyBody = legacyBody;
+  }
+
+  @Transient
+  public Collection<HttpHeader> getHeaders() {
+    return encodedHeaders != null ? HttpLogFormat.decodeHeaders(encodedHeaders) : legacyHeaders;
+  }
+
+  /**
+   * Returns the logged body, possibly truncated (in that case, it ends with {@link
+   * HttpLogFormat#TRUNCATION_SUFFIX}).
+   */
+  @Transient
   public String getBody() {
-    return body;
+    return encodedBody != null ? HttpLogFormat.decodeBody(encodedBody) : legacyBody;
   }
 
   public void setBody(String body) {
-    this.body = body;
+    this.encodedBody = HttpLogFormat.encodeBody(body);
+    this.legacyBody = null;
+  }
+
+  /**
+   * Returns the length of the full body (decoded, if it was transferred with a content coding), if
+   * known.
+   */
+  @Column(name = "body_length", nullable = true)
+  public Long getBodyLength() {
+    return bodyLength;
+  }
+
+  public void setBodyLength(Long bodyLength) {
+    this.bodyLength = bodyLength;
+  }
+
+  /**
+   * Returns the number of body bytes actually transferred, if known. It is smaller than the body
+   * length when the body was transferred compressed.
+   */
+  @Column(name = "transfer_length", nullable = true)
+  public Long getTransferLength() {
+    return transferLength;
+  }
+
+  public void setTransferLength(Long transferLength) {
+    this.transferLength = transferLength;
   }
 
   public static HttpResponseLog create(
       int statusCode, Collection<HttpHeader> headers, String body) {
-    return new HttpResponseLog(statusCode, headers, body);
+    return new HttpResponseLog(statusCode, headers, HttpLogFormat.encodeBody(body));
+  }
+
+  /**
+   * Creates a log of a response whose body was captured only up to some length.
+   *
+   * @param bodyPrefix     Array whose first bodyPrefixLength bytes are the beginning of the body
+   *                       (decoded, if it was transferred with a content coding), or null to
+   *                       log only the length of the body. The array is not kept.
+   * @param bodyLength     Length of the full body, in bytes.
+   * @param transferLength Number of body bytes actually transferred.
+   * @param bodyCharset    Charset of the body.
+   */
+  public static HttpResponseLog create(
+      int statusCode, Collection<HttpHeader> headers, byte[] bodyPrefix, int bodyPrefixLength,
+      long bodyLength, long transferLength, Charset bodyCharset) {
+    HttpResponseLog responseLog = new HttpResponseLog(statusCode, headers,
+        HttpLogFormat.encodeBody(bodyPrefix, bodyPrefixLength, bodyLength, bodyCharset));
+    responseLog.setBodyLength(bodyLength);
+    responseLog.setTransferLength(transferLength);
+    return responseLog;
   }
 }
@@ -1,5 +1,6 @@
 package pt.ulisboa.ewp.node.domain.entity.http.log;
 
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 
 import javax.persistence.CascadeType;
@@ -11,6 +12,7 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Inheritance;
 import javax.persistence.InheritanceType;
 import javax.persistence.JoinColumn;
@@ -20,8 +22,17 @@ import javax.persistence.Table;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
 
+/**
+ * Log of an HTTP communication.
+ *
+ * <p>Each log belongs to a monthly bucket, according to the (UTC) month when its processing
+ * started, so that old logs are purged a bucket at a time, with a few set-based statements per
+ * batch of logs (see {@link
+ * pt.ulisboa.ewp.node.domain.repository.http.log.HttpCommunicationLogRepository}).
+ */
 @Entity
-@Table(name = "HTTP_COMMUNICATION_LOG")
+@Table(name = "HTTP_COMMUNICATION_LOG", indexes = {
+    @Index(name = "IDX_HTTP_COMMUNICATION_LOG_BUCKET", columnList = "communication_type, bucket")})
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "communication_type", discriminatorType = DiscriminatorType.STRING)
 public class HttpCommunicationLog {
@@ -32,6 +43,7 @@ public class HttpCommunicationLog {
   private ZonedDateTime startProcessingDateTime;
   private ZonedDateTime endProcessingDateTime;
   private String observations;
+  private Integer bucket;
 
   protected HttpCommunicationLog() {}
 
@@ -46,6 +58,7 @@ public class HttpCommunicationLog {
     this.startProcessingDateTime = startProcessingDateTime;
     this.endProcessingDateTime = endProcessingDateTime;
     this.observations = observations;
+    this.bucket = getBucketOf(startProcessingDateTime);
   }
 
   @Id
@@ -105,4 +118,27 @@ public class HttpCommunicationLog {
   public void setObservations(String observations) {
     this.observations = observations;
   }
+
+  /**
+   * Returns the bucket of the log, or null for logs stored before buckets were assigned.
+   */
+  @Column(name = "bucket", nullable = true)
+  public Integer getBucket() {
+    return bucket;
+  }
+
+  public void setBucket(Integer bucket) {
+    this.bucket = bucket;
+  }
+
+  /**
+   * Returns the bucket of a log whose processing started at a given date time, as yyyyMM.
+   */
+  public static Integer getBucketOf(ZonedDateTime startProcessingDateTime) {
+    if (startProcessingDateTime == null) {
+      return null;
+    }
+    ZonedDateTime utcDateTime = startProcessingDateTime.withZoneSameInstant(ZoneOffset.UTC);
+    return utcDateTime.getYear() * 100 + utcDateTime.getMonthValue();
+  }
 }
@@ -1,10 +1,18 @@
 package pt.ulisboa.ewp.node.domain.repository;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.SingularAttribute;
 import javax.transaction.Transactional;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
@@ -17,6 +25,11 @@ import pt.ulisboa.ewp.node.utils.messaging.Severity;
 @Transactional
 public abstract class AbstractRepository<T> {
 
+  /**
+   * Maximum number of values in a single IN clause, as some databases limit it.
+   */
+  protected static final int MAX_VALUES_PER_IN_CLAUSE = 500;
+
   private final Logger log = LoggerFactory.getLogger(getClass());
   private final Class<T> entityClass;
   private final SessionFactory sessionFactory;
@@ -36,6 +49,20 @@ public abstract class AbstractRepository<T> {
         });
   }
 
+  /**
+   * Returns at most a given number of entities, in no particular order.
+   */
+  public Collection<T> findAll(int maxResults) {
+    return runInSession(
+        session -> {
+          CriteriaBuilder criteriaBuilder = sessionFactory.getCriteriaBuilder();
+          CriteriaQuery<T> query = criteriaBuilder.createQuery(entityClass);
+          Root<T> selection = query.from(entityClass);
+          return session.createQuery(query.select(selection)).setMaxResults(maxResults)
+              .getResultList();
+        });
+  }
+
   public boolean persist(T entity) {
     try {
       checkDomainConstraints(entity);
@@ -60,6 +87,43 @@ public abstract class AbstractRepository<T> {
         });
   }
 
+  /**
+   * Finds the entities that match a restriction and whose attribute has one of the given values,
+   * with a single query per batch of values (instead of one query per value).
+   *
+   * @return Entities indexed by the value of the attribute. If several entities share a value, only
+   * one of them is returned.
+   */
+  protected <V> Map<V, T> findAllByAttributeValues(
+      BiFunction<CriteriaBuilder, Root<T>, Predicate> restriction,
+      SingularAttribute<? super T, V> attribute, Function<T, V> attributeGetter,
+      Collection<V> values) {
+    List<V> distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+    Map<V, T> result = new HashMap<>();
+    if (distinctValues.isEmpty()) {
+      return result;
+    }
+
+    return runInSession(
+        session -> {
+          for (int fromIndex = 0; fromIndex < distinctValues.size();
+              fromIndex += MAX_VALUES_PER_IN_CLAUSE) {
+            List<V> batchValues = distinctValues.subList(fromIndex,
+                Math.min(distinctValues.size(), fromIndex + MAX_VALUES_PER_IN_CLAUSE));
+            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+            CriteriaQuery<T> query = criteriaBuilder.createQuery(entityClass);
+            Root<T> selection = query.from(entityClass);
+            query.where(
+                restriction.apply(criteriaBuilder, selection),
+                selection.get(attribute).in(batchValues));
+            for (T entity : session.createQuery(query).getResultList()) {
+              result.putIfAbsent(attributeGetter.apply(entity), entity);
+            }
+          }
+          return result;
+        });
+  }
+
   protected abstract boolean checkDomainConstraints(T entity) throws DomainException;
 
   protected <U> U runInSession(Function<Session, U> function) {
@@ -0,0 +1,204 @@
+package pt.ulisboa.ewp.node.domain.repository.http.log;
+
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Root;
+import javax.transaction.Transactional;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Repository;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpHeader;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpHeader_;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog_;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog_;
+import pt.ulisboa.ewp.node.domain.entity.http.log.HttpCommunicationLog;
+import pt.ulisboa.ewp.node.domain.entity.http.log.HttpCommunicationLog_;
+import pt.ulisboa.ewp.node.domain.repository.AbstractRepository;
+
+/**
+ * Repository of HTTP communication logs of any type, used to purge old logs.
+ *
+ * <p>Logs are purged a bucket at a time, in batches: each batch deletes the logs, their requests
+ * and responses (and the rows depending on these) with one set-based statement per table, instead
+ * of deleting the entities one by one.
+ */
+@Repository
+@Transactional
+public class HttpCommunicationLogRepository extends AbstractRepository<HttpCommunicationLog> {
+
+  private final SessionFactory sessionFactory;
+
+  protected HttpCommunicationLogRepository(SessionFactory sessionFactory) {
+    super(HttpCommunicationLog.class, sessionFactory);
+    this.sessionFactory = sessionFactory;
+  }
+
+  /**
+   * Assigns a bucket to the logs stored before buckets were introduced, according to the date time
+   * when their processing started (as stored on the database).
+   *
+   * @return The number of logs updated.
+   */
+  public int assignMissingBuckets() {
+    return runInSession(
+        session -> {
+          CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+          CriteriaUpdate<HttpCommunicationLog> update =
+              criteriaBuilder.createCriteriaUpdate(HttpCommunicationLog.class);
+          Root<HttpCommunicationLog> selection = update.from(HttpCommunicationLog.class);
+          Path<?> startProcessingDateTime =
+              selection.get(HttpCommunicationLog_.startProcessingDateTime);
+          Expression<Integer> bucket = criteriaBuilder.sum(
+              criteriaBuilder.prod(
+                  criteriaBuilder.function("year", Integer.class, startProcessingDateTime), 100),
+              criteriaBuilder.function("month", Integer.class, startProcessingDateTime));
+          update.set(selection.get(HttpCommunicationLog_.bucket), bucket)
+              .where(criteriaBuilder.isNull(selection.get(HttpCommunicationLog_.bucket)));
+          return session.createQuery(update).executeUpdate();
+        });
+  }
+
+  /**
+   * Returns the buckets, older than a given bucket, that contain logs of a given type.
+   */
+  public List<Integer> findBucketsBefore(
+      Class<? extends HttpCommunicationLog> communicationLogClass, int bucket) {
+    return runInSession(
+        session -> {
+          CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+          CriteriaQuery<Integer> query = criteriaBuilder.createQuery(Integer.class);
+          Root<? extends HttpCommunicationLog> selection = query.from(communicationLogClass);
+          Path<Integer> bucketPath = selection.get(HttpCommunicationLog_.bucket);
+          query.select(bucketPath).distinct(true)
+              .where(criteriaBuilder.lessThan(bucketPath, bucket))
+              .orderBy(criteriaBuilder.asc(bucketPath));
+          return session.createQuery(query).getResultList();
+        });
+  }
+
+  /**
+   * Deletes at most a given number of logs of a given type and bucket, along with their requests
+   * and responses.
+   *
+   * @return The number of logs deleted. If it is less than the given maximum, no more logs of that
+   * type remain on the bucket.
+   */
+  public int deleteBatchOfBucket(
+      Class<? extends HttpCommunicationLog> communicationLogClass, int bucket, int maxLogs) {
+    return runInSession(
+        session -> {
+          CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+          CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+          Root<? extends HttpCommunicationLog> selection = query.from(communicationLogClass);
+          query.multiselect(
+                  selection.get(HttpCommunicationLog_.id),
+                  selection.get(HttpCommunicationLog_.request).get(HttpRequestLog_.id),
+                  selection.get(HttpCommunicationLog_.response).get(HttpResponseLog_.id))
+              .where(criteriaBuilder.equal(selection.get(HttpCommunicationLog_.bucket), bucket));
+          List<Tuple> rows = session.createQuery(query).setMaxResults(maxLogs).getResultList();
+
+          for (List<Tuple> batchRows : Lists.partition(rows, MAX_VALUES_PER_IN_CLAUSE)) {
+            List<Long> communicationIds = getColumn(batchRows, 0);
+            List<Long> requestIds = getColumn(batchRows, 1);
+            List<Long> responseIds = getColumn(batchRows, 2);
+
+            deleteCollectionRows(session, communicationLogClass, communicationIds);
+            deleteAll(session, HttpCommunicationLog.class,
+                root -> root.get(HttpCommunicationLog_.id), communicationIds);
+            deleteAll(session, HttpHeader.class,
+                root -> root.get(HttpHeader_.requestLog).get(HttpRequestLog_.id), requestIds);
+            deleteAll(session, HttpHeader.class,
+                root -> root.get(HttpHeader_.responseLog).get(HttpResponseLog_.id), responseIds);
+            deleteAll(session, HttpRequestLog.class,
+                root -> root.get(HttpRequestLog_.id), requestIds);
+            deleteAll(session, HttpResponseLog.class,
+                root -> root.get(HttpResponseLog_.id), responseIds);
+          }
+          return rows.size();
+        });
+  }
+
+  @Override
+  protected boolean checkDomainConstraints(HttpCommunicationLog entity) {
+    return true;
+  }
+
+  private static List<Long> getColumn(List<Tuple> rows, int index) {
+    return rows.stream()
+        .map(row -> (Long) row.get(index))
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Deletes the entities of a given class whose attribute has one of the given values.
+   */
+  private static <T> void deleteAll(Session session, Class<T> entityClass,
+      Function<Root<T>, Path<Long>> attribute, Collection<Long> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+
+    CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+    CriteriaDelete<T> delete = criteriaBuilder.createCriteriaDelete(entityClass);
+    Root<T> selection = delete.from(entityClass);
+    delete.where(attribute.apply(selection).in(values));
+    session.createQuery(delete).executeUpdate();
+  }
+
+  /**
+   * Deletes the rows of the element collections (such as the HEI IDs covered by a client) of the
+   * given logs, as bulk deletes of the logs do not cascade to them.
+   */
+  private void deleteCollectionRows(Session session,
+      Class<? extends HttpCommunicationLog> communicationLogClass, List<Long> communicationIds) {
+    if (communicationIds.isEmpty()) {
+      return;
+    }
+
+    SessionFactoryImplementor sessionFactoryImplementor =
+        sessionFactory.unwrap(SessionFactoryImplementor.class);
+    EntityPersister entityPersister =
+        sessionFactoryImplementor.getMetamodel().entityPersister(communicationLogClass);
+    for (Type propertyType : entityPersister.getPropertyTypes()) {
+      if (!propertyType.isCollectionType()) {
+        continue;
+      }
+
+      CollectionPersister collectionPersister = sessionFactoryImplementor.getMetamodel()
+          .collectionPersister(((CollectionType) propertyType).getRole());
+      if (collectionPersister.isOneToMany() || collectionPersister.isInverse()
+          || !(collectionPersister instanceof AbstractCollectionPersister)) {
+        continue;
+      }
+
+      AbstractCollectionPersister tablePersister =
+          (AbstractCollectionPersister) collectionPersister;
+      session.createNativeQuery(
+              "DELETE FROM " + tablePersister.getTableName() + " WHERE "
+                  + tablePersister.getKeyColumnNames()[0] + " IN (:ids)")
+          .setParameterList("ids", new ArrayList<>(communicationIds))
+          .executeUpdate();
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package pt.ulisboa.ewp.node.domain.repository.mapping;
 
 import com.google.common.base.Strings;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import javax.persistence.NoResultException;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -82,6 +84,32 @@ public class EwpInterInstitutionalAgreementMappingRepository extends
         });
   }
 
+  /**
+   * Returns the mappings of the given IIA IDs of a HEI, indexed by IIA ID. IIA IDs without a mapping
+   * are absent from the result.
+   */
+  public Map<String, EwpInterInstitutionalAgreementMapping> findByHeiIdAndIiaIds(String heiId,
+      Collection<String> iiaIds) {
+    return findAllByAttributeValues(
+        (criteriaBuilder, selection) -> criteriaBuilder.equal(
+            selection.get(EwpInterInstitutionalAgreementMapping_.heiId), heiId),
+        EwpInterInstitutionalAgreementMapping_.iiaId,
+        EwpInterInstitutionalAgreementMapping::getIiaId, iiaIds);
+  }
+
+  /**
+   * Returns the mappings of the given IIA codes of a HEI, indexed by IIA code. IIA codes without a
+   * mapping are absent from the result.
+   */
+  public Map<String, EwpInterInstitutionalAgreementMapping> findByHeiIdAndIiaCodes(String heiId,
+      Collection<String> iiaCodes) {
+    return findAllByAttributeValues(
+        (criteriaBuilder, selection) -> criteriaBuilder.equal(
+            selection.get(EwpInterInstitutionalAgreementMapping_.heiId), heiId),
+        EwpInterInstitutionalAgreementMapping_.iiaCode,
+        EwpInterInstitutionalAgreementMapping::getIiaCode, iiaCodes);
+  }
+
   @Override
   protected boolean checkDomainConstraints(EwpInterInstitutionalAgreementMapping entity)
       throws DomainException {
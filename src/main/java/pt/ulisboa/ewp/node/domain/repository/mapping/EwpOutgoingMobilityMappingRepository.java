@@ -1,6 +1,8 @@
 package pt.ulisboa.ewp.node.domain.repository.mapping;
 
 import com.google.common.base.Strings;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import javax.persistence.NoResultException;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -55,6 +57,19 @@ public class EwpOutgoingMobilityMappingRepository extends
         });
   }
 
+  /**
+   * Returns the mappings of the given outgoing mobility IDs of a HEI, indexed by outgoing mobility
+   * ID. Outgoing mobility IDs without a mapping are absent from the result.
+   */
+  public Map<String, EwpOutgoingMobilityMapping> findByHeiIdAndOmobilityIds(String heiId,
+      Collection<String> omobilityIds) {
+    return findAllByAttributeValues(
+        (criteriaBuilder, selection) -> criteriaBuilder.equal(
+            selection.get(EwpOutgoingMobilityMapping_.heiId), heiId),
+        EwpOutgoingMobilityMapping_.omobilityId,
+        EwpOutgoingMobilityMapping::getOmobilityId, omobilityIds);
+  }
+
   @Override
   protected boolean checkDomainConstraints(EwpOutgoingMobilityMapping entity)
       throws DomainException {
@@ -0,0 +1,12 @@
+package pt.ulisboa.ewp.node.exception;
+
+/**
+ * Thrown when a host provider does not reply within the time allowed to it.
+ */
+public class HostProviderTimeoutException extends RuntimeException {
+
+  public HostProviderTimeoutException(Object provider, long timeoutInMillis) {
+    super("Host provider " + provider.getClass().getName() + " did not reply within "
+        + timeoutInMillis + " ms");
+  }
+}
@@ -5,11 +5,24 @@ public class XmlCannotUnmarshallToTypeException extends Exception {
   private final String xml;
   private final Class<?> classType;
 
+  public XmlCannotUnmarshallToTypeException(Class<?> classType) {
+    this(null, classType);
+  }
+
   public XmlCannotUnmarshallToTypeException(String xml, Class<?> classType) {
     this.xml = xml;
     this.classType = classType;
   }
 
+  /**
+   * @param xml XML that could not be unmarshalled, or a prefix of it if it is too large.
+   */
+  public XmlCannotUnmarshallToTypeException(String xml, Class<?> classType, Throwable cause) {
+    super(cause);
+    this.xml = xml;
+    this.classType = classType;
+  }
+
   public String getXml() {
     return xml;
   }
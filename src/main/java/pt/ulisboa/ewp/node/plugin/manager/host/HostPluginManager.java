@@ -5,13 +5,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import javax.annotation.Nullable;
 import org.pf4j.DefaultPluginManager;
 import org.pf4j.Plugin;
 import org.pf4j.PluginFactory;
+import org.pf4j.SingletonExtensionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -30,14 +32,28 @@ public class HostPluginManager extends DefaultPluginManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(HostPluginManager.class);
 
-  private final Map<String, Collection<HostPlugin>> heiIdToPluginsMap = new HashMap<>();
-  private final Map<String, HostPlugin> heiIdToPrimaryPluginMap = new HashMap<>();
+  /**
+   * Routing table of the registered plugins. It is replaced as a whole (never modified) when a
+   * plugin is registered, so that lookups need no locking.
+   */
+  private volatile HostPluginRoutingTable routingTable = HostPluginRoutingTable.EMPTY;
+  private volatile long routingTableVersion;
 
   private final Environment environment;
 
-  public HostPluginManager(@Value("${plugins.path}") String pluginsPath, Environment environment) {
+  /**
+   * Whether each provider (extension) is instantiated only once and shared by every lookup (and
+   * so by concurrent requests, requiring providers to be thread-safe), instead of a new provider
+   * being instantiated per lookup.
+   */
+  private final boolean sharedProviders;
+
+  public HostPluginManager(@Value("${plugins.path}") String pluginsPath,
+      @Value("${plugins.sharedProviders:false}") boolean sharedProviders,
+      Environment environment) {
     super(Path.of(pluginsPath));
     this.environment = environment;
+    this.sharedProviders = sharedProviders;
     init();
   }
 
@@ -45,6 +61,9 @@ public class HostPluginManager extends DefaultPluginManager {
     LOGGER.info("Preparing to load plugins from path: {}", super.pluginsRoot.toAbsolutePath());
 
     super.pluginFactory = createPluginFactory();
+    if (sharedProviders) {
+      super.extensionFactory = new SingletonExtensionFactory();
+    }
 
     super.loadPlugins();
     super.startPlugins();
@@ -52,19 +71,24 @@ public class HostPluginManager extends DefaultPluginManager {
     getAllPlugins().forEach(this::registerPlugin);
   }
 
-  public void registerPlugin(HostPlugin plugin) {
-    for (String heiId : plugin.getCoveredHeiIds()) {
-      this.heiIdToPluginsMap.computeIfAbsent(heiId, ignored -> new ArrayList<>());
-      this.heiIdToPluginsMap.get(heiId).add(plugin);
+  /**
+   * Registers a plugin, indexing the HEI IDs, organizational units and providers it covers.
+   *
+   * @throws IllegalStateException Thrown if the plugin is set as primary for a HEI ID that already
+   *                               has a primary plugin.
+   */
+  public synchronized void registerPlugin(HostPlugin plugin) {
+    this.routingTable = this.routingTable.withPlugin(plugin, this::getAllExtensionClasses,
+        getExtensionFactory());
+    this.routingTableVersion++;
+  }
 
-      if (plugin.isPrimaryForHeiId(heiId)) {
-        if (this.heiIdToPrimaryPluginMap.containsKey(heiId)) {
-          throw new IllegalStateException(
-              "Multiple plugins are set as primary for HEI ID: " + heiId);
-        }
-        this.heiIdToPrimaryPluginMap.put(heiId, plugin);
-      }
-    }
+  /**
+   * Returns a number that changes whenever a plugin is registered, so that data derived from the
+   * registered plugins (for instance, the discovery manifest) may be cached until then.
+   */
+  public long getRoutingTableVersion() {
+    return this.routingTableVersion;
   }
 
   @Override
@@ -106,16 +130,15 @@ public class HostPluginManager extends DefaultPluginManager {
       throw new EwpUnknownHeiIdException(heiId);
     }
 
-    Map<T, Collection<String>> result = new HashMap<>();
+    HostPluginRoutingTable currentRoutingTable = this.routingTable;
+    Map<HostPlugin, Collection<String>> ounitIdsPerPlugin = new LinkedHashMap<>();
     for (String ounitId : ounitIds) {
-      Collection<T> providers = getProvidersByHeiIdAndOunitId(heiId, ounitId, providerClassType);
-      if (!providers.isEmpty()) {
-        T provider = providers.iterator().next();
-        result.computeIfAbsent(provider, ignored -> new ArrayList<>());
-        result.get(provider).add(ounitId);
+      HostPlugin plugin = getPluginByOunitId(currentRoutingTable, heiId, ounitId);
+      if (plugin != null) {
+        ounitIdsPerPlugin.computeIfAbsent(plugin, ignored -> new ArrayList<>()).add(ounitId);
       }
     }
-    return result;
+    return getFirstProviderPerPlugin(currentRoutingTable, ounitIdsPerPlugin, providerClassType);
   }
 
   /**
@@ -130,17 +153,15 @@ public class HostPluginManager extends DefaultPluginManager {
       throw new EwpUnknownHeiIdException(heiId);
     }
 
-    Map<T, Collection<String>> result = new HashMap<>();
+    HostPluginRoutingTable currentRoutingTable = this.routingTable;
+    Map<HostPlugin, Collection<String>> ounitCodesPerPlugin = new LinkedHashMap<>();
     for (String ounitCode : ounitCodes) {
-      Collection<T> providers = getProvidersByHeiIdAndOunitCode(heiId, ounitCode,
-          providerClassType);
-      if (!providers.isEmpty()) {
-        T provider = providers.iterator().next();
-        result.computeIfAbsent(provider, ignored -> new ArrayList<>());
-        result.get(provider).add(ounitCode);
+      HostPlugin plugin = getPluginByOunitCode(currentRoutingTable, heiId, ounitCode);
+      if (plugin != null) {
+        ounitCodesPerPlugin.computeIfAbsent(plugin, ignored -> new ArrayList<>()).add(ounitCode);
       }
     }
-    return result;
+    return getFirstProviderPerPlugin(currentRoutingTable, ounitCodesPerPlugin, providerClassType);
   }
 
   public Map<Class<?>, Collection<HostProvider>> getAllProvidersPerClassType(String heiId) {
@@ -157,48 +178,50 @@ public class HostPluginManager extends DefaultPluginManager {
   }
 
   public <T> Map<String, Collection<T>> getAllProvidersOfTypePerHeiId(Class<T> providerClassType) {
+    HostPluginRoutingTable currentRoutingTable = this.routingTable;
     Map<String, Collection<T>> result = new HashMap<>();
-    for (String heiId : this.heiIdToPluginsMap.keySet()) {
-      result.computeIfAbsent(heiId, ignored -> new ArrayList<>());
-      result.get(heiId).addAll(getAllProvidersOfType(heiId, providerClassType));
+    for (String heiId : currentRoutingTable.getCoveredHeiIds()) {
+      result.put(heiId, currentRoutingTable.getProviders(heiId, providerClassType));
     }
     return result;
   }
 
   public <T> Collection<T> getAllProvidersOfType(Class<T> providerClassType) {
-    return this.heiIdToPluginsMap.values().stream().flatMap(Collection::stream)
-        .flatMap(p -> getExtensions(p, providerClassType).stream())
+    HostPluginRoutingTable currentRoutingTable = this.routingTable;
+    return currentRoutingTable.getCoveredHeiIds().stream()
+        .flatMap(heiId -> currentRoutingTable.getProviders(heiId, providerClassType).stream())
         .collect(Collectors.toList());
   }
 
+  /**
+   * Returns the providers of a given type for a HEI ID. The returned collection is immutable.
+   */
   public <T> Collection<T> getAllProvidersOfType(String heiId, Class<T> providerClassType) {
-    this.heiIdToPluginsMap.computeIfAbsent(heiId, ignored -> new ArrayList<>());
-    Collection<HostPlugin> plugins = this.heiIdToPluginsMap.get(heiId);
-    return plugins.stream()
-        .flatMap(p -> getExtensions(p, providerClassType).stream())
-        .collect(Collectors.toList());
+    return this.routingTable.getProviders(heiId, providerClassType);
   }
 
   public <T> Collection<T> getProvidersByHeiIdAndOunitId(String heiId, String ounitId,
       Class<T> providerClassType) {
-    Optional<HostPlugin> pluginOptional = getAnyPluginForHeiIdAndOunitId(heiId, ounitId);
-    if (pluginOptional.isEmpty()) {
+    HostPluginRoutingTable currentRoutingTable = this.routingTable;
+    HostPlugin plugin = getPluginByOunitId(currentRoutingTable, heiId, ounitId);
+    if (plugin == null) {
       return Collections.emptyList();
     }
-    return getExtensions(pluginOptional.get(), providerClassType);
+    return currentRoutingTable.getProviders(plugin, providerClassType);
   }
 
   public <T> Collection<T> getProvidersByHeiIdAndOunitCode(String heiId, String ounitCode,
       Class<T> providerClassType) {
-    Optional<HostPlugin> pluginOptional = getAnyPluginForHeiIdAndOunitCode(heiId, ounitCode);
-    if (pluginOptional.isEmpty()) {
+    HostPluginRoutingTable currentRoutingTable = this.routingTable;
+    HostPlugin plugin = getPluginByOunitCode(currentRoutingTable, heiId, ounitCode);
+    if (plugin == null) {
       return Collections.emptyList();
     }
-    return getExtensions(pluginOptional.get(), providerClassType);
+    return currentRoutingTable.getProviders(plugin, providerClassType);
   }
 
   public Collection<String> getCoveredHeiIds() {
-    return this.heiIdToPluginsMap.keySet();
+    return this.routingTable.getCoveredHeiIds();
   }
 
   private Collection<HostPlugin> getAllPlugins() {
@@ -209,37 +232,39 @@ public class HostPluginManager extends DefaultPluginManager {
         .collect(Collectors.toList());
   }
 
-  private <T> Collection<T> getExtensions(Plugin plugin, Class<T> extensionType) {
-    return super.getExtensions(extensionType, plugin.getWrapper().getPluginId());
+  private static HostPlugin getPluginByOunitId(HostPluginRoutingTable routingTable, String heiId,
+      String ounitId) {
+    return ounitId == null
+        ? routingTable.getPrimaryPlugin(heiId)
+        : routingTable.getPluginByOunitId(heiId, ounitId);
   }
 
-  private Optional<HostPlugin> getAnyPluginForHeiIdAndOunitId(String heiId,
-      @Nullable String ounitId) {
-    if (ounitId == null) {
-      return Optional.ofNullable(this.heiIdToPrimaryPluginMap.get(heiId));
+  private static HostPlugin getPluginByOunitCode(HostPluginRoutingTable routingTable,
+      String heiId, String ounitCode) {
+    return ounitCode == null
+        ? routingTable.getPrimaryPlugin(heiId)
+        : routingTable.getPluginByOunitCode(heiId, ounitCode);
+  }
 
-    } else {
-      for (HostPlugin hostPlugin : this.heiIdToPluginsMap.getOrDefault(heiId, new ArrayList<>())) {
-        if (hostPlugin.getCoveredOunitIdsByHeiId(heiId).contains(ounitId)) {
-          return Optional.of(hostPlugin);
-        }
+  /**
+   * Returns, for each plugin, its first provider of a given type along with the values (for
+   * instance, organizational unit IDs) routed to the plugin. Plugins without such a provider are
+   * skipped.
+   */
+  private static <T> Map<T, Collection<String>> getFirstProviderPerPlugin(
+      HostPluginRoutingTable routingTable, Map<HostPlugin, Collection<String>> valuesPerPlugin,
+      Class<T> providerClassType) {
+    Map<T, Collection<String>> result = new HashMap<>();
+    valuesPerPlugin.forEach((plugin, values) -> {
+      List<T> providers = routingTable.getProviders(plugin, providerClassType);
+      if (!providers.isEmpty()) {
+        result.computeIfAbsent(providers.get(0), ignored -> new ArrayList<>()).addAll(values);
       }
-      return Optional.empty();
-    }
+    });
+    return result;
   }
 
-  private Optional<HostPlugin> getAnyPluginForHeiIdAndOunitCode(String heiId,
-      @Nullable String ounitCode) {
-    if (ounitCode == null) {
-      return Optional.ofNullable(this.heiIdToPrimaryPluginMap.get(heiId));
-
-    } else {
-      for (HostPlugin hostPlugin : this.heiIdToPluginsMap.getOrDefault(heiId, new ArrayList<>())) {
-        if (hostPlugin.getCoveredOunitCodesByHeiId(heiId).contains(ounitCode)) {
-          return Optional.of(hostPlugin);
-        }
-      }
-      return Optional.empty();
-    }
+  private Collection<Class<?>> getAllExtensionClasses(Plugin plugin) {
+    return super.getExtensionClasses(plugin.getWrapper().getPluginId());
   }
 }
@@ -0,0 +1,203 @@
+package pt.ulisboa.ewp.node.plugin.manager.host;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.pf4j.DefaultExtensionFactory;
+import org.pf4j.ExtensionFactory;
+import org.springframework.util.ClassUtils;
+import pt.ulisboa.ewp.host.plugin.skeleton.HostPlugin;
+
+/**
+ * Immutable index of the registered host plugins and their providers, built once when the plugins
+ * are registered, so that routing a request to a plugin or provider is a hash lookup.
+ *
+ * <p>Provider classes are indexed by every class and interface they are assignable to, so that
+ * they may be looked up by any provider type (for instance, HostProvider or a specific API
+ * provider). The table holds the classes only: providers are obtained from the extension factory
+ * on each lookup, so whether they are new instances or shared ones is up to that factory.
+ */
+class HostPluginRoutingTable {
+
+  static final HostPluginRoutingTable EMPTY = new HostPluginRoutingTable(Collections.emptyList(),
+      plugin -> Collections.emptyList(), new DefaultExtensionFactory());
+
+  private final List<HostPlugin> plugins;
+  private final ExtensionFactory providerFactory;
+  private final Map<String, List<HostPlugin>> heiIdToPluginsMap;
+  private final Map<String, HostPlugin> heiIdToPrimaryPluginMap;
+  private final Map<String, Map<Class<?>, List<Class<?>>>> heiIdToProviderClassesPerTypeMap;
+  private final Map<HostPlugin, Map<Class<?>, List<Class<?>>>> pluginToProviderClassesPerTypeMap;
+  private final Map<String, Map<String, HostPlugin>> heiIdToPluginPerOunitIdMap;
+  private final Map<String, Map<String, HostPlugin>> heiIdToPluginPerOunitCodeMap;
+
+  /**
+   * @param plugins                 Plugins in registration order, which is the order by which they
+   *                                are considered when more than one may serve a request.
+   * @param providerClassesOfPlugin Returns the classes of all the providers (extensions) of a
+   *                                given plugin.
+   * @param providerFactory         Obtains the providers of the looked up classes.
+   * @throws IllegalStateException Thrown if multiple plugins are set as primary for the same HEI
+   *                               ID.
+   */
+  HostPluginRoutingTable(List<HostPlugin> plugins,
+      Function<HostPlugin, Collection<Class<?>>> providerClassesOfPlugin,
+      ExtensionFactory providerFactory) {
+    this.plugins = List.copyOf(plugins);
+    this.providerFactory = providerFactory;
+
+    Map<HostPlugin, Map<Class<?>, List<Class<?>>>> pluginToProviderClassesPerType =
+        new HashMap<>();
+    Map<String, List<HostPlugin>> heiIdToPlugins = new LinkedHashMap<>();
+    Map<String, HostPlugin> heiIdToPrimaryPlugin = new HashMap<>();
+    Map<String, Map<String, HostPlugin>> heiIdToPluginPerOunitId = new HashMap<>();
+    Map<String, Map<String, HostPlugin>> heiIdToPluginPerOunitCode = new HashMap<>();
+
+    for (HostPlugin plugin : this.plugins) {
+      pluginToProviderClassesPerType.put(plugin,
+          indexProviderClassesPerType(providerClassesOfPlugin.apply(plugin)));
+
+      for (String heiId : plugin.getCoveredHeiIds()) {
+        heiIdToPlugins.computeIfAbsent(heiId, ignored -> new ArrayList<>()).add(plugin);
+
+        if (plugin.isPrimaryForHeiId(heiId)) {
+          if (heiIdToPrimaryPlugin.containsKey(heiId)) {
+            throw new IllegalStateException(
+                "Multiple plugins are set as primary for HEI ID: " + heiId);
+          }
+          heiIdToPrimaryPlugin.put(heiId, plugin);
+        }
+
+        Map<String, HostPlugin> pluginPerOunitId =
+            heiIdToPluginPerOunitId.computeIfAbsent(heiId, ignored -> new HashMap<>());
+        plugin.getCoveredOunitIdsByHeiId(heiId)
+            .forEach(ounitId -> pluginPerOunitId.putIfAbsent(ounitId, plugin));
+
+        Map<String, HostPlugin> pluginPerOunitCode =
+            heiIdToPluginPerOunitCode.computeIfAbsent(heiId, ignored -> new HashMap<>());
+        plugin.getCoveredOunitCodesByHeiId(heiId)
+            .forEach(ounitCode -> pluginPerOunitCode.putIfAbsent(ounitCode, plugin));
+      }
+    }
+
+    Map<String, Map<Class<?>, List<Class<?>>>> heiIdToProviderClassesPerType = new HashMap<>();
+    heiIdToPlugins.forEach((heiId, heiIdPlugins) -> {
+      Map<Class<?>, List<Class<?>>> providerClassesPerType = new HashMap<>();
+      for (HostPlugin plugin : heiIdPlugins) {
+        pluginToProviderClassesPerType.get(plugin).forEach(
+            (type, providerClasses) -> providerClassesPerType
+                .computeIfAbsent(type, ignored -> new ArrayList<>())
+                .addAll(providerClasses));
+      }
+      heiIdToProviderClassesPerType.put(heiId,
+          copyOfProviderClassesPerType(providerClassesPerType));
+    });
+
+    this.heiIdToPluginsMap = Collections.unmodifiableMap(
+        copyOfValues(heiIdToPlugins, List::copyOf));
+    this.heiIdToPrimaryPluginMap = Map.copyOf(heiIdToPrimaryPlugin);
+    this.heiIdToProviderClassesPerTypeMap = Map.copyOf(heiIdToProviderClassesPerType);
+    this.pluginToProviderClassesPerTypeMap = Map.copyOf(pluginToProviderClassesPerType);
+    this.heiIdToPluginPerOunitIdMap = Map.copyOf(
+        copyOfValues(heiIdToPluginPerOunitId, Map::copyOf));
+    this.heiIdToPluginPerOunitCodeMap = Map.copyOf(
+        copyOfValues(heiIdToPluginPerOunitCode, Map::copyOf));
+  }
+
+  /**
+   * Returns a new routing table with the given plugin registered after the current ones.
+   */
+  HostPluginRoutingTable withPlugin(HostPlugin plugin,
+      Function<HostPlugin, Collection<Class<?>>> providerClassesOfPlugin,
+      ExtensionFactory providerFactory) {
+    List<HostPlugin> newPlugins = new ArrayList<>(this.plugins);
+    newPlugins.add(plugin);
+    return new HostPluginRoutingTable(newPlugins, providerClassesOfPlugin, providerFactory);
+  }
+
+  /**
+   * Returns the covered HEI IDs, in the order their first plugin was registered.
+   */
+  Set<String> getCoveredHeiIds() {
+    return this.heiIdToPluginsMap.keySet();
+  }
+
+  HostPlugin getPrimaryPlugin(String heiId) {
+    return this.heiIdToPrimaryPluginMap.get(heiId);
+  }
+
+  HostPlugin getPluginByOunitId(String heiId, String ounitId) {
+    return this.heiIdToPluginPerOunitIdMap.getOrDefault(heiId, Collections.emptyMap())
+        .get(ounitId);
+  }
+
+  HostPlugin getPluginByOunitCode(String heiId, String ounitCode) {
+    return this.heiIdToPluginPerOunitCodeMap.getOrDefault(heiId, Collections.emptyMap())
+        .get(ounitCode);
+  }
+
+  /**
+   * Returns the providers of a given type for a HEI ID. The returned list is immutable.
+   */
+  <T> List<T> getProviders(String heiId, Class<T> providerClassType) {
+    return getProvidersOfType(
+        this.heiIdToProviderClassesPerTypeMap.getOrDefault(heiId, Collections.emptyMap()),
+        providerClassType);
+  }
+
+  /**
+   * Returns the providers of a given type of a plugin. The returned list is immutable.
+   */
+  <T> List<T> getProviders(HostPlugin plugin, Class<T> providerClassType) {
+    return getProvidersOfType(
+        this.pluginToProviderClassesPerTypeMap.getOrDefault(plugin, Collections.emptyMap()),
+        providerClassType);
+  }
+
+  private <T> List<T> getProvidersOfType(Map<Class<?>, List<Class<?>>> providerClassesPerType,
+      Class<T> providerClassType) {
+    return providerClassesPerType.getOrDefault(providerClassType, Collections.emptyList())
+        .stream()
+        .map(providerClass -> providerClassType.cast(providerFactory.create(providerClass)))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  private static Map<Class<?>, List<Class<?>>> indexProviderClassesPerType(
+      Collection<Class<?>> providerClasses) {
+    Map<Class<?>, List<Class<?>>> result = new HashMap<>();
+    for (Class<?> providerClass : providerClasses) {
+      for (Class<?> type : getAssignableTypes(providerClass)) {
+        result.computeIfAbsent(type, ignored -> new ArrayList<>()).add(providerClass);
+      }
+    }
+    return copyOfProviderClassesPerType(result);
+  }
+
+  private static Set<Class<?>> getAssignableTypes(Class<?> clazz) {
+    Set<Class<?>> result = new LinkedHashSet<>();
+    for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+      result.add(current);
+    }
+    result.addAll(ClassUtils.getAllInterfacesForClassAsSet(clazz));
+    return result;
+  }
+
+  private static Map<Class<?>, List<Class<?>>> copyOfProviderClassesPerType(
+      Map<Class<?>, List<Class<?>>> providerClassesPerType) {
+    return Map.copyOf(copyOfValues(providerClassesPerType, List::copyOf));
+  }
+
+  private static <K, V> Map<K, V> copyOfValues(Map<K, V> map, Function<V, V> valueCopier) {
+    Map<K, V> result = new LinkedHashMap<>();
+    map.forEach((key, value) -> result.put(key, valueCopier.apply(value)));
+    return result;
+  }
+}
@@ -0,0 +1,134 @@
+package pt.ulisboa.ewp.node.plugin.manager.host;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import pt.ulisboa.ewp.node.config.api.EwpApiHostProviderExecutorProperties;
+import pt.ulisboa.ewp.node.config.api.EwpApiProperties;
+import pt.ulisboa.ewp.node.exception.HostProviderTimeoutException;
+
+/**
+ * Bounded executor on which the host providers of a HEI are called concurrently, so that the
+ * latency of a request served by several providers is the one of the slowest provider, instead of
+ * the sum of all of them. Results are always returned in the order of the given providers.
+ *
+ * <p>When all threads are busy and the queue is full, providers are called on the calling thread.
+ * The timeout only starts counting once all the providers were submitted, so the time spent by
+ * the calling thread running providers does not reduce the time given to the other providers.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class HostProviderExecutor {
+
+  private final ThreadPoolExecutor threadPoolExecutor;
+  private final long timeoutInMillis;
+
+  public HostProviderExecutor(EwpApiProperties properties) {
+    EwpApiHostProviderExecutorProperties executorProperties =
+        properties.getHostProviderExecutor();
+    this.threadPoolExecutor = new ThreadPoolExecutor(
+        executorProperties.getCorePoolSize(),
+        Math.max(executorProperties.getCorePoolSize(), executorProperties.getMaxPoolSize()),
+        executorProperties.getKeepAliveInSeconds(), TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(executorProperties.getQueueCapacity()),
+        new CustomizableThreadFactory("HostProviderExecutor-"),
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    this.threadPoolExecutor.allowCoreThreadTimeOut(true);
+    this.timeoutInMillis = TimeUnit.SECONDS.toMillis(executorProperties.getTimeoutInSeconds());
+  }
+
+  /**
+   * Calls each provider, returning the results in the order of the providers. A single provider is
+   * called directly on the calling thread.
+   *
+   * @throws HostProviderTimeoutException Thrown if some provider does not reply within the
+   *                                      configured timeout (counted from the moment all the
+   *                                      providers were called).
+   */
+  public <P, R> List<R> invokeAll(Collection<P> providers, Function<P, R> invocation) {
+    return invokeAll(providers, Function.identity(), invocation);
+  }
+
+  /**
+   * Calls each provider with its own argument (for instance, the IDs it covers), returning the
+   * results in the iteration order of the given map.
+   *
+   * @see #invokeAll(Collection, Function)
+   */
+  public <P, A, R> List<R> invokeAll(Map<P, A> argumentPerProvider,
+      BiFunction<P, A, R> invocation) {
+    return invokeAll(argumentPerProvider.entrySet(), Map.Entry::getKey,
+        entry -> invocation.apply(entry.getKey(), entry.getValue()));
+  }
+
+  private <T, R> List<R> invokeAll(Collection<T> tasks, Function<T, ?> providerOfTask,
+      Function<T, R> invocation) {
+    if (tasks.size() <= 1) {
+      List<R> results = new ArrayList<>(tasks.size());
+      tasks.forEach(task -> results.add(invocation.apply(task)));
+      return results;
+    }
+
+    List<Future<R>> futures = new ArrayList<>(tasks.size());
+    for (T task : tasks) {
+      futures.add(threadPoolExecutor.submit(() -> invocation.apply(task)));
+    }
+    // NOTE: the deadline is only computed now, as some providers may have been called on this
+    // thread when submitted (if the executor was saturated).
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutInMillis);
+
+    try {
+      List<R> results = new ArrayList<>(tasks.size());
+      int index = 0;
+      for (T task : tasks) {
+        results.add(getResult(futures.get(index++), providerOfTask.apply(task), deadline));
+      }
+      return results;
+
+    } finally {
+      futures.forEach(future -> future.cancel(true));
+    }
+  }
+
+  private <R> R getResult(Future<R> future, Object provider, long deadline) {
+    try {
+      return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+    } catch (TimeoutException e) {
+      throw new HostProviderTimeoutException(provider, timeoutInMillis);
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException("Host provider failed", cause);
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for host provider", e);
+    }
+  }
+
+  @PreDestroy
+  public void destroy() throws InterruptedException {
+    threadPoolExecutor.shutdown();
+    threadPoolExecutor.awaitTermination(30, TimeUnit.SECONDS);
+  }
+}
@@ -20,6 +20,7 @@ import pt.ulisboa.ewp.node.domain.entity.user.UserRole;
 import pt.ulisboa.ewp.node.domain.repository.HostRepository;
 import pt.ulisboa.ewp.node.domain.repository.KeyStoreConfigurationRepository;
 import pt.ulisboa.ewp.node.domain.repository.UserProfileRepository;
+import pt.ulisboa.ewp.node.service.ewp.discovery.EwpDiscoveryManifestCache;
 import pt.ulisboa.ewp.node.service.keystore.KeyStoreService;
 
 @Service
@@ -38,6 +39,8 @@ public class BootstrapService {
 
   @Autowired private UserProfileRepository userProfileRepository;
 
+  @Autowired private EwpDiscoveryManifestCache discoveryManifestCache;
+
   public void bootstrap() {
     bootstrapEwpHosts();
     bootstrapUserProfiles();
@@ -51,6 +54,7 @@ public class BootstrapService {
           .forEach(
               hostBootstrapProperties ->
                   hostRepository.persist(createHost(hostBootstrapProperties)));
+      discoveryManifestCache.invalidate();
     } else {
       log.info("Skipping bootstrap of EWP hosts (EWP hosts were found on database)");
     }
@@ -0,0 +1,155 @@
+package pt.ulisboa.ewp.node.service.ewp.discovery;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import pt.ulisboa.ewp.node.config.api.EwpApiDiscoveryManifestCacheProperties;
+import pt.ulisboa.ewp.node.config.api.EwpApiProperties;
+import pt.ulisboa.ewp.node.plugin.manager.host.HostPluginManager;
+import pt.ulisboa.ewp.node.service.keystore.KeyStoreService;
+import pt.ulisboa.ewp.node.utils.keystore.DecodedCertificateAndKey;
+
+/**
+ * Cache of the marshalled discovery manifest, per key identifying the base URLs used on it.
+ *
+ * <p>A cached manifest is rebuilt once a host plugin is registered, once the keystore in use is
+ * reloaded with another certificate, once the cache is invalidated (for instance, after the hosts are changed) and, as a
+ * safety net against changes done directly on the database, once its time to live expires.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class EwpDiscoveryManifestCache {
+
+  /**
+   * Maximum number of cached manifests. As the keys derive from the requests (namely, from their
+   * host), all manifests are discarded once this number is exceeded.
+   */
+  private static final int MAX_ENTRIES = 32;
+
+  private final EwpApiDiscoveryManifestCacheProperties properties;
+  private final HostPluginManager hostPluginManager;
+  private final KeyStoreService keyStoreService;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  public EwpDiscoveryManifestCache(EwpApiProperties ewpApiProperties,
+      HostPluginManager hostPluginManager, KeyStoreService keyStoreService) {
+    this.properties = ewpApiProperties.getDiscoveryManifestCache();
+    this.hostPluginManager = hostPluginManager;
+    this.keyStoreService = keyStoreService;
+  }
+
+  /**
+   * Returns the cached manifest for a given key, building it when there is no valid cached
+   * manifest.
+   *
+   * @param manifestBuilder Returns the marshalled manifest.
+   */
+  public Entry get(String key, Supplier<byte[]> manifestBuilder) {
+    if (!properties.isEnabled()) {
+      return new Entry(manifestBuilder.get(), null);
+    }
+
+    // NOTE: the stamp is obtained before building the manifest, so that changes done while it is
+    // built cause it to be rebuilt on the next request.
+    Stamp stamp = getCurrentStamp();
+    Entry entry = entries.get(key);
+    if (entry != null && entry.isValidFor(stamp,
+        TimeUnit.SECONDS.toNanos(properties.getTimeToLiveInSeconds()))) {
+      return entry;
+    }
+
+    entry = new Entry(manifestBuilder.get(), stamp);
+    if (entries.size() >= MAX_ENTRIES && !entries.containsKey(key)) {
+      entries.clear();
+    }
+    entries.put(key, entry);
+    return entry;
+  }
+
+  /**
+   * Discards all cached manifests, including those being built.
+   */
+  public void invalidate() {
+    generation.incrementAndGet();
+    entries.clear();
+  }
+
+  private Stamp getCurrentStamp() {
+    DecodedCertificateAndKey certificateAndKey =
+        keyStoreService.getDecodedCertificateAndKeyFromStorage();
+    return new Stamp(generation.get(), hostPluginManager.getRoutingTableVersion(),
+        certificateAndKey != null ? certificateAndKey.getFormattedCertificate() : null);
+  }
+
+  public static class Entry {
+
+    private final byte[] body;
+    private final String eTag;
+    private final Stamp stamp;
+    private final long createdAtInNanoseconds = System.nanoTime();
+
+    private Entry(byte[] body, Stamp stamp) {
+      this.body = body;
+      this.eTag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+      this.stamp = stamp;
+    }
+
+    public byte[] getBody() {
+      return body;
+    }
+
+    public String getETag() {
+      return eTag;
+    }
+
+    private boolean isValidFor(Stamp currentStamp, long timeToLiveInNanoseconds) {
+      return stamp.equals(currentStamp)
+          && System.nanoTime() - createdAtInNanoseconds < timeToLiveInNanoseconds;
+    }
+  }
+
+  /**
+   * State of the sources of a manifest, besides the hosts on the database. The certificate in use
+   * is compared by content, as the keystore service decodes it again each time its cached copy
+   * expires, even if it did not change.
+   */
+  private static class Stamp {
+
+    private final long generation;
+    private final long routingTableVersion;
+    private final String certificate;
+
+    private Stamp(long generation, long routingTableVersion, String certificate) {
+      this.generation = generation;
+      this.routingTableVersion = routingTableVersion;
+      this.certificate = certificate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Stamp)) {
+        return false;
+      }
+      Stamp other = (Stamp) o;
+      return generation == other.generation && routingTableVersion == other.routingTableVersion
+          && Objects.equals(certificate, other.certificate);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(generation, routingTableVersion, certificate);
+    }
+  }
+}
@@ -1,15 +1,20 @@
 package pt.ulisboa.ewp.node.service.ewp.iia;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringReader;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.xml.security.c14n.CanonicalizationException;
 import org.apache.xml.security.c14n.Canonicalizer;
@@ -21,67 +26,120 @@ import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
+/**
+ * Calculates the conditions hash of an IIA, that is, the SHA-256 hash of the canonicalized
+ * cooperation conditions without their contacts.
+ *
+ * <p>Document builders and compiled XPath expressions are not thread-safe, so each thread keeps
+ * its own, created once and then reused for every hash it calculates.
+ */
 @Service
 public class ConditionsHashCalculator {
 
+  private static final String COOPERATION_CONDITIONS_EXPRESSION = "//cooperation-conditions";
+  private static final String CONTACTS_EXPRESSION = "//sending-contact | //receiving-contact";
+
+  private final DocumentBuilderFactory documentBuilderFactory =
+      DocumentBuilderFactory.newInstance();
+  private final XPathFactory xPathFactory = XPathFactory.newInstance();
+
+  private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(this::createWorker);
+
   public ConditionsHashCalculator() {
     org.apache.xml.security.Init.init();
   }
 
   public String calculateHashFor(String cooperationConditionsXml) {
-    Node cooperationConditionsNode = getCooperationConditionsNodeFromXml(cooperationConditionsXml);
-    removeNodesByExpression(cooperationConditionsNode, "//sending-contact | //receiving-contact");
-    String canonizedXml = canonizeXml(cooperationConditionsNode);
-    return DigestUtils.sha256Hex(canonizedXml);
+    return calculateHashFor(new InputSource(new StringReader(cooperationConditionsXml)));
   }
 
-  private Node getCooperationConditionsNodeFromXml(String xml) {
-    DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
-    try {
-      DocumentBuilder builder = builderFactory.newDocumentBuilder();
-
-      Document xmlDocument;
-      InputSource is = new InputSource(new StringReader(xml));
-      xmlDocument = builder.parse(is);
+  /**
+   * Calculates the hash of the cooperation conditions contained on an XML document encoded as
+   * bytes (for instance, as marshalled), avoiding decoding it to a string first.
+   */
+  public String calculateHashFor(byte[] cooperationConditionsXml) {
+    return calculateHashFor(new InputSource(new ByteArrayInputStream(cooperationConditionsXml)));
+  }
 
-      XPath xPath = XPathFactory.newInstance().newXPath();
-      String expression = "//cooperation-conditions";
+  private String calculateHashFor(InputSource inputSource) {
+    Worker worker = workers.get();
+    Node cooperationConditionsNode = worker.getCooperationConditionsNode(inputSource);
+    worker.removeContactNodes(cooperationConditionsNode);
+    return worker.hashCanonicalizedXml(cooperationConditionsNode);
+  }
 
-      return (Node) xPath.compile(expression).evaluate(xmlDocument, XPathConstants.NODE);
+  private Worker createWorker() {
+    try {
+      XPath xPath;
+      synchronized (xPathFactory) {
+        xPath = xPathFactory.newXPath();
+      }
+      DocumentBuilder documentBuilder;
+      synchronized (documentBuilderFactory) {
+        documentBuilder = documentBuilderFactory.newDocumentBuilder();
+      }
+      return new Worker(documentBuilder, xPath.compile(COOPERATION_CONDITIONS_EXPRESSION),
+          xPath.compile(CONTACTS_EXPRESSION));
 
-    } catch (ParserConfigurationException | IOException | SAXException | XPathExpressionException e) {
+    } catch (ParserConfigurationException | XPathExpressionException e) {
       throw new IllegalStateException(e);
     }
   }
 
-  private void removeNodesByExpression(Node node, String expression) {
+  private static class Worker {
 
-    try {
-      XPath xPath = XPathFactory.newInstance().newXPath();
-      NodeList nodesToRemove = (NodeList) xPath.compile(expression)
-          .evaluate(node, XPathConstants.NODESET);
-
-      for (int nodeToRemoveIndex = 0; nodeToRemoveIndex < nodesToRemove.getLength();
-          nodeToRemoveIndex++) {
-        Node nodeToRemove = nodesToRemove.item(nodeToRemoveIndex);
-        nodeToRemove.getParentNode().removeChild(nodeToRemove);
-      }
+    private final DocumentBuilder documentBuilder;
+    private final XPathExpression cooperationConditionsExpression;
+    private final XPathExpression contactsExpression;
 
-    } catch (XPathExpressionException e) {
-      throw new IllegalStateException(e);
+    private Worker(DocumentBuilder documentBuilder,
+        XPathExpression cooperationConditionsExpression, XPathExpression contactsExpression) {
+      this.documentBuilder = documentBuilder;
+      this.cooperationConditionsExpression = cooperationConditionsExpression;
+      this.contactsExpression = contactsExpression;
     }
-  }
 
-  private String canonizeXml(Node node) {
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    try {
-      Canonicalizer.getInstance(Canonicalizer.ALGO_ID_C14N_EXCL_OMIT_COMMENTS)
-          .canonicalizeSubtree(node, byteArrayOutputStream);
-      return byteArrayOutputStream.toString();
+    private Node getCooperationConditionsNode(InputSource inputSource) {
+      try {
+        documentBuilder.reset();
+        Document xmlDocument = documentBuilder.parse(inputSource);
+        return (Node) cooperationConditionsExpression.evaluate(xmlDocument, XPathConstants.NODE);
 
-    } catch (CanonicalizationException | InvalidCanonicalizerException e) {
-      throw new IllegalStateException(e);
+      } catch (IOException | SAXException | XPathExpressionException e) {
+        throw new IllegalStateException(e);
+      }
     }
-  }
 
+    private void removeContactNodes(Node node) {
+      try {
+        NodeList nodesToRemove = (NodeList) contactsExpression.evaluate(node,
+            XPathConstants.NODESET);
+
+        for (int nodeToRemoveIndex = 0; nodeToRemoveIndex < nodesToRemove.getLength();
+            nodeToRemoveIndex++) {
+          Node nodeToRemove = nodesToRemove.item(nodeToRemoveIndex);
+          nodeToRemove.getParentNode().removeChild(nodeToRemove);
+        }
+
+      } catch (XPathExpressionException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    /**
+     * Canonicalizes a node straight into a SHA-256 digest, without keeping the canonicalized XML.
+     */
+    private String hashCanonicalizedXml(Node node) {
+      MessageDigest messageDigest = DigestUtils.getSha256Digest();
+      try (OutputStream outputStream = new DigestOutputStream(OutputStream.nullOutputStream(),
+          messageDigest)) {
+        Canonicalizer.getInstance(Canonicalizer.ALGO_ID_C14N_EXCL_OMIT_COMMENTS)
+            .canonicalizeSubtree(node, outputStream);
+
+      } catch (CanonicalizationException | InvalidCanonicalizerException | IOException e) {
+        throw new IllegalStateException(e);
+      }
+      return Hex.encodeHexString(messageDigest.digest());
+    }
+  }
 }
@@ -3,20 +3,46 @@ package pt.ulisboa.ewp.node.service.ewp.iia;
 import eu.erasmuswithoutpaper.api.iias.v6.endpoints.IiasGetResponseV6;
 import eu.erasmuswithoutpaper.api.iias.v6.endpoints.IiasGetResponseV6.Iia;
 import eu.erasmuswithoutpaper.api.iias.v6.endpoints.IiasGetResponseV6.Iia.CooperationConditions;
-import java.util.HashMap;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.bind.JAXBElement;
-import javax.xml.bind.Marshaller;
 import javax.xml.namespace.QName;
-import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import javax.xml.transform.stream.StreamResult;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.stereotype.Service;
-import pt.ulisboa.ewp.node.utils.XmlUtils;
 import pt.ulisboa.ewp.node.utils.http.converter.xml.EwpNamespacePrefixMapper;
+import pt.ulisboa.ewp.node.utils.http.converter.xml.JaxbContextCache;
+import pt.ulisboa.ewp.node.utils.http.converter.xml.JaxbMarshallerPool;
 
+/**
+ * Sets the conditions hash of IIAs.
+ *
+ * <p>The marshalled cooperation conditions are fingerprinted, so that the (much more expensive)
+ * calculation of the conditions hash is skipped for cooperation conditions whose hash was
+ * calculated recently. At most {@link #MAX_CACHED_HASHES} hashes are kept, evicting the least
+ * recently used ones.
+ */
 @Service
 public class ConditionsHashDecorator {
 
+  static final int MAX_CACHED_HASHES = 10000;
+
   private final ConditionsHashCalculator conditionsHashCalculator;
+  private final Map<Class<?>, JaxbMarshallerPool> marshallerPoolsByClass =
+      new ConcurrentHashMap<>();
+
+  private final LinkedHashMap<ByteBuffer, String> hashesByFingerprint =
+      new LinkedHashMap<>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, String> eldest) {
+          return size() > MAX_CACHED_HASHES;
+        }
+      };
 
   public ConditionsHashDecorator(
       ConditionsHashCalculator conditionsHashCalculator) {
@@ -25,32 +51,68 @@ public class ConditionsHashDecorator {
   }
 
   public void decorateWithConditionsHashes(IiasGetResponseV6 iiasGetResponseV6) {
-    for (Iia iia : iiasGetResponseV6.getIia()) {
-      CooperationConditions cooperationConditions = iia.getCooperationConditions();
-      JAXBElement<CooperationConditions> cooperationConditionsJAXBElement = new JAXBElement<>(
-          new QName(
-              "https://github.com/erasmus-without-paper/ewp-specs-api-iias/blob/stable-v6/endpoints/get-response.xsd",
-              "cooperation-conditions", ""), CooperationConditions.class,
-          cooperationConditions);
-      String cooperationConditionsXml = XmlUtils.marshall(createJaxb2Marshaller(iia.getClass()),
-          cooperationConditionsJAXBElement);
-      String hash = this.conditionsHashCalculator.calculateHashFor(cooperationConditionsXml);
-      iia.setConditionsHash(hash);
+    decorateWithConditionsHashes(iiasGetResponseV6.getIia());
+  }
+
+  /**
+   * Sets the conditions hash of several IIAs, calculating them in parallel when there are more
+   * than one.
+   */
+  public void decorateWithConditionsHashes(Collection<Iia> iias) {
+    if (iias.size() <= 1) {
+      iias.forEach(this::decorateWithConditionsHash);
+      return;
     }
+
+    // NOTE: the marshaller pool is obtained on the calling thread, so that the JAXB context is
+    // never created on a thread of the common pool (that may use a different class loader).
+    JaxbMarshallerPool marshallerPool = getMarshallerPool(Iia.class);
+    iias.parallelStream().forEach(iia -> decorateWithConditionsHash(marshallerPool, iia));
   }
 
-  private Jaxb2Marshaller createJaxb2Marshaller(Class<?> clazz) {
-    Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
-    marshaller.setClassesToBeBound(clazz);
-    marshaller.setSupportJaxbElementClass(true);
+  public void decorateWithConditionsHash(Iia iia) {
+    decorateWithConditionsHash(getMarshallerPool(iia.getClass()), iia);
+  }
 
-    Map<String, Object> jaxbProperties = new HashMap<>();
-    jaxbProperties.put(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-    jaxbProperties.put("com.sun.xml.bind.namespacePrefixMapper", new EwpNamespacePrefixMapper());
+  int getNumberOfCachedHashes() {
+    synchronized (hashesByFingerprint) {
+      return hashesByFingerprint.size();
+    }
+  }
+
+  private void decorateWithConditionsHash(JaxbMarshallerPool marshallerPool, Iia iia) {
+    CooperationConditions cooperationConditions = iia.getCooperationConditions();
+    JAXBElement<CooperationConditions> cooperationConditionsJAXBElement = new JAXBElement<>(
+        new QName(
+            "https://github.com/erasmus-without-paper/ewp-specs-api-iias/blob/stable-v6/endpoints/get-response.xsd",
+            "cooperation-conditions", ""), CooperationConditions.class,
+        cooperationConditions);
+    ByteArrayOutputStream cooperationConditionsXml = new ByteArrayOutputStream();
+    marshallerPool.marshal(cooperationConditionsJAXBElement,
+        new StreamResult(cooperationConditionsXml));
+    iia.setConditionsHash(getConditionsHash(cooperationConditionsXml.toByteArray()));
+  }
 
-    marshaller.setMarshallerProperties(jaxbProperties);
+  private String getConditionsHash(byte[] cooperationConditionsXml) {
+    ByteBuffer fingerprint = ByteBuffer.wrap(DigestUtils.sha256(cooperationConditionsXml));
+    synchronized (hashesByFingerprint) {
+      String hash = hashesByFingerprint.get(fingerprint);
+      if (hash != null) {
+        return hash;
+      }
+    }
+
+    String hash = this.conditionsHashCalculator.calculateHashFor(cooperationConditionsXml);
+    synchronized (hashesByFingerprint) {
+      hashesByFingerprint.put(fingerprint, hash);
+    }
+    return hash;
+  }
 
-    return marshaller;
+  private JaxbMarshallerPool getMarshallerPool(Class<?> clazz) {
+    return marshallerPoolsByClass.computeIfAbsent(clazz,
+        key -> JaxbMarshallerPool.create(JaxbContextCache.getForClass(key),
+            new EwpNamespacePrefixMapper()));
   }
 
 }
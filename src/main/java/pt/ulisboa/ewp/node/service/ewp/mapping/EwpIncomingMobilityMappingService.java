@@ -1,30 +1,55 @@
 package pt.ulisboa.ewp.node.service.ewp.mapping;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
 import org.springframework.stereotype.Service;
+import pt.ulisboa.ewp.node.config.api.EwpApiProperties;
 import pt.ulisboa.ewp.node.domain.entity.mapping.EwpIncomingMobilityMapping;
 import pt.ulisboa.ewp.node.domain.repository.mapping.EwpIncomingMobilityMappingRepository;
+import pt.ulisboa.ewp.node.service.ewp.mapping.cache.EwpCachedMappingService;
+import pt.ulisboa.ewp.node.service.ewp.mapping.cache.EwpMappingNearCache;
 
 @Service
 @Transactional
-public class EwpIncomingMobilityMappingService {
+public class EwpIncomingMobilityMappingService implements EwpCachedMappingService {
 
   private final EwpIncomingMobilityMappingRepository repository;
+  private final EwpMappingNearCache<EwpIncomingMobilityMapping> cache;
 
   public EwpIncomingMobilityMappingService(
-      EwpIncomingMobilityMappingRepository repository) {
+      EwpIncomingMobilityMappingRepository repository,
+      EwpApiProperties ewpApiProperties, MeterRegistry meterRegistry) {
     this.repository = repository;
+    this.cache = new EwpMappingNearCache<>("incoming-mobility",
+        ewpApiProperties.getMappingCache().getEffectiveMaxEntries(),
+        EwpIncomingMobilityMapping::getReceivingHeiId, EwpIncomingMobilityMapping::getOmobilityId,
+        meterRegistry);
   }
 
   public Collection<EwpIncomingMobilityMapping> getAllMappings() {
     return repository.findAll();
   }
 
+  @Transactional(TxType.SUPPORTS)
   public Optional<EwpIncomingMobilityMapping> getMapping(String receivingHeiId,
       String outgoingMobilityId) {
-    return repository.findByReceivingHeiIdAndOmobilityId(receivingHeiId, outgoingMobilityId);
+    return cache.get(receivingHeiId, outgoingMobilityId,
+        repository::findByReceivingHeiIdAndOmobilityId);
+  }
+
+  /**
+   * Returns the mappings of the given outgoing mobility IDs of a receiving HEI, indexed by outgoing
+   * mobility ID. Outgoing mobility IDs without a mapping are absent from the result.
+   */
+  @Transactional(TxType.SUPPORTS)
+  public Map<String, EwpIncomingMobilityMapping> getMappings(String receivingHeiId,
+      Collection<String> outgoingMobilityIds) {
+    return cache.getAll(receivingHeiId, outgoingMobilityIds,
+        repository::findByReceivingHeiIdAndOmobilityIds);
   }
 
   @Transactional
@@ -46,5 +71,23 @@ public class EwpIncomingMobilityMappingService {
     if (!repository.persist(mapping)) {
       throw new IllegalStateException();
     }
+
+    cache.invalidateAfterCommit(mapping);
+  }
+
+  @Override
+  public void warmUpCache(int maxMappings) {
+    if (!cache.isEnabled()) {
+      return;
+    }
+
+    long loadGeneration = cache.getGeneration();
+    cache.putAll(repository.findAll(Math.min(maxMappings, cache.getMaxEntries())),
+        loadGeneration);
+  }
+
+  @Override
+  public void clearCache() {
+    cache.clear();
   }
 }
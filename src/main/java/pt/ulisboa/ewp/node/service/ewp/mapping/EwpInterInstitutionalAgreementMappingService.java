@@ -1,24 +1,62 @@
 package pt.ulisboa.ewp.node.service.ewp.mapping;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
 import org.springframework.stereotype.Service;
+import pt.ulisboa.ewp.node.config.api.EwpApiProperties;
 import pt.ulisboa.ewp.node.domain.entity.mapping.EwpInterInstitutionalAgreementMapping;
 import pt.ulisboa.ewp.node.domain.repository.mapping.EwpInterInstitutionalAgreementMappingRepository;
+import pt.ulisboa.ewp.node.service.ewp.mapping.cache.EwpCachedMappingService;
+import pt.ulisboa.ewp.node.service.ewp.mapping.cache.EwpMappingNearCache;
 
 @Service
 @Transactional
-public class EwpInterInstitutionalAgreementMappingService {
+public class EwpInterInstitutionalAgreementMappingService implements EwpCachedMappingService {
 
   private final EwpInterInstitutionalAgreementMappingRepository repository;
+  private final EwpMappingNearCache<EwpInterInstitutionalAgreementMapping> iiaIdCache;
+  private final EwpMappingNearCache<EwpInterInstitutionalAgreementMapping> iiaCodeCache;
 
   public EwpInterInstitutionalAgreementMappingService(
-      EwpInterInstitutionalAgreementMappingRepository repository) {
+      EwpInterInstitutionalAgreementMappingRepository repository,
+      EwpApiProperties ewpApiProperties, MeterRegistry meterRegistry) {
     this.repository = repository;
+    int maxCacheEntries = ewpApiProperties.getMappingCache().getEffectiveMaxEntries();
+    this.iiaIdCache = new EwpMappingNearCache<>("iia-id", maxCacheEntries,
+        EwpInterInstitutionalAgreementMapping::getHeiId,
+        EwpInterInstitutionalAgreementMapping::getIiaId, meterRegistry);
+    this.iiaCodeCache = new EwpMappingNearCache<>("iia-code", maxCacheEntries,
+        EwpInterInstitutionalAgreementMapping::getHeiId,
+        EwpInterInstitutionalAgreementMapping::getIiaCode, meterRegistry);
   }
 
+  @Transactional(TxType.SUPPORTS)
   public Optional<EwpInterInstitutionalAgreementMapping> getMapping(String heiId, String iiaId) {
-    return repository.findByHeiIdAndIiaId(heiId, iiaId);
+    return iiaIdCache.get(heiId, iiaId, repository::findByHeiIdAndIiaId);
+  }
+
+  /**
+   * Returns the mappings of the given IIA IDs of a HEI, indexed by IIA ID. IIA IDs without a mapping
+   * are absent from the result.
+   */
+  @Transactional(TxType.SUPPORTS)
+  public Map<String, EwpInterInstitutionalAgreementMapping> getMappingsByIiaIds(String heiId,
+      Collection<String> iiaIds) {
+    return iiaIdCache.getAll(heiId, iiaIds, repository::findByHeiIdAndIiaIds);
+  }
+
+  /**
+   * Returns the mappings of the given IIA codes of a HEI, indexed by IIA code. IIA codes without a
+   * mapping are absent from the result.
+   */
+  @Transactional(TxType.SUPPORTS)
+  public Map<String, EwpInterInstitutionalAgreementMapping> getMappingsByIiaCodes(String heiId,
+      Collection<String> iiaCodes) {
+    return iiaCodeCache.getAll(heiId, iiaCodes, repository::findByHeiIdAndIiaCodes);
   }
 
   @Transactional
@@ -39,5 +77,28 @@ public class EwpInterInstitutionalAgreementMappingService {
     if (!repository.persist(mapping)) {
       throw new IllegalStateException();
     }
+
+    iiaIdCache.invalidateAfterCommit(mapping);
+    iiaCodeCache.invalidateAfterCommit(mapping);
+  }
+
+  @Override
+  public void warmUpCache(int maxMappings) {
+    if (!iiaIdCache.isEnabled()) {
+      return;
+    }
+
+    long iiaIdLoadGeneration = iiaIdCache.getGeneration();
+    long iiaCodeLoadGeneration = iiaCodeCache.getGeneration();
+    Collection<EwpInterInstitutionalAgreementMapping> mappings = repository.findAll(
+        Math.min(maxMappings, iiaIdCache.getMaxEntries()));
+    iiaIdCache.putAll(mappings, iiaIdLoadGeneration);
+    iiaCodeCache.putAll(mappings, iiaCodeLoadGeneration);
+  }
+
+  @Override
+  public void clearCache() {
+    iiaIdCache.clear();
+    iiaCodeCache.clear();
   }
 }
@@ -1,24 +1,48 @@
 package pt.ulisboa.ewp.node.service.ewp.mapping;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
 import org.springframework.stereotype.Service;
+import pt.ulisboa.ewp.node.config.api.EwpApiProperties;
 import pt.ulisboa.ewp.node.domain.entity.mapping.EwpOutgoingMobilityMapping;
 import pt.ulisboa.ewp.node.domain.repository.mapping.EwpOutgoingMobilityMappingRepository;
+import pt.ulisboa.ewp.node.service.ewp.mapping.cache.EwpCachedMappingService;
+import pt.ulisboa.ewp.node.service.ewp.mapping.cache.EwpMappingNearCache;
 
 @Service
 @Transactional
-public class EwpOutgoingMobilityMappingService {
+public class EwpOutgoingMobilityMappingService implements EwpCachedMappingService {
 
   private final EwpOutgoingMobilityMappingRepository repository;
+  private final EwpMappingNearCache<EwpOutgoingMobilityMapping> cache;
 
   public EwpOutgoingMobilityMappingService(
-      EwpOutgoingMobilityMappingRepository repository) {
+      EwpOutgoingMobilityMappingRepository repository,
+      EwpApiProperties ewpApiProperties, MeterRegistry meterRegistry) {
     this.repository = repository;
+    this.cache = new EwpMappingNearCache<>("outgoing-mobility",
+        ewpApiProperties.getMappingCache().getEffectiveMaxEntries(),
+        EwpOutgoingMobilityMapping::getHeiId, EwpOutgoingMobilityMapping::getOmobilityId,
+        meterRegistry);
   }
 
+  @Transactional(TxType.SUPPORTS)
   public Optional<EwpOutgoingMobilityMapping> getMapping(String heiId, String outgoingMobilityId) {
-    return repository.findByHeiIdAndOmobilityId(heiId, outgoingMobilityId);
+    return cache.get(heiId, outgoingMobilityId, repository::findByHeiIdAndOmobilityId);
+  }
+
+  /**
+   * Returns the mappings of the given outgoing mobility IDs of a HEI, indexed by outgoing mobility
+   * ID. Outgoing mobility IDs without a mapping are absent from the result.
+   */
+  @Transactional(TxType.SUPPORTS)
+  public Map<String, EwpOutgoingMobilityMapping> getMappings(String heiId,
+      Collection<String> outgoingMobilityIds) {
+    return cache.getAll(heiId, outgoingMobilityIds, repository::findByHeiIdAndOmobilityIds);
   }
 
   @Transactional
@@ -40,5 +64,23 @@ public class EwpOutgoingMobilityMappingService {
     if (!repository.persist(mapping)) {
       throw new IllegalStateException();
     }
+
+    cache.invalidateAfterCommit(mapping);
+  }
+
+  @Override
+  public void warmUpCache(int maxMappings) {
+    if (!cache.isEnabled()) {
+      return;
+    }
+
+    long loadGeneration = cache.getGeneration();
+    cache.putAll(repository.findAll(Math.min(maxMappings, cache.getMaxEntries())),
+        loadGeneration);
+  }
+
+  @Override
+  public void clearCache() {
+    cache.clear();
   }
 }
@@ -0,0 +1,19 @@
+package pt.ulisboa.ewp.node.service.ewp.mapping.cache;
+
+/**
+ * Mapping service whose mappings are kept on {@link EwpMappingNearCache}s.
+ */
+public interface EwpCachedMappingService {
+
+  /**
+   * Fills the mapping caches with mappings stored on the database, up to a given number of
+   * mappings (and never beyond the maximum size of the caches).
+   */
+  void warmUpCache(int maxMappings);
+
+  /**
+   * Removes all mappings from the mapping caches.
+   */
+  void clearCache();
+
+}
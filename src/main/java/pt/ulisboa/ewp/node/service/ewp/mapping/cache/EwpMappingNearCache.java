@@ -0,0 +1,279 @@
+package pt.ulisboa.ewp.node.service.ewp.mapping.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded in-memory cache of mappings, indexed by HEI ID and by an identifier of the mapped object
+ * (for instance, an IIA ID), that is kept in front of the database.
+ *
+ * <p>Mappings are rarely changed once registered, so only mappings found on the database are
+ * cached (unknown identifiers are always looked up) and they are invalidated once a new version is
+ * committed. Each invalidation increments a generation; mappings loaded from the database are only
+ * cached if no invalidation happened since the load started, so that a load racing a registration
+ * never caches the version that preceded it. Once the maximum number of entries is reached, the
+ * least recently used entries are evicted. A cache with a maximum of zero entries is disabled,
+ * always calling its loaders.
+ *
+ * @param <T> Type of the mappings.
+ */
+public class EwpMappingNearCache<T> {
+
+  private static final String METRIC_PREFIX = "ewp.mapping.cache.";
+
+  private final int maxEntries;
+  private final Function<T, String> heiIdGetter;
+  private final Function<T, String> idGetter;
+
+  private final LinkedHashMap<Key, T> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long generation; // NOTE: guarded by entries
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * @param name        Name of the cache, used to tag its metrics.
+   * @param maxEntries  Maximum number of cached mappings.
+   * @param heiIdGetter Returns the HEI ID of a mapping.
+   * @param idGetter    Returns the identifier of the mapped object of a mapping.
+   */
+  public EwpMappingNearCache(String name, int maxEntries, Function<T, String> heiIdGetter,
+      Function<T, String> idGetter, MeterRegistry meterRegistry) {
+    this.maxEntries = maxEntries;
+    this.heiIdGetter = heiIdGetter;
+    this.idGetter = idGetter;
+    registerMetrics(name, meterRegistry);
+  }
+
+  /**
+   * Returns the mapping of a given identifier of a HEI, obtaining it through the loader when it is
+   * not cached.
+   */
+  public Optional<T> get(String heiId, String id,
+      BiFunction<String, String, Optional<T>> loader) {
+    if (!isEnabled()) {
+      return loader.apply(heiId, id);
+    }
+
+    T mapping;
+    long loadGeneration;
+    synchronized (entries) {
+      mapping = entries.get(new Key(heiId, id));
+      loadGeneration = generation;
+    }
+    if (mapping != null) {
+      hits.incrementAndGet();
+      return Optional.of(mapping);
+    }
+
+    misses.incrementAndGet();
+    Optional<T> loadedMapping = loader.apply(heiId, id);
+    loadedMapping.ifPresent(
+        loaded -> putAll(Collections.singletonList(loaded), loadGeneration));
+    return loadedMapping;
+  }
+
+  /**
+   * Returns the mappings of the given identifiers of a HEI, indexed by identifier. The identifiers
+   * that are not cached are obtained with a single call to the loader, that must return their
+   * mappings indexed by identifier. Identifiers without a mapping are absent from the result.
+   */
+  public Map<String, T> getAll(String heiId, Collection<String> ids,
+      BiFunction<String, Collection<String>, Map<String, T>> loader) {
+    if (!isEnabled()) {
+      return loader.apply(heiId, ids);
+    }
+
+    Map<String, T> result = new HashMap<>();
+    List<String> missingIds = new ArrayList<>();
+    long loadGeneration;
+    synchronized (entries) {
+      loadGeneration = generation;
+      for (String id : new LinkedHashSet<>(ids)) {
+        T mapping = entries.get(new Key(heiId, id));
+        if (mapping != null) {
+          result.put(id, mapping);
+        } else {
+          missingIds.add(id);
+        }
+      }
+    }
+    hits.addAndGet(result.size());
+    misses.addAndGet(missingIds.size());
+
+    if (!missingIds.isEmpty()) {
+      Map<String, T> loadedMappings = loader.apply(heiId, missingIds);
+      putAll(loadedMappings.values(), loadGeneration);
+      result.putAll(loadedMappings);
+    }
+    return result;
+  }
+
+  /**
+   * Invalidates the cached version of a mapping that is being registered. If there is an active
+   * transaction, the mapping is only invalidated once the transaction is committed, so that the
+   * new version is loaded from the database by the next lookup.
+   */
+  public void invalidateAfterCommit(T mapping) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+
+            @Override
+            public void afterCommit() {
+              invalidate(mapping);
+            }
+          });
+
+    } else {
+      invalidate(mapping);
+    }
+  }
+
+  /**
+   * Returns the current generation, to be passed to {@link #putAll(Collection, long)} along with
+   * the mappings read from the database after calling this method.
+   */
+  public long getGeneration() {
+    synchronized (entries) {
+      return generation;
+    }
+  }
+
+  /**
+   * Caches mappings read from the database (for instance, to warm up the cache), unless some
+   * mapping was invalidated since the given generation was obtained. Mappings already cached are
+   * kept, as they are at least as recent as the given ones.
+   *
+   * @param loadGeneration Generation obtained before reading the mappings from the database.
+   */
+  public void putAll(Collection<T> mappings, long loadGeneration) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    synchronized (entries) {
+      if (generation != loadGeneration) {
+        return;
+      }
+      for (T mapping : mappings) {
+        putIfAbsentWhileLocked(mapping);
+      }
+    }
+  }
+
+  public void clear() {
+    synchronized (entries) {
+      generation++;
+      entries.clear();
+    }
+  }
+
+  public int getNumberOfEntries() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public boolean isEnabled() {
+    return maxEntries > 0;
+  }
+
+  private void invalidate(T mapping) {
+    synchronized (entries) {
+      generation++;
+      entries.remove(getKey(mapping));
+    }
+  }
+
+  private void putIfAbsentWhileLocked(T mapping) {
+    entries.putIfAbsent(getKey(mapping), mapping);
+    Iterator<T> iterator = entries.values().iterator();
+    while (entries.size() > maxEntries && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+      evictions.incrementAndGet();
+    }
+  }
+
+  private Key getKey(T mapping) {
+    return new Key(heiIdGetter.apply(mapping), idGetter.apply(mapping));
+  }
+
+  private void registerMetrics(String name, MeterRegistry meterRegistry) {
+    FunctionCounter.builder(METRIC_PREFIX + "hits", hits, AtomicLong::get)
+        .description("Mappings found on the mapping cache")
+        .tag("cache", name)
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "misses", misses, AtomicLong::get)
+        .description("Mappings looked up on the database as they were not cached")
+        .tag("cache", name)
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "evictions", evictions, AtomicLong::get)
+        .description("Mappings evicted to respect the maximum number of entries")
+        .tag("cache", name)
+        .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + "entries", this, EwpMappingNearCache::getNumberOfEntries)
+        .description("Cached mappings")
+        .tag("cache", name)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Key of a cached mapping, whose hash code is computed only once.
+   */
+  private static final class Key {
+
+    private final String heiId;
+    private final String id;
+    private final int hashCode;
+
+    private Key(String heiId, String id) {
+      this.heiId = heiId;
+      this.id = id;
+      this.hashCode = 31 * heiId.hashCode() + id.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return hashCode == other.hashCode && heiId.equals(other.heiId) && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
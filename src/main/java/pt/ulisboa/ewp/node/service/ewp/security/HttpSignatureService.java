@@ -2,8 +2,6 @@ package pt.ulisboa.ewp.node.service.ewp.security;
 
 import java.io.IOException;
 import java.security.Key;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -55,8 +53,12 @@ public class HttpSignatureService {
         .anyMatch(m -> Algorithm.RSA_SHA256.getPortableName().equalsIgnoreCase(m));
   }
 
+  /**
+   * Signs a response given the SHA-256 digest of its body, so that the body itself does not need to
+   * be available as a whole.
+   */
   public void signResponse(
-      HttpServletRequest request, HttpServletResponse response, byte[] bodyBytes) {
+      HttpServletRequest request, HttpServletResponse response, byte[] bodyDigest) {
     try {
       String requestId = request.getHeader(HttpConstants.HEADER_X_REQUEST_ID);
       String requestAuthorization = request.getHeader(HttpHeaders.AUTHORIZATION);
@@ -67,8 +69,7 @@ public class HttpSignatureService {
 
       String stringToday = DateUtils.toStringAsGMT(new Date(), DATETIME_WITH_TIMEZONE_FORMAT);
 
-      byte[] digest = MessageDigest.getInstance(SHA_256).digest(bodyBytes);
-      String digestHeader = SHA_256 + "=" + new String(Base64.encodeBase64(digest));
+      String digestHeader = SHA_256 + "=" + new String(Base64.encodeBase64(bodyDigest));
 
       HttpHeaders headers = new HttpHeaders();
 
@@ -109,7 +110,7 @@ public class HttpSignatureService {
       response.addHeader(
           HttpConstants.HEADER_SIGNATURE, signed.toString().replace("Signature ", ""));
 
-    } catch (IOException | NoSuchAlgorithmException e) {
+    } catch (IOException e) {
       LOGGER.error("Can't sign response", e);
     }
   }
@@ -21,6 +21,7 @@ import org.tomitribe.auth.signatures.Algorithm;
 import org.tomitribe.auth.signatures.Base64;
 import org.tomitribe.auth.signatures.Signature;
 import org.tomitribe.auth.signatures.Signer;
+import pt.ulisboa.ewp.node.api.ewp.wrapper.EwpApiHttpResponseWrapper;
 import pt.ulisboa.ewp.node.service.keystore.KeyStoreService;
 import pt.ulisboa.ewp.node.utils.DateUtils;
 import pt.ulisboa.ewp.node.utils.http.HttpConstants;
@@ -62,8 +63,7 @@ public class HttpSignatureResponseAuthenticationMethodSigner
       String stringToday = DateUtils
           .toStringAsGMT(new Date(), HttpSignatureUtils.DATETIME_WITH_TIMEZONE_FORMAT);
 
-      byte[] bodyBytes = getResponseData(response);
-      byte[] digest = MessageDigest.getInstance(HttpSignatureUtils.SHA_256).digest(bodyBytes);
+      byte[] digest = getResponseBodyDigest(response);
       String digestHeader =
           HttpSignatureUtils.SHA_256 + "=" + new String(Base64.encodeBase64(digest));
 
@@ -106,12 +106,24 @@ public class HttpSignatureResponseAuthenticationMethodSigner
     }
   }
 
-  private static byte[] getResponseData(HttpServletResponse response) {
+  /**
+   * Returns the SHA-256 digest of the response's body. The digest computed while the body was
+   * written is used when available, instead of reading the whole body again.
+   */
+  private static byte[] getResponseBodyDigest(HttpServletResponse response)
+      throws NoSuchAlgorithmException {
+    EwpApiHttpResponseWrapper ewpResponse =
+        WebUtils.getNativeResponse(response, EwpApiHttpResponseWrapper.class);
+    if (ewpResponse != null) {
+      return ewpResponse.getContentDigest();
+    }
+
+    MessageDigest messageDigest = MessageDigest.getInstance(HttpSignatureUtils.SHA_256);
     ContentCachingResponseWrapper wrapper =
         WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
     if (wrapper != null) {
-      return wrapper.getContentAsByteArray();
+      return messageDigest.digest(wrapper.getContentAsByteArray());
     }
-    return new byte[0];
+    return messageDigest.digest(new byte[0]);
   }
 }
@@ -7,6 +7,7 @@ import org.tomitribe.auth.signatures.Algorithm;
 import org.tomitribe.auth.signatures.Signature;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
 import pt.ulisboa.ewp.node.client.ewp.operation.response.EwpResponse;
+import pt.ulisboa.ewp.node.client.ewp.operation.response.EwpResponseBody;
 import pt.ulisboa.ewp.node.client.ewp.registry.RegistryClient;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
 import pt.ulisboa.ewp.node.service.ewp.security.verifier.EwpAuthenticationResult;
@@ -84,8 +85,7 @@ public class HttpSignatureResponseAuthenticationMethodVerifier
           signatureVerificationResult.getMessage());
     }
 
-    VerificationResult digestVerificationResult =
-        HttpSignatureUtils.verifyDigest(response.getHeaders(), response.getRawBody().getBytes());
+    VerificationResult digestVerificationResult = verifyDigest(response);
     if (digestVerificationResult.isFailure()) {
       return HttpSignatureAuthenticationResult.createInvalid(
           digestVerificationResult.getMessage());
@@ -93,4 +93,24 @@ public class HttpSignatureResponseAuthenticationMethodVerifier
 
     return HttpSignatureAuthenticationResult.createValid();
   }
+
+  /**
+   * Verifies the Digest header of a response. The digest is defined over the body as
+   * transferred, that is, after applying any content coding (RFC 3230). However, some servers
+   * compute it over the decoded body, hence, for encoded bodies, the decoded body's digest is
+   * accepted as well.
+   */
+  private static VerificationResult verifyDigest(EwpResponse response) {
+    EwpResponseBody body = response.getBody();
+    VerificationResult result = HttpSignatureUtils.verifyDigest(response.getHeaders(),
+        body.getTransferLength(), body::digestOfTransferredContent);
+    if (result.isFailure() && body.isEncoded()) {
+      VerificationResult decodedBodyResult = HttpSignatureUtils.verifyDigest(
+          response.getHeaders(), body.getLength(), body::digest);
+      if (decodedBodyResult.isSuccess()) {
+        return decodedBodyResult;
+      }
+    }
+    return result;
+  }
 }
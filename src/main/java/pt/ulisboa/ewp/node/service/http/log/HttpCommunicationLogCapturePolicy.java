@@ -0,0 +1,146 @@
+package pt.ulisboa.ewp.node.service.http.log;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Direction;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Rule;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogProperties;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+import pt.ulisboa.ewp.node.utils.EwpApi;
+
+/**
+ * Decides, according to the configured capture rules, whether an HTTP communication is logged
+ * with its bodies or only with its metadata.
+ *
+ * <p>Communications that failed (that is, without a response, with an error status code, which
+ * includes authentication failures, or with observations) are always fully captured.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class HttpCommunicationLogCapturePolicy {
+
+  private static final String METRIC_PREFIX = "http.communication.log.";
+
+  /**
+   * APIs by the prefix of the paths (without versions) on which they are served, both by the EWP
+   * API and by the forward EWP API. Longer prefixes come first.
+   */
+  private static final Map<String, String> APIS_BY_PATH_PREFIX = new LinkedHashMap<>();
+
+  static {
+    Arrays.stream(EwpApi.values())
+        .flatMap(api -> api.getPathPrefixes().stream()
+            .map(pathPrefix -> Map.entry(pathPrefix, api.getLocalName())))
+        .sorted(Comparator.comparingInt(
+            (Map.Entry<String, String> entry) -> entry.getKey().length()).reversed())
+        .forEachOrdered(entry -> APIS_BY_PATH_PREFIX.put(entry.getKey(), entry.getValue()));
+  }
+
+  private final HttpCommunicationLogCaptureProperties properties;
+
+  private final AtomicLong skippedBodies = new AtomicLong();
+
+  public HttpCommunicationLogCapturePolicy(
+      HttpCommunicationLogProperties httpCommunicationLogProperties, MeterRegistry meterRegistry) {
+    this.properties = httpCommunicationLogProperties.getCapture();
+    FunctionCounter.builder(METRIC_PREFIX + "bodies.skipped", skippedBodies, AtomicLong::get)
+        .description("HTTP communication logs captured without bodies by the capture rules")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Returns whether a communication must be logged with its bodies.
+   *
+   * @param api                  Local name of the API of the communication, if known.
+   * @param statusCode           Status code of the response, or null if there is no response.
+   * @param authenticationMethod EWP authentication method of the communication, if any.
+   * @param observations         Observations of the communication (for instance, the reason why
+   *                             its response was not accepted).
+   */
+  public boolean shouldCaptureBodies(Direction direction, String api, Integer statusCode,
+      EwpAuthenticationMethod authenticationMethod, String observations) {
+    if (statusCode == null || statusCode >= 400
+        || (observations != null && !observations.isEmpty())) {
+      return true;
+    }
+
+    for (Rule rule : properties.getRules()) {
+      if (matches(rule, direction, api, statusCode, authenticationMethod)) {
+        boolean captureBodies = isCapturingBodies(rule);
+        if (!captureBodies) {
+          skippedBodies.incrementAndGet();
+        }
+        return captureBodies;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the local name of the API served on a given request URI, if it starts with one of the
+   * given base URIs (for instance, the one of the EWP API) and its API is known.
+   */
+  public static String resolveApiFromRequestUri(String requestUri, String... baseUris) {
+    for (String baseUri : baseUris) {
+      if (requestUri.startsWith(baseUri)) {
+        return resolveApiFromPath(requestUri.substring(baseUri.length()));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the local name of the API served on a given path, relative to the base URI of the EWP
+   * API (or of the forward EWP API), if any.
+   */
+  static String resolveApiFromPath(String path) {
+    String normalizedPath = path.replaceAll("(^|/)v\\d+(?=/|$)", "")
+        .replaceAll("/+", "/")
+        .replaceAll("^/", "");
+    for (Map.Entry<String, String> entry : APIS_BY_PATH_PREFIX.entrySet()) {
+      String prefix = entry.getKey();
+      if (normalizedPath.equals(prefix) || normalizedPath.startsWith(prefix + "/")) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  private static boolean matches(Rule rule, Direction direction, String api, int statusCode,
+      EwpAuthenticationMethod authenticationMethod) {
+    return (rule.getDirection() == null || rule.getDirection() == direction)
+        && (rule.getApi() == null || rule.getApi().equalsIgnoreCase(api))
+        && (rule.getStatusClass() == null || matchesStatusClass(rule.getStatusClass(), statusCode))
+        && (rule.getAuthenticationMethod() == null
+        || rule.getAuthenticationMethod() == authenticationMethod);
+  }
+
+  private static boolean matchesStatusClass(String statusClass, int statusCode) {
+    return !statusClass.isEmpty()
+        && Character.getNumericValue(statusClass.charAt(0)) == statusCode / 100;
+  }
+
+  private static boolean isCapturingBodies(Rule rule) {
+    switch (rule.getMode()) {
+      case METADATA_ONLY:
+        return false;
+
+      case SAMPLED:
+        return ThreadLocalRandom.current().nextInt(100) < rule.getSamplePercentage();
+
+      case FULL:
+      default:
+        return true;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package pt.ulisboa.ewp.node.service.http.log;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Direction;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
+
+/**
+ * An HTTP communication to be logged, independently of where it is written to.
+ */
+public class HttpCommunicationLogRecord {
+
+  private final Direction direction;
+  private final String api;
+  private final Collection<String> heiIds;
+  private final EwpAuthenticationMethod authenticationMethod;
+  private final String hostCode;
+  private final HttpRequestLog requestLog;
+  private final HttpResponseLog responseLog;
+  private final ZonedDateTime startProcessingDateTime;
+  private final ZonedDateTime endProcessingDateTime;
+  private final String observations;
+
+  /**
+   * @param api      Local name of the API of the communication, if known.
+   * @param heiIds   HEI IDs the communication is related to (for instance, the ones covered by the
+   *                 client that sent a request, or the one targeted by a request sent).
+   * @param hostCode Code of the host that sent the request, if any.
+   */
+  public HttpCommunicationLogRecord(
+      Direction direction,
+      String api,
+      Collection<String> heiIds,
+      EwpAuthenticationMethod authenticationMethod,
+      String hostCode,
+      HttpRequestLog requestLog,
+      HttpResponseLog responseLog,
+      ZonedDateTime startProcessingDateTime,
+      ZonedDateTime endProcessingDateTime,
+      String observations) {
+    this.direction = direction;
+    this.api = api;
+    this.heiIds = heiIds != null ? heiIds : Collections.emptyList();
+    this.authenticationMethod = authenticationMethod;
+    this.hostCode = hostCode;
+    this.requestLog = requestLog;
+    this.responseLog = responseLog;
+    this.startProcessingDateTime = startProcessingDateTime;
+    this.endProcessingDateTime = endProcessingDateTime;
+    this.observations = observations;
+  }
+
+  public Direction getDirection() {
+    return direction;
+  }
+
+  public String getApi() {
+    return api;
+  }
+
+  public Collection<String> getHeiIds() {
+    return heiIds;
+  }
+
+  public EwpAuthenticationMethod getAuthenticationMethod() {
+    return authenticationMethod;
+  }
+
+  public String getHostCode() {
+    return hostCode;
+  }
+
+  public HttpRequestLog getRequestLog() {
+    return requestLog;
+  }
+
+  public HttpResponseLog getResponseLog() {
+    return responseLog;
+  }
+
+  public ZonedDateTime getStartProcessingDateTime() {
+    return startProcessingDateTime;
+  }
+
+  public ZonedDateTime getEndProcessingDateTime() {
+    return endProcessingDateTime;
+  }
+
+  public String getObservations() {
+    return observations;
+  }
+}
@@ -0,0 +1,93 @@
+package pt.ulisboa.ewp.node.service.http.log;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogProperties;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogRetentionProperties;
+import pt.ulisboa.ewp.node.domain.entity.http.log.HttpCommunicationLog;
+import pt.ulisboa.ewp.node.domain.entity.http.log.ewp.HttpCommunicationFromEwpNodeLog;
+import pt.ulisboa.ewp.node.domain.entity.http.log.ewp.HttpCommunicationToEwpNodeLog;
+import pt.ulisboa.ewp.node.domain.entity.http.log.host.HttpCommunicationFromHostLog;
+import pt.ulisboa.ewp.node.domain.entity.http.log.host.HttpCommunicationToHostLog;
+import pt.ulisboa.ewp.node.domain.repository.http.log.HttpCommunicationLogRepository;
+
+/**
+ * Purges the buckets of HTTP communication logs whose logs are all older than the maximum age set
+ * for their communication type.
+ */
+@Service
+public class HttpCommunicationLogRetentionDaemon implements Runnable {
+
+  private static final Logger log =
+      LoggerFactory.getLogger(HttpCommunicationLogRetentionDaemon.class);
+
+  private final HttpCommunicationLogRetentionProperties properties;
+  private final HttpCommunicationLogRepository httpCommunicationLogRepository;
+
+  public HttpCommunicationLogRetentionDaemon(
+      HttpCommunicationLogProperties httpCommunicationLogProperties,
+      HttpCommunicationLogRepository httpCommunicationLogRepository) {
+    this.properties = httpCommunicationLogProperties.getRetention();
+    this.httpCommunicationLogRepository = httpCommunicationLogRepository;
+  }
+
+  public long getTaskIntervalInMilliseconds() {
+    return properties.getTaskIntervalInMilliseconds();
+  }
+
+  @Override
+  public void run() {
+    int assignedBuckets = httpCommunicationLogRepository.assignMissingBuckets();
+    if (assignedBuckets > 0) {
+      log.info("Assigned buckets to {} HTTP communication logs", assignedBuckets);
+    }
+
+    ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+    getMaxAgesInDaysByCommunicationLogClass().forEach((communicationLogClass, maxAgeInDays) -> {
+      if (maxAgeInDays <= 0) {
+        return;
+      }
+
+      try {
+        int firstBucketToKeep = HttpCommunicationLog.getBucketOf(now.minusDays(maxAgeInDays));
+        for (Integer bucket : httpCommunicationLogRepository.findBucketsBefore(
+            communicationLogClass, firstBucketToKeep)) {
+          purgeBucket(communicationLogClass, bucket);
+        }
+
+      } catch (RuntimeException e) {
+        log.error("Failed to purge logs of type " + communicationLogClass.getSimpleName(), e);
+      }
+    });
+  }
+
+  private void purgeBucket(Class<? extends HttpCommunicationLog> communicationLogClass,
+      int bucket) {
+    int batchSize = Math.max(1, properties.getBatchSize());
+    long purgedLogs = 0;
+    int deletedLogs;
+    do {
+      deletedLogs = httpCommunicationLogRepository.deleteBatchOfBucket(communicationLogClass,
+          bucket, batchSize);
+      purgedLogs += deletedLogs;
+    } while (deletedLogs == batchSize);
+
+    log.info("Purged {} logs of type {} from bucket {}", purgedLogs,
+        communicationLogClass.getSimpleName(), bucket);
+  }
+
+  private Map<Class<? extends HttpCommunicationLog>, Integer>
+      getMaxAgesInDaysByCommunicationLogClass() {
+    Map<Class<? extends HttpCommunicationLog>, Integer> result = new LinkedHashMap<>();
+    result.put(HttpCommunicationFromEwpNodeLog.class, properties.getFromEwpNodeMaxAgeInDays());
+    result.put(HttpCommunicationToEwpNodeLog.class, properties.getToEwpNodeMaxAgeInDays());
+    result.put(HttpCommunicationFromHostLog.class, properties.getFromHostMaxAgeInDays());
+    result.put(HttpCommunicationToHostLog.class, properties.getToHostMaxAgeInDays());
+    return result;
+  }
+}
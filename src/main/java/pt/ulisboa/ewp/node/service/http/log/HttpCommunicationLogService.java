@@ -1,46 +1,80 @@
 package pt.ulisboa.ewp.node.service.http.log;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
-import javax.transaction.Transactional;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.ContentCachingResponseWrapper;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpHeader;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpLogFormat;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpMethod;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
 import pt.ulisboa.ewp.node.utils.http.HttpConstants;
 
 @Service
-@Transactional
 public class HttpCommunicationLogService {
 
-  protected HttpRequestLog toHttpRequestLog(ContentCachingRequestWrapper request) {
-    HttpRequestLog requestLog =
-        HttpRequestLog.create(
-            HttpMethod.fromString(request.getMethod()),
-            request.getRequestURL().toString(),
-            toHttpHeaderCollection(request),
-            new String(request.getContentAsByteArray()));
-    requestLog.getHeaders().forEach(header -> header.setRequestLog(requestLog));
-    return requestLog;
+  @Autowired
+  protected HttpCommunicationLogWriter httpCommunicationLogWriter;
+
+  @Autowired
+  protected HttpCommunicationLogCapturePolicy httpCommunicationLogCapturePolicy;
+
+  /**
+   * Creates a log of a request.
+   *
+   * @param captureBody Whether the body is logged, or only its length.
+   */
+  protected HttpRequestLog toHttpRequestLog(ContentCachingRequestWrapper request, String url,
+      boolean captureBody) {
+    byte[] body = request.getContentAsByteArray();
+    return HttpRequestLog.create(
+        HttpMethod.fromString(request.getMethod()),
+        url,
+        toHttpHeaderCollection(request),
+        captureBody ? body : null,
+        body.length,
+        Math.max(body.length, request.getContentLengthLong()),
+        toCharset(request.getCharacterEncoding()));
   }
 
-  protected HttpResponseLog toHttpResponseLog(ContentCachingResponseWrapper response) {
+  /**
+   * Creates a log of a response, reading only up to a given number of bytes of its body (instead
+   * of copying the whole body).
+   *
+   * @param captureBody Whether the body is logged, or only its length.
+   */
+  protected HttpResponseLog toHttpResponseLog(ContentCachingResponseWrapper response,
+      int maxLoggedSizeInBytes, boolean captureBody) {
     if (response == null) {
       return null;
     }
 
-    HttpResponseLog responseLog =
-        HttpResponseLog.create(
-            response.getStatusCode(),
-            toHttpHeaderCollection(response),
-            new String(response.getContentAsByteArray()));
-    responseLog.getHeaders().forEach(header -> header.setResponseLog(responseLog));
-    return responseLog;
+    byte[] bodyPrefix = null;
+    int bodyPrefixLength = 0;
+    if (captureBody) {
+      bodyPrefix = new byte[Math.max(0,
+          Math.min(Math.min(maxLoggedSizeInBytes, HttpLogFormat.MAX_BODY_SIZE_IN_BYTES),
+              response.getContentSize()))];
+      bodyPrefixLength = readFully(response, bodyPrefix);
+    }
+    return HttpResponseLog.create(
+        response.getStatus(),
+        toHttpHeaderCollection(response),
+        bodyPrefix,
+        bodyPrefixLength,
+        response.getContentSize(),
+        response.getContentSize(),
+        toCharset(response.getCharacterEncoding()));
   }
 
   protected Collection<HttpHeader> toHttpHeaderCollection(ContentCachingRequestWrapper request) {
@@ -57,7 +91,7 @@ public class HttpCommunicationLogService {
     return headers;
   }
 
-  protected Collection<HttpHeader> toHttpHeaderCollection(ContentCachingResponseWrapper response) {
+  protected Collection<HttpHeader> toHttpHeaderCollection(HttpServletResponse response) {
     Collection<HttpHeader> headers = new ArrayList<>();
     Collection<String> headerNames = response.getHeaderNames();
     headerNames.forEach(
@@ -78,4 +112,31 @@ public class HttpCommunicationLogService {
                     String.join(HttpConstants.HEADERS_COMMA_SEPARATED_LIST_TOKEN, headerValues))));
     return result;
   }
+
+  protected Charset toCharset(String characterEncoding) {
+    if (characterEncoding != null) {
+      try {
+        return Charset.forName(characterEncoding);
+      } catch (IllegalArgumentException e) {
+        // NOTE: unsupported character encodings are logged as UTF-8
+      }
+    }
+    return StandardCharsets.UTF_8;
+  }
+
+  private static int readFully(ContentCachingResponseWrapper response, byte[] buffer) {
+    int offset = 0;
+    try (InputStream contentInputStream = response.getContentInputStream()) {
+      while (offset < buffer.length) {
+        int read = contentInputStream.read(buffer, offset, buffer.length - offset);
+        if (read < 0) {
+          break;
+        }
+        offset += read;
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read cached response body", e);
+    }
+    return offset;
+  }
 }
@@ -0,0 +1,296 @@
+package pt.ulisboa.ewp.node.service.http.log;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogProperties;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogWriterProperties;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogWriterProperties.OverflowPolicy;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
+import pt.ulisboa.ewp.node.service.http.log.file.HttpCommunicationLogFileSink;
+
+/**
+ * Writes HTTP communication logs to the database (and/or to the local file sink, if enabled)
+ * outside the threads serving requests.
+ *
+ * <p>Logs are put on a bounded queue and a single writer thread persists them in batches, each
+ * batch on a single transaction, so a request only pays for building its log. If the transaction
+ * of a batch fails, each of its logs is persisted again on its own transaction, so that a single
+ * faulty log does not make the others be lost. What happens once
+ * the queue is full depends on the configured {@link OverflowPolicy}. On shutdown, the logs still
+ * queued are written before the application context is closed (up to the shutdown timeout).
+ *
+ * <p>When the writer is not asynchronous, logs are persisted right away on the calling thread.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class HttpCommunicationLogWriter {
+
+  private static final Logger log = LoggerFactory.getLogger(HttpCommunicationLogWriter.class);
+
+  private static final String METRIC_PREFIX = "http.communication.log.";
+  private static final long POLL_TIMEOUT_IN_MILLISECONDS = 500;
+
+  private final HttpCommunicationLogWriterProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final HttpCommunicationLogFileSink fileSink;
+
+  private final BlockingQueue<PendingLog> queue;
+  private final Thread writerThread;
+  private volatile boolean running = true;
+
+  private final AtomicLong writtenLogs = new AtomicLong();
+  private final AtomicLong droppedLogs = new AtomicLong();
+  private final AtomicLong droppedBodies = new AtomicLong();
+  private final AtomicLong failedLogs = new AtomicLong();
+
+  public HttpCommunicationLogWriter(HttpCommunicationLogProperties httpCommunicationLogProperties,
+      PlatformTransactionManager transactionManager, HttpCommunicationLogFileSink fileSink,
+      MeterRegistry meterRegistry) {
+    this.properties = httpCommunicationLogProperties.getWriter();
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.fileSink = fileSink;
+    this.queue = new LinkedBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    registerMetrics(meterRegistry);
+
+    if (properties.isAsync()) {
+      this.writerThread = new Thread(this::run, "HttpCommunicationLogWriter");
+      this.writerThread.setDaemon(true);
+      this.writerThread.start();
+    } else {
+      this.writerThread = null;
+    }
+  }
+
+  /**
+   * Writes a log, either right away or once the writer thread gets to it.
+   *
+   * @param record    Communication to log, whose bodies may be dropped before it is written.
+   * @param persister Persists the log, with the request and response logs of the record, to the
+   *                  database (for instance, through its repository), returning whether it was
+   *                  persisted. It is run within a transaction, unless logs are written only to
+   *                  the file sink, and may be run again if that transaction fails.
+   */
+  public void write(HttpCommunicationLogRecord record, BooleanSupplier persister) {
+    PendingLog pendingLog = new PendingLog(record, persister);
+    if (!properties.isAsync() || !running) {
+      writeBatch(List.of(pendingLog));
+      return;
+    }
+
+    if (!enqueue(pendingLog)) {
+      droppedLogs.incrementAndGet();
+    }
+  }
+
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  private boolean enqueue(PendingLog pendingLog) {
+    switch (properties.getOverflowPolicy()) {
+      case BLOCK:
+        try {
+          return queue.offer(pendingLog, properties.getBlockTimeoutInMilliseconds(),
+              TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+
+      case DROP_BODIES:
+        if (queue.remainingCapacity() <= properties.getQueueCapacity() / 2) {
+          pendingLog.dropBodies();
+          droppedBodies.incrementAndGet();
+        }
+        return queue.offer(pendingLog);
+
+      case DROP:
+      default:
+        return queue.offer(pendingLog);
+    }
+  }
+
+  private void run() {
+    int batchSize = Math.max(1, properties.getBatchSize());
+    List<PendingLog> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingLog firstPendingLog = queue.poll(POLL_TIMEOUT_IN_MILLISECONDS,
+            TimeUnit.MILLISECONDS);
+        if (firstPendingLog == null) {
+          continue;
+        }
+        batch.add(firstPendingLog);
+        queue.drainTo(batch, batchSize - 1);
+        writeBatch(batch);
+
+      } catch (InterruptedException e) {
+        // NOTE: interrupted on shutdown, once the timeout to write the remaining logs expires
+        Thread.currentThread().interrupt();
+        break;
+
+      } catch (RuntimeException e) {
+        log.error("Unexpected failure of HTTP communication log writer", e);
+
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private void writeBatch(List<PendingLog> batch) {
+    boolean appendedToFile = !fileSink.isEnabled() || appendToFile(batch);
+    boolean[] persisted = fileSink.isExclusive() ? null : persist(batch);
+
+    int numberOfWrittenLogs = 0;
+    for (int index = 0; index < batch.size(); index++) {
+      if (appendedToFile && (persisted == null || persisted[index])) {
+        numberOfWrittenLogs++;
+      }
+    }
+    writtenLogs.addAndGet(numberOfWrittenLogs);
+    failedLogs.addAndGet(batch.size() - numberOfWrittenLogs);
+  }
+
+  private boolean appendToFile(List<PendingLog> batch) {
+    try {
+      fileSink.append(batch.stream().map(PendingLog::getRecord).collect(Collectors.toList()));
+      return true;
+
+    } catch (IOException | RuntimeException e) {
+      log.error("Failed to append " + batch.size() + " HTTP communication log(s) to file", e);
+      return false;
+    }
+  }
+
+  /**
+   * Persists a batch of logs on a single transaction, returning whether each log was persisted. If
+   * the transaction fails, each log is persisted again on its own transaction, once the ids
+   * generated for its request and response logs by the rolled back transaction are reset (as
+   * otherwise those would be updated, instead of inserted again).
+   */
+  private boolean[] persist(List<PendingLog> batch) {
+    boolean[] persisted = new boolean[batch.size()];
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        for (int index = 0; index < batch.size(); index++) {
+          persisted[index] = batch.get(index).persist();
+        }
+      });
+      return persisted;
+
+    } catch (RuntimeException e) {
+      if (batch.size() == 1) {
+        log.error("Failed to write HTTP communication log", e);
+        return new boolean[1];
+      }
+      log.warn("Failed to write " + batch.size()
+          + " HTTP communication logs on a single transaction, writing each one on its own", e);
+    }
+
+    for (int index = 0; index < batch.size(); index++) {
+      PendingLog pendingLog = batch.get(index);
+      pendingLog.resetGeneratedIds();
+      try {
+        persisted[index] = Boolean.TRUE.equals(
+            transactionTemplate.execute(status -> pendingLog.persist()));
+
+      } catch (RuntimeException e) {
+        persisted[index] = false;
+        log.error("Failed to write HTTP communication log", e);
+      }
+    }
+    return persisted;
+  }
+
+  @PreDestroy
+  public void destroy() throws InterruptedException {
+    running = false;
+    if (writerThread == null) {
+      return;
+    }
+
+    writerThread.join(TimeUnit.SECONDS.toMillis(properties.getShutdownTimeoutInSeconds()));
+    if (writerThread.isAlive()) {
+      writerThread.interrupt();
+      log.warn("Discarded {} HTTP communication logs not written before shutdown",
+          queue.size());
+    }
+  }
+
+  private void registerMetrics(MeterRegistry meterRegistry) {
+    Gauge.builder(METRIC_PREFIX + "queue.size", queue, BlockingQueue::size)
+        .description("HTTP communication logs waiting to be written")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "written", writtenLogs, AtomicLong::get)
+        .description("HTTP communication logs written")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "dropped", droppedLogs, AtomicLong::get)
+        .description("HTTP communication logs dropped as the queue was full")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "bodies.dropped", droppedBodies, AtomicLong::get)
+        .description("HTTP communication logs queued without bodies as the queue was filling up")
+        .register(meterRegistry);
+    FunctionCounter.builder(METRIC_PREFIX + "failed", failedLogs, AtomicLong::get)
+        .description("HTTP communication logs that failed to be written to any of their sinks")
+        .register(meterRegistry);
+  }
+
+  private static class PendingLog {
+
+    private final HttpCommunicationLogRecord record;
+    private final BooleanSupplier persister;
+
+    private PendingLog(HttpCommunicationLogRecord record, BooleanSupplier persister) {
+      this.record = record;
+      this.persister = persister;
+    }
+
+    private HttpCommunicationLogRecord getRecord() {
+      return record;
+    }
+
+    private void dropBodies() {
+      HttpRequestLog requestLog = record.getRequestLog();
+      HttpResponseLog responseLog = record.getResponseLog();
+      if (requestLog != null) {
+        requestLog.setBody(null);
+      }
+      if (responseLog != null) {
+        responseLog.setBody(null);
+      }
+    }
+
+    private void resetGeneratedIds() {
+      if (record.getRequestLog() != null) {
+        record.getRequestLog().setId(0);
+      }
+      if (record.getResponseLog() != null) {
+        record.getResponseLog().setId(0);
+      }
+    }
+
+    private boolean persist() {
+      return persister.getAsBoolean();
+    }
+  }
+}
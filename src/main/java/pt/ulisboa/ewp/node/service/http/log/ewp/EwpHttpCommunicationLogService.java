@@ -1,30 +1,37 @@
 package pt.ulisboa.ewp.node.service.http.log.ewp;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
 import java.util.Collection;
 import java.util.Collections;
-import javax.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
 import pt.ulisboa.ewp.node.api.ewp.wrapper.EwpApiHttpRequestWrapper;
+import pt.ulisboa.ewp.node.api.ewp.wrapper.EwpApiHttpResponseWrapper;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
 import pt.ulisboa.ewp.node.client.ewp.operation.response.EwpResponse;
 import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
+import pt.ulisboa.ewp.node.config.api.EwpApiProperties;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Direction;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpMethod;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
 import pt.ulisboa.ewp.node.domain.repository.http.log.ewp.HttpCommunicationFromEwpNodeLogRepository;
 import pt.ulisboa.ewp.node.domain.repository.http.log.ewp.HttpCommunicationToEwpNodeLogRepository;
+import pt.ulisboa.ewp.node.service.http.log.HttpCommunicationLogCapturePolicy;
+import pt.ulisboa.ewp.node.service.http.log.HttpCommunicationLogRecord;
 import pt.ulisboa.ewp.node.service.http.log.HttpCommunicationLogService;
 
 @Service
-@Transactional
 public class EwpHttpCommunicationLogService extends HttpCommunicationLogService {
 
+  @Autowired
+  private EwpApiProperties ewpApiProperties;
+
   @Autowired
   private HttpCommunicationFromEwpNodeLogRepository httpCommunicationFromEwpNodeLogRepository;
 
@@ -33,29 +40,38 @@ public class EwpHttpCommunicationLogService extends HttpCommunicationLogService
 
   public void logCommunicationFromEwpNode(
       EwpApiHttpRequestWrapper request,
-      ContentCachingResponseWrapper response,
+      EwpApiHttpResponseWrapper response,
       ZonedDateTime startProcessingDateTime,
       ZonedDateTime endProcessingDateTime,
       String observations) {
-    HttpRequestLog requestLog = toHttpRequestLog(request);
-    HttpResponseLog responseLog = toHttpResponseLog(response);
-
     EwpAuthenticationMethod authenticationMethod =
         request.getAuthenticationToken() != null
             ? request.getAuthenticationToken().getAuthenticationMethod()
             : EwpAuthenticationMethod.ANONYMOUS;
+    String api = HttpCommunicationLogCapturePolicy.resolveApiFromRequestUri(
+        request.getRequestURI(), EwpApiConstants.API_BASE_URI, EwpApiConstants.REST_BASE_URI);
+    boolean captureBodies = httpCommunicationLogCapturePolicy.shouldCaptureBodies(
+        Direction.FROM_EWP_NODE, api, response.getStatus(), authenticationMethod, observations);
+
+    HttpRequestLog requestLog = toHttpRequestLog(request, captureBodies);
+    HttpResponseLog responseLog = toHttpResponseLog(response, captureBodies);
+
     Collection<String> heiIdsCoveredByClient =
         request.getAuthenticationToken() != null
             ? request.getAuthenticationToken().getPrincipal().getHeiIdsCoveredByClient()
             : Collections.emptyList();
-    httpCommunicationFromEwpNodeLogRepository.create(
-        authenticationMethod,
-        heiIdsCoveredByClient,
-        requestLog,
-        responseLog,
-        startProcessingDateTime,
-        endProcessingDateTime,
-        observations);
+    HttpCommunicationLogRecord record = new HttpCommunicationLogRecord(Direction.FROM_EWP_NODE,
+        api, heiIdsCoveredByClient, authenticationMethod, null, requestLog, responseLog,
+        startProcessingDateTime, endProcessingDateTime, observations);
+    httpCommunicationLogWriter.write(record,
+        () -> httpCommunicationFromEwpNodeLogRepository.create(
+            authenticationMethod,
+            heiIdsCoveredByClient,
+            requestLog,
+            responseLog,
+            startProcessingDateTime,
+            endProcessingDateTime,
+            observations));
   }
 
   public <T extends Serializable> void logCommunicationToEwpNode(
@@ -81,54 +97,103 @@ public class EwpHttpCommunicationLogService extends HttpCommunicationLogService
       ZonedDateTime startProcessingDateTime,
       ZonedDateTime endProcessingDateTime,
       String observations) {
-    HttpRequestLog requestLog = toHttpRequestLog(request);
-    HttpResponseLog responseLog = toHttpResponseLog(response);
-    httpCommunicationToEwpNodeLogRepository.create(
-        request.getAuthenticationMethod(),
-        requestLog,
-        responseLog,
-        startProcessingDateTime,
-        endProcessingDateTime,
+    logCommunicationToEwpNode(request, response, startProcessingDateTime, endProcessingDateTime,
+        observations, 0);
+  }
+
+  /**
+   * Logs a communication whose outcome was shared with identical requests that were coalesced with
+   * it (instead of being sent as well). Only the communication actually sent is logged; the
+   * coalescing is noted in its observations.
+   *
+   * @param coalescedRequests Number of identical requests coalesced with the one sent.
+   */
+  public void logCommunicationToEwpNode(
+      EwpRequest request,
+      EwpResponse response,
+      ZonedDateTime startProcessingDateTime,
+      ZonedDateTime endProcessingDateTime,
+      String observations,
+      int coalescedRequests) {
+    EwpAuthenticationMethod authenticationMethod = request.getAuthenticationMethod();
+    String api = request.getApi() != null ? request.getApi().getLocalName() : null;
+    boolean captureBodies = httpCommunicationLogCapturePolicy.shouldCaptureBodies(
+        Direction.TO_EWP_NODE,
+        api,
+        response != null ? response.getStatus().value() : null,
+        authenticationMethod,
         observations);
+    // NOTE: the coalescing is noted only after deciding on the capture, as it is no failure
+    String loggedObservations = coalescedRequests > 0
+        ? joinObservations(observations,
+        "Response shared with " + coalescedRequests + " coalesced identical request(s)")
+        : observations;
+
+    HttpRequestLog requestLog = toHttpRequestLog(request, captureBodies);
+    HttpResponseLog responseLog = toHttpResponseLog(response, captureBodies);
+    HttpCommunicationLogRecord record = new HttpCommunicationLogRecord(Direction.TO_EWP_NODE, api,
+        request.getHeiId() != null
+            ? Collections.singletonList(request.getHeiId())
+            : Collections.emptyList(),
+        authenticationMethod, null, requestLog, responseLog, startProcessingDateTime,
+        endProcessingDateTime, loggedObservations);
+    httpCommunicationLogWriter.write(record,
+        () -> httpCommunicationToEwpNodeLogRepository.create(
+            authenticationMethod,
+            requestLog,
+            responseLog,
+            startProcessingDateTime,
+            endProcessingDateTime,
+            loggedObservations));
   }
 
-  private HttpRequestLog toHttpRequestLog(EwpApiHttpRequestWrapper request) {
+  private static String joinObservations(String observations, String observation) {
+    if (observations == null || observations.isEmpty()) {
+      return observation;
+    }
+    return observations + System.lineSeparator() + observation;
+  }
+
+  private HttpRequestLog toHttpRequestLog(EwpApiHttpRequestWrapper request,
+      boolean captureBody) {
     StringBuilder url = new StringBuilder(request.getRequestURL().toString());
     if (request.getOriginalQueryString() != null) {
       url.append('?').append(request.getOriginalQueryString());
     }
-    HttpRequestLog requestLog =
-        HttpRequestLog.create(
-            HttpMethod.fromString(request.getMethod()),
-            url.toString(),
-            toHttpHeaderCollection(request),
-            request.getBody());
-    requestLog.getHeaders().forEach(header -> header.setRequestLog(requestLog));
-    return requestLog;
+    return toHttpRequestLog(request, url.toString(), captureBody);
+  }
+
+  private HttpResponseLog toHttpResponseLog(EwpApiHttpResponseWrapper response,
+      boolean captureBody) {
+    return toHttpResponseLog(response,
+        ewpApiProperties.getResponseBody().getMaxLoggedSizeInBytes(), captureBody);
   }
 
-  private HttpRequestLog toHttpRequestLog(EwpRequest request) {
-    HttpRequestLog requestLog =
-        HttpRequestLog.create(
-            HttpMethod.fromString(request.getMethod().name()),
-            request.getUrl(),
-            toHttpHeaderCollection(request.getHeaders()),
-            request.getBody().serialize());
-    requestLog.getHeaders().forEach(header -> header.setRequestLog(requestLog));
-    return requestLog;
+  private HttpRequestLog toHttpRequestLog(EwpRequest request, boolean captureBody) {
+    byte[] body = request.getBody().serialize().getBytes(StandardCharsets.UTF_8);
+    return HttpRequestLog.create(
+        HttpMethod.fromString(request.getMethod().name()),
+        request.getUrl(),
+        toHttpHeaderCollection(request.getHeaders()),
+        captureBody ? body : null,
+        body.length,
+        body.length,
+        StandardCharsets.UTF_8);
   }
 
-  private HttpResponseLog toHttpResponseLog(EwpResponse response) {
+  private HttpResponseLog toHttpResponseLog(EwpResponse response, boolean captureBody) {
     if (response == null) {
       return null;
     }
 
-    HttpResponseLog responseLog =
-        HttpResponseLog.create(
-            response.getStatus().value(),
-            toHttpHeaderCollection(response.getHeaders()),
-            response.getRawBody());
-    responseLog.getHeaders().forEach(header -> header.setResponseLog(responseLog));
-    return responseLog;
+    byte[] loggedContent = captureBody ? response.getBody().getLoggedContentBytes() : null;
+    return HttpResponseLog.create(
+        response.getStatus().value(),
+        toHttpHeaderCollection(response.getHeaders()),
+        loggedContent,
+        loggedContent != null ? loggedContent.length : 0,
+        response.getBody().getLength(),
+        response.getBody().getTransferLength(),
+        response.getBody().getCharset());
   }
 }
@@ -0,0 +1,127 @@
+package pt.ulisboa.ewp.node.service.http.log.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+/**
+ * Searches the HTTP communication logs written by {@link HttpCommunicationLogFileSink}, using the
+ * index files of the segments so only the matching records are read and decompressed.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class HttpCommunicationLogFileReader {
+
+  private final HttpCommunicationLogFileSink fileSink;
+
+  public HttpCommunicationLogFileReader(HttpCommunicationLogFileSink fileSink) {
+    this.fileSink = fileSink;
+  }
+
+  /**
+   * Returns the most recent logs matching the given criteria, from the most recent to the oldest,
+   * each as a JSON document.
+   *
+   * @param from       Minimum date time when the processing of a communication started, or null.
+   * @param to         Maximum date time when the processing of a communication started, or null.
+   * @param heiId      HEI ID a communication must be related to, or null.
+   * @param api        Local name of the API of a communication, or null.
+   * @param maxResults Maximum number of logs returned.
+   */
+  public List<String> findRecent(ZonedDateTime from, ZonedDateTime to, String heiId, String api,
+      int maxResults) throws IOException {
+    Long fromInMilliseconds = from != null ? from.toInstant().toEpochMilli() : null;
+    Long toInMilliseconds = to != null ? to.toInstant().toEpochMilli() : null;
+
+    List<String> result = new ArrayList<>();
+    List<Path> segmentPaths = new ArrayList<>(
+        HttpCommunicationLogFileSink.listSegments(fileSink.getDirectory()));
+    Collections.reverse(segmentPaths);
+    for (Path segmentPath : segmentPaths) {
+      if (result.size() >= maxResults) {
+        break;
+      }
+
+      List<HttpCommunicationLogIndexEntry> indexEntries = readIndex(segmentPath).stream()
+          .filter(entry -> fromInMilliseconds == null
+              || entry.getTimestampInMilliseconds() >= fromInMilliseconds)
+          .filter(entry -> toInMilliseconds == null
+              || entry.getTimestampInMilliseconds() <= toInMilliseconds)
+          .filter(entry -> heiId == null || entry.getHeiIds().contains(heiId))
+          .filter(entry -> api == null || api.equals(entry.getApi()))
+          .collect(Collectors.toList());
+      Collections.reverse(indexEntries);
+      if (indexEntries.isEmpty()) {
+        continue;
+      }
+
+      result.addAll(readRecords(segmentPath, indexEntries, maxResults - result.size()));
+    }
+    return result;
+  }
+
+  private static List<HttpCommunicationLogIndexEntry> readIndex(Path segmentPath)
+      throws IOException {
+    try {
+      return Files.readAllLines(HttpCommunicationLogFileSink.getIndexPathOf(segmentPath),
+              StandardCharsets.UTF_8).stream()
+          .map(HttpCommunicationLogIndexEntry::parse)
+          .filter(Objects::nonNull)
+          .collect(Collectors.toList());
+
+    } catch (NoSuchFileException e) {
+      // NOTE: the segment was deleted meanwhile (or its index is missing)
+      return Collections.emptyList();
+    }
+  }
+
+  private static List<String> readRecords(Path segmentPath,
+      List<HttpCommunicationLogIndexEntry> indexEntries, int maxRecords) throws IOException {
+    List<String> result = new ArrayList<>();
+    try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+      long segmentSize = channel.size();
+      for (HttpCommunicationLogIndexEntry indexEntry : indexEntries) {
+        if (result.size() >= maxRecords) {
+          break;
+        }
+        if (indexEntry.getOffset() + indexEntry.getLength() > segmentSize) {
+          continue;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(indexEntry.getLength());
+        while (buffer.hasRemaining()
+            && channel.read(buffer, indexEntry.getOffset() + buffer.position()) >= 0) {
+          // NOTE: keeps reading until the whole record is read
+        }
+        result.add(decompress(buffer.array()).trim());
+      }
+
+    } catch (NoSuchFileException e) {
+      // NOTE: the segment was deleted meanwhile
+    }
+    return result;
+  }
+
+  private static String decompress(byte[] data) throws IOException {
+    try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(data))) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,321 @@
+package pt.ulisboa.ewp.node.service.http.log.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogFileSinkProperties;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogProperties;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpHeader;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
+import pt.ulisboa.ewp.node.service.http.log.HttpCommunicationLogRecord;
+
+/**
+ * Appends HTTP communication logs to rolling segment files on local disk, so logs can be kept
+ * without writing them to the database.
+ *
+ * <p>Each record is written as a JSON line compressed on its own gzip member. Hence, a segment is
+ * a valid gzip file of newline-delimited JSON (for instance, readable with zcat), while any record
+ * can still be read on its own from its offset. For each record, a line is appended to the index
+ * file of the segment (see {@link HttpCommunicationLogIndexEntry}). Index lines are only written
+ * once the records they point to are flushed to the segment, so the index never points to a record
+ * not fully written.
+ *
+ * <p>A new segment is started on each start of the node, and whenever the current segment
+ * reaches its maximum size or age.
+ */
+@Component
+@Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+public class HttpCommunicationLogFileSink {
+
+  private static final Logger log = LoggerFactory.getLogger(HttpCommunicationLogFileSink.class);
+
+  static final String SEGMENT_FILE_PREFIX = "communications-";
+  static final String SEGMENT_FILE_SUFFIX = ".ndjson.gz";
+  static final String INDEX_FILE_SUFFIX = ".idx";
+
+  private static final DateTimeFormatter SEGMENT_NAME_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS").withZone(ZoneOffset.UTC);
+  private static final int BUFFER_SIZE_IN_BYTES = 65536;
+
+  private final HttpCommunicationLogFileSinkProperties properties;
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private OutputStream segmentOutputStream;
+  private BufferedWriter indexWriter;
+  private final List<HttpCommunicationLogIndexEntry> pendingIndexEntries = new ArrayList<>();
+  private Instant segmentStartInstant;
+  private long segmentSizeInBytes;
+
+  public HttpCommunicationLogFileSink(
+      HttpCommunicationLogProperties httpCommunicationLogProperties) {
+    this.properties = httpCommunicationLogProperties.getFileSink();
+  }
+
+  public boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  /**
+   * Returns whether logs must be written only to this sink, instead of also to the database. In
+   * that case, the logs are hidden from the views of the admin UI backed by the database, being
+   * searchable only through {@link HttpCommunicationLogFileReader}.
+   */
+  public boolean isExclusive() {
+    return properties.isEnabled() && properties.isExclusive();
+  }
+
+  /**
+   * Appends records to the current segment, flushing the segment and its index once all of them
+   * are written.
+   */
+  public synchronized void append(Collection<HttpCommunicationLogRecord> records)
+      throws IOException {
+    try {
+      appendAll(records);
+
+    } catch (IOException e) {
+      // NOTE: the segment may have been partially written, so the next records go to a new one
+      try {
+        closeSegment();
+      } catch (IOException closeException) {
+        e.addSuppressed(closeException);
+      }
+      throw e;
+    }
+  }
+
+  @PreDestroy
+  public synchronized void destroy() throws IOException {
+    closeSegment();
+  }
+
+  Path getDirectory() {
+    return Paths.get(properties.getDirectory());
+  }
+
+  private void appendAll(Collection<HttpCommunicationLogRecord> records) throws IOException {
+    for (HttpCommunicationLogRecord record : records) {
+      if (segmentOutputStream == null || isSegmentFull()) {
+        rollSegment();
+      }
+
+      byte[] compressedRecord = compress(toJson(record));
+      long offset = segmentSizeInBytes;
+      segmentOutputStream.write(compressedRecord);
+      segmentSizeInBytes += compressedRecord.length;
+
+      pendingIndexEntries.add(new HttpCommunicationLogIndexEntry(
+          record.getStartProcessingDateTime().toInstant().toEpochMilli(), record.getApi(),
+          offset, compressedRecord.length, record.getHeiIds()));
+    }
+
+    if (segmentOutputStream != null) {
+      flushSegment();
+    }
+  }
+
+  /**
+   * Flushes the segment and only then writes (and flushes) the index lines of the records
+   * appended since the last flush.
+   */
+  private void flushSegment() throws IOException {
+    segmentOutputStream.flush();
+    for (HttpCommunicationLogIndexEntry indexEntry : pendingIndexEntries) {
+      indexWriter.write(indexEntry.format());
+      indexWriter.newLine();
+    }
+    pendingIndexEntries.clear();
+    indexWriter.flush();
+  }
+
+  private boolean isSegmentFull() {
+    return segmentSizeInBytes >= properties.getMaxSegmentSizeInBytes()
+        || Duration.between(segmentStartInstant, Instant.now()).toMinutes()
+        >= properties.getMaxSegmentAgeInMinutes();
+  }
+
+  private void rollSegment() throws IOException {
+    if (segmentOutputStream != null) {
+      flushSegment();
+    }
+    closeSegment();
+
+    Path directory = getDirectory();
+    Files.createDirectories(directory);
+    Instant startInstant = Instant.now();
+    Path segmentPath = directory.resolve(getSegmentFileName(startInstant));
+    while (Files.exists(segmentPath)) {
+      startInstant = startInstant.plusMillis(1);
+      segmentPath = directory.resolve(getSegmentFileName(startInstant));
+    }
+
+    FileChannel segmentChannel = FileChannel.open(segmentPath, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.WRITE);
+    this.segmentOutputStream = new BufferedOutputStream(
+        Channels.newOutputStream(segmentChannel), BUFFER_SIZE_IN_BYTES);
+    this.indexWriter = Files.newBufferedWriter(getIndexPathOf(segmentPath),
+        StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    this.segmentStartInstant = startInstant;
+    this.segmentSizeInBytes = 0;
+
+    deleteOldSegments(directory);
+  }
+
+  private void closeSegment() throws IOException {
+    if (segmentOutputStream == null) {
+      return;
+    }
+
+    OutputStream closingSegmentOutputStream = segmentOutputStream;
+    BufferedWriter closingIndexWriter = indexWriter;
+    segmentOutputStream = null;
+    indexWriter = null;
+    // NOTE: records not flushed yet may not be fully written, so they are left out of the index
+    pendingIndexEntries.clear();
+    try {
+      closingSegmentOutputStream.close();
+    } finally {
+      closingIndexWriter.close();
+    }
+  }
+
+  private void deleteOldSegments(Path directory) throws IOException {
+    if (properties.getMaxSegments() <= 0) {
+      return;
+    }
+
+    List<Path> segmentPaths = listSegments(directory);
+    for (Path segmentPath :
+        segmentPaths.subList(0, Math.max(0, segmentPaths.size() - properties.getMaxSegments()))) {
+      try {
+        Files.deleteIfExists(getIndexPathOf(segmentPath));
+        Files.deleteIfExists(segmentPath);
+
+      } catch (IOException e) {
+        log.warn("Failed to delete old HTTP communication log segment " + segmentPath, e);
+      }
+    }
+  }
+
+  private byte[] toJson(HttpCommunicationLogRecord record) throws IOException {
+    ObjectNode node = objectMapper.createObjectNode();
+    node.put("direction", record.getDirection().name());
+    node.put("api", record.getApi());
+    ArrayNode heiIdsNode = node.putArray("heiIds");
+    record.getHeiIds().forEach(heiIdsNode::add);
+    node.put("authenticationMethod",
+        record.getAuthenticationMethod() != null ? record.getAuthenticationMethod().name() : null);
+    node.put("hostCode", record.getHostCode());
+    node.put("startProcessingDateTime", format(record.getStartProcessingDateTime()));
+    node.put("endProcessingDateTime", format(record.getEndProcessingDateTime()));
+    node.put("observations", record.getObservations());
+
+    HttpRequestLog requestLog = record.getRequestLog();
+    ObjectNode requestNode = node.putObject("request");
+    requestNode.put("method", requestLog.getMethod().name());
+    requestNode.put("url", requestLog.getUrl());
+    putHeaders(requestNode, requestLog.getHeaders());
+    requestNode.put("bodyLength", requestLog.getBodyLength());
+    requestNode.put("body", requestLog.getBody());
+
+    HttpResponseLog responseLog = record.getResponseLog();
+    if (responseLog != null) {
+      ObjectNode responseNode = node.putObject("response");
+      responseNode.put("statusCode", responseLog.getStatusCode());
+      putHeaders(responseNode, responseLog.getHeaders());
+      responseNode.put("bodyLength", responseLog.getBodyLength());
+      responseNode.put("transferLength", responseLog.getTransferLength());
+      responseNode.put("body", responseLog.getBody());
+    } else {
+      node.putNull("response");
+    }
+
+    ByteArrayOutputStream result = new ByteArrayOutputStream();
+    objectMapper.writeValue(result, node);
+    result.write('\n');
+    return result.toByteArray();
+  }
+
+  private static void putHeaders(ObjectNode node, Collection<HttpHeader> headers) {
+    ArrayNode headersNode = node.putArray("headers");
+    for (HttpHeader header : headers) {
+      headersNode.addObject()
+          .put("name", header.getName())
+          .put("value", header.getValue());
+    }
+  }
+
+  private static String format(ZonedDateTime dateTime) {
+    return dateTime != null ? DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dateTime) : null;
+  }
+
+  private static byte[] compress(byte[] data) throws IOException {
+    ByteArrayOutputStream result = new ByteArrayOutputStream(data.length / 4 + 64);
+    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(result)) {
+      gzipOutputStream.write(data);
+    }
+    return result.toByteArray();
+  }
+
+  private static String getSegmentFileName(Instant startInstant) {
+    return SEGMENT_FILE_PREFIX + SEGMENT_NAME_FORMATTER.format(startInstant)
+        + SEGMENT_FILE_SUFFIX;
+  }
+
+  /**
+   * Returns the segment files on a directory, from the oldest to the most recent.
+   */
+  static List<Path> listSegments(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+
+    try (Stream<Path> paths = Files.list(directory)) {
+      return paths
+          .filter(path -> {
+            String fileName = path.getFileName().toString();
+            return fileName.startsWith(SEGMENT_FILE_PREFIX)
+                && fileName.endsWith(SEGMENT_FILE_SUFFIX);
+          })
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  static Path getIndexPathOf(Path segmentPath) {
+    String fileName = segmentPath.getFileName().toString();
+    return segmentPath.resolveSibling(
+        fileName.substring(0, fileName.length() - SEGMENT_FILE_SUFFIX.length())
+            + INDEX_FILE_SUFFIX);
+  }
+}
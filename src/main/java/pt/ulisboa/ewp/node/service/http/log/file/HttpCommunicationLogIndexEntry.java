@@ -0,0 +1,83 @@
+package pt.ulisboa.ewp.node.service.http.log.file;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Entry of the index file of a segment, locating a record on the segment. Each entry is written as
+ * a line with the following tab-separated fields: timestamp (in epoch milliseconds), API local
+ * name, offset and length of the record on the segment, and comma-separated HEI IDs.
+ */
+class HttpCommunicationLogIndexEntry {
+
+  private static final String FIELD_SEPARATOR = "\t";
+  private static final String HEI_ID_SEPARATOR = ",";
+
+  private final long timestampInMilliseconds;
+  private final String api;
+  private final long offset;
+  private final int length;
+  private final Collection<String> heiIds;
+
+  HttpCommunicationLogIndexEntry(long timestampInMilliseconds, String api, long offset, int length,
+      Collection<String> heiIds) {
+    this.timestampInMilliseconds = timestampInMilliseconds;
+    this.api = api;
+    this.offset = offset;
+    this.length = length;
+    this.heiIds = heiIds;
+  }
+
+  long getTimestampInMilliseconds() {
+    return timestampInMilliseconds;
+  }
+
+  String getApi() {
+    return api;
+  }
+
+  long getOffset() {
+    return offset;
+  }
+
+  int getLength() {
+    return length;
+  }
+
+  Collection<String> getHeiIds() {
+    return heiIds;
+  }
+
+  String format() {
+    return timestampInMilliseconds + FIELD_SEPARATOR
+        + (api != null ? api : "") + FIELD_SEPARATOR
+        + offset + FIELD_SEPARATOR
+        + length + FIELD_SEPARATOR
+        + String.join(HEI_ID_SEPARATOR, heiIds);
+  }
+
+  /**
+   * Parses an index line, returning null if it is malformed (for instance, if it was only partially
+   * written when the node stopped).
+   */
+  static HttpCommunicationLogIndexEntry parse(String line) {
+    String[] fields = line.split(FIELD_SEPARATOR, -1);
+    if (fields.length != 5) {
+      return null;
+    }
+
+    try {
+      List<String> heiIds = fields[4].isEmpty()
+          ? Collections.emptyList()
+          : Arrays.asList(fields[4].split(HEI_ID_SEPARATOR));
+      return new HttpCommunicationLogIndexEntry(Long.parseLong(fields[0]),
+          fields[1].isEmpty() ? null : fields[1], Long.parseLong(fields[2]),
+          Integer.parseInt(fields[3]), heiIds);
+
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+}
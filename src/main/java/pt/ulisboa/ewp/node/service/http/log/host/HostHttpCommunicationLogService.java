@@ -1,19 +1,26 @@
 package pt.ulisboa.ewp.node.service.http.log.host;
 
 import java.time.ZonedDateTime;
-import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.ContentCachingRequestWrapper;
 import org.springframework.web.util.ContentCachingResponseWrapper;
+import pt.ulisboa.ewp.node.api.host.forward.ewp.utils.ForwardEwpApiConstants;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Direction;
+import pt.ulisboa.ewp.node.domain.entity.Hei;
 import pt.ulisboa.ewp.node.domain.entity.Host;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpLogFormat;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
 import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
 import pt.ulisboa.ewp.node.domain.repository.http.log.host.HttpCommunicationFromHostLogRepository;
+import pt.ulisboa.ewp.node.service.http.log.HttpCommunicationLogCapturePolicy;
+import pt.ulisboa.ewp.node.service.http.log.HttpCommunicationLogRecord;
 import pt.ulisboa.ewp.node.service.http.log.HttpCommunicationLogService;
 
 @Service
-@Transactional
 public class HostHttpCommunicationLogService extends HttpCommunicationLogService {
 
   @Autowired
@@ -26,15 +33,28 @@ public class HostHttpCommunicationLogService extends HttpCommunicationLogService
       ZonedDateTime startProcessingDateTime,
       ZonedDateTime endProcessingDateTime,
       String observations) {
-    HttpRequestLog requestLog = toHttpRequestLog(request);
-    HttpResponseLog responseLog = toHttpResponseLog(response);
+    String api = HttpCommunicationLogCapturePolicy.resolveApiFromRequestUri(
+        request.getRequestURI(), ForwardEwpApiConstants.API_BASE_URI);
+    boolean captureBodies = httpCommunicationLogCapturePolicy.shouldCaptureBodies(
+        Direction.FROM_HOST, api, response.getStatus(), null, observations);
+    HttpRequestLog requestLog = toHttpRequestLog(request, request.getRequestURL().toString(),
+        captureBodies);
+    HttpResponseLog responseLog = toHttpResponseLog(response,
+        HttpLogFormat.MAX_BODY_SIZE_IN_BYTES, captureBodies);
 
-    httpCommunicationFromHostLogRepository.create(
-        host,
-        requestLog,
-        responseLog,
-        startProcessingDateTime,
-        endProcessingDateTime,
-        observations);
+    Collection<String> heiIdsCoveredByHost = host != null
+        ? host.getCoveredHeis().stream().map(Hei::getSchacCode).collect(Collectors.toList())
+        : Collections.emptyList();
+    HttpCommunicationLogRecord record = new HttpCommunicationLogRecord(Direction.FROM_HOST, api,
+        heiIdsCoveredByHost, null, host != null ? host.getCode() : null, requestLog, responseLog,
+        startProcessingDateTime, endProcessingDateTime, observations);
+    httpCommunicationLogWriter.write(record,
+        () -> httpCommunicationFromHostLogRepository.create(
+            host,
+            requestLog,
+            responseLog,
+            startProcessingDateTime,
+            endProcessingDateTime,
+            observations));
   }
 }
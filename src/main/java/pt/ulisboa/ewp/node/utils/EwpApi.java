@@ -1,38 +1,52 @@
 package pt.ulisboa.ewp.node.utils;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import org.apache.commons.lang3.StringUtils;
 
 public enum EwpApi {
-  INSTITUTIONS("institutions"),
-  ORGANIZATIONAL_UNITS("organizational-units"),
-  COURSES("courses"),
-  SIMPLE_COURSE_REPLICATION("simple-course-replication"),
-  FACTSHEETS("factsheet"),
-  INTERINSTITUTIONAL_AGREEMENTS("iias"),
-  INTERINSTITUTIONAL_AGREEMENT_CNR("iia-cnr"),
-  INTERINSTITUTIONAL_AGREEMENTS_APPROVAL("iias-approval"),
-  INTERINSTITUTIONAL_AGREEMENTS_APPROVAL_CNR("iia-approval-cnr"),
-  OUTGOING_MOBILITIES("omobilities"),
-  OUTGOING_MOBILITY_CNR("omobility-cnr"),
-  OUTGOING_MOBILITY_LEARNING_AGREEMENTS("omobility-las"),
-  OUTGOING_MOBILITY_LEARNING_AGREEMENT_CNR("omobility-la-cnr"),
-  INCOMING_MOBILITIES("imobilities"),
-  INCOMING_MOBILITY_CNR("imobility-cnr"),
-  INCOMING_MOBILITY_TORS("imobility-tors"),
-  INCOMING_MOBILITY_TOR_CNR("imobility-tor-cnr");
+  ECHO("echo", "echo"),
+  DISCOVERY("discovery", "manifest"),
+  INSTITUTIONS("institutions", "institutions"),
+  ORGANIZATIONAL_UNITS("organizational-units", "ounits"),
+  COURSES("courses", "courses"),
+  SIMPLE_COURSE_REPLICATION("simple-course-replication", "courses/replication"),
+  FACTSHEETS("factsheet", "factsheets"),
+  INTERINSTITUTIONAL_AGREEMENTS("iias", "iias"),
+  INTERINSTITUTIONAL_AGREEMENT_CNR("iia-cnr", "iias/cnr"),
+  INTERINSTITUTIONAL_AGREEMENTS_APPROVAL("iias-approval", "iias/approval"),
+  INTERINSTITUTIONAL_AGREEMENTS_APPROVAL_CNR("iia-approval-cnr", "iias/approvals/cnr",
+      "iias/approval/cnr"),
+  OUTGOING_MOBILITIES("omobilities", "omobilities"),
+  OUTGOING_MOBILITY_CNR("omobility-cnr", "omobilities/cnr"),
+  OUTGOING_MOBILITY_LEARNING_AGREEMENTS("omobility-las", "omobilities/las"),
+  OUTGOING_MOBILITY_LEARNING_AGREEMENT_CNR("omobility-la-cnr", "omobilities/las/cnr"),
+  INCOMING_MOBILITIES("imobilities", "imobilities"),
+  INCOMING_MOBILITY_CNR("imobility-cnr", "imobilities/cnr"),
+  INCOMING_MOBILITY_TORS("imobility-tors", "imobilities/tors"),
+  INCOMING_MOBILITY_TOR_CNR("imobility-tor-cnr", "imobilities/tors/cnr");
 
   private final String localName;
+  private final List<String> pathPrefixes;
 
-  EwpApi(String localName) {
+  EwpApi(String localName, String... pathPrefixes) {
     this.localName = localName;
+    this.pathPrefixes = List.of(pathPrefixes);
   }
 
   public String getLocalName() {
     return localName;
   }
 
+  /**
+   * Returns the prefixes of the paths (relative to the base URI of the EWP API, or of the forward
+   * EWP API, and without versions) on which this API is served.
+   */
+  public List<String> getPathPrefixes() {
+    return pathPrefixes;
+  }
+
   public static Optional<EwpApi> findByLocalName(String localName) {
     return Arrays.stream(values()).filter(v -> StringUtils.equalsIgnoreCase(v.localName, localName))
         .findFirst();
@@ -20,8 +20,10 @@ import eu.erasmuswithoutpaper.api.omobilities.las.cnr.v1.OmobilityLaCnrV1;
 import eu.erasmuswithoutpaper.api.omobilities.las.v1.OmobilityLasV1;
 import eu.erasmuswithoutpaper.api.omobilities.v1.OmobilitiesV1;
 import eu.erasmuswithoutpaper.api.ounits.v2.OrganizationalUnitsV2;
+import java.util.Optional;
 import java.util.function.Function;
 import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiUtils;
+import pt.ulisboa.ewp.node.client.ewp.exception.NoEwpApiForHeiIdAndMajorVersionException;
 import pt.ulisboa.ewp.node.client.ewp.registry.RegistryClient;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.EwpApiConfiguration;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.EwpCourseApiConfiguration;
@@ -262,10 +264,38 @@ public final class EwpApiSpecification {
           specificationElementToConfigurationTransformer;
     }
 
+    public EwpApi getApi() {
+      return api;
+    }
+
+    public int getMajorVersion() {
+      return majorVersion;
+    }
+
     public C getConfigurationForHeiId(RegistryClient registryClient, String heiId) {
-      return EwpApiUtils.getApiConfiguration(registryClient, heiId, api.getLocalName(),
-          majorVersion, specificationElementClassType,
-          specificationElementToConfigurationTransformer);
+      Optional<C> configurationOptional = registryClient.getIndexedApiConfiguration(heiId,
+          api.getLocalName(), majorVersion, () -> resolveConfigurationForHeiId(registryClient,
+              heiId));
+      if (configurationOptional.isEmpty()) {
+        throw new NoEwpApiForHeiIdAndMajorVersionException(heiId, api.getLocalName(),
+            majorVersion);
+      }
+      return configurationOptional.get();
+    }
+
+    private Optional<C> resolveConfigurationForHeiId(RegistryClient registryClient, String heiId) {
+      Optional<E> apiElementOptional = EwpApiUtils.getApiElement(registryClient, heiId,
+          api.getLocalName(), majorVersion, specificationElementClassType);
+      if (apiElementOptional.isEmpty()) {
+        return Optional.empty();
+      }
+      C configuration = specificationElementToConfigurationTransformer.apply(
+          apiElementOptional.get());
+      configuration.setHeiId(heiId);
+      configuration.setApi(api);
+      // NOTE: the configuration is indexed and shared by concurrent requests
+      configuration.freeze();
+      return Optional.of(configuration);
     }
   }
 }
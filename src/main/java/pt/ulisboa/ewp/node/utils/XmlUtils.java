@@ -1,24 +1,44 @@
 package pt.ulisboa.ewp.node.utils;
 
+import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.Charset;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Result;
+import javax.xml.transform.stax.StAXSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import org.springframework.oxm.UnmarshallingFailureException;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import pt.ulisboa.ewp.node.exception.XmlCannotUnmarshallToTypeException;
+import pt.ulisboa.ewp.node.utils.http.converter.xml.JaxbMarshallerPool;
 import pt.ulisboa.ewp.node.utils.provider.ApplicationContextProvider;
 
 public class XmlUtils {
 
+  private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+  private static volatile JaxbMarshallerPool defaultMarshallerPool;
+
   private XmlUtils() {
   }
 
+  /**
+   * Marshalls an object using pooled marshallers of the JAXB context of the application's {@link
+   * Jaxb2Marshaller}, producing formatted output.
+   */
   public static <T> String marshall(T object) {
-    Jaxb2Marshaller jaxb2Marshaller =
-        ApplicationContextProvider.getApplicationContext().getBean(Jaxb2Marshaller.class);
-    return marshall(jaxb2Marshaller, object);
+    JaxbMarshallerPool marshallerPool = defaultMarshallerPool;
+    if (marshallerPool == null) {
+      Jaxb2Marshaller jaxb2Marshaller =
+          ApplicationContextProvider.getApplicationContext().getBean(Jaxb2Marshaller.class);
+      marshallerPool = JaxbMarshallerPool.create(jaxb2Marshaller.getJaxbContext(), null);
+      defaultMarshallerPool = marshallerPool;
+    }
+    return marshall(marshallerPool, object);
   }
 
   public static <T> String marshall(Jaxb2Marshaller jaxb2Marshaller, T object) {
@@ -28,6 +48,13 @@ public class XmlUtils {
     return stringWriter.toString();
   }
 
+  public static <T> String marshall(JaxbMarshallerPool marshallerPool, T object) {
+    StringWriter stringWriter = new StringWriter();
+    Result result = new StreamResult(stringWriter);
+    marshallerPool.marshal(object, result);
+    return stringWriter.toString();
+  }
+
   public static <T> T unmarshall(String xml, Class<T> classType)
       throws XmlCannotUnmarshallToTypeException {
     Jaxb2Marshaller jaxb2Marshaller =
@@ -47,4 +74,39 @@ public class XmlUtils {
       throw new XmlCannotUnmarshallToTypeException(xml, classType);
     }
   }
+
+  /**
+   * Unmarshalls an XML document read from a stream through a StAX reader, so the document is never
+   * materialized as a string.
+   */
+  public static <T> T unmarshall(Jaxb2Marshaller jaxb2Marshaller, InputStream inputStream,
+      Charset charset, Class<T> classType) throws XmlCannotUnmarshallToTypeException {
+    XMLStreamReader xmlStreamReader = null;
+    try {
+      xmlStreamReader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream, charset.name());
+      Object object = jaxb2Marshaller.unmarshal(new StAXSource(xmlStreamReader));
+      if (!classType.isAssignableFrom(object.getClass())) {
+        throw new XmlCannotUnmarshallToTypeException(classType);
+      }
+      return classType.cast(object);
+    } catch (XMLStreamException | UnmarshallingFailureException e) {
+      throw new XmlCannotUnmarshallToTypeException(classType);
+    } finally {
+      if (xmlStreamReader != null) {
+        try {
+          xmlStreamReader.close();
+        } catch (XMLStreamException e) {
+          // ignore
+        }
+      }
+    }
+  }
+
+  private static XMLInputFactory createXmlInputFactory() {
+    XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+    xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    return xmlInputFactory;
+  }
 }
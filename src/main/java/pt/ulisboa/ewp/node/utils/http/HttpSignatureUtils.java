@@ -69,8 +69,22 @@ public class HttpSignatureUtils {
 
   public static VerificationResult verifyDigest(
       ExtendedHttpHeaders headers, byte[] bodyBytes) {
+    VerificationResult result = verifyDigest(headers, bodyBytes.length,
+        algorithm -> MessageDigest.getInstance(algorithm).digest(bodyBytes));
+    if (result.isFailure()) {
+      LOGGER.debug("Failed digest verification: request body = '" + new String(bodyBytes) + "'");
+    }
+    return result;
+  }
+
+  /**
+   * Verifies the digest header against a body that is not necessarily available as a byte array,
+   * obtaining the body's digest for each algorithm through the given calculator.
+   */
+  public static VerificationResult verifyDigest(
+      ExtendedHttpHeaders headers, long bodyLength, BodyDigestCalculator bodyDigestCalculator) {
     if (headers.containsKey(HttpConstants.HEADER_DIGEST)) {
-      return verifyDigestValues(headers.getDigestValues(), bodyBytes);
+      return verifyDigestValues(headers.getDigestValues(), bodyLength, bodyDigestCalculator);
     } else {
       return VerificationResult.createFailure("Digest header missing");
     }
@@ -123,7 +137,7 @@ public class HttpSignatureUtils {
   }
 
   public static byte[] getByteArray(EwpApiHttpRequestWrapper request) {
-    return request.getBody().getBytes();
+    return request.getBodyBytes();
   }
 
   private static boolean isDateWithinTimeThreshold(String dateString) {
@@ -140,17 +154,19 @@ public class HttpSignatureUtils {
   }
 
   private static VerificationResult verifyDigestValues(
-      Map<String, String> digestValues, byte[] bodyBytes) {
+      Map<String, String> digestValues, long bodyLength,
+      BodyDigestCalculator bodyDigestCalculator) {
 
     if (digestValues.containsKey(SHA_256)) {
-      return verifyDigestAgainstAlgorithm(SHA_256, digestValues.get(SHA_256), bodyBytes);
+      return verifyDigestAgainstAlgorithm(SHA_256, digestValues.get(SHA_256), bodyLength,
+          bodyDigestCalculator);
     }
 
     for (Map.Entry<String, String> entry : digestValues.entrySet()) {
       String algorithm = entry.getKey();
       String requestDigestValue = entry.getValue();
       VerificationResult digestVerificationResult = verifyDigestAgainstAlgorithm(algorithm,
-          requestDigestValue, bodyBytes);
+          requestDigestValue, bodyLength, bodyDigestCalculator);
       if (digestVerificationResult.isSuccess()) {
         return digestVerificationResult;
       }
@@ -160,26 +176,29 @@ public class HttpSignatureUtils {
   }
 
   private static VerificationResult verifyDigestAgainstAlgorithm(
-      String algorithm, String digestValue, byte[] bodyBytes) {
+      String algorithm, String digestValue, long bodyLength,
+      BodyDigestCalculator bodyDigestCalculator) {
 
     byte[] digest;
     try {
-      digest = MessageDigest.getInstance(algorithm).digest(bodyBytes);
+      digest = bodyDigestCalculator.digest(algorithm);
     } catch (NoSuchAlgorithmException e) {
       LOGGER.error("No such algorithm", e);
       return VerificationResult.createFailure("No such algorithm: " + algorithm);
+    } catch (IOException e) {
+      LOGGER.error("Failed to read body", e);
+      return VerificationResult.createFailure("Failed to read body: " + e.getMessage());
     }
     String digestValueCalculated = new String(Base64.encodeBase64(digest));
 
     if (!digestValueCalculated.equals(digestValue)) {
-      LOGGER.debug("Failed digest verification: request body = '" + new String(bodyBytes)
-          + "'; provided digest = '" + digestValue + "'; calculated digest = '"
-          + digestValueCalculated);
+      LOGGER.debug("Failed digest verification: provided digest = '" + digestValue
+          + "'; calculated digest = '" + digestValueCalculated);
       return VerificationResult.createFailure(
           "Digest mismatch! calculated for algorithm "
               + algorithm
               + " (body length: "
-              + bodyBytes.length
+              + bodyLength
               + "): "
               + digestValueCalculated
               + ", provided: "
@@ -245,4 +264,13 @@ public class HttpSignatureUtils {
     }
   }
 
+
+  /**
+   * Calculates the digest of a body for a given algorithm.
+   */
+  @FunctionalInterface
+  public interface BodyDigestCalculator {
+
+    byte[] digest(String algorithm) throws NoSuchAlgorithmException, IOException;
+  }
 }
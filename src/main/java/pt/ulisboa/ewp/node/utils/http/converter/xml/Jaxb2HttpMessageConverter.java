@@ -1,10 +1,11 @@
 package pt.ulisboa.ewp.node.utils.http.converter.xml;
 
 import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
-import javax.xml.bind.Marshaller;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.transform.Result;
 import org.springframework.core.annotation.AnnotationUtils;
@@ -12,7 +13,6 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.xml.Jaxb2RootElementHttpMessageConverter;
 import org.springframework.oxm.XmlMappingException;
-import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.util.ClassUtils;
 
 public class Jaxb2HttpMessageConverter extends Jaxb2RootElementHttpMessageConverter {
@@ -23,6 +23,15 @@ public class Jaxb2HttpMessageConverter extends Jaxb2RootElementHttpMessageConver
 
   private NamespacePrefixMapper namespacePrefixMapper;
 
+  private boolean formattedOutput = true;
+
+  private final Map<Class<?>, JaxbMarshallerPool> marshallerPoolsByClass =
+      new ConcurrentHashMap<>();
+
+  private volatile JaxbMarshallerPool allPackagesMarshallerPool;
+
+  private final Set<Class<?>> classesRequiringAllPackages = ConcurrentHashMap.newKeySet();
+
   public void setPackagesToScan(String... packagesToScan) {
     this.packagesToScan = packagesToScan;
   }
@@ -36,6 +45,10 @@ public class Jaxb2HttpMessageConverter extends Jaxb2RootElementHttpMessageConver
     this.namespacePrefixMapper = namespacePrefixMapper;
   }
 
+  public void setFormattedOutput(boolean formattedOutput) {
+    this.formattedOutput = formattedOutput;
+  }
+
   @Override
   public boolean canWrite(Class<?> clazz, MediaType mediaType) {
     return (AnnotationUtils.findAnnotation(clazz, XmlRootElement.class) != null) || (
@@ -44,39 +57,43 @@ public class Jaxb2HttpMessageConverter extends Jaxb2RootElementHttpMessageConver
 
   @Override
   protected void writeToResult(Object object, HttpHeaders headers, Result result) throws Exception {
-    try {
-      // NOTE: try marshall object without other classes scanned by marshaller
-      // If successful, it ensures that the main namespace uses an empty namespace prefix.
-      Class<?> clazz = ClassUtils.getUserClass(object);
-      Jaxb2Marshaller marshaller = createJaxb2Marshaller(clazz);
-      marshaller.marshal(object, result);
-
-    } catch (XmlMappingException e) {
-      // NOTE: If the marshalling failed, then marshall using all known packages as context.
-      Jaxb2Marshaller marshaller = createJaxb2Marshaller(null);
-      marshaller.marshal(object, result);
+    Class<?> clazz = ClassUtils.getUserClass(object);
+    if (!this.classesRequiringAllPackages.contains(clazz)) {
+      try {
+        // NOTE: try marshall object without other classes scanned by marshaller
+        // If successful, it ensures that the main namespace uses an empty namespace prefix.
+        getMarshallerPool(clazz).marshal(object, result);
+        return;
+
+      } catch (XmlMappingException e) {
+        // NOTE: remember the class so next objects go straight to the context of all packages.
+        this.classesRequiringAllPackages.add(clazz);
+      }
     }
-  }
 
-  protected final Jaxb2Marshaller createJaxb2Marshaller(Class<?> clazz) {
-    Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
-
-    if (clazz != null) {
-      marshaller.setClassesToBeBound(clazz);
-    } else if (this.packagesToScan != null) {
-      marshaller.setPackagesToScan(packagesToScan);
-    }
-
-    marshaller.setSupportJaxbElementClass(this.supportJaxbElementClass);
+    // NOTE: If the marshalling failed, then marshall using all known packages as context.
+    getMarshallerPool(null).marshal(object, result);
+  }
 
-    Map<String, Object> jaxbProperties = new HashMap<>();
-    jaxbProperties.put(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-    if (this.namespacePrefixMapper != null) {
-      jaxbProperties.put("com.sun.xml.bind.namespacePrefixMapper", this.namespacePrefixMapper);
+  /**
+   * Returns the pool of marshallers bound to a given class, or to all the packages to scan if the
+   * class is null. Both the JAXB contexts and the pools are created once and then reused.
+   */
+  protected final JaxbMarshallerPool getMarshallerPool(Class<?> clazz) {
+    if (clazz == null) {
+      JaxbMarshallerPool pool = this.allPackagesMarshallerPool;
+      if (pool == null) {
+        pool = createMarshallerPool(JaxbContextCache.getForPackages(this.packagesToScan));
+        this.allPackagesMarshallerPool = pool;
+      }
+      return pool;
     }
+    return this.marshallerPoolsByClass.computeIfAbsent(clazz,
+        key -> createMarshallerPool(JaxbContextCache.getForClass(key)));
+  }
 
-    marshaller.setMarshallerProperties(jaxbProperties);
-
-    return marshaller;
+  private JaxbMarshallerPool createMarshallerPool(JAXBContext jaxbContext) {
+    return JaxbMarshallerPool.create(jaxbContext, this.namespacePrefixMapper,
+        this.formattedOutput);
   }
 }
@@ -0,0 +1,50 @@
+package pt.ulisboa.ewp.node.utils.http.converter.xml;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.bind.JAXBContext;
+import org.springframework.oxm.XmlMappingException;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+
+/**
+ * Process-wide cache of initialized JAXB contexts. Creating a JAXB context is by far the most
+ * expensive step of (un)marshalling, particularly when scanning whole packages, while a context is
+ * thread-safe and may be shared once created.
+ */
+public final class JaxbContextCache {
+
+  private static final Map<Class<?>, JAXBContext> CONTEXTS_BY_CLASS = new ConcurrentHashMap<>();
+  private static final Map<List<String>, JAXBContext> CONTEXTS_BY_PACKAGES =
+      new ConcurrentHashMap<>();
+
+  private JaxbContextCache() {
+  }
+
+  /**
+   * Returns the JAXB context bound to a given class (and the classes statically reachable from it).
+   *
+   * @throws XmlMappingException If the context could not be created.
+   */
+  public static JAXBContext getForClass(Class<?> clazz) {
+    return CONTEXTS_BY_CLASS.computeIfAbsent(clazz, key -> {
+      Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
+      marshaller.setClassesToBeBound(key);
+      return marshaller.getJaxbContext();
+    });
+  }
+
+  /**
+   * Returns the JAXB context bound to all the classes found on the given packages.
+   *
+   * @throws XmlMappingException If the context could not be created.
+   */
+  public static JAXBContext getForPackages(String... packagesToScan) {
+    return CONTEXTS_BY_PACKAGES.computeIfAbsent(Arrays.asList(packagesToScan), key -> {
+      Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
+      marshaller.setPackagesToScan(packagesToScan);
+      return marshaller.getJaxbContext();
+    });
+  }
+}
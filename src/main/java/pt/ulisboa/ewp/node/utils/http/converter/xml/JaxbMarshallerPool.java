@@ -0,0 +1,110 @@
+package pt.ulisboa.ewp.node.utils.http.converter.xml;
+
+import com.sun.xml.bind.marshaller.NamespacePrefixMapper;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.transform.Result;
+import org.springframework.oxm.MarshallingFailureException;
+import org.springframework.oxm.UncategorizedMappingException;
+import org.springframework.oxm.XmlMappingException;
+
+/**
+ * Pool of configured marshallers of a JAXB context. Marshallers are not thread-safe, so each one
+ * is borrowed by a single thread at a time and returned to the pool once it is done, instead of
+ * being created and configured again for every object marshalled.
+ *
+ * <p>At most {@link #MAX_IDLE_MARSHALLERS} idle marshallers are kept; the ones in excess are
+ * discarded when returned. A marshaller that fails is discarded as well.
+ */
+public class JaxbMarshallerPool {
+
+  static final int MAX_IDLE_MARSHALLERS = 32;
+
+  private final JAXBContext jaxbContext;
+  private final Map<String, Object> marshallerProperties;
+
+  private final Queue<Marshaller> idleMarshallers = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger numberOfIdleMarshallers = new AtomicInteger();
+
+  public JaxbMarshallerPool(JAXBContext jaxbContext, Map<String, Object> marshallerProperties) {
+    this.jaxbContext = jaxbContext;
+    this.marshallerProperties = Collections.unmodifiableMap(new HashMap<>(marshallerProperties));
+  }
+
+  /**
+   * Creates a pool of marshallers that produce formatted output, optionally using a given namespace
+   * prefix mapper.
+   *
+   * @param namespacePrefixMapper Namespace prefix mapper to use, or null to use JAXB's default
+   *                              prefixes.
+   */
+  public static JaxbMarshallerPool create(JAXBContext jaxbContext,
+      NamespacePrefixMapper namespacePrefixMapper) {
+    return create(jaxbContext, namespacePrefixMapper, true);
+  }
+
+  /**
+   * Creates a pool of marshallers, optionally using a given namespace prefix mapper.
+   *
+   * @param namespacePrefixMapper Namespace prefix mapper to use, or null to use JAXB's default
+   *                              prefixes.
+   * @param formattedOutput       Whether the marshalled XML is indented.
+   */
+  public static JaxbMarshallerPool create(JAXBContext jaxbContext,
+      NamespacePrefixMapper namespacePrefixMapper, boolean formattedOutput) {
+    Map<String, Object> marshallerProperties = new HashMap<>();
+    marshallerProperties.put(Marshaller.JAXB_FORMATTED_OUTPUT, formattedOutput);
+    if (namespacePrefixMapper != null) {
+      marshallerProperties.put("com.sun.xml.bind.namespacePrefixMapper", namespacePrefixMapper);
+    }
+    return new JaxbMarshallerPool(jaxbContext, marshallerProperties);
+  }
+
+  public void marshal(Object object, Result result) throws XmlMappingException {
+    Marshaller marshaller = borrowMarshaller();
+    try {
+      marshaller.marshal(object, result);
+    } catch (JAXBException e) {
+      throw new MarshallingFailureException("JAXB marshalling exception", e);
+    }
+    returnMarshaller(marshaller);
+  }
+
+  int getNumberOfIdleMarshallers() {
+    return numberOfIdleMarshallers.get();
+  }
+
+  private Marshaller borrowMarshaller() {
+    Marshaller marshaller = idleMarshallers.poll();
+    if (marshaller != null) {
+      numberOfIdleMarshallers.decrementAndGet();
+      return marshaller;
+    }
+
+    try {
+      marshaller = jaxbContext.createMarshaller();
+      for (Map.Entry<String, Object> entry : marshallerProperties.entrySet()) {
+        marshaller.setProperty(entry.getKey(), entry.getValue());
+      }
+      return marshaller;
+
+    } catch (JAXBException e) {
+      throw new UncategorizedMappingException("Failed to create JAXB marshaller", e);
+    }
+  }
+
+  private void returnMarshaller(Marshaller marshaller) {
+    if (numberOfIdleMarshallers.incrementAndGet() <= MAX_IDLE_MARSHALLERS) {
+      idleMarshallers.offer(marshaller);
+    } else {
+      numberOfIdleMarshallers.decrementAndGet();
+    }
+  }
+}
@@ -8,6 +8,8 @@ import java.security.cert.CertificateEncodingException;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import org.apache.commons.codec.digest.DigestUtils;
 
 public class DecodedKeystore {
 
@@ -15,6 +17,7 @@ public class DecodedKeystore {
   private final String keyStorePassword;
 
   private Map<String, DecodedCertificateAndKey> decodedCertificateAndKeys;
+  private String fingerprint;
 
   public DecodedKeystore(KeyStore keyStore, String keyStorePassword)
       throws KeyStoreException, CertificateEncodingException, UnrecoverableKeyException,
@@ -54,4 +57,24 @@ public class DecodedKeystore {
   public DecodedCertificateAndKey getDecodedCertificateAndKey(String alias) {
     return this.decodedCertificateAndKeys.get(alias);
   }
+
+  /**
+   * Returns a SHA-256 fingerprint of all certificates and private keys of the keystore. Two
+   * keystores with the same fingerprint are interchangeable for TLS and signing purposes.
+   */
+  public String getFingerprint() throws CertificateEncodingException {
+    if (this.fingerprint == null) {
+      StringBuilder material = new StringBuilder();
+      for (Map.Entry<String, DecodedCertificateAndKey> entry :
+          new TreeMap<>(decodedCertificateAndKeys).entrySet()) {
+        material.append(entry.getKey()).append(':')
+            .append(DigestUtils.sha256Hex(entry.getValue().getCertificate().getEncoded()))
+            .append(':')
+            .append(DigestUtils.sha256Hex(entry.getValue().getPrivateKey().getEncoded()))
+            .append(';');
+      }
+      this.fingerprint = DigestUtils.sha256Hex(material.toString());
+    }
+    return this.fingerprint;
+  }
 }
@@ -46,6 +46,7 @@ import org.tomitribe.auth.signatures.Signer;
 import pt.ulisboa.ewp.node.api.AbstractResourceIntegrationTest;
 import pt.ulisboa.ewp.node.api.ewp.filter.EwpApiRequestFilter;
 import pt.ulisboa.ewp.node.client.ewp.registry.RegistryClient;
+import pt.ulisboa.ewp.node.service.ewp.mapping.cache.EwpCachedMappingService;
 import pt.ulisboa.ewp.node.service.ewp.security.HttpSignatureService;
 import pt.ulisboa.ewp.node.service.http.log.ewp.EwpHttpCommunicationLogService;
 import pt.ulisboa.ewp.node.utils.XmlUtils;
@@ -65,6 +66,9 @@ public abstract class AbstractEwpControllerIntegrationTest extends AbstractResou
   @Autowired
   private EwpHttpCommunicationLogService ewpHttpCommunicationLogService;
 
+  @Autowired
+  private Collection<EwpCachedMappingService> cachedMappingServices;
+
   protected MockMvc mockMvc;
 
   @BeforeEach
@@ -74,6 +78,7 @@ public abstract class AbstractEwpControllerIntegrationTest extends AbstractResou
             .addFilters(new EwpApiRequestFilter(ewpHttpCommunicationLogService))
             .apply(springSecurity())
             .build();
+    cachedMappingServices.forEach(EwpCachedMappingService::clearCache);
   }
 
   protected void assertBadRequest(
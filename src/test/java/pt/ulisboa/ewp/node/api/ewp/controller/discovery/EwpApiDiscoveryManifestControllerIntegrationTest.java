@@ -1,11 +1,14 @@
 package pt.ulisboa.ewp.node.api.ewp.controller.discovery;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.xpath;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
@@ -90,4 +93,32 @@ public class EwpApiDiscoveryManifestControllerIntegrationTest extends
         "/*[local-name()='manifest']/*[local-name()='host']/*[local-name()='apis-implemented']/*[local-name()='echo']",
         "xsd/ewp/echo/manifest-entry.xsd");
   }
+
+  @Test
+  public void testManifest_SameETagRequested_NotModifiedReturned() throws Exception {
+    MvcResult firstMvcResult =
+        this.mockMvc
+            .perform(
+                get(EwpApiConstants.API_BASE_URI + "manifest").accept(MediaType.APPLICATION_XML))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn();
+    String eTag = firstMvcResult.getResponse().getHeader(HttpHeaders.ETAG);
+
+    this.mockMvc
+        .perform(
+            get(EwpApiConstants.API_BASE_URI + "manifest")
+                .accept(MediaType.APPLICATION_XML)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().bytes(new byte[0]));
+
+    this.mockMvc
+        .perform(
+            get(EwpApiConstants.API_BASE_URI + "manifest").accept(MediaType.APPLICATION_XML))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag))
+        .andExpect(
+            content().bytes(firstMvcResult.getResponse().getContentAsByteArray()));
+  }
 }
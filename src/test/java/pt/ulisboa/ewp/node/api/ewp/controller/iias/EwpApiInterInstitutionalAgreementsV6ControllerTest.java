@@ -1,6 +1,8 @@
 package pt.ulisboa.ewp.node.api.ewp.controller.iias;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -15,8 +17,9 @@ import eu.erasmuswithoutpaper.api.types.contact.v1.ContactV1;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.UUID;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
@@ -151,12 +154,14 @@ class EwpApiInterInstitutionalAgreementsV6ControllerTest extends
     mockProvider2.registerIia(heiId, iiaIds.get(1), UUID.randomUUID().toString(), iias.get(1));
     mockProvider2.registerIia(heiId, iiaIds.get(2), UUID.randomUUID().toString(), iias.get(2));
 
+    Map<String, EwpInterInstitutionalAgreementMapping> mappings = new HashMap<>();
     for (int index = 0; index < iiaIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(iiaIds.get(index),
           EwpInterInstitutionalAgreementMapping.create(heiId, ounitIds.get(index),
-              iiaIds.get(index), UUID.randomUUID().toString()))).when(mappingRepository)
-          .findByHeiIdAndIiaId(heiId, iiaIds.get(index));
+              iiaIds.get(index), UUID.randomUUID().toString()));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndIiaIds(eq(heiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(heiId, InterInstitutionalAgreementsV6HostProvider.class);
@@ -220,12 +225,14 @@ class EwpApiInterInstitutionalAgreementsV6ControllerTest extends
 
     mockProvider2.registerIia(heiId, iiaIds.get(1), UUID.randomUUID().toString(), iia2);
 
+    Map<String, EwpInterInstitutionalAgreementMapping> mappings = new HashMap<>();
     for (int index = 0; index < knownIiaIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(knownIiaIds.get(index),
           EwpInterInstitutionalAgreementMapping.create(heiId, ounitIds.get(index),
-              knownIiaIds.get(index), UUID.randomUUID().toString()))).when(mappingRepository)
-          .findByHeiIdAndIiaId(heiId, knownIiaIds.get(index));
+              knownIiaIds.get(index), UUID.randomUUID().toString()));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndIiaIds(eq(heiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(heiId, InterInstitutionalAgreementsV6HostProvider.class);
@@ -288,12 +295,14 @@ class EwpApiInterInstitutionalAgreementsV6ControllerTest extends
     mockProvider2.registerIia(heiId, UUID.randomUUID().toString(), iiaCodes.get(1), iia2);
     mockProvider2.registerIia(heiId, UUID.randomUUID().toString(), iiaCodes.get(2), iia3);
 
+    Map<String, EwpInterInstitutionalAgreementMapping> mappings = new HashMap<>();
     for (int index = 0; index < iiaCodes.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(iiaCodes.get(index),
           EwpInterInstitutionalAgreementMapping.create(heiId, ounitIds.get(index),
-              UUID.randomUUID().toString(), iiaCodes.get(index)))).when(mappingRepository)
-          .findByHeiIdAndIiaCode(heiId, iiaCodes.get(index));
+              UUID.randomUUID().toString(), iiaCodes.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndIiaCodes(eq(heiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(heiId, InterInstitutionalAgreementsV6HostProvider.class);
@@ -357,12 +366,14 @@ class EwpApiInterInstitutionalAgreementsV6ControllerTest extends
 
     mockProvider2.registerIia(heiId, UUID.randomUUID().toString(), iiaCodes.get(1), iia2);
 
+    Map<String, EwpInterInstitutionalAgreementMapping> mappings = new HashMap<>();
     for (int index = 0; index < knownIiaCodes.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(knownIiaCodes.get(index),
           EwpInterInstitutionalAgreementMapping.create(heiId, ounitIds.get(index),
-              UUID.randomUUID().toString(), knownIiaCodes.get(index)))).when(mappingRepository)
-          .findByHeiIdAndIiaCode(heiId, knownIiaCodes.get(index));
+              UUID.randomUUID().toString(), knownIiaCodes.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndIiaCodes(eq(heiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(heiId, InterInstitutionalAgreementsV6HostProvider.class);
@@ -1,6 +1,8 @@
 package pt.ulisboa.ewp.node.api.ewp.controller.iias.approvals;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -69,13 +71,15 @@ class EwpApiInterInstitutionalAgreementsApprovalV1ControllerTest extends
         3);
     mockProvider2.registerApprovals(approvingHeiId, approvals.get(1), approvals.get(2));
 
+    Map<String, EwpInterInstitutionalAgreementMapping> mappings = new HashMap<>();
     for (int index = 0; index < iiaIds.size(); index++) {
       EwpInterInstitutionalAgreementMapping mapping = EwpInterInstitutionalAgreementMapping.create(
           approvingHeiId, ounitIds.get(index),
           iiaIds.get(index), UUID.randomUUID().toString());
-      doReturn(Optional.of(mapping)).when(mappingRepository)
-          .findByHeiIdAndIiaId(approvingHeiId, iiaIds.get(index));
+      mappings.put(iiaIds.get(index), mapping);
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndIiaIds(eq(approvingHeiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(approvingHeiId, InterInstitutionalAgreementsApprovalV1HostProvider.class);
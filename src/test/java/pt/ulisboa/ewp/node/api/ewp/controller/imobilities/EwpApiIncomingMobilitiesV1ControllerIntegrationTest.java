@@ -1,6 +1,8 @@
 package pt.ulisboa.ewp.node.api.ewp.controller.imobilities;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -8,8 +10,9 @@ import eu.erasmuswithoutpaper.api.imobilities.v1.endpoints.ImobilitiesGetRespons
 import eu.erasmuswithoutpaper.api.imobilities.v1.endpoints.StudentMobilityForStudiesV1;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
@@ -66,12 +69,14 @@ class EwpApiIncomingMobilitiesV1ControllerIntegrationTest extends
     mockProvider2.registerIncomingMobility(receivingHeiId, omobilityIds.get(1), mobilities.get(1));
     mockProvider2.registerIncomingMobility(receivingHeiId, omobilityIds.get(2), mobilities.get(2));
 
+    Map<String, EwpOutgoingMobilityMapping> mappings = new HashMap<>();
     for (int index = 0; index < omobilityIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(omobilityIds.get(index),
           EwpOutgoingMobilityMapping.create(receivingHeiId, ounitIds.get(index),
-              omobilityIds.get(index)))).when(mappingRepository)
-          .findByHeiIdAndOmobilityId(receivingHeiId, omobilityIds.get(index));
+              omobilityIds.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndOmobilityIds(eq(receivingHeiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(receivingHeiId, IncomingMobilitiesV1HostProvider.class);
@@ -140,12 +145,14 @@ class EwpApiIncomingMobilitiesV1ControllerIntegrationTest extends
 
     mockProvider2.registerIncomingMobility(receivingHeiId, omobilityIds.get(1), mobilities.get(1));
 
+    Map<String, EwpOutgoingMobilityMapping> mappings = new HashMap<>();
     for (int index = 0; index < omobilityIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(omobilityIds.get(index),
           EwpOutgoingMobilityMapping.create(receivingHeiId, ounitIds.get(index),
-              omobilityIds.get(index)))).when(mappingRepository)
-          .findByHeiIdAndOmobilityId(receivingHeiId, omobilityIds.get(index));
+              omobilityIds.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndOmobilityIds(eq(receivingHeiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(receivingHeiId, IncomingMobilitiesV1HostProvider.class);
@@ -1,6 +1,8 @@
 package pt.ulisboa.ewp.node.api.ewp.controller.imobilities.tors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -11,7 +13,9 @@ import eu.erasmuswithoutpaper.api.imobilities.tors.v1.endpoints.ImobilityTorsGet
 import eu.erasmuswithoutpaper.api.imobilities.tors.v1.endpoints.ImobilityTorsIndexResponseV1;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -140,12 +144,14 @@ class EwpApiIncomingMobilityToRsV1ControllerIntegrationTest extends
     mockProvider2.registerTranscriptOfRecords(receivingHeiId, omobilityIds.get(2),
         tors.get(2));
 
+    Map<String, EwpOutgoingMobilityMapping> mappings = new HashMap<>();
     for (int index = 0; index < omobilityIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(omobilityIds.get(index),
           EwpOutgoingMobilityMapping.create(receivingHeiId, ounitIds.get(index),
-              omobilityIds.get(index)))).when(mappingRepository)
-          .findByHeiIdAndOmobilityId(receivingHeiId, omobilityIds.get(index));
+              omobilityIds.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndOmobilityIds(eq(receivingHeiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(receivingHeiId, IncomingMobilityToRsV1HostProvider.class);
@@ -221,12 +227,14 @@ class EwpApiIncomingMobilityToRsV1ControllerIntegrationTest extends
     mockProvider2.registerTranscriptOfRecords(receivingHeiId, omobilityIds.get(1),
         tors.get(1));
 
+    Map<String, EwpOutgoingMobilityMapping> mappings = new HashMap<>();
     for (int index = 0; index < knownOmobilityIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(knownOmobilityIds.get(index),
           EwpOutgoingMobilityMapping.create(receivingHeiId, ounitIds.get(index),
-              knownOmobilityIds.get(index)))).when(mappingRepository)
-          .findByHeiIdAndOmobilityId(receivingHeiId, knownOmobilityIds.get(index));
+              knownOmobilityIds.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndOmobilityIds(eq(receivingHeiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(receivingHeiId, IncomingMobilityToRsV1HostProvider.class);
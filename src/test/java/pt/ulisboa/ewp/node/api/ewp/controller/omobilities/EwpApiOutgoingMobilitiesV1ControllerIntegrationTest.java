@@ -1,6 +1,8 @@
 package pt.ulisboa.ewp.node.api.ewp.controller.omobilities;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -10,7 +12,9 @@ import eu.erasmuswithoutpaper.api.omobilities.v1.endpoints.StudentMobilityForStu
 import eu.erasmuswithoutpaper.api.omobilities.v1.endpoints.StudentMobilityForStudiesV1.SendingHei;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -135,12 +139,14 @@ class EwpApiOutgoingMobilitiesV1ControllerIntegrationTest extends
     mockProvider2.registerOutgoingMobility(sendingHeiId, omobilityIds.get(1), mobilities.get(1));
     mockProvider2.registerOutgoingMobility(sendingHeiId, omobilityIds.get(2), mobilities.get(2));
 
+    Map<String, EwpOutgoingMobilityMapping> mappings = new HashMap<>();
     for (int index = 0; index < omobilityIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(omobilityIds.get(index),
           EwpOutgoingMobilityMapping.create(sendingHeiId, ounitIds.get(index),
-              omobilityIds.get(index)))).when(mappingRepository)
-          .findByHeiIdAndOmobilityId(sendingHeiId, omobilityIds.get(index));
+              omobilityIds.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndOmobilityIds(eq(sendingHeiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(sendingHeiId, OutgoingMobilitiesV1HostProvider.class);
@@ -213,12 +219,14 @@ class EwpApiOutgoingMobilitiesV1ControllerIntegrationTest extends
 
     mockProvider2.registerOutgoingMobility(sendingHeiId, omobilityIds.get(1), mobilities.get(1));
 
+    Map<String, EwpOutgoingMobilityMapping> mappings = new HashMap<>();
     for (int index = 0; index < omobilityIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(omobilityIds.get(index),
           EwpOutgoingMobilityMapping.create(sendingHeiId, ounitIds.get(index),
-              omobilityIds.get(index)))).when(mappingRepository)
-          .findByHeiIdAndOmobilityId(sendingHeiId, omobilityIds.get(index));
+              omobilityIds.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndOmobilityIds(eq(sendingHeiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(sendingHeiId, OutgoingMobilitiesV1HostProvider.class);
@@ -1,6 +1,8 @@
 package pt.ulisboa.ewp.node.api.ewp.controller.omobilities.las;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -14,7 +16,9 @@ import eu.erasmuswithoutpaper.api.omobilities.las.v1.endpoints.OmobilityLasUpdat
 import eu.erasmuswithoutpaper.api.omobilities.las.v1.endpoints.OmobilityLasUpdateResponseV1;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -144,12 +148,14 @@ class EwpApiOutgoingMobilityLearningAgreementsV1ControllerIntegrationTest extend
     mockProvider2.registerLearningAgreement(sendingHeiId, omobilityIds.get(2),
         learningAgreements.get(2));
 
+    Map<String, EwpOutgoingMobilityMapping> mappings = new HashMap<>();
     for (int index = 0; index < omobilityIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(omobilityIds.get(index),
           EwpOutgoingMobilityMapping.create(sendingHeiId, ounitIds.get(index),
-              omobilityIds.get(index)))).when(mappingRepository)
-          .findByHeiIdAndOmobilityId(sendingHeiId, omobilityIds.get(index));
+              omobilityIds.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndOmobilityIds(eq(sendingHeiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(sendingHeiId, OutgoingMobilityLearningAgreementsV1HostProvider.class);
@@ -225,12 +231,14 @@ class EwpApiOutgoingMobilityLearningAgreementsV1ControllerIntegrationTest extend
     mockProvider2.registerLearningAgreement(sendingHeiId, omobilityIds.get(1),
         learningAgreements.get(1));
 
+    Map<String, EwpOutgoingMobilityMapping> mappings = new HashMap<>();
     for (int index = 0; index < knownOmobilityIds.size(); index++) {
-      doReturn(Optional.of(
+      mappings.put(knownOmobilityIds.get(index),
           EwpOutgoingMobilityMapping.create(sendingHeiId, ounitIds.get(index),
-              knownOmobilityIds.get(index)))).when(mappingRepository)
-          .findByHeiIdAndOmobilityId(sendingHeiId, knownOmobilityIds.get(index));
+              knownOmobilityIds.get(index)));
     }
+    doReturn(mappings).when(mappingRepository)
+        .findByHeiIdAndOmobilityIds(eq(sendingHeiId), anyCollection());
 
     doReturn(true).when(hostPluginManager)
         .hasHostProvider(sendingHeiId, OutgoingMobilityLearningAgreementsV1HostProvider.class);
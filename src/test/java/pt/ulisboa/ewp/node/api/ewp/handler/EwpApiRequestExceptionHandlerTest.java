@@ -0,0 +1,29 @@
+package pt.ulisboa.ewp.node.api.ewp.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.test.util.ReflectionTestUtils;
+import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiConstants;
+import pt.ulisboa.ewp.node.exception.HostProviderTimeoutException;
+
+class EwpApiRequestExceptionHandlerTest {
+
+  @Test
+  void testResolveException_HostProviderTimeout_GatewayTimeoutReturned() {
+    EwpApiRequestExceptionHandler exceptionHandler = new EwpApiRequestExceptionHandler();
+    ReflectionTestUtils.setField(exceptionHandler, "jaxb2Marshaller", new Jaxb2Marshaller());
+    MockHttpServletRequest request = new MockHttpServletRequest("GET",
+        EwpApiConstants.API_BASE_URI + "iias/get");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    exceptionHandler.resolveException(request, response, null,
+        new HostProviderTimeoutException(new Object(), 1000));
+
+    assertThat(response.getStatus()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT.value());
+  }
+}
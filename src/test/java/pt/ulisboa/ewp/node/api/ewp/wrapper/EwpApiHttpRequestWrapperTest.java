@@ -0,0 +1,84 @@
+package pt.ulisboa.ewp.node.api.ewp.wrapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import javax.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.StreamUtils;
+
+class EwpApiHttpRequestWrapperTest {
+
+  @Test
+  void testGetInputStream_PostRequestReadTwiceInBulk_SameBytesReturned() throws Exception {
+    byte[] body = "hei_id=ação&iia_id=1".getBytes(StandardCharsets.UTF_8);
+    MockHttpServletRequest mockRequest = new MockHttpServletRequest("POST", "/api/iias/get");
+    mockRequest.setContent(body);
+
+    EwpApiHttpRequestWrapper request = new EwpApiHttpRequestWrapper(mockRequest);
+
+    ServletInputStream inputStream = request.getInputStream();
+    assertThat(inputStream.isReady()).isTrue();
+    assertThat(StreamUtils.copyToByteArray(inputStream)).isEqualTo(body);
+    assertThat(inputStream.isFinished()).isTrue();
+    assertThat(inputStream.read(new byte[4], 0, 4)).isEqualTo(-1);
+    assertThat(request.getBodyBytes()).isEqualTo(body);
+    assertThat(request.getContentAsByteArray()).isEqualTo(body);
+  }
+
+  @Test
+  void testGetBody_PostRequestWithCharacterEncoding_BodyDecodedWithCharacterEncoding()
+      throws Exception {
+    byte[] body = "hei_id=ação".getBytes(StandardCharsets.ISO_8859_1);
+    MockHttpServletRequest mockRequest = new MockHttpServletRequest("POST", "/api/iias/get");
+    mockRequest.setCharacterEncoding(StandardCharsets.ISO_8859_1.name());
+    mockRequest.setContent(body);
+
+    EwpApiHttpRequestWrapper request = new EwpApiHttpRequestWrapper(mockRequest);
+
+    assertThat(request.getBody()).isEqualTo("hei_id=ação");
+    assertThat(request.getBodyBytes()).isEqualTo(body);
+  }
+
+  @Test
+  void testGetBodyBytes_BodyLargerThanPreallocatedSize_WholeBodyReturned() throws Exception {
+    byte[] body = new byte[EwpApiHttpRequestWrapper.MAX_PREALLOCATED_BODY_SIZE * 3 + 1];
+    Arrays.fill(body, (byte) 'a');
+    MockHttpServletRequest mockRequest = new MockHttpServletRequest("POST", "/api/iias/get");
+    mockRequest.setContent(body);
+
+    EwpApiHttpRequestWrapper request = new EwpApiHttpRequestWrapper(mockRequest);
+
+    assertThat(request.getBodyBytes()).isEqualTo(body);
+  }
+
+  @Test
+  void testGetBodyBytes_ContentLengthLargerThanBody_BodyReturned() throws Exception {
+    byte[] body = "hei_id=a.edu".getBytes(StandardCharsets.UTF_8);
+    MockHttpServletRequest mockRequest = new MockHttpServletRequest("POST", "/api/iias/get") {
+      @Override
+      public int getContentLength() {
+        return Integer.MAX_VALUE;
+      }
+    };
+    mockRequest.setContent(body);
+
+    EwpApiHttpRequestWrapper request = new EwpApiHttpRequestWrapper(mockRequest);
+
+    assertThat(request.getBodyBytes()).isEqualTo(body);
+  }
+
+  @Test
+  void testGetBody_GetRequest_EmptyBodyReturned() throws Exception {
+    MockHttpServletRequest mockRequest = new MockHttpServletRequest("GET", "/api/iias/get");
+    mockRequest.setContent("ignored".getBytes(StandardCharsets.UTF_8));
+
+    EwpApiHttpRequestWrapper request = new EwpApiHttpRequestWrapper(mockRequest);
+
+    assertThat(request.getBody()).isEmpty();
+    assertThat(request.getInputStream().isFinished()).isTrue();
+    assertThat(request.getInputStream().read()).isEqualTo(-1);
+  }
+}
@@ -0,0 +1,56 @@
+package pt.ulisboa.ewp.node.api.ewp.wrapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class EwpApiHttpResponseWrapperTest {
+
+  @Test
+  void testGetContentDigest_BodyWrittenInParts_DigestOfWholeBodyReturned() throws Exception {
+    EwpApiHttpResponseWrapper response = new EwpApiHttpResponseWrapper(
+        new MockHttpServletResponse());
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+    response.getOutputStream().write("<response>".getBytes(StandardCharsets.UTF_8));
+    response.getWriter().write("ação");
+    response.getOutputStream().write('<');
+    response.getWriter().write("/response>");
+
+    byte[] body = "<response>ação</response>".getBytes(StandardCharsets.UTF_8);
+    assertThat(response.getContentAsByteArray()).isEqualTo(body);
+    assertThat(response.getContentDigest())
+        .isEqualTo(MessageDigest.getInstance("SHA-256").digest(body));
+  }
+
+  @Test
+  void testGetContentDigest_BufferReset_DigestOfNewBodyReturned() throws Exception {
+    EwpApiHttpResponseWrapper response = new EwpApiHttpResponseWrapper(
+        new MockHttpServletResponse());
+
+    response.getOutputStream().write("partial".getBytes(StandardCharsets.UTF_8));
+    response.resetBuffer();
+    response.getOutputStream().write("error".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(response.getContentDigest()).isEqualTo(
+        MessageDigest.getInstance("SHA-256").digest("error".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void testGetContentPrefix_BodyLargerThanMaxLength_PrefixReturnedAndBodyKept()
+      throws Exception {
+    MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+    EwpApiHttpResponseWrapper response = new EwpApiHttpResponseWrapper(servletResponse);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+    response.getOutputStream().write("0123456789".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(response.getContentPrefix(4)).isEqualTo("0123");
+    assertThat(response.getContentPrefix(100)).isEqualTo("0123456789");
+    response.copyBodyToResponse();
+    assertThat(servletResponse.getContentAsString()).isEqualTo("0123456789");
+  }
+}
@@ -6,6 +6,8 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
 
@@ -13,15 +15,26 @@ import eu.erasmuswithoutpaper.api.architecture.v1.ErrorResponseV1;
 import eu.erasmuswithoutpaper.api.architecture.v1.MultilineStringV1;
 import eu.erasmuswithoutpaper.api.architecture.v1.MultilineStringWithOptionalLangV1;
 import eu.erasmuswithoutpaper.api.echo.v2.ResponseV2;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.NoSuchProviderException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 import javax.xml.bind.Marshaller;
 import org.bouncycastle.operator.OperatorCreationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,16 +44,23 @@ import org.mockito.ArgumentMatchers;
 import org.mockserver.integration.ClientAndServer;
 import org.mockserver.junit.jupiter.MockServerExtension;
 import org.mockserver.model.MediaType;
+import org.mockserver.verify.VerificationTimes;
 import org.springframework.http.HttpMethod;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import pt.ulisboa.ewp.node.AbstractTest;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientCircuitOpenException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorResponseException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientInvalidResponseException;
 import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientProcessorException;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientTimeoutException;
+import pt.ulisboa.ewp.node.client.ewp.http.EwpHttpClientManager;
+import pt.ulisboa.ewp.node.client.ewp.http.EwpPartnerHostRegistry;
+import pt.ulisboa.ewp.node.client.ewp.http.EwpPartnerLatencyTracker;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
 import pt.ulisboa.ewp.node.client.ewp.operation.request.body.EwpRequestFormDataBody;
 import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
 import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
 import pt.ulisboa.ewp.node.service.ewp.security.signer.request.RequestAuthenticationSigner;
 import pt.ulisboa.ewp.node.service.ewp.security.verifier.EwpAuthenticationResult;
@@ -59,7 +79,10 @@ class EwpClientTest extends AbstractTest {
   private KeyStoreService keyStoreService;
   private RequestAuthenticationSigner requestSigner;
   private ResponseAuthenticationVerifier responseVerifier;
+  private EwpHttpCommunicationLogService ewpHttpCommunicationLogService;
 
+  private EwpClientProperties clientProperties;
+  private EwpPartnerHostRegistry partnerHostRegistry;
   private EwpClient client;
 
   @BeforeEach
@@ -70,10 +93,16 @@ class EwpClientTest extends AbstractTest {
     this.keyStoreService = mock(KeyStoreService.class);
     this.requestSigner = mock(RequestAuthenticationSigner.class);
     this.responseVerifier = mock(ResponseAuthenticationVerifier.class);
-    EwpHttpCommunicationLogService ewpHttpCommunicationLogService = mock(
-        EwpHttpCommunicationLogService.class);
-    this.client = new EwpClient(keyStoreService, requestSigner, responseVerifier,
-        ewpHttpCommunicationLogService, createJaxb2Marshaller());
+    this.ewpHttpCommunicationLogService = mock(EwpHttpCommunicationLogService.class);
+    this.clientProperties = new EwpClientProperties();
+    EwpHttpClientManager httpClientManager = new EwpHttpClientManager(keyStoreService,
+        clientProperties);
+    this.partnerHostRegistry = new EwpPartnerHostRegistry(clientProperties, httpClientManager,
+        new SimpleMeterRegistry());
+    this.client = new EwpClient(httpClientManager, partnerHostRegistry,
+        requestSigner, responseVerifier,
+        ewpHttpCommunicationLogService, createJaxb2Marshaller(),
+        new EwpClientExecutor(clientProperties), clientProperties);
   }
 
   @Test
@@ -278,6 +307,193 @@ class EwpClientTest extends AbstractTest {
         .hasMessage("Server returned an invalid response: Server exception: Internal Server Error");
   }
 
+  @Test
+  void testExecuteAsync_ValidGetRequestAndSuccessResponse_CompleteWithSuccessOptionResult()
+      throws Exception {
+
+    // Mock dependencies
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    EwpAuthenticationResult authenticationResult = EwpAuthenticationResult
+        .createValid(EwpAuthenticationMethod.HTTP_SIGNATURE);
+    doReturn(authenticationResult).when(responseVerifier)
+        .verifyAgainstMethod(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+    EwpRequest request = new EwpRequest(HttpMethod.GET,
+        "http://localhost:" + mockServer.getLocalPort() + "/test")
+        .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE);
+
+    ResponseV2 expectedResponse = new ResponseV2();
+    expectedResponse.getHeiId().add("test_heiid");
+
+    mockServer.when(request().withMethod("GET").withPath("/test"))
+        .respond(response().withStatusCode(200).withContentType(MediaType.APPLICATION_XML)
+            .withBody(XmlUtils.marshall(createJaxb2Marshaller(), expectedResponse)));
+
+    EwpSuccessOperationResult<ResponseV2> result = client
+        .executeAndLogAsync(request, ResponseV2.class).get(10, TimeUnit.SECONDS);
+    assertThat(result, notNullValue());
+    assertThat(result.getResponseBody().getHeiId(),
+        equalTo(Collections.singletonList("test_heiid")));
+  }
+
+  @Test
+  void testExecuteAsync_ValidRequestAndServerInternalError_CompleteExceptionally()
+      throws Exception {
+
+    // Mock dependencies
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    EwpAuthenticationResult authenticationResult = EwpAuthenticationResult
+        .createValid(EwpAuthenticationMethod.HTTP_SIGNATURE);
+    doReturn(authenticationResult).when(responseVerifier)
+        .verifyAgainstMethod(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+    EwpRequest request = new EwpRequest(HttpMethod.GET,
+        "http://localhost:" + mockServer.getLocalPort() + "/test")
+        .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE);
+
+    mockServer.when(request().withMethod("GET").withPath("/test"))
+        .respond(response().withStatusCode(500).withContentType(MediaType.APPLICATION_XML)
+            .withBody(""));
+
+    CompletableFuture<EwpSuccessOperationResult<ResponseV2>> future = client
+        .executeAndLogAsync(request, ResponseV2.class);
+    assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCauseInstanceOf(EwpClientInvalidResponseException.class);
+  }
+
+  @Test
+  void testExecuteInChunks_IdsExceedingMaximumPerRequest_ChunksSentAndResponsesMerged()
+      throws Exception {
+
+    // Mock dependencies
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    EwpAuthenticationResult authenticationResult = EwpAuthenticationResult
+        .createValid(EwpAuthenticationMethod.HTTP_SIGNATURE);
+    doReturn(authenticationResult).when(responseVerifier)
+        .verifyAgainstMethod(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+    long chunkResponseBodiesLength = 0;
+    for (String echo : Arrays.asList("a", "b", "c", "d", "e")) {
+      ResponseV2 chunkResponse = new ResponseV2();
+      chunkResponse.getEcho().add(echo);
+      String chunkResponseBody = XmlUtils.marshall(createJaxb2Marshaller(), chunkResponse);
+      chunkResponseBodiesLength += chunkResponseBody.getBytes(StandardCharsets.UTF_8).length;
+      mockServer.when(request().withMethod("GET").withPath("/test")
+              .withQueryStringParameter("echo", echo))
+          .respond(response().withStatusCode(200).withContentType(MediaType.APPLICATION_XML)
+              .withBody(chunkResponseBody));
+    }
+
+    EwpSuccessOperationResult<ResponseV2> result = client.executeAndLogInChunks(
+        Arrays.asList("a", "b", "c", "d", "e"), 1,
+        chunk -> new EwpRequest(HttpMethod.GET,
+            "http://localhost:" + mockServer.getLocalPort() + "/test")
+            .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE)
+            .queryParams(new HttpParams().param("echo", chunk)),
+        ResponseV2.class,
+        responseBodies -> {
+          ResponseV2 mergedResponse = new ResponseV2();
+          responseBodies.forEach(r -> mergedResponse.getEcho().addAll(r.getEcho()));
+          return mergedResponse;
+        });
+
+    assertThat(result.getResponseBody().getEcho(),
+        equalTo(Arrays.asList("a", "b", "c", "d", "e")));
+    assertThat(result.getResponseBodyLength(), equalTo(chunkResponseBodiesLength));
+    mockServer.verify(request().withMethod("GET").withPath("/test"),
+        VerificationTimes.exactly(5));
+  }
+
+  @Test
+  void testExecuteAsync_IdenticalConcurrentGetRequests_SingleRequestSentAndResultShared()
+      throws Exception {
+
+    // Mock dependencies
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    EwpAuthenticationResult authenticationResult = EwpAuthenticationResult
+        .createValid(EwpAuthenticationMethod.HTTP_SIGNATURE);
+    doReturn(authenticationResult).when(responseVerifier)
+        .verifyAgainstMethod(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+    ResponseV2 expectedResponse = new ResponseV2();
+    expectedResponse.getEcho().add("a");
+    expectedResponse.getEcho().add("b");
+
+    mockServer.when(request().withMethod("GET").withPath("/test"))
+        .respond(response().withStatusCode(200).withContentType(MediaType.APPLICATION_XML)
+            .withBody(XmlUtils.marshall(createJaxb2Marshaller(), expectedResponse))
+            .withDelay(TimeUnit.MILLISECONDS, 2000));
+
+    List<CompletableFuture<EwpSuccessOperationResult<ResponseV2>>> futures = new ArrayList<>();
+    for (List<String> echos : Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("b", "a"),
+        Arrays.asList("a", "b"))) {
+      EwpRequest request = new EwpRequest(HttpMethod.GET,
+          "http://localhost:" + mockServer.getLocalPort() + "/test")
+          .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE)
+          .queryParams(new HttpParams().param("echo", echos));
+      futures.add(client.executeAndLogAsync(request, ResponseV2.class));
+    }
+
+    for (CompletableFuture<EwpSuccessOperationResult<ResponseV2>> future : futures) {
+      assertThat(future.get(10, TimeUnit.SECONDS).getResponseBody().getEcho(),
+          equalTo(Arrays.asList("a", "b")));
+    }
+    mockServer.verify(request().withMethod("GET").withPath("/test"),
+        VerificationTimes.exactly(1));
+    verify(ewpHttpCommunicationLogService, times(1)).logCommunicationToEwpNode(
+        ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+        ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.eq(2));
+  }
+
+  @Test
+  void testExecuteAsync_IdenticalConcurrentIdempotentPostRequests_SingleRequestSentPerFormBody()
+      throws Exception {
+
+    // Mock dependencies
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    EwpAuthenticationResult authenticationResult = EwpAuthenticationResult
+        .createValid(EwpAuthenticationMethod.HTTP_SIGNATURE);
+    doReturn(authenticationResult).when(responseVerifier)
+        .verifyAgainstMethod(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+    ResponseV2 expectedResponse = new ResponseV2();
+    expectedResponse.getEcho().add("a");
+
+    mockServer.when(request().withMethod("POST").withPath("/test"))
+        .respond(response().withStatusCode(200).withContentType(MediaType.APPLICATION_XML)
+            .withBody(XmlUtils.marshall(createJaxb2Marshaller(), expectedResponse))
+            .withDelay(TimeUnit.MILLISECONDS, 2000));
+
+    List<CompletableFuture<EwpSuccessOperationResult<ResponseV2>>> futures = new ArrayList<>();
+    for (List<String> echos : Arrays.asList(Arrays.asList("a", "b"), Arrays.asList("b", "a"),
+        Arrays.asList("a", "b"), Arrays.asList("c"))) {
+      EwpRequest request = new EwpRequest(HttpMethod.POST,
+          "http://localhost:" + mockServer.getLocalPort() + "/test")
+          .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE)
+          .body(new EwpRequestFormDataBody(new HttpParams().param("echo", echos)))
+          .idempotent(true);
+      futures.add(client.executeAndLogAsync(request, ResponseV2.class));
+    }
+
+    for (CompletableFuture<EwpSuccessOperationResult<ResponseV2>> future : futures) {
+      assertThat(future.get(10, TimeUnit.SECONDS).getResponseBody().getEcho(),
+          equalTo(Collections.singletonList("a")));
+    }
+    mockServer.verify(request().withMethod("POST").withPath("/test"),
+        VerificationTimes.exactly(2));
+  }
+
   @Test
   void testExecute_ValidRequestAndServerUnknownStatusCode_ThrowException()
       throws EwpClientErrorException, UnrecoverableKeyException, CertificateException, NoSuchAlgorithmException, KeyStoreException, IOException, OperatorCreationException, NoSuchProviderException {
@@ -304,6 +520,166 @@ class EwpClientTest extends AbstractTest {
         .hasMessage("Processor error: Unknown response status code: null");
   }
 
+  @Test
+  void testExecute_PartnerSlowerThanReadTimeout_ThrowTimeoutException() throws Exception {
+    clientProperties.getPartners().setMinReadTimeoutInMilliseconds(200);
+    clientProperties.getPartners().setMaxReadTimeoutInMilliseconds(200);
+
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    EwpRequest request = new EwpRequest(HttpMethod.GET,
+        "http://localhost:" + mockServer.getLocalPort() + "/test")
+        .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE);
+
+    mockServer.when(request().withMethod("GET").withPath("/test"))
+        .respond(response().withStatusCode(200).withContentType(MediaType.APPLICATION_XML)
+            .withBody("").withDelay(TimeUnit.MILLISECONDS, 1000));
+
+    assertThatThrownBy(() -> client.executeAndLog(request, ResponseV2.class))
+        .isInstanceOf(EwpClientTimeoutException.class)
+        .hasMessage("Request to http://localhost:" + mockServer.getLocalPort()
+            + " timed out after 200 ms");
+  }
+
+  @Test
+  void testExecute_RepeatedServerErrors_CircuitOpensAndRequestsFailFast() throws Exception {
+    clientProperties.getPartners().setCircuitBreakerFailureThreshold(2);
+
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+    doReturn(EwpAuthenticationResult.createValid(EwpAuthenticationMethod.HTTP_SIGNATURE))
+        .when(responseVerifier)
+        .verifyAgainstMethod(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+    EwpRequest request = new EwpRequest(HttpMethod.GET,
+        "http://localhost:" + mockServer.getLocalPort() + "/test")
+        .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE);
+
+    mockServer.when(request().withMethod("GET").withPath("/test"))
+        .respond(response().withStatusCode(500).withContentType(MediaType.APPLICATION_XML)
+            .withBody(""));
+
+    for (int i = 0; i < 2; i++) {
+      assertThatThrownBy(() -> client.executeAndLog(request, ResponseV2.class))
+          .isInstanceOf(EwpClientInvalidResponseException.class);
+    }
+    assertThatThrownBy(() -> client.executeAndLog(request, ResponseV2.class))
+        .isInstanceOf(EwpClientCircuitOpenException.class);
+
+    mockServer.verify(request().withMethod("GET").withPath("/test"), VerificationTimes.exactly(2));
+  }
+
+  @Test
+  void testExecute_IdempotentRequestAndConnectionRefused_RequestRetried() throws Exception {
+    clientProperties.getPartners().setMaxRetries(2);
+    clientProperties.getPartners().setRetryBackoffInMilliseconds(1);
+
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    int closedPort;
+    try (ServerSocket serverSocket = new ServerSocket(0)) {
+      closedPort = serverSocket.getLocalPort();
+    }
+    EwpRequest request = new EwpRequest(HttpMethod.POST,
+        "http://localhost:" + closedPort + "/test")
+        .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE)
+        .idempotent(true);
+
+    assertThatThrownBy(() -> client.executeAndLog(request, ResponseV2.class))
+        .isInstanceOf(EwpClientProcessorException.class);
+
+    assertThat(partnerHostRegistry.getPartnerHost(request).getRetriedRequests(), equalTo(2L));
+  }
+
+  @Test
+  void testExecuteAsync_IdempotentRequestAndConnectionRefused_RequestRetried() throws Exception {
+    clientProperties.getPartners().setMaxRetries(2);
+    clientProperties.getPartners().setRetryBackoffInMilliseconds(1);
+
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    int closedPort;
+    try (ServerSocket serverSocket = new ServerSocket(0)) {
+      closedPort = serverSocket.getLocalPort();
+    }
+    EwpRequest request = new EwpRequest(HttpMethod.POST,
+        "http://localhost:" + closedPort + "/test")
+        .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE)
+        .idempotent(true);
+
+    assertThatThrownBy(() -> client.executeAndLogAsync(request, ResponseV2.class)
+        .get(10, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(EwpClientProcessorException.class);
+
+    assertThat(partnerHostRegistry.getPartnerHost(request).getRetriedRequests(), equalTo(2L));
+  }
+
+  @Test
+  void testExecute_ResponseSlowerThanReadTimeout_TimeoutRecordedAsLatency() throws Exception {
+    clientProperties.getPartners().setMinReadTimeoutInMilliseconds(200);
+    clientProperties.getPartners().setMaxReadTimeoutInMilliseconds(200);
+
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    EwpRequest request = new EwpRequest(HttpMethod.GET,
+        "http://localhost:" + mockServer.getLocalPort() + "/test")
+        .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE);
+    mockServer.when(request().withMethod("GET").withPath("/test"))
+        .respond(response().withStatusCode(200).withDelay(TimeUnit.MILLISECONDS, 2000));
+
+    assertThatThrownBy(() -> client.executeAndLog(request, ResponseV2.class))
+        .isInstanceOf(EwpClientTimeoutException.class);
+
+    EwpPartnerLatencyTracker latencyTracker =
+        partnerHostRegistry.getPartnerHost(request).getLatencyTracker();
+    assertThat(latencyTracker.getNumberOfSamples(), equalTo(1));
+    assertThat(latencyTracker.getPercentileInMilliseconds(99), equalTo(200L));
+  }
+
+  @Test
+  void testExecute_GzipEncodedSuccessResponse_ResponseDecodedAndTransferLengthRecorded()
+      throws Exception {
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+    doReturn(EwpAuthenticationResult.createValid(EwpAuthenticationMethod.HTTP_SIGNATURE))
+        .when(responseVerifier)
+        .verifyAgainstMethod(ArgumentMatchers.any(), ArgumentMatchers.any());
+
+    EwpRequest request = new EwpRequest(HttpMethod.GET,
+        "http://localhost:" + mockServer.getLocalPort() + "/test")
+        .authenticationMethod(EwpAuthenticationMethod.HTTP_SIGNATURE);
+
+    ResponseV2 expectedResponse = new ResponseV2();
+    expectedResponse.getHeiId().add("test_heiid");
+    byte[] content = XmlUtils.marshall(createJaxb2Marshaller(), expectedResponse)
+        .getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream encodedContentStream = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(encodedContentStream)) {
+      gzipOutputStream.write(content);
+    }
+
+    mockServer.when(request().withMethod("GET").withPath("/test")
+            .withHeader("Accept-Encoding", "gzip, deflate"))
+        .respond(response().withStatusCode(200).withContentType(MediaType.APPLICATION_XML)
+            .withHeader("Content-Encoding", "gzip")
+            .withBody(encodedContentStream.toByteArray()));
+
+    EwpSuccessOperationResult<ResponseV2> result = client.executeAndLog(request,
+        ResponseV2.class);
+
+    assertThat(result.getResponseBody().getHeiId(),
+        equalTo(Collections.singletonList("test_heiid")));
+    assertThat(result.getResponse().getBody().getLength(), equalTo((long) content.length));
+    assertThat(result.getResponse().getBody().getTransferLength(),
+        equalTo((long) encodedContentStream.size()));
+    assertThat(partnerHostRegistry.getPartnerHost(request).getTransferredResponseBytes(),
+        equalTo((long) encodedContentStream.size()));
+  }
+
   private Jaxb2Marshaller createJaxb2Marshaller() {
     Jaxb2Marshaller marshaller = new Jaxb2Marshaller();
     marshaller.setPackagesToScan("eu.erasmuswithoutpaper.api", "pt.ulisboa.ewp.node");
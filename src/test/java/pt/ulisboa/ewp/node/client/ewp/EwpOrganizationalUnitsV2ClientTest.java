@@ -21,7 +21,7 @@ public class EwpOrganizationalUnitsV2ClientTest extends AbstractTest {
     String heiId = UUID.randomUUID().toString();
 
     EwpOrganizationalUnitsV2Client client = Mockito
-        .spy(new EwpOrganizationalUnitsV2Client(null, null));
+        .spy(new EwpOrganizationalUnitsV2Client(null, null, null));
 
     EwpOrganizationalUnitApiConfiguration apiConfiguration =
         new EwpOrganizationalUnitApiConfiguration(
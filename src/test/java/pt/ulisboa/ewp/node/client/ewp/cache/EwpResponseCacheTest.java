@@ -0,0 +1,216 @@
+package pt.ulisboa.ewp.node.client.ewp.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import pt.ulisboa.ewp.node.client.ewp.EwpClientExecutor;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientErrorException;
+import pt.ulisboa.ewp.node.client.ewp.exception.EwpClientProcessorException;
+import pt.ulisboa.ewp.node.client.ewp.operation.response.EwpResponse;
+import pt.ulisboa.ewp.node.client.ewp.operation.response.EwpResponseBody;
+import pt.ulisboa.ewp.node.client.ewp.operation.result.EwpSuccessOperationResult;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
+import pt.ulisboa.ewp.node.utils.EwpApiSpecification.Institutions;
+
+public class EwpResponseCacheTest {
+
+  private EwpClientExecutor executor;
+
+  @AfterEach
+  public void afterEach() throws InterruptedException {
+    if (executor != null) {
+      executor.destroy();
+    }
+  }
+
+  @Test
+  public void testGet_FreshEntry_LoaderCalledOnce() throws EwpClientErrorException {
+    EwpResponseCache cache = createCache(new EwpClientProperties());
+    AtomicInteger loads = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      EwpSuccessOperationResult<String> result = cache.get(createKey("uw.edu.pl"),
+          () -> createResult("response-" + loads.incrementAndGet()));
+      assertThat(result.getResponseBody()).isEqualTo("response-1");
+    }
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testGet_EquivalentParams_SameEntry() throws EwpClientErrorException {
+    EwpResponseCache cache = createCache(new EwpClientProperties());
+    AtomicInteger loads = new AtomicInteger();
+
+    EwpResponseCacheKey key1 = EwpResponseCacheKey.builder(Institutions.V2, "uw.edu.pl")
+        .param("ounit_id", Arrays.asList("b", "a", "a")).build();
+    EwpResponseCacheKey key2 = EwpResponseCacheKey.builder(Institutions.V2, "uw.edu.pl")
+        .param("ounit_id", Arrays.asList("a", "b")).build();
+
+    cache.get(key1, () -> createResult("response-" + loads.incrementAndGet()));
+    EwpSuccessOperationResult<String> result = cache.get(key2,
+        () -> createResult("response-" + loads.incrementAndGet()));
+
+    assertThat(result.getResponseBody()).isEqualTo("response-1");
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testGet_StaleEntry_StaleServedAndRevalidatedInBackground() throws Exception {
+    EwpClientProperties properties = new EwpClientProperties();
+    properties.getResponseCache().setDefaultTimeToLiveInSeconds(0);
+    EwpResponseCache cache = createCache(properties);
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get(createKey("uw.edu.pl"), () -> createResult("response-" + loads.incrementAndGet()));
+    EwpSuccessOperationResult<String> staleResult = cache.get(createKey("uw.edu.pl"),
+        () -> createResult("response-" + loads.incrementAndGet()));
+    assertThat(staleResult.getResponseBody()).isEqualTo("response-1");
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (loads.get() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(50);
+
+    EwpSuccessOperationResult<String> revalidatedResult = cache.get(createKey("uw.edu.pl"),
+        () -> createResult("response-" + loads.incrementAndGet()));
+    assertThat(revalidatedResult.getResponseBody()).isIn("response-2", "response-3");
+    assertThat(loads.get()).isGreaterThanOrEqualTo(2);
+  }
+
+  @Test
+  public void testGet_MaximumSizeExceeded_LeastRecentlyUsedEntryEvicted()
+      throws EwpClientErrorException {
+    EwpClientProperties properties = new EwpClientProperties();
+    long maxSizeInBytes = 25L * (1 + EwpResponseCache.OBJECT_GRAPH_BYTES_PER_BODY_BYTE);
+    properties.getResponseCache().setMaxSizeInBytes(maxSizeInBytes);
+    EwpResponseCache cache = createCache(properties);
+    AtomicInteger loads = new AtomicInteger();
+
+    cache.get(createKey("a.pt"), () -> createResult("response-a-" + loads.incrementAndGet()));
+    cache.get(createKey("b.pt"), () -> createResult("response-b-" + loads.incrementAndGet()));
+    cache.get(createKey("a.pt"), () -> createResult("response-a-" + loads.incrementAndGet()));
+    cache.get(createKey("c.pt"), () -> createResult("response-c-" + loads.incrementAndGet()));
+
+    assertThat(cache.getNumberOfEntries()).isEqualTo(2);
+    assertThat(cache.getSizeInBytes()).isLessThanOrEqualTo(maxSizeInBytes);
+    EwpSuccessOperationResult<String> result = cache.get(createKey("b.pt"),
+        () -> createResult("response-b-" + loads.incrementAndGet()));
+    assertThat(result.getResponseBody()).isEqualTo("response-b-4");
+  }
+
+  @Test
+  public void testGet_ResultMergedFromChunks_SizeCountsBodiesOfAllChunks()
+      throws EwpClientErrorException {
+    EwpClientProperties properties = new EwpClientProperties();
+    long maxSizeInBytes = 25L * (1 + EwpResponseCache.OBJECT_GRAPH_BYTES_PER_BODY_BYTE);
+    properties.getResponseCache().setMaxSizeInBytes(maxSizeInBytes);
+    EwpResponseCache cache = createCache(properties);
+
+    cache.get(createKey("a.pt"), () -> createMergedResult("chunk-1", 3));
+    cache.get(createKey("b.pt"), () -> createMergedResult("chunk-1", 10));
+
+    assertThat(cache.getNumberOfEntries()).isEqualTo(1);
+    assertThat(cache.getSizeInBytes())
+        .isEqualTo(3 * 7L * (1 + EwpResponseCache.OBJECT_GRAPH_BYTES_PER_BODY_BYTE));
+  }
+
+  @Test
+  public void testInvalidateHeiId_CachedEntriesOfHei_OnlyThoseRemoved()
+      throws EwpClientErrorException {
+    EwpResponseCache cache = createCache(new EwpClientProperties());
+    cache.get(createKey("a.pt"), () -> createResult("a"));
+    cache.get(createKey("b.pt"), () -> createResult("b"));
+
+    assertThat(cache.invalidateHeiId("a.pt")).isEqualTo(1);
+
+    assertThat(cache.getNumberOfEntries()).isEqualTo(1);
+    assertThat(cache.get(createKey("a.pt"), () -> createResult("a2")).getResponseBody())
+        .isEqualTo("a2");
+    assertThat(cache.get(createKey("b.pt"), () -> createResult("b2")).getResponseBody())
+        .isEqualTo("b");
+  }
+
+  @Test
+  public void testGet_LoaderFails_FailureNotCached() throws EwpClientErrorException {
+    EwpResponseCache cache = createCache(new EwpClientProperties());
+
+    assertThatThrownBy(() -> cache.get(createKey("uw.edu.pl"), () -> {
+      throw new EwpClientProcessorException(null, null, new IllegalStateException());
+    })).isInstanceOf(EwpClientProcessorException.class);
+
+    assertThat(cache.getNumberOfEntries()).isZero();
+    assertThat(cache.get(createKey("uw.edu.pl"), () -> createResult("ok")).getResponseBody())
+        .isEqualTo("ok");
+  }
+
+  private EwpResponseCache createCache(EwpClientProperties properties) {
+    executor = new EwpClientExecutor(properties);
+    return new EwpResponseCache(properties, executor, new SimpleMeterRegistry());
+  }
+
+  private static EwpResponseCacheKey createKey(String heiId) {
+    return EwpResponseCacheKey.builder(Institutions.V2, heiId)
+        .param("hei_id", Collections.singletonList(heiId)).build();
+  }
+
+  private static EwpSuccessOperationResult<String> createResult(String responseBody) {
+    EwpResponse response = new EwpResponse.Builder(HttpStatus.OK)
+        .body(EwpResponseBody.create(responseBody)).build();
+    return new EwpSuccessOperationResult.Builder<String>().response(response)
+        .responseBody(responseBody).build();
+  }
+
+  /**
+   * Creates a result as merged from several chunk requests, whose response is the one of the first
+   * chunk.
+   */
+  private static EwpSuccessOperationResult<String> createMergedResult(String chunkResponseBody,
+      int numberOfChunks) {
+    EwpResponse firstChunkResponse = new EwpResponse.Builder(HttpStatus.OK)
+        .body(EwpResponseBody.create(chunkResponseBody)).build();
+    return new EwpSuccessOperationResult.Builder<String>().response(firstChunkResponse)
+        .responseBody(chunkResponseBody.repeat(numberOfChunks))
+        .responseBodyLength(firstChunkResponse.getBody().getLength() * numberOfChunks).build();
+  }
+
+  @Test
+  void testGetAsync_InvalidatedWhileLoading_ResponseNotCached() throws Exception {
+    EwpResponseCache cache = createCache(new EwpClientProperties());
+    CompletableFuture<EwpSuccessOperationResult<String>> pendingLoad = new CompletableFuture<>();
+
+    CompletableFuture<EwpSuccessOperationResult<String>> resultFuture =
+        cache.getAsync(createKey("uw.edu.pl"), () -> pendingLoad);
+    cache.invalidateHeiId("uw.edu.pl");
+    pendingLoad.complete(createResult("before-invalidation"));
+
+    assertThat(resultFuture.get().getResponseBody()).isEqualTo("before-invalidation");
+    assertThat(cache.getNumberOfEntries()).isZero();
+    assertThat(cache.get(createKey("uw.edu.pl"), () -> createResult("after-invalidation"))
+        .getResponseBody()).isEqualTo("after-invalidation");
+  }
+
+  @Test
+  void testGet_StaleEntryRevalidatedAfterInvalidation_StaleResponseNotPutBack() throws Exception {
+    EwpClientProperties properties = new EwpClientProperties();
+    properties.getResponseCache().setDefaultTimeToLiveInSeconds(0);
+    EwpResponseCache cache = createCache(properties);
+    CompletableFuture<EwpSuccessOperationResult<String>> pendingRevalidation =
+        new CompletableFuture<>();
+    cache.get(createKey("uw.edu.pl"), () -> createResult("response-1"));
+
+    cache.getAsync(createKey("uw.edu.pl"), () -> pendingRevalidation).get();
+    cache.invalidateAll();
+    pendingRevalidation.complete(createResult("revalidated-before-invalidation"));
+
+    assertThat(cache.getNumberOfEntries()).isZero();
+  }
+}
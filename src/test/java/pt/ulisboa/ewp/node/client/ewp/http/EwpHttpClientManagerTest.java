@@ -0,0 +1,80 @@
+package pt.ulisboa.ewp.node.client.ewp.http;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.ulisboa.ewp.node.AbstractTest;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
+import pt.ulisboa.ewp.node.service.keystore.KeyStoreService;
+import pt.ulisboa.ewp.node.utils.keystore.DecodedKeystore;
+import pt.ulisboa.ewp.node.utils.keystore.KeyStoreGenerator;
+
+class EwpHttpClientManagerTest extends AbstractTest {
+
+  private KeyStoreService keyStoreService;
+  private EwpHttpClientManager httpClientManager;
+
+  @BeforeEach
+  public void beforeEach() {
+    this.keyStoreService = mock(KeyStoreService.class);
+    this.httpClientManager = new EwpHttpClientManager(keyStoreService, new EwpClientProperties());
+  }
+
+  @Test
+  void testAcquireClient_SameKeystore_SameClientReused() throws Exception {
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+
+    PooledEwpHttpClient firstClient = httpClientManager.acquireClient();
+    firstClient.release();
+    PooledEwpHttpClient secondClient = httpClientManager.acquireClient();
+    secondClient.release();
+
+    assertThat(secondClient, sameInstance(firstClient));
+    assertThat(secondClient.isRetired(), equalTo(false));
+  }
+
+  @Test
+  void testAcquireClient_ReloadedKeystoreWithSameContents_SameClientReused() throws Exception {
+    DecodedKeystore decodedKeystore = KeyStoreGenerator.generate("", "1");
+    doReturn(decodedKeystore).when(keyStoreService).getDecodedKeyStoreFromStorage();
+    PooledEwpHttpClient firstClient = httpClientManager.acquireClient();
+    firstClient.release();
+
+    doReturn(new DecodedKeystore(decodedKeystore.getKeyStore(),
+        decodedKeystore.getKeyStorePassword())).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+    PooledEwpHttpClient secondClient = httpClientManager.acquireClient();
+    secondClient.release();
+
+    assertThat(secondClient, sameInstance(firstClient));
+  }
+
+  @Test
+  void testAcquireClient_KeystoreChangedWithRequestInFlight_PreviousClientDrained()
+      throws Exception {
+    doReturn(KeyStoreGenerator.generate("", "1")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+    PooledEwpHttpClient firstClient = httpClientManager.acquireClient();
+
+    doReturn(KeyStoreGenerator.generate("", "2")).when(keyStoreService)
+        .getDecodedKeyStoreFromStorage();
+    PooledEwpHttpClient secondClient = httpClientManager.acquireClient();
+
+    assertThat(secondClient, not(sameInstance(firstClient)));
+    assertThat(firstClient.isRetired(), equalTo(true));
+    assertThat(firstClient.getInFlightRequests(), equalTo(1));
+
+    firstClient.release();
+    secondClient.release();
+
+    assertThat(firstClient.getInFlightRequests(), equalTo(0));
+    assertThat(httpClientManager.getCurrentClient(), sameInstance(secondClient));
+  }
+}
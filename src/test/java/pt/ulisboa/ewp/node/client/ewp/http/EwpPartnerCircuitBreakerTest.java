@@ -0,0 +1,82 @@
+package pt.ulisboa.ewp.node.client.ewp.http;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.ulisboa.ewp.node.client.ewp.http.EwpPartnerCircuitBreaker.State;
+
+class EwpPartnerCircuitBreakerTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private EwpPartnerCircuitBreaker circuitBreaker;
+
+  @BeforeEach
+  public void beforeEach() {
+    this.circuitBreaker = new EwpPartnerCircuitBreaker(3, 1000, nanoTime::get);
+  }
+
+  @Test
+  void testRecordFailure_ConsecutiveFailuresReachThreshold_CircuitOpens() {
+    failRequests(2);
+    circuitBreaker.tryAcquirePermission();
+    circuitBreaker.recordSuccess();
+    failRequests(2);
+    assertThat(circuitBreaker.getState(), equalTo(State.CLOSED));
+
+    failRequests(1);
+
+    assertThat(circuitBreaker.getState(), equalTo(State.OPEN));
+    assertThat(circuitBreaker.tryAcquirePermission(), equalTo(false));
+    assertThat(circuitBreaker.getRejectedRequests(), equalTo(1L));
+    assertThat(circuitBreaker.getRemainingOpenDurationInMilliseconds(), equalTo(1000L));
+  }
+
+  @Test
+  void testTryAcquirePermission_OpenDurationElapsed_SingleTrialRequestAllowed() {
+    failRequests(3);
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+    assertThat(circuitBreaker.getState(), equalTo(State.HALF_OPEN));
+    assertThat(circuitBreaker.tryAcquirePermission(), equalTo(true));
+    assertThat(circuitBreaker.tryAcquirePermission(), equalTo(false));
+
+    circuitBreaker.recordSuccess();
+
+    assertThat(circuitBreaker.getState(), equalTo(State.CLOSED));
+    assertThat(circuitBreaker.tryAcquirePermission(), equalTo(true));
+  }
+
+  @Test
+  void testRecordFailure_TrialRequestFails_CircuitReopens() {
+    failRequests(3);
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+    assertThat(circuitBreaker.tryAcquirePermission(), equalTo(true));
+
+    circuitBreaker.recordFailure();
+
+    assertThat(circuitBreaker.getState(), equalTo(State.OPEN));
+    assertThat(circuitBreaker.getRemainingOpenDurationInMilliseconds(), equalTo(1000L));
+  }
+
+  @Test
+  void testReleasePermission_TrialRequestWithoutOutcome_AnotherTrialRequestAllowed() {
+    failRequests(3);
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+    assertThat(circuitBreaker.tryAcquirePermission(), equalTo(true));
+
+    circuitBreaker.releasePermission();
+
+    assertThat(circuitBreaker.tryAcquirePermission(), equalTo(true));
+  }
+
+  private void failRequests(int numberOfRequests) {
+    for (int i = 0; i < numberOfRequests; i++) {
+      circuitBreaker.tryAcquirePermission();
+      circuitBreaker.recordFailure();
+    }
+  }
+}
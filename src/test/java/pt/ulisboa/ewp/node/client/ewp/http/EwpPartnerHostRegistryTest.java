@@ -0,0 +1,122 @@
+package pt.ulisboa.ewp.node.client.ewp.http;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import pt.ulisboa.ewp.node.AbstractTest;
+import pt.ulisboa.ewp.node.client.ewp.operation.request.EwpRequest;
+import pt.ulisboa.ewp.node.config.client.EwpClientPartnerProperties;
+import pt.ulisboa.ewp.node.config.client.EwpClientProperties;
+import pt.ulisboa.ewp.node.service.keystore.KeyStoreService;
+
+class EwpPartnerHostRegistryTest extends AbstractTest {
+
+  private EwpClientProperties properties;
+  private SimpleMeterRegistry meterRegistry;
+  private EwpPartnerHostRegistry partnerHostRegistry;
+
+  @BeforeEach
+  public void beforeEach() {
+    this.properties = new EwpClientProperties();
+    this.meterRegistry = new SimpleMeterRegistry();
+    this.partnerHostRegistry = new EwpPartnerHostRegistry(properties,
+        new EwpHttpClientManager(mock(KeyStoreService.class), properties), meterRegistry);
+  }
+
+  @Test
+  void testGetPartnerHost_SameHostDifferentPaths_SamePartnerHostReturned() {
+    EwpPartnerHost firstPartnerHost = partnerHostRegistry.getPartnerHost(
+        new EwpRequest(HttpMethod.GET, "https://ewp.example.com/iias/index"));
+    EwpPartnerHost secondPartnerHost = partnerHostRegistry.getPartnerHost(
+        new EwpRequest(HttpMethod.POST, "https://EWP.example.com:443/iias/get"));
+    EwpPartnerHost otherPartnerHost = partnerHostRegistry.getPartnerHost(
+        new EwpRequest(HttpMethod.GET, "https://ewp.example.org/iias/index"));
+
+    assertThat(secondPartnerHost, sameInstance(firstPartnerHost));
+    assertThat(otherPartnerHost, not(sameInstance(firstPartnerHost)));
+    assertThat(firstPartnerHost.getKey(), equalTo("https://ewp.example.com:443"));
+  }
+
+  @Test
+  void testGetPartnerHost_HostWithSpecificLimits_HostLimitsApplied() {
+    EwpClientPartnerProperties hostProperties = new EwpClientPartnerProperties();
+    hostProperties.setMaxInFlightRequests(2);
+    properties.getPartners().getHosts().put("ewp.example.com", hostProperties);
+
+    EwpPartnerHost partnerHost = partnerHostRegistry.getPartnerHost(
+        new EwpRequest(HttpMethod.GET, "https://EWP.example.com/echo").heiId("example.com"));
+
+    assertThat(partnerHost.getMaxInFlightRequests(), equalTo(2));
+    assertThat(partnerHost.getMaxConnections(),
+        equalTo(properties.getPartners().getMaxConnections()));
+  }
+
+  @Test
+  void testGetPartnerHost_SeveralHeisOnSameHost_SameHostLimitsApplied() {
+    EwpClientPartnerProperties hostProperties = new EwpClientPartnerProperties();
+    hostProperties.setMaxInFlightRequests(2);
+    properties.getPartners().getHosts().put("ewp.example.com", hostProperties);
+
+    EwpPartnerHost firstPartnerHost = partnerHostRegistry.getPartnerHost(
+        new EwpRequest(HttpMethod.GET, "https://ewp.example.com/a/echo").heiId("a.example.com"));
+    EwpPartnerHost secondPartnerHost = partnerHostRegistry.getPartnerHost(
+        new EwpRequest(HttpMethod.GET, "https://ewp.example.com/b/echo").heiId("b.example.com"));
+
+    assertThat(secondPartnerHost, sameInstance(firstPartnerHost));
+    assertThat(firstPartnerHost.getMaxInFlightRequests(), equalTo(2));
+  }
+
+  @Test
+  void testGetPartnerHost_UrlWithoutHost_ExceptionThrown() {
+    assertThrows(IllegalArgumentException.class, () -> partnerHostRegistry.getPartnerHost(
+        new EwpRequest(HttpMethod.GET, "/echo")));
+  }
+
+  @Test
+  void testTryAcquire_BulkheadSaturated_RequestRejected() throws InterruptedException {
+    properties.getPartners().setMaxInFlightRequests(1);
+    EwpPartnerHost partnerHost = partnerHostRegistry.getPartnerHost(
+        new EwpRequest(HttpMethod.GET, "https://ewp.example.com/echo"));
+
+    assertThat(partnerHost.tryAcquire(0), equalTo(true));
+    assertThat(partnerHost.tryAcquire(0), equalTo(false));
+    assertThat(partnerHost.getInFlightRequests(), equalTo(1));
+    assertThat(meterRegistry.get("ewp.client.partner.requests.rejected")
+        .tag("host", "https://ewp.example.com:443").functionCounter().count(), equalTo(1.0));
+
+    partnerHost.release();
+    assertThat(partnerHost.tryAcquire(0), equalTo(true));
+  }
+
+  @Test
+  void testGetReadTimeout_EnoughLatenciesObserved_ReadTimeoutAdaptsWithinHostBounds() {
+    EwpClientPartnerProperties hostProperties = new EwpClientPartnerProperties();
+    hostProperties.setMinReadTimeoutInMilliseconds(1000);
+    hostProperties.setMaxReadTimeoutInMilliseconds(10000);
+    properties.getPartners().getHosts().put("ewp.example.com", hostProperties);
+    properties.getPartners().setReadTimeoutLatencyMultiplier(4.0);
+
+    EwpPartnerHost partnerHost = partnerHostRegistry.getPartnerHost(
+        new EwpRequest(HttpMethod.GET, "https://ewp.example.com/echo").heiId("example.com"));
+    assertThat(partnerHost.getReadTimeoutInMilliseconds(), equalTo(10000));
+
+    for (int i = 0; i < EwpPartnerLatencyTracker.MIN_SAMPLES; i++) {
+      partnerHost.getLatencyTracker().record(100);
+    }
+    assertThat(partnerHost.getReadTimeoutInMilliseconds(), equalTo(1000));
+
+    partnerHost.getLatencyTracker().record(2000);
+    assertThat(partnerHost.getLatencyTracker().getPercentileInMilliseconds(50), equalTo(100L));
+    assertThat(partnerHost.getReadTimeoutInMilliseconds(), equalTo(8000));
+    assertThat(meterRegistry.get("ewp.client.partner.timeout.read")
+        .tag("host", "https://ewp.example.com:443").gauge().value(), equalTo(8000.0));
+  }
+}
@@ -0,0 +1,112 @@
+package pt.ulisboa.ewp.node.client.ewp.operation.response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+
+public class EwpResponseBodyTest {
+
+  @Test
+  public void testRead_BodyWithinMemoryLimit_KeptInMemory()
+      throws IOException, NoSuchAlgorithmException {
+    byte[] content = "<response>small</response>".getBytes(StandardCharsets.UTF_8);
+
+    EwpResponseBody body = EwpResponseBody.read(new ByteArrayInputStream(content),
+        StandardCharsets.UTF_8, 1024, 1024);
+
+    assertThat(body.isSpooled()).isFalse();
+    assertThat(body.getLength()).isEqualTo(content.length);
+    assertThat(readFully(body)).isEqualTo(content);
+    assertThat(body.digest("SHA-256"))
+        .isEqualTo(MessageDigest.getInstance("SHA-256").digest(content));
+    assertThat(body.getLoggedContent()).isEqualTo("<response>small</response>");
+    assertThat(body.isLoggedContentTruncated()).isFalse();
+  }
+
+  @Test
+  public void testRead_BodyExceedingMemoryLimit_SpooledAndLoggedContentTruncated()
+      throws IOException, NoSuchAlgorithmException {
+    byte[] content = new byte[100000];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) ('a' + i % 26);
+    }
+
+    EwpResponseBody body = EwpResponseBody.read(new ByteArrayInputStream(content),
+        StandardCharsets.UTF_8, 20000, 10);
+
+    assertThat(body.isSpooled()).isTrue();
+    assertThat(body.getLength()).isEqualTo(content.length);
+    assertThat(readFully(body)).isEqualTo(content);
+    assertThat(body.digest("SHA-256"))
+        .isEqualTo(MessageDigest.getInstance("SHA-256").digest(content));
+    assertThat(body.digest("SHA-512"))
+        .isEqualTo(MessageDigest.getInstance("SHA-512").digest(content));
+    assertThat(body.getLoggedContent()).isEqualTo("abcdefghij");
+    assertThat(body.isLoggedContentTruncated()).isTrue();
+
+    body.release();
+
+    assertThat(body.getLoggedContent()).isEqualTo("abcdefghij");
+  }
+
+  @Test
+  public void testRead_GzipEncodedBody_DecodedAndTransferredDigestKept()
+      throws IOException, NoSuchAlgorithmException {
+    byte[] content = "<response>compressible compressible compressible</response>"
+        .getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream encodedContentStream = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(encodedContentStream)) {
+      gzipOutputStream.write(content);
+    }
+    byte[] encodedContent = encodedContentStream.toByteArray();
+
+    EwpResponseBody body = EwpResponseBody.read(new ByteArrayInputStream(encodedContent),
+        StandardCharsets.UTF_8, "gzip", 1024, 1024);
+
+    assertThat(body.getContentEncoding()).isEqualTo("gzip");
+    assertThat(body.getLength()).isEqualTo(content.length);
+    assertThat(body.getTransferLength()).isEqualTo(encodedContent.length);
+    assertThat(readFully(body)).isEqualTo(content);
+    assertThat(body.digest("SHA-256"))
+        .isEqualTo(MessageDigest.getInstance("SHA-256").digest(content));
+    assertThat(body.digestOfTransferredContent("SHA-256"))
+        .isEqualTo(MessageDigest.getInstance("SHA-256").digest(encodedContent));
+  }
+
+  @Test
+  public void testRead_RawDeflateEncodedBody_Decoded() throws IOException {
+    byte[] content = "<response>deflated</response>".getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream encodedContentStream = new ByteArrayOutputStream();
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(
+        encodedContentStream, deflater)) {
+      deflaterOutputStream.write(content);
+    } finally {
+      deflater.end();
+    }
+
+    EwpResponseBody body = EwpResponseBody.read(
+        new ByteArrayInputStream(encodedContentStream.toByteArray()), StandardCharsets.UTF_8,
+        "deflate", 1024, 1024);
+
+    assertThat(body.isEncoded()).isTrue();
+    assertThat(readFully(body)).isEqualTo(content);
+    assertThat(body.getLoggedContent()).isEqualTo("<response>deflated</response>");
+  }
+
+  private static byte[] readFully(EwpResponseBody body) throws IOException {
+    try (InputStream inputStream = body.openStream()) {
+      return inputStream.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package pt.ulisboa.ewp.node.client.ewp.registry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class EwpApiConfigurationIndexTest {
+
+  @Test
+  void testGetApiConfiguration_SameCatalogue_LoaderCalledOnce() {
+    EwpApiConfigurationIndex index = new EwpApiConfigurationIndex(() -> new Date(1000L), Runnable::run);
+    AtomicInteger loads = new AtomicInteger();
+
+    for (int i = 0; i < 3; i++) {
+      Optional<String> configuration = index.getApiConfiguration("uw.edu.pl", "echo", 2,
+          () -> Optional.of("configuration-" + loads.incrementAndGet()));
+      assertThat(configuration).contains("configuration-1");
+    }
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  void testGetApiConfiguration_MissingApi_AbsenceIndexed() {
+    EwpApiConfigurationIndex index = new EwpApiConfigurationIndex(() -> new Date(1000L), Runnable::run);
+    AtomicInteger loads = new AtomicInteger();
+
+    for (int i = 0; i < 2; i++) {
+      Optional<String> configuration = index.getApiConfiguration("uw.edu.pl", "echo", 1, () -> {
+        loads.incrementAndGet();
+        return Optional.empty();
+      });
+      assertThat(configuration).isEmpty();
+    }
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  void testGetApiConfiguration_DistinctMajorVersions_IndexedSeparately() {
+    EwpApiConfigurationIndex index = new EwpApiConfigurationIndex(() -> new Date(1000L), Runnable::run);
+
+    Optional<String> configurationV1 = index.getApiConfiguration("uw.edu.pl", "echo", 1,
+        () -> Optional.of("v1"));
+    Optional<String> configurationV2 = index.getApiConfiguration("uw.edu.pl", "echo", 2,
+        () -> Optional.of("v2"));
+
+    assertThat(configurationV1).contains("v1");
+    assertThat(configurationV2).contains("v2");
+  }
+
+  @Test
+  void testGetApiConfiguration_CatalogueRefreshed_IndexRebuilt() {
+    AtomicReference<Date> catalogueExpiryDate = new AtomicReference<>(new Date(1000L));
+    EwpApiConfigurationIndex index = new EwpApiConfigurationIndex(catalogueExpiryDate::get,
+        Runnable::run);
+    AtomicInteger loads = new AtomicInteger();
+
+    assertThat(index.getApiConfiguration("uw.edu.pl", "echo", 2,
+        () -> Optional.of("configuration-" + loads.incrementAndGet())))
+        .contains("configuration-1");
+
+    catalogueExpiryDate.set(new Date(2000L));
+
+    assertThat(index.getApiConfiguration("uw.edu.pl", "echo", 2,
+        () -> Optional.of("configuration-" + loads.incrementAndGet())))
+        .contains("configuration-2");
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  void testGetSupportedMajorVersions_SameCatalogue_LoaderCalledOnce() {
+    EwpApiConfigurationIndex index = new EwpApiConfigurationIndex(() -> new Date(1000L), Runnable::run);
+    AtomicInteger loads = new AtomicInteger();
+
+    for (int i = 0; i < 2; i++) {
+      List<Integer> supportedMajorVersions = index.getSupportedMajorVersions("uw.edu.pl", "iias",
+          () -> {
+            loads.incrementAndGet();
+            return Arrays.asList(4, 6);
+          });
+      assertThat(supportedMajorVersions).containsExactly(4, 6);
+    }
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  void testGetApiConfiguration_CatalogueRefreshedAndRebuildPending_PreviousIndexServed() {
+    AtomicReference<Date> catalogueExpiryDate = new AtomicReference<>(new Date(1000L));
+    List<Runnable> pendingRebuilds = new ArrayList<>();
+    EwpApiConfigurationIndex index = new EwpApiConfigurationIndex(catalogueExpiryDate::get,
+        pendingRebuilds::add);
+    AtomicInteger loads = new AtomicInteger();
+    index.getApiConfiguration("uw.edu.pl", "echo", 2,
+        () -> Optional.of("configuration-" + loads.incrementAndGet()));
+
+    catalogueExpiryDate.set(new Date(2000L));
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(index.getApiConfiguration("uw.edu.pl", "echo", 2,
+          () -> Optional.of("configuration-" + loads.incrementAndGet())))
+          .contains("configuration-1");
+    }
+    assertThat(pendingRebuilds).hasSize(1);
+
+    pendingRebuilds.get(0).run();
+
+    assertThat(index.getApiConfiguration("uw.edu.pl", "echo", 2,
+        () -> Optional.of("configuration-" + loads.incrementAndGet())))
+        .contains("configuration-2");
+  }
+
+  @Test
+  void testGetApiConfiguration_LoaderFailsOnRebuild_OtherEntriesRebuilt() {
+    AtomicReference<Date> catalogueExpiryDate = new AtomicReference<>(new Date(1000L));
+    EwpApiConfigurationIndex index = new EwpApiConfigurationIndex(catalogueExpiryDate::get,
+        Runnable::run);
+    AtomicInteger failingLoads = new AtomicInteger();
+    index.getApiConfiguration("uw.edu.pl", "echo", 1, () -> {
+      if (failingLoads.incrementAndGet() > 1) {
+        throw new IllegalStateException("Catalogue unavailable");
+      }
+      return Optional.of("failing");
+    });
+    index.getApiConfiguration("uw.edu.pl", "echo", 2, () -> Optional.of("v2"));
+
+    catalogueExpiryDate.set(new Date(2000L));
+
+    assertThat(index.getApiConfiguration("uw.edu.pl", "echo", 2, () -> Optional.of("other")))
+        .contains("v2");
+    assertThat(index.getApiConfiguration("uw.edu.pl", "echo", 1, () -> Optional.of("reloaded")))
+        .contains("reloaded");
+  }
+
+  @Test
+  void testGetApiConfiguration_ManyMissingApis_AbsentEntriesBounded() {
+    EwpApiConfigurationIndex index = new EwpApiConfigurationIndex(() -> new Date(1000L),
+        Runnable::run);
+    for (int i = 0; i < EwpApiConfigurationIndex.MAX_ABSENT_ENTRIES; i++) {
+      index.getApiConfiguration("hei-" + i, "echo", 2, Optional::empty);
+    }
+    AtomicInteger loads = new AtomicInteger();
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(index.getApiConfiguration("unknown.edu", "echo", 2, () -> {
+        loads.incrementAndGet();
+        return Optional.empty();
+      })).isEmpty();
+    }
+    assertThat(loads.get()).isEqualTo(2);
+    assertThat(index.getApiConfiguration("uw.edu.pl", "echo", 2, () -> Optional.of("v2")))
+        .contains("v2");
+  }
+}
@@ -0,0 +1,28 @@
+package pt.ulisboa.ewp.node.domain.entity.api.ewp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+
+class EwpApiConfigurationTest {
+
+  @Test
+  void testFreeze_SettersCalled_ExceptionThrown() {
+    EwpCourseApiConfiguration configuration = new EwpCourseApiConfiguration("https://example.com",
+        new ArrayList<>(), new ArrayList<>(), BigInteger.ONE, BigInteger.ONE);
+    configuration.setHeiId("uw.edu.pl");
+
+    configuration.freeze();
+
+    assertThat(configuration.isFrozen()).isTrue();
+    assertThrows(IllegalStateException.class, () -> configuration.setHeiId("other.edu"));
+    assertThrows(IllegalStateException.class, () -> configuration.setUrl("https://other.com"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> configuration.getSupportedClientAuthenticationMethods().clear());
+    assertThat(configuration.getHeiId()).isEqualTo("uw.edu.pl");
+    assertThat(configuration.getUrl()).isEqualTo("https://example.com");
+  }
+}
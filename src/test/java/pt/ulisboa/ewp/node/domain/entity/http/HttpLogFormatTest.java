@@ -0,0 +1,85 @@
+package pt.ulisboa.ewp.node.domain.entity.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HttpLogFormatTest {
+
+  @Test
+  void testEncodeBody_SmallBody_SameBodyDecoded() {
+    String body = "<response>ação</response>";
+
+    byte[] encodedBody = HttpLogFormat.encodeBody(body);
+
+    assertThat(HttpLogFormat.decodeBody(encodedBody)).isEqualTo(body);
+  }
+
+  @Test
+  void testEncodeBody_NullOrEmptyBody_SameBodyDecoded() {
+    assertThat(HttpLogFormat.decodeBody(HttpLogFormat.encodeBody((String) null))).isNull();
+    assertThat(HttpLogFormat.decodeBody(HttpLogFormat.encodeBody(""))).isEmpty();
+  }
+
+  @Test
+  void testEncodeBody_LargeRepetitiveBody_TruncatedAndCompressed() {
+    String body = "<element>value</element>".repeat(10000);
+
+    byte[] encodedBody = HttpLogFormat.encodeBody(body);
+
+    assertThat(encodedBody.length).isLessThan(HttpLogFormat.MAX_BODY_SIZE_IN_BYTES / 10);
+    assertThat(HttpLogFormat.decodeBody(encodedBody)).isEqualTo(
+        body.substring(0, HttpLogFormat.MAX_BODY_SIZE_IN_BYTES)
+            + HttpLogFormat.TRUNCATION_SUFFIX);
+  }
+
+  @Test
+  void testEncodeBody_PrefixOfLongerBody_TruncationMarked() {
+    byte[] bodyPrefix = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    byte[] encodedBody = HttpLogFormat.encodeBody(bodyPrefix, 4, 10, StandardCharsets.UTF_8);
+
+    assertThat(HttpLogFormat.decodeBody(encodedBody))
+        .isEqualTo("0123" + HttpLogFormat.TRUNCATION_SUFFIX);
+  }
+
+  @Test
+  void testEncodeBody_NonUtf8Body_DecodedWithOriginalCharset() {
+    byte[] body = "ação".getBytes(StandardCharsets.ISO_8859_1);
+
+    byte[] encodedBody = HttpLogFormat.encodeBody(body, body.length, body.length,
+        StandardCharsets.ISO_8859_1);
+
+    assertThat(HttpLogFormat.decodeBody(encodedBody)).isEqualTo("ação");
+  }
+
+  @Test
+  void testEncodeHeaders_SeveralHeaders_SameHeadersDecoded() {
+    List<HttpHeader> headers = List.of(HttpHeader.create("Content-Type", "text/xml"),
+        HttpHeader.create("Signature", "keyId=\"a\", headers=\"date: digest\""),
+        HttpHeader.create("Accept", "a,\nb"));
+
+    List<HttpHeader> decodedHeaders = HttpLogFormat.decodeHeaders(
+        HttpLogFormat.encodeHeaders(headers));
+
+    assertThat(decodedHeaders).extracting(HttpHeader::getName)
+        .containsExactly("Content-Type", "Signature", "Accept");
+    assertThat(decodedHeaders).extracting(HttpHeader::getValue)
+        .containsExactly("text/xml", "keyId=\"a\", headers=\"date: digest\"", "a, b");
+  }
+
+  @Test
+  void testCreate_RequestLogWithHeaders_HeadersAndBodyReadBack() {
+    HttpRequestLog requestLog = HttpRequestLog.create(HttpMethod.POST, "https://example.com",
+        List.of(HttpHeader.create("Accept", "text/xml")), "body");
+
+    assertThat(requestLog.getBody()).isEqualTo("body");
+    assertThat(requestLog.getHeaders()).extracting(HttpHeader::getName).containsExactly("Accept");
+
+    requestLog.setBody(null);
+
+    assertThat(requestLog.getBody()).isNull();
+  }
+}
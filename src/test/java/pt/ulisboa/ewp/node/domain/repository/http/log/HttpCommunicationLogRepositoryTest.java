@@ -0,0 +1,87 @@
+package pt.ulisboa.ewp.node.domain.repository.http.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import pt.ulisboa.ewp.node.AbstractIntegrationTest;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpHeader;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpMethod;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
+import pt.ulisboa.ewp.node.domain.entity.http.log.ewp.HttpCommunicationFromEwpNodeLog;
+import pt.ulisboa.ewp.node.domain.entity.http.log.ewp.HttpCommunicationToEwpNodeLog;
+import pt.ulisboa.ewp.node.domain.repository.http.log.ewp.HttpCommunicationFromEwpNodeLogRepository;
+
+class HttpCommunicationLogRepositoryTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private HttpCommunicationLogRepository httpCommunicationLogRepository;
+
+  @Autowired
+  private HttpCommunicationFromEwpNodeLogRepository httpCommunicationFromEwpNodeLogRepository;
+
+  @Test
+  void testDeleteBatchOfBucket_SeveralLogsOnBucket_OnlyLogsOfTypeAndBucketDeletedInBatches() {
+    ZonedDateTime oldDateTime = ZonedDateTime.of(2001, 1, 15, 12, 0, 0, 0, ZoneOffset.UTC);
+    ZonedDateTime newerDateTime = oldDateTime.plusMonths(1);
+    for (int index = 0; index < 3; index++) {
+      createCommunicationFromEwpNodeLog(oldDateTime);
+    }
+    createCommunicationFromEwpNodeLog(newerDateTime);
+    HttpCommunicationToEwpNodeLog communicationToEwpNodeLog = new HttpCommunicationToEwpNodeLog(
+        EwpAuthenticationMethod.HTTP_SIGNATURE, createRequestLog(), null, oldDateTime,
+        oldDateTime, "");
+    httpCommunicationLogRepository.persist(communicationToEwpNodeLog);
+
+    assertThat(httpCommunicationLogRepository.findBucketsBefore(
+        HttpCommunicationFromEwpNodeLog.class, 200103)).containsExactly(200101, 200102);
+
+    assertThat(httpCommunicationLogRepository.deleteBatchOfBucket(
+        HttpCommunicationFromEwpNodeLog.class, 200101, 2)).isEqualTo(2);
+    assertThat(httpCommunicationLogRepository.deleteBatchOfBucket(
+        HttpCommunicationFromEwpNodeLog.class, 200101, 2)).isEqualTo(1);
+
+    assertThat(httpCommunicationLogRepository.findBucketsBefore(
+        HttpCommunicationFromEwpNodeLog.class, 200103)).containsExactly(200102);
+    assertThat(httpCommunicationLogRepository.findBucketsBefore(
+        HttpCommunicationToEwpNodeLog.class, 200103)).containsExactly(200101);
+
+    assertThat(httpCommunicationLogRepository.deleteBatchOfBucket(
+        HttpCommunicationToEwpNodeLog.class, 200101, 2)).isEqualTo(1);
+    assertThat(httpCommunicationLogRepository.findBucketsBefore(
+        HttpCommunicationToEwpNodeLog.class, 200103)).isEmpty();
+  }
+
+  @Test
+  void testAssignMissingBuckets_LogWithoutBucket_BucketAssigned() {
+    ZonedDateTime dateTime = ZonedDateTime.of(1999, 6, 15, 12, 0, 0, 0, ZoneOffset.UTC);
+    HttpCommunicationToEwpNodeLog communicationToEwpNodeLog = new HttpCommunicationToEwpNodeLog(
+        EwpAuthenticationMethod.HTTP_SIGNATURE, createRequestLog(), null, dateTime, dateTime, "");
+    communicationToEwpNodeLog.setBucket(null);
+    httpCommunicationLogRepository.persist(communicationToEwpNodeLog);
+
+    assertThat(httpCommunicationLogRepository.assignMissingBuckets()).isPositive();
+
+    assertThat(httpCommunicationLogRepository.findBucketsBefore(
+        HttpCommunicationToEwpNodeLog.class, 200001)).containsExactly(199906);
+    assertThat(httpCommunicationLogRepository.deleteBatchOfBucket(
+        HttpCommunicationToEwpNodeLog.class, 199906, 10)).isEqualTo(1);
+  }
+
+  private void createCommunicationFromEwpNodeLog(ZonedDateTime dateTime) {
+    httpCommunicationFromEwpNodeLogRepository.create(EwpAuthenticationMethod.HTTP_SIGNATURE,
+        List.of("a.edu", "b.edu"), createRequestLog(),
+        HttpResponseLog.create(200, List.of(HttpHeader.create("Content-Type", "text/xml")), ""),
+        dateTime, dateTime, "");
+  }
+
+  private static HttpRequestLog createRequestLog() {
+    return HttpRequestLog.create(HttpMethod.GET, "https://example.com", new ArrayList<>(), "");
+  }
+}
@@ -0,0 +1,70 @@
+package pt.ulisboa.ewp.node.domain.repository.mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import pt.ulisboa.ewp.node.AbstractIntegrationTest;
+import pt.ulisboa.ewp.node.domain.entity.mapping.EwpInterInstitutionalAgreementMapping;
+
+class EwpInterInstitutionalAgreementMappingRepositoryTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private EwpInterInstitutionalAgreementMappingRepository mappingRepository;
+
+  @Test
+  void testFindByHeiIdAndIiaIds_SomeIiaIdsMapped_OnlyMappedIiaIdsReturned() {
+    String heiId = UUID.randomUUID().toString();
+    EwpInterInstitutionalAgreementMapping mapping1 = persistMapping(heiId);
+    EwpInterInstitutionalAgreementMapping mapping2 = persistMapping(heiId);
+    EwpInterInstitutionalAgreementMapping otherHeiMapping =
+        persistMapping(UUID.randomUUID().toString());
+
+    Map<String, EwpInterInstitutionalAgreementMapping> result = mappingRepository
+        .findByHeiIdAndIiaIds(heiId, Arrays.asList(mapping1.getIiaId(), mapping2.getIiaId(),
+            mapping2.getIiaId(), otherHeiMapping.getIiaId(), UUID.randomUUID().toString()));
+
+    assertThat(result).containsOnlyKeys(mapping1.getIiaId(), mapping2.getIiaId());
+    assertThat(result.get(mapping1.getIiaId()).getIiaCode()).isEqualTo(mapping1.getIiaCode());
+    assertThat(result.get(mapping2.getIiaId()).getIiaCode()).isEqualTo(mapping2.getIiaCode());
+  }
+
+  @Test
+  void testFindByHeiIdAndIiaCodes_MoreIiaCodesThanOneBatch_AllMappedIiaCodesReturned() {
+    String heiId = UUID.randomUUID().toString();
+    List<String> iiaCodes = new ArrayList<>();
+    for (int index = 0; index < 1200; index++) {
+      iiaCodes.add(UUID.randomUUID().toString());
+    }
+    EwpInterInstitutionalAgreementMapping firstMapping = persistMapping(heiId, iiaCodes.get(0));
+    EwpInterInstitutionalAgreementMapping lastMapping =
+        persistMapping(heiId, iiaCodes.get(iiaCodes.size() - 1));
+
+    Map<String, EwpInterInstitutionalAgreementMapping> result =
+        mappingRepository.findByHeiIdAndIiaCodes(heiId, iiaCodes);
+
+    assertThat(result).containsOnlyKeys(firstMapping.getIiaCode(), lastMapping.getIiaCode());
+  }
+
+  @Test
+  void testFindByHeiIdAndIiaIds_NoIiaIds_EmptyMapReturned() {
+    assertThat(mappingRepository.findByHeiIdAndIiaIds(UUID.randomUUID().toString(),
+        new ArrayList<>())).isEmpty();
+  }
+
+  private EwpInterInstitutionalAgreementMapping persistMapping(String heiId) {
+    return persistMapping(heiId, UUID.randomUUID().toString());
+  }
+
+  private EwpInterInstitutionalAgreementMapping persistMapping(String heiId, String iiaCode) {
+    EwpInterInstitutionalAgreementMapping mapping = EwpInterInstitutionalAgreementMapping.create(
+        heiId, UUID.randomUUID().toString(), UUID.randomUUID().toString(), iiaCode);
+    mappingRepository.persist(mapping);
+    return mapping;
+  }
+}
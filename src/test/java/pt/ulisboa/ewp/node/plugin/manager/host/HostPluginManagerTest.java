@@ -0,0 +1,31 @@
+package pt.ulisboa.ewp.node.plugin.manager.host;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.pf4j.ExtensionFactory;
+
+class HostPluginManagerTest {
+
+  @Test
+  void testGetExtensionFactory_SharedProvidersDisabled_NewInstanceReturnedPerCreation() {
+    ExtensionFactory extensionFactory =
+        new HostPluginManager("", false, null).getExtensionFactory();
+
+    assertThat(extensionFactory.create(TestExtension.class))
+        .isNotSameAs(extensionFactory.create(TestExtension.class));
+  }
+
+  @Test
+  void testGetExtensionFactory_SharedProvidersEnabled_SameInstanceReturned() {
+    ExtensionFactory extensionFactory =
+        new HostPluginManager("", true, null).getExtensionFactory();
+
+    assertThat(extensionFactory.create(TestExtension.class))
+        .isSameAs(extensionFactory.create(TestExtension.class));
+  }
+
+  public static class TestExtension {
+
+  }
+}
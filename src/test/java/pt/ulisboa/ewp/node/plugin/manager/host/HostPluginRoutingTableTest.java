@@ -0,0 +1,111 @@
+package pt.ulisboa.ewp.node.plugin.manager.host;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import eu.erasmuswithoutpaper.api.institutions.v2.InstitutionsResponseV2.Hei;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.pf4j.DefaultExtensionFactory;
+import pt.ulisboa.ewp.host.plugin.skeleton.HostPlugin;
+import pt.ulisboa.ewp.host.plugin.skeleton.provider.HostProvider;
+import pt.ulisboa.ewp.host.plugin.skeleton.provider.institutions.InstitutionsV2HostProvider;
+
+class HostPluginRoutingTableTest {
+
+  @Test
+  void testGetProviders_ProvidersOfMultiplePlugins_ProvidersReturnedPerHeiIdAndType() {
+    HostPlugin firstPlugin = createPlugin("heiA", true, List.of("ounit1"), List.of("code1"));
+    HostPlugin secondPlugin = createPlugin("heiA", false, List.of("ounit1", "ounit2"),
+        List.of());
+    Map<HostPlugin, Collection<Class<?>>> providerClassesPerPlugin = Map.of(
+        firstPlugin, List.of(TestInstitutionsV2HostProvider.class),
+        secondPlugin, List.of(OtherTestInstitutionsV2HostProvider.class));
+
+    HostPluginRoutingTable routingTable = HostPluginRoutingTable.EMPTY
+        .withPlugin(firstPlugin, providerClassesPerPlugin::get, new DefaultExtensionFactory())
+        .withPlugin(secondPlugin, providerClassesPerPlugin::get, new DefaultExtensionFactory());
+
+    assertThat(routingTable.getCoveredHeiIds()).containsExactly("heiA");
+    assertThat(routingTable.getProviders("heiA", InstitutionsV2HostProvider.class))
+        .hasExactlyElementsOfTypes(TestInstitutionsV2HostProvider.class,
+            OtherTestInstitutionsV2HostProvider.class);
+    assertThat(routingTable.getProviders("heiA", HostProvider.class))
+        .hasExactlyElementsOfTypes(TestInstitutionsV2HostProvider.class,
+            OtherTestInstitutionsV2HostProvider.class);
+    assertThat(routingTable.getProviders("heiB", HostProvider.class)).isEmpty();
+    assertThat(routingTable.getProviders(secondPlugin, InstitutionsV2HostProvider.class))
+        .hasExactlyElementsOfTypes(OtherTestInstitutionsV2HostProvider.class);
+  }
+
+  @Test
+  void testGetProviders_NonSharingExtensionFactory_NewProviderReturnedPerLookup() {
+    HostPlugin plugin = createPlugin("heiA", true, List.of(), List.of());
+
+    HostPluginRoutingTable routingTable = HostPluginRoutingTable.EMPTY
+        .withPlugin(plugin, ignored -> List.of(TestInstitutionsV2HostProvider.class),
+            new DefaultExtensionFactory());
+
+    assertThat(routingTable.getProviders("heiA", InstitutionsV2HostProvider.class).get(0))
+        .isNotSameAs(routingTable.getProviders("heiA", InstitutionsV2HostProvider.class).get(0));
+  }
+
+  @Test
+  void testGetPlugin_OunitCoveredByMultiplePlugins_FirstRegisteredPluginReturned() {
+    HostPlugin firstPlugin = createPlugin("heiA", true, List.of("ounit1"), List.of("code1"));
+    HostPlugin secondPlugin = createPlugin("heiA", false, List.of("ounit1", "ounit2"),
+        List.of("code2"));
+
+    HostPluginRoutingTable routingTable = HostPluginRoutingTable.EMPTY
+        .withPlugin(firstPlugin, plugin -> List.of(), new DefaultExtensionFactory())
+        .withPlugin(secondPlugin, plugin -> List.of(), new DefaultExtensionFactory());
+
+    assertThat(routingTable.getPrimaryPlugin("heiA")).isSameAs(firstPlugin);
+    assertThat(routingTable.getPluginByOunitId("heiA", "ounit1")).isSameAs(firstPlugin);
+    assertThat(routingTable.getPluginByOunitId("heiA", "ounit2")).isSameAs(secondPlugin);
+    assertThat(routingTable.getPluginByOunitId("heiA", "ounit3")).isNull();
+    assertThat(routingTable.getPluginByOunitCode("heiA", "code2")).isSameAs(secondPlugin);
+    assertThat(routingTable.getPluginByOunitCode("heiB", "code1")).isNull();
+  }
+
+  @Test
+  void testWithPlugin_MultiplePrimaryPluginsForHeiId_ExceptionThrown() {
+    HostPlugin firstPlugin = createPlugin("heiA", true, List.of(), List.of());
+    HostPlugin secondPlugin = createPlugin("heiA", true, List.of(), List.of());
+
+    HostPluginRoutingTable routingTable = HostPluginRoutingTable.EMPTY
+        .withPlugin(firstPlugin, plugin -> List.of(), new DefaultExtensionFactory());
+
+    assertThatThrownBy(() -> routingTable.withPlugin(secondPlugin, plugin -> List.of(),
+        new DefaultExtensionFactory()))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("Multiple plugins are set as primary for HEI ID: heiA");
+  }
+
+  private static HostPlugin createPlugin(String heiId, boolean primary,
+      Collection<String> ounitIds, Collection<String> ounitCodes) {
+    HostPlugin plugin = mock(HostPlugin.class);
+    when(plugin.getCoveredHeiIds()).thenReturn(List.of(heiId));
+    when(plugin.isPrimaryForHeiId(heiId)).thenReturn(primary);
+    when(plugin.getCoveredOunitIdsByHeiId(heiId)).thenReturn(ounitIds);
+    when(plugin.getCoveredOunitCodesByHeiId(heiId)).thenReturn(ounitCodes);
+    return plugin;
+  }
+
+  public static class TestInstitutionsV2HostProvider extends InstitutionsV2HostProvider {
+
+    @Override
+    public Optional<Hei> findByHeiId(String heiId) {
+      return Optional.empty();
+    }
+  }
+
+  public static class OtherTestInstitutionsV2HostProvider extends TestInstitutionsV2HostProvider {
+
+  }
+}
@@ -0,0 +1,122 @@
+package pt.ulisboa.ewp.node.plugin.manager.host;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pt.ulisboa.ewp.node.config.api.EwpApiProperties;
+import pt.ulisboa.ewp.node.exception.HostProviderTimeoutException;
+
+class HostProviderExecutorTest {
+
+  private HostProviderExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    EwpApiProperties properties = new EwpApiProperties();
+    properties.getHostProviderExecutor().setTimeoutInSeconds(1);
+    executor = new HostProviderExecutor(properties);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    executor.destroy();
+  }
+
+  @Test
+  void testInvokeAll_ProvidersWaitingForEachOther_ProvidersCalledConcurrentlyInOrder() {
+    CountDownLatch allProvidersCalled = new CountDownLatch(3);
+
+    List<String> results = executor.invokeAll(List.of("a", "b", "c"), provider -> {
+      allProvidersCalled.countDown();
+      try {
+        if (!allProvidersCalled.await(5, TimeUnit.SECONDS)) {
+          throw new IllegalStateException("Providers were not called concurrently");
+        }
+      } catch (InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      return provider.toUpperCase();
+    });
+
+    assertThat(results).containsExactly("A", "B", "C");
+  }
+
+  @Test
+  void testInvokeAll_ArgumentPerProvider_ResultsInMapOrder() {
+    Map<String, Integer> argumentPerProvider = new LinkedHashMap<>();
+    argumentPerProvider.put("slow", 300);
+    argumentPerProvider.put("fast", 0);
+
+    List<String> results = executor.invokeAll(argumentPerProvider, (provider, delay) -> {
+      sleep(delay);
+      return provider;
+    });
+
+    assertThat(results).containsExactly("slow", "fast");
+  }
+
+  @Test
+  void testInvokeAll_ProviderFails_ProviderExceptionThrown() {
+    assertThatThrownBy(() -> executor.invokeAll(List.of("a", "b"), provider -> {
+      if (provider.equals("b")) {
+        throw new IllegalArgumentException("Provider failed");
+      }
+      return provider;
+    })).isInstanceOf(IllegalArgumentException.class).hasMessage("Provider failed");
+  }
+
+  @Test
+  void testInvokeAll_ProviderSlowerThanTimeout_TimeoutExceptionThrown() {
+    assertThatThrownBy(() -> executor.invokeAll(List.of("a", "b"), provider -> {
+      if (provider.equals("b")) {
+        sleep(5000);
+      }
+      return provider;
+    })).isInstanceOf(HostProviderTimeoutException.class);
+  }
+
+  @Test
+  void testInvokeAll_ExecutorSaturated_TimeoutCountedAfterCallerRunsProvider()
+      throws InterruptedException {
+    EwpApiProperties properties = new EwpApiProperties();
+    properties.getHostProviderExecutor().setTimeoutInSeconds(1);
+    properties.getHostProviderExecutor().setCorePoolSize(1);
+    properties.getHostProviderExecutor().setMaxPoolSize(1);
+    properties.getHostProviderExecutor().setQueueCapacity(1);
+    HostProviderExecutor saturatedExecutor = new HostProviderExecutor(properties);
+
+    // NOTE: "a" runs on the only thread, "b" is queued and "c" runs on the calling thread
+    Map<String, Integer> argumentPerProvider = new LinkedHashMap<>();
+    argumentPerProvider.put("a", 1500);
+    argumentPerProvider.put("b", 0);
+    argumentPerProvider.put("c", 1200);
+    try {
+      List<String> results = saturatedExecutor.invokeAll(argumentPerProvider,
+          (provider, delay) -> {
+            sleep(delay);
+            return provider;
+          });
+
+      assertThat(results).containsExactly("a", "b", "c");
+
+    } finally {
+      saturatedExecutor.destroy();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package pt.ulisboa.ewp.node.service.ewp.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import pt.ulisboa.ewp.node.config.api.EwpApiProperties;
+import pt.ulisboa.ewp.node.plugin.manager.host.HostPluginManager;
+import pt.ulisboa.ewp.node.service.keystore.KeyStoreService;
+import pt.ulisboa.ewp.node.utils.keystore.DecodedCertificateAndKey;
+
+class EwpDiscoveryManifestCacheTest {
+
+  private final HostPluginManager hostPluginManager = mock(HostPluginManager.class);
+  private final KeyStoreService keyStoreService = mock(KeyStoreService.class);
+  private final AtomicInteger numberOfBuilds = new AtomicInteger();
+
+  @Test
+  void testGet_NothingChanged_CachedManifestReturned() {
+    EwpDiscoveryManifestCache cache = createCache(true);
+
+    EwpDiscoveryManifestCache.Entry firstEntry = cache.get("a", manifestBuilder());
+    EwpDiscoveryManifestCache.Entry secondEntry = cache.get("a", manifestBuilder());
+
+    assertThat(secondEntry).isSameAs(firstEntry);
+    assertThat(secondEntry.getETag()).startsWith("\"").endsWith("\"");
+    assertThat(numberOfBuilds).hasValue(1);
+
+    cache.get("b", manifestBuilder());
+    assertThat(numberOfBuilds).hasValue(2);
+  }
+
+  @Test
+  void testGet_PluginRegisteredOrKeyStoreReloaded_ManifestRebuilt() {
+    EwpDiscoveryManifestCache cache = createCache(true);
+    EwpDiscoveryManifestCache.Entry firstEntry = cache.get("a", manifestBuilder());
+
+    when(hostPluginManager.getRoutingTableVersion()).thenReturn(1L);
+    EwpDiscoveryManifestCache.Entry secondEntry = cache.get("a", manifestBuilder());
+
+    DecodedCertificateAndKey reloadedCertificateAndKey = createCertificateAndKey("certificate");
+    when(keyStoreService.getDecodedCertificateAndKeyFromStorage())
+        .thenReturn(reloadedCertificateAndKey);
+    cache.get("a", manifestBuilder());
+
+    assertThat(numberOfBuilds).hasValue(3);
+    assertThat(secondEntry.getETag()).isNotEqualTo(firstEntry.getETag());
+  }
+
+  @Test
+  void testGet_KeyStoreDecodedAgainWithSameCertificate_CachedManifestReturned() {
+    EwpDiscoveryManifestCache cache = createCache(true);
+    DecodedCertificateAndKey certificateAndKey = createCertificateAndKey("certificate");
+    DecodedCertificateAndKey decodedAgainCertificateAndKey =
+        createCertificateAndKey(new String("certificate"));
+    when(keyStoreService.getDecodedCertificateAndKeyFromStorage()).thenReturn(certificateAndKey);
+    EwpDiscoveryManifestCache.Entry firstEntry = cache.get("a", manifestBuilder());
+
+    when(keyStoreService.getDecodedCertificateAndKeyFromStorage())
+        .thenReturn(decodedAgainCertificateAndKey);
+    EwpDiscoveryManifestCache.Entry secondEntry = cache.get("a", manifestBuilder());
+
+    assertThat(secondEntry).isSameAs(firstEntry);
+    assertThat(numberOfBuilds).hasValue(1);
+  }
+
+  @Test
+  void testGet_CacheInvalidated_ManifestRebuilt() {
+    EwpDiscoveryManifestCache cache = createCache(true);
+    cache.get("a", manifestBuilder());
+
+    cache.invalidate();
+    cache.get("a", manifestBuilder());
+
+    assertThat(numberOfBuilds).hasValue(2);
+  }
+
+  @Test
+  void testGet_CacheDisabled_ManifestAlwaysBuilt() {
+    EwpDiscoveryManifestCache cache = createCache(false);
+
+    cache.get("a", manifestBuilder());
+    cache.get("a", manifestBuilder());
+
+    assertThat(numberOfBuilds).hasValue(2);
+  }
+
+  private EwpDiscoveryManifestCache createCache(boolean enabled) {
+    EwpApiProperties ewpApiProperties = new EwpApiProperties();
+    ewpApiProperties.getDiscoveryManifestCache().setEnabled(enabled);
+    return new EwpDiscoveryManifestCache(ewpApiProperties, hostPluginManager, keyStoreService);
+  }
+
+  private static DecodedCertificateAndKey createCertificateAndKey(String formattedCertificate) {
+    DecodedCertificateAndKey certificateAndKey = mock(DecodedCertificateAndKey.class);
+    when(certificateAndKey.getFormattedCertificate()).thenReturn(formattedCertificate);
+    return certificateAndKey;
+  }
+
+  private Supplier<byte[]> manifestBuilder() {
+    return () -> ("<manifest build=\"" + numberOfBuilds.incrementAndGet() + "\"/>")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -13,6 +13,8 @@ import eu.erasmuswithoutpaper.api.iias.v6.endpoints.SubjectAreaV6;
 import eu.erasmuswithoutpaper.api.types.contact.v1.ContactV1;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class ConditionsHashDecoratorTest {
@@ -101,4 +103,41 @@ class ConditionsHashDecoratorTest {
         iiasGetResponseV6.getIia().get(1).getConditionsHash());
   }
 
-}
\ No newline at end of file
+  @Test
+  void testDecoration_ManyIias_HashesEqualToTheOnesCalculatedOneByOne() {
+    ConditionsHashDecorator conditionsHashDecorator = new ConditionsHashDecorator(
+        new ConditionsHashCalculator());
+    List<Iia> iias = new ArrayList<>();
+    for (int index = 0; index < 50; index++) {
+      iias.add(createIia("hei" + (index % 10)));
+    }
+
+    conditionsHashDecorator.decorateWithConditionsHashes(iias);
+
+    ConditionsHashCalculator conditionsHashCalculator = new ConditionsHashCalculator();
+    for (Iia iia : iias) {
+      Iia expectedIia = createIia(iia.getCooperationConditions()
+          .getStudentStudiesMobilitySpec().get(0).getSendingHeiId());
+      new ConditionsHashDecorator(conditionsHashCalculator).decorateWithConditionsHash(
+          expectedIia);
+      assertThat(iia.getConditionsHash()).isEqualTo(expectedIia.getConditionsHash());
+    }
+    assertThat(iias.stream().map(Iia::getConditionsHash).distinct()).hasSize(10);
+    assertThat(conditionsHashDecorator.getNumberOfCachedHashes()).isEqualTo(10);
+  }
+
+  private static Iia createIia(String sendingHeiId) {
+    StudentStudiesMobilitySpecV6 studentStudiesMobilitySpec = new StudentStudiesMobilitySpecV6();
+    studentStudiesMobilitySpec.setSendingHeiId(sendingHeiId);
+    studentStudiesMobilitySpec.setReceivingHeiId("hibo.no");
+    studentStudiesMobilitySpec.getReceivingAcademicYearId().add("2020/2021");
+    studentStudiesMobilitySpec.setMobilitiesPerYear(BigInteger.TWO);
+
+    CooperationConditions cooperationConditions = new CooperationConditions();
+    cooperationConditions.getStudentStudiesMobilitySpec().add(studentStudiesMobilitySpec);
+
+    Iia iia = new Iia();
+    iia.setCooperationConditions(cooperationConditions);
+    return iia;
+  }
+}
@@ -2,6 +2,8 @@ package pt.ulisboa.ewp.node.service.ewp.mapping;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
@@ -62,4 +64,24 @@ class EwpInterInstitutionalAgreementMappingServiceTest extends AbstractIntegrati
     assertThat(mappingOptional.get().getIiaId()).isEqualTo(iiaId);
     assertThat(mappingOptional.get().getIiaCode()).isEqualTo(iiaCode);
   }
-}
\ No newline at end of file
+
+  @Test
+  void testGetMappingsByIiaIds_MappingUpdated_UpdatedMappingReturned() {
+    String heiId = UUID.randomUUID().toString();
+    String iiaId = UUID.randomUUID().toString();
+    String iiaCode = UUID.randomUUID().toString();
+
+    service.registerMapping(heiId, UUID.randomUUID().toString(), iiaId, iiaCode);
+    assertThat(service.getMappingsByIiaIds(heiId, List.of(iiaId))).containsOnlyKeys(iiaId);
+
+    String ounitId = UUID.randomUUID().toString();
+    service.registerMapping(heiId, ounitId, iiaId, iiaCode);
+
+    Map<String, EwpInterInstitutionalAgreementMapping> mappingsByIiaId =
+        service.getMappingsByIiaIds(heiId, List.of(iiaId, UUID.randomUUID().toString()));
+    assertThat(mappingsByIiaId).containsOnlyKeys(iiaId);
+    assertThat(mappingsByIiaId.get(iiaId).getOunitId()).isEqualTo(ounitId);
+    assertThat(service.getMappingsByIiaCodes(heiId, List.of(iiaCode)).get(iiaCode).getOunitId())
+        .isEqualTo(ounitId);
+  }
+}
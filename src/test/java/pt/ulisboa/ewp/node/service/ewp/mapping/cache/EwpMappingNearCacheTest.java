@@ -0,0 +1,124 @@
+package pt.ulisboa.ewp.node.service.ewp.mapping.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import pt.ulisboa.ewp.node.domain.entity.mapping.EwpOutgoingMobilityMapping;
+
+class EwpMappingNearCacheTest {
+
+  @Test
+  void testGetAll_SomeIdsCached_LoaderCalledOnlyWithMissingIds() {
+    EwpMappingNearCache<EwpOutgoingMobilityMapping> cache = createCache(10);
+    cache.putAll(Collections.singletonList(createMapping("hei", "m1")), cache.getGeneration());
+    List<Collection<String>> loadedIds = new ArrayList<>();
+
+    Map<String, EwpOutgoingMobilityMapping> result = cache.getAll("hei",
+        Arrays.asList("m1", "m2", "m3", "m2"), (heiId, ids) -> {
+          loadedIds.add(new ArrayList<>(ids));
+          Map<String, EwpOutgoingMobilityMapping> mappings = new HashMap<>();
+          mappings.put("m2", createMapping(heiId, "m2"));
+          return mappings;
+        });
+
+    assertThat(result).containsOnlyKeys("m1", "m2");
+    assertThat(loadedIds).containsExactly(Arrays.asList("m2", "m3"));
+
+    cache.getAll("hei", Arrays.asList("m1", "m2"), (heiId, ids) -> {
+      loadedIds.add(new ArrayList<>(ids));
+      return Collections.emptyMap();
+    });
+    assertThat(loadedIds).hasSize(1);
+  }
+
+  @Test
+  void testGet_SameIdOfAnotherHeiId_NotServedFromCache() {
+    EwpMappingNearCache<EwpOutgoingMobilityMapping> cache = createCache(10);
+    cache.putAll(Collections.singletonList(createMapping("hei1", "m1")), cache.getGeneration());
+
+    Optional<EwpOutgoingMobilityMapping> result = cache.get("hei2", "m1",
+        (heiId, id) -> Optional.empty());
+
+    assertThat(result).isEmpty();
+  }
+
+  @Test
+  void testPutAll_MoreMappingsThanMaxEntries_LeastRecentlyUsedMappingsEvicted() {
+    EwpMappingNearCache<EwpOutgoingMobilityMapping> cache = createCache(2);
+    cache.putAll(Arrays.asList(createMapping("hei", "m1"), createMapping("hei", "m2")),
+        cache.getGeneration());
+    cache.get("hei", "m1", (heiId, id) -> Optional.empty());
+
+    cache.putAll(Collections.singletonList(createMapping("hei", "m3")), cache.getGeneration());
+
+    assertThat(cache.getNumberOfEntries()).isEqualTo(2);
+    assertThat(cache.get("hei", "m1", (heiId, id) -> Optional.empty())).isPresent();
+    assertThat(cache.get("hei", "m2", (heiId, id) -> Optional.empty())).isEmpty();
+  }
+
+  @Test
+  void testGet_MappingInvalidatedWhileLoading_LoadedMappingNotCached() {
+    EwpMappingNearCache<EwpOutgoingMobilityMapping> cache = createCache(10);
+
+    Optional<EwpOutgoingMobilityMapping> result = cache.get("hei", "m1", (heiId, id) -> {
+      // NOTE: simulates a registration committed while the old version was being loaded
+      cache.invalidateAfterCommit(createMapping(heiId, id));
+      return Optional.of(createMapping(heiId, id));
+    });
+
+    assertThat(result).isPresent();
+    assertThat(cache.getNumberOfEntries()).isZero();
+  }
+
+  @Test
+  void testInvalidateAfterCommit_CachedMapping_MappingLoadedAgain() {
+    EwpMappingNearCache<EwpOutgoingMobilityMapping> cache = createCache(10);
+    cache.putAll(Collections.singletonList(createMapping("hei", "m1")), cache.getGeneration());
+
+    cache.invalidateAfterCommit(createMapping("hei", "m1"));
+
+    assertThat(cache.getNumberOfEntries()).isZero();
+    assertThat(cache.get("hei", "m1", (heiId, id) -> Optional.empty())).isEmpty();
+  }
+
+  @Test
+  void testPutAll_GenerationBeforeInvalidation_MappingsNotCached() {
+    EwpMappingNearCache<EwpOutgoingMobilityMapping> cache = createCache(10);
+    long loadGeneration = cache.getGeneration();
+    cache.invalidateAfterCommit(createMapping("hei", "m2"));
+
+    cache.putAll(Collections.singletonList(createMapping("hei", "m1")), loadGeneration);
+
+    assertThat(cache.getNumberOfEntries()).isZero();
+  }
+
+  @Test
+  void testGet_ZeroMaxEntries_AlwaysLoaded() {
+    EwpMappingNearCache<EwpOutgoingMobilityMapping> cache = createCache(0);
+    cache.invalidateAfterCommit(createMapping("hei", "m1"));
+
+    Optional<EwpOutgoingMobilityMapping> result = cache.get("hei", "m1",
+        (heiId, id) -> Optional.empty());
+
+    assertThat(result).isEmpty();
+    assertThat(cache.getNumberOfEntries()).isZero();
+  }
+
+  private static EwpMappingNearCache<EwpOutgoingMobilityMapping> createCache(int maxEntries) {
+    return new EwpMappingNearCache<>("test", maxEntries, EwpOutgoingMobilityMapping::getHeiId,
+        EwpOutgoingMobilityMapping::getOmobilityId, new SimpleMeterRegistry());
+  }
+
+  private static EwpOutgoingMobilityMapping createMapping(String heiId, String omobilityId) {
+    return EwpOutgoingMobilityMapping.create(heiId, "ounit", omobilityId);
+  }
+}
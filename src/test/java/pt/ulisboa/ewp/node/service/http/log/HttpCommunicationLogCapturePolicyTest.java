@@ -0,0 +1,109 @@
+package pt.ulisboa.ewp.node.service.http.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.CaptureMode;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Direction;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Rule;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogProperties;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+import pt.ulisboa.ewp.node.utils.EwpApi;
+
+class HttpCommunicationLogCapturePolicyTest {
+
+  @Test
+  void testShouldCaptureBodies_NoRules_BodiesCaptured() {
+    HttpCommunicationLogCapturePolicy policy = createPolicy();
+
+    assertThat(policy.shouldCaptureBodies(Direction.FROM_EWP_NODE, "echo", 200,
+        EwpAuthenticationMethod.HTTP_SIGNATURE, "")).isTrue();
+  }
+
+  @Test
+  void testShouldCaptureBodies_MetadataOnlyRuleMatched_BodiesNotCaptured() {
+    HttpCommunicationLogCapturePolicy policy = createPolicy(
+        createRule("echo", "2xx", CaptureMode.METADATA_ONLY, 100));
+
+    assertThat(policy.shouldCaptureBodies(Direction.FROM_EWP_NODE, "echo", 200,
+        EwpAuthenticationMethod.HTTP_SIGNATURE, "")).isFalse();
+    assertThat(policy.shouldCaptureBodies(Direction.FROM_EWP_NODE, "institutions", 200,
+        EwpAuthenticationMethod.HTTP_SIGNATURE, "")).isTrue();
+  }
+
+  @Test
+  void testShouldCaptureBodies_ErrorOrObservations_BodiesAlwaysCaptured() {
+    HttpCommunicationLogCapturePolicy policy = createPolicy(
+        createRule(null, null, CaptureMode.METADATA_ONLY, 100));
+
+    assertThat(policy.shouldCaptureBodies(Direction.FROM_EWP_NODE, "echo", 401,
+        EwpAuthenticationMethod.HTTP_SIGNATURE, "")).isTrue();
+    assertThat(policy.shouldCaptureBodies(Direction.TO_EWP_NODE, "echo", null,
+        EwpAuthenticationMethod.HTTP_SIGNATURE, "")).isTrue();
+    assertThat(policy.shouldCaptureBodies(Direction.TO_EWP_NODE, "echo", 200,
+        EwpAuthenticationMethod.HTTP_SIGNATURE, "Invalid response signature")).isTrue();
+    assertThat(policy.shouldCaptureBodies(Direction.TO_EWP_NODE, "echo", 200,
+        EwpAuthenticationMethod.HTTP_SIGNATURE, "")).isFalse();
+  }
+
+  @Test
+  void testShouldCaptureBodies_SampledRule_BodiesCapturedAccordingToPercentage() {
+    HttpCommunicationLogCapturePolicy neverCapturingPolicy = createPolicy(
+        createRule(null, null, CaptureMode.SAMPLED, 0));
+    HttpCommunicationLogCapturePolicy alwaysCapturingPolicy = createPolicy(
+        createRule(null, null, CaptureMode.SAMPLED, 100));
+
+    for (int index = 0; index < 100; index++) {
+      assertThat(neverCapturingPolicy.shouldCaptureBodies(Direction.FROM_HOST, "iias", 200, null,
+          "")).isFalse();
+      assertThat(alwaysCapturingPolicy.shouldCaptureBodies(Direction.FROM_HOST, "iias", 200, null,
+          "")).isTrue();
+    }
+  }
+
+  @Test
+  void testResolveApiFromRequestUri_KnownPaths_ApiLocalNamesReturned() {
+    assertThat(HttpCommunicationLogCapturePolicy.resolveApiFromRequestUri(
+        "/api/ewp/omobilities/las/v1/get", "/api/ewp/")).isEqualTo("omobility-las");
+    assertThat(HttpCommunicationLogCapturePolicy.resolveApiFromRequestUri(
+        "/api/ewp/iias/v6/get", "/api/ewp/")).isEqualTo("iias");
+    assertThat(HttpCommunicationLogCapturePolicy.resolveApiFromRequestUri(
+        "/rest/ewp/echo", "/api/ewp/", "/rest/ewp/")).isEqualTo("echo");
+    assertThat(HttpCommunicationLogCapturePolicy.resolveApiFromRequestUri(
+        "/api/ewp/unknown", "/api/ewp/")).isNull();
+    assertThat(HttpCommunicationLogCapturePolicy.resolveApiFromRequestUri(
+        "/other/echo", "/api/ewp/")).isNull();
+  }
+
+  @Test
+  void testResolveApiFromPath_PathPrefixesOfEveryApi_ApiLocalNameReturned() {
+    for (EwpApi api : EwpApi.values()) {
+      for (String pathPrefix : api.getPathPrefixes()) {
+        assertThat(HttpCommunicationLogCapturePolicy.resolveApiFromPath(pathPrefix + "/v1/get"))
+            .isEqualTo(api.getLocalName());
+      }
+    }
+    assertThat(HttpCommunicationLogCapturePolicy.resolveApiFromPath("manifest"))
+        .isEqualTo(EwpApi.DISCOVERY.getLocalName());
+    assertThat(HttpCommunicationLogCapturePolicy.resolveApiFromPath("iias/approval/cnr"))
+        .isEqualTo(EwpApi.INTERINSTITUTIONAL_AGREEMENTS_APPROVAL_CNR.getLocalName());
+  }
+
+  private static HttpCommunicationLogCapturePolicy createPolicy(Rule... rules) {
+    HttpCommunicationLogProperties properties = new HttpCommunicationLogProperties();
+    properties.getCapture().setRules(List.of(rules));
+    return new HttpCommunicationLogCapturePolicy(properties, new SimpleMeterRegistry());
+  }
+
+  private static Rule createRule(String api, String statusClass, CaptureMode mode,
+      int samplePercentage) {
+    Rule rule = new Rule();
+    rule.setApi(api);
+    rule.setStatusClass(statusClass);
+    rule.setMode(mode);
+    rule.setSamplePercentage(samplePercentage);
+    return rule;
+  }
+}
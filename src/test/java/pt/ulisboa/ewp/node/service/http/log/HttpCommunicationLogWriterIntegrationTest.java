@@ -0,0 +1,105 @@
+package pt.ulisboa.ewp.node.service.http.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import pt.ulisboa.ewp.node.AbstractIntegrationTest;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Direction;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogProperties;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpMethod;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
+import pt.ulisboa.ewp.node.domain.entity.http.log.ewp.HttpCommunicationToEwpNodeLog;
+import pt.ulisboa.ewp.node.domain.repository.http.log.ewp.HttpCommunicationToEwpNodeLogRepository;
+import pt.ulisboa.ewp.node.service.http.log.file.HttpCommunicationLogFileSink;
+
+class HttpCommunicationLogWriterIntegrationTest extends AbstractIntegrationTest {
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private HttpCommunicationToEwpNodeLogRepository httpCommunicationToEwpNodeLogRepository;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void testWrite_BatchWithLogRejectedByDatabase_OtherLogsPersisted()
+      throws InterruptedException {
+    HttpCommunicationLogProperties properties = new HttpCommunicationLogProperties();
+    properties.getWriter().setAsync(true);
+    HttpCommunicationLogWriter writer = new HttpCommunicationLogWriter(properties,
+        transactionManager, new HttpCommunicationLogFileSink(properties), meterRegistry);
+    String urlPrefix = "https://example.com/" + UUID.randomUUID() + "/";
+    CountDownLatch writerBlocked = new CountDownLatch(1);
+    CountDownLatch releaseWriter = new CountDownLatch(1);
+    writer.write(createRecord(createRequestLog(urlPrefix + "blocking"), null), () -> {
+      writerBlocked.countDown();
+      try {
+        releaseWriter.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return true;
+    });
+    assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+    write(writer, createRequestLog(urlPrefix + "first"));
+    // NOTE: the URL exceeds the length of its column, so the log is rejected on insertion
+    write(writer, createRequestLog(urlPrefix + "x".repeat(4096)));
+    write(writer, createRequestLog(urlPrefix + "second"));
+    releaseWriter.countDown();
+    writer.destroy();
+
+    assertThat(findPersistedUrls(urlPrefix))
+        .containsExactlyInAnyOrder(urlPrefix + "first", urlPrefix + "second");
+    assertThat(getCount("written")).isEqualTo(3);
+    assertThat(getCount("failed")).isEqualTo(1);
+  }
+
+  private void write(HttpCommunicationLogWriter writer, HttpRequestLog requestLog) {
+    HttpResponseLog responseLog = HttpResponseLog.create(200, new ArrayList<>(), "response");
+    HttpCommunicationLogRecord record = createRecord(requestLog, responseLog);
+    writer.write(record, () -> httpCommunicationToEwpNodeLogRepository.create(
+        record.getAuthenticationMethod(), requestLog, responseLog,
+        record.getStartProcessingDateTime(), record.getEndProcessingDateTime(),
+        record.getObservations()));
+  }
+
+  private List<String> findPersistedUrls(String urlPrefix) {
+    return new TransactionTemplate(transactionManager).execute(
+        status -> httpCommunicationToEwpNodeLogRepository.findAll().stream()
+            .map(HttpCommunicationToEwpNodeLog::getRequest)
+            .map(HttpRequestLog::getUrl)
+            .filter(url -> url.startsWith(urlPrefix))
+            .collect(Collectors.toList()));
+  }
+
+  private double getCount(String metricSuffix) {
+    return meterRegistry.get("http.communication.log." + metricSuffix).functionCounter().count();
+  }
+
+  private static HttpCommunicationLogRecord createRecord(HttpRequestLog requestLog,
+      HttpResponseLog responseLog) {
+    ZonedDateTime now = ZonedDateTime.now();
+    return new HttpCommunicationLogRecord(Direction.TO_EWP_NODE, "echo", List.of("a.edu"),
+        EwpAuthenticationMethod.HTTP_SIGNATURE, null, requestLog, responseLog, now, now, "");
+  }
+
+  private static HttpRequestLog createRequestLog(String url) {
+    return HttpRequestLog.create(HttpMethod.GET, url, new ArrayList<>(), "request");
+  }
+}
@@ -0,0 +1,212 @@
+package pt.ulisboa.ewp.node.service.http.log;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Direction;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogProperties;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogWriterProperties.OverflowPolicy;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpMethod;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
+import pt.ulisboa.ewp.node.service.http.log.file.HttpCommunicationLogFileSink;
+
+class HttpCommunicationLogWriterTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final List<String> writtenBodies = Collections.synchronizedList(new ArrayList<>());
+
+  @Test
+  void testWrite_NotAsync_LogWrittenOnCallingThread() throws InterruptedException {
+    HttpCommunicationLogWriter writer = createWriter(false, 10, OverflowPolicy.DROP);
+
+    writer.write(createRecord(createRequestLog("a"), null), persister("a"));
+
+    assertThat(writtenBodies).containsExactly("a");
+    writer.destroy();
+  }
+
+  @Test
+  void testWrite_Async_LogsWrittenUntilShutdown() throws InterruptedException {
+    HttpCommunicationLogWriter writer = createWriter(true, 10, OverflowPolicy.DROP);
+
+    for (int index = 0; index < 5; index++) {
+      HttpRequestLog requestLog = createRequestLog("r" + index);
+      writer.write(createRecord(requestLog, null), persister(requestLog));
+    }
+    writer.destroy();
+
+    assertThat(writtenBodies).containsExactly("r0", "r1", "r2", "r3", "r4");
+    assertThat(writer.getQueueSize()).isZero();
+    assertThat(getCount("written")).isEqualTo(5);
+  }
+
+  @Test
+  void testWrite_QueueFullWithDropPolicy_LogsDropped() throws InterruptedException {
+    HttpCommunicationLogWriter writer = createWriter(true, 2, OverflowPolicy.DROP);
+    CountDownLatch writerBlocked = new CountDownLatch(1);
+    CountDownLatch releaseWriter = new CountDownLatch(1);
+    writer.write(createRecord(createRequestLog("blocking"), null), () -> {
+      writerBlocked.countDown();
+      await(releaseWriter);
+      return true;
+    });
+    assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+    for (int index = 0; index < 4; index++) {
+      HttpRequestLog requestLog = createRequestLog("r" + index);
+      writer.write(createRecord(requestLog, null), persister(requestLog));
+    }
+    releaseWriter.countDown();
+    writer.destroy();
+
+    assertThat(writtenBodies).containsExactly("r0", "r1");
+    assertThat(getCount("dropped")).isEqualTo(2);
+  }
+
+  @Test
+  void testWrite_QueueHalfFullWithDropBodiesPolicy_LogsQueuedWithoutBodies()
+      throws InterruptedException {
+    HttpCommunicationLogWriter writer = createWriter(true, 4, OverflowPolicy.DROP_BODIES);
+    CountDownLatch writerBlocked = new CountDownLatch(1);
+    CountDownLatch releaseWriter = new CountDownLatch(1);
+    writer.write(createRecord(createRequestLog("blocking"), null), () -> {
+      writerBlocked.countDown();
+      await(releaseWriter);
+      return true;
+    });
+    assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+    for (int index = 0; index < 5; index++) {
+      HttpRequestLog requestLog = createRequestLog("r" + index);
+      HttpResponseLog responseLog = HttpResponseLog.create(200, new ArrayList<>(), "response");
+      writer.write(createRecord(requestLog, responseLog), persister(requestLog));
+    }
+    releaseWriter.countDown();
+    writer.destroy();
+
+    assertThat(writtenBodies).containsExactly("r0", "r1", null, null);
+    assertThat(getCount("bodies.dropped")).isEqualTo(3);
+    assertThat(getCount("dropped")).isEqualTo(1);
+  }
+
+  @Test
+  void testWrite_BatchWithFailingLog_OtherLogsWrittenOnTheirOwnTransactions()
+      throws InterruptedException {
+    HttpCommunicationLogWriter writer = createWriter(true, 10, OverflowPolicy.DROP);
+    CountDownLatch writerBlocked = new CountDownLatch(1);
+    CountDownLatch releaseWriter = new CountDownLatch(1);
+    writer.write(createRecord(createRequestLog("blocking"), null), () -> {
+      writerBlocked.countDown();
+      await(releaseWriter);
+      return true;
+    });
+    assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+
+    writer.write(createRecord(createRequestLog("r0"), null), persister("r0"));
+    writer.write(createRecord(createRequestLog("failing"), null), () -> {
+      throw new IllegalStateException("Failed to persist");
+    });
+    writer.write(createRecord(createRequestLog("r2"), null), persister("r2"));
+    releaseWriter.countDown();
+    writer.destroy();
+
+    assertThat(writtenBodies).endsWith("r0", "r2");
+    assertThat(getCount("written")).isEqualTo(3);
+    assertThat(getCount("failed")).isEqualTo(1);
+  }
+
+  @Test
+  void testWrite_PersisterReturnsFalse_LogCountedAsFailed() throws InterruptedException {
+    HttpCommunicationLogWriter writer = createWriter(false, 10, OverflowPolicy.DROP);
+
+    writer.write(createRecord(createRequestLog("a"), null), () -> false);
+    writer.destroy();
+
+    assertThat(getCount("written")).isZero();
+    assertThat(getCount("failed")).isEqualTo(1);
+  }
+
+  @Test
+  void testWrite_ExclusiveFileSink_LogAppendedToFileOnly(@TempDir Path directory)
+      throws InterruptedException, IOException {
+    HttpCommunicationLogProperties properties = new HttpCommunicationLogProperties();
+    properties.getFileSink().setEnabled(true);
+    properties.getFileSink().setExclusive(true);
+    properties.getFileSink().setDirectory(directory.toString());
+    HttpCommunicationLogWriter writer = createWriter(properties, false, 10, OverflowPolicy.DROP);
+
+    writer.write(createRecord(createRequestLog("a"), null), persister("a"));
+    writer.destroy();
+
+    assertThat(writtenBodies).isEmpty();
+    assertThat(getCount("written")).isEqualTo(1);
+    try (Stream<Path> paths = Files.list(directory)) {
+      assertThat(paths.filter(path -> path.toString().endsWith(".ndjson.gz"))).hasSize(1);
+    }
+  }
+
+  private HttpCommunicationLogWriter createWriter(boolean async, int queueCapacity,
+      OverflowPolicy overflowPolicy) {
+    return createWriter(new HttpCommunicationLogProperties(), async, queueCapacity,
+        overflowPolicy);
+  }
+
+  private HttpCommunicationLogWriter createWriter(HttpCommunicationLogProperties properties,
+      boolean async, int queueCapacity, OverflowPolicy overflowPolicy) {
+    properties.getWriter().setAsync(async);
+    properties.getWriter().setQueueCapacity(queueCapacity);
+    properties.getWriter().setOverflowPolicy(overflowPolicy);
+    properties.getWriter().setBlockTimeoutInMilliseconds(0);
+    return new HttpCommunicationLogWriter(properties, mock(PlatformTransactionManager.class),
+        new HttpCommunicationLogFileSink(properties), meterRegistry);
+  }
+
+  private BooleanSupplier persister(String body) {
+    return () -> writtenBodies.add(body);
+  }
+
+  private BooleanSupplier persister(HttpRequestLog requestLog) {
+    return () -> writtenBodies.add(requestLog.getBody());
+  }
+
+  private double getCount(String metricSuffix) {
+    return meterRegistry.get("http.communication.log." + metricSuffix).functionCounter().count();
+  }
+
+  private static HttpCommunicationLogRecord createRecord(HttpRequestLog requestLog,
+      HttpResponseLog responseLog) {
+    ZonedDateTime now = ZonedDateTime.now();
+    return new HttpCommunicationLogRecord(Direction.FROM_EWP_NODE, "echo", List.of("a.edu"),
+        EwpAuthenticationMethod.HTTP_SIGNATURE, null, requestLog, responseLog, now, now, "");
+  }
+
+  private static HttpRequestLog createRequestLog(String body) {
+    return HttpRequestLog.create(HttpMethod.GET, "https://example.com", new ArrayList<>(), body);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
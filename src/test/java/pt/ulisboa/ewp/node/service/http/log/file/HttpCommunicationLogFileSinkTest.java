@@ -0,0 +1,146 @@
+package pt.ulisboa.ewp.node.service.http.log.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogCaptureProperties.Direction;
+import pt.ulisboa.ewp.node.config.http.log.HttpCommunicationLogProperties;
+import pt.ulisboa.ewp.node.domain.entity.api.ewp.auth.EwpAuthenticationMethod;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpHeader;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpMethod;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpRequestLog;
+import pt.ulisboa.ewp.node.domain.entity.http.HttpResponseLog;
+import pt.ulisboa.ewp.node.service.http.log.HttpCommunicationLogRecord;
+
+class HttpCommunicationLogFileSinkTest {
+
+  private static final ZonedDateTime DATE_TIME =
+      ZonedDateTime.of(2021, 3, 10, 12, 0, 0, 0, ZoneOffset.UTC);
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testFindRecent_SeveralRecords_MatchingRecordsReturnedFromMostRecent() throws IOException {
+    HttpCommunicationLogFileSink sink = createSink(67108864, 0);
+    HttpCommunicationLogFileReader reader = new HttpCommunicationLogFileReader(sink);
+
+    sink.append(List.of(
+        createRecord("echo", "a.edu", DATE_TIME, "first"),
+        createRecord("institutions", "a.edu", DATE_TIME.plusMinutes(1), "second"),
+        createRecord("echo", "b.edu", DATE_TIME.plusMinutes(2), "third")));
+    sink.append(List.of(createRecord("echo", "a.edu", DATE_TIME.plusMinutes(3), "fourth")));
+
+    assertThat(reader.findRecent(null, null, "a.edu", "echo", 10))
+        .hasSize(2)
+        .satisfies(records -> {
+          assertThat(records.get(0)).contains("\"body\":\"fourth\"");
+          assertThat(records.get(1)).contains("\"body\":\"first\"");
+        });
+    assertThat(reader.findRecent(DATE_TIME.plusMinutes(1), DATE_TIME.plusMinutes(2), null, null,
+        10))
+        .hasSize(2)
+        .satisfies(records -> {
+          assertThat(records.get(0)).contains("\"body\":\"third\"");
+          assertThat(records.get(1)).contains("\"body\":\"second\"");
+        });
+    assertThat(reader.findRecent(null, null, null, null, 1)).hasSize(1)
+        .allSatisfy(record -> assertThat(record).contains("\"body\":\"fourth\""));
+    sink.destroy();
+  }
+
+  @Test
+  void testAppend_SegmentFull_SegmentRolledAndOldSegmentsDeleted() throws IOException {
+    HttpCommunicationLogFileSink sink = createSink(1, 2);
+    HttpCommunicationLogFileReader reader = new HttpCommunicationLogFileReader(sink);
+
+    for (int index = 0; index < 3; index++) {
+      sink.append(List.of(createRecord("echo", "a.edu", DATE_TIME, "r" + index)));
+    }
+    sink.destroy();
+
+    List<Path> segmentPaths = HttpCommunicationLogFileSink.listSegments(directory);
+    assertThat(segmentPaths).hasSize(2);
+    assertThat(reader.findRecent(null, null, null, null, 10)).hasSize(2);
+    try (InputStream inputStream = new GZIPInputStream(
+        Files.newInputStream(segmentPaths.get(1)))) {
+      String content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+      assertThat(content).endsWith("\n").contains("\"body\":\"r2\"");
+    }
+  }
+
+  @Test
+  void testFindRecent_PartiallyWrittenIndexLine_LineIgnored() throws IOException {
+    HttpCommunicationLogFileSink sink = createSink(67108864, 0);
+    HttpCommunicationLogFileReader reader = new HttpCommunicationLogFileReader(sink);
+    sink.append(List.of(createRecord("echo", "a.edu", DATE_TIME, "first")));
+    sink.destroy();
+
+    Path indexPath = HttpCommunicationLogFileSink.getIndexPathOf(
+        HttpCommunicationLogFileSink.listSegments(directory).get(0));
+    Files.writeString(indexPath, "1615377600000\techo\t99999\t10\ta.edu\n1615377600000\tec",
+        StandardOpenOption.APPEND);
+
+    assertThat(reader.findRecent(null, null, null, null, 10)).hasSize(1);
+  }
+
+  @Test
+  void testAppend_BatchFailingAfterIndexBufferFilled_IndexPointsOnlyToWrittenRecords()
+      throws IOException {
+    HttpCommunicationLogFileSink sink = createSink(67108864, 0);
+    // NOTE: long HEI IDs fill the buffer of the index long before the one of the segment
+    String heiId = "a".repeat(500) + ".edu";
+    List<HttpCommunicationLogRecord> records = new ArrayList<>();
+    for (int index = 0; index < 100; index++) {
+      records.add(createRecord("echo", heiId, DATE_TIME, "r" + index));
+    }
+    // NOTE: a record without request fails to be serialized, stopping the batch
+    records.add(new HttpCommunicationLogRecord(Direction.TO_EWP_NODE, "echo", List.of("a.edu"),
+        EwpAuthenticationMethod.HTTP_SIGNATURE, null, null, null, DATE_TIME, DATE_TIME, ""));
+
+    assertThatThrownBy(() -> sink.append(records)).isInstanceOf(NullPointerException.class);
+
+    Path segmentPath = HttpCommunicationLogFileSink.listSegments(directory).get(0);
+    long segmentSize = Files.size(segmentPath);
+    assertThat(Files.readAllLines(HttpCommunicationLogFileSink.getIndexPathOf(segmentPath)))
+        .map(HttpCommunicationLogIndexEntry::parse)
+        .filteredOn(Objects::nonNull)
+        .allSatisfy(indexEntry -> assertThat(indexEntry.getOffset() + indexEntry.getLength())
+            .isLessThanOrEqualTo(segmentSize));
+    sink.destroy();
+  }
+
+  private HttpCommunicationLogFileSink createSink(long maxSegmentSizeInBytes, int maxSegments) {
+    HttpCommunicationLogProperties properties = new HttpCommunicationLogProperties();
+    properties.getFileSink().setEnabled(true);
+    properties.getFileSink().setDirectory(directory.toString());
+    properties.getFileSink().setMaxSegmentSizeInBytes(maxSegmentSizeInBytes);
+    properties.getFileSink().setMaxSegments(maxSegments);
+    return new HttpCommunicationLogFileSink(properties);
+  }
+
+  private static HttpCommunicationLogRecord createRecord(String api, String heiId,
+      ZonedDateTime dateTime, String body) {
+    HttpRequestLog requestLog = HttpRequestLog.create(HttpMethod.POST, "https://example.com",
+        List.of(HttpHeader.create("Accept", "*/*")), "request");
+    HttpResponseLog responseLog = HttpResponseLog.create(200,
+        List.of(HttpHeader.create("Content-Type", "text/xml")), body);
+    return new HttpCommunicationLogRecord(Direction.TO_EWP_NODE, api, List.of(heiId),
+        EwpAuthenticationMethod.HTTP_SIGNATURE, null, requestLog, responseLog, dateTime, dateTime,
+        "");
+  }
+}
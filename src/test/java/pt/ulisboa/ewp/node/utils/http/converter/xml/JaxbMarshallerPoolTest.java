@@ -0,0 +1,63 @@
+package pt.ulisboa.ewp.node.utils.http.converter.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import eu.erasmuswithoutpaper.api.architecture.v1.ErrorResponseV1;
+import eu.erasmuswithoutpaper.api.architecture.v1.StringWithOptionalLangV1;
+import java.io.StringWriter;
+import javax.xml.transform.stream.StreamResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.oxm.MarshallingFailureException;
+import pt.ulisboa.ewp.node.api.ewp.utils.EwpApiUtils;
+
+class JaxbMarshallerPoolTest {
+
+  @Test
+  void testMarshal_SequentialObjects_SingleMarshallerReused() {
+    JaxbMarshallerPool marshallerPool = JaxbMarshallerPool.create(
+        JaxbContextCache.getForClass(ErrorResponseV1.class), null);
+
+    String firstXml = marshal(marshallerPool,
+        EwpApiUtils.createErrorResponseWithDeveloperMessage("first"));
+    String secondXml = marshal(marshallerPool,
+        EwpApiUtils.createErrorResponseWithDeveloperMessage("second"));
+
+    assertThat(firstXml).contains("first");
+    assertThat(secondXml).contains("second");
+    assertThat(marshallerPool.getNumberOfIdleMarshallers()).isEqualTo(1);
+  }
+
+  @Test
+  void testMarshal_ObjectUnknownToContext_ThrowsAndMarshallerDiscarded() {
+    JaxbMarshallerPool marshallerPool = JaxbMarshallerPool.create(
+        JaxbContextCache.getForClass(ErrorResponseV1.class), null);
+
+    assertThatThrownBy(() -> marshal(marshallerPool, new StringWithOptionalLangV1()))
+        .isInstanceOf(MarshallingFailureException.class);
+    assertThat(marshallerPool.getNumberOfIdleMarshallers()).isZero();
+  }
+
+  @Test
+  void testMarshal_FormattedOutputDisabled_XmlNotIndented() {
+    JaxbMarshallerPool marshallerPool = JaxbMarshallerPool.create(
+        JaxbContextCache.getForClass(ErrorResponseV1.class), null, false);
+
+    String xml = marshal(marshallerPool,
+        EwpApiUtils.createErrorResponseWithDeveloperMessage("message"));
+
+    assertThat(xml).contains("message").doesNotContain("\n");
+  }
+
+  @Test
+  void testGetForClass_SameClassTwice_SameContextReturned() {
+    assertThat(JaxbContextCache.getForClass(ErrorResponseV1.class))
+        .isSameAs(JaxbContextCache.getForClass(ErrorResponseV1.class));
+  }
+
+  private static String marshal(JaxbMarshallerPool marshallerPool, Object object) {
+    StringWriter stringWriter = new StringWriter();
+    marshallerPool.marshal(object, new StreamResult(stringWriter));
+    return stringWriter.toString();
+  }
+}